@@ -7,27 +7,200 @@ CREATE TABLE IF NOT EXISTS agendamentos (
     pet_id BIGINT NOT NULL,
     servico_id BIGINT NOT NULL,
     prestador_id BIGINT NOT NULL,
+    tutor_id BIGINT NULL,
+    serie_id BIGINT NULL,
     data DATE NOT NULL,
     hora_inicio TIME NOT NULL,
     hora_fim TIME NOT NULL,
     status VARCHAR(20) NOT NULL DEFAULT 'AGENDADO',
+    slot_ativo BOOLEAN NULL DEFAULT TRUE,
+    inventario BOOLEAN NOT NULL DEFAULT FALSE,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     
     -- Índices para performance
     INDEX idx_agendamento_prestador_data_hora (prestador_id, data, hora_inicio),
-    INDEX idx_agendamento_pet (pet_id),
+    INDEX idx_agendamento_pet (pet_id, data, hora_inicio),
+    INDEX idx_agendamento_tutor_data_hora (tutor_id, data, hora_inicio),
     INDEX idx_agendamento_servico (servico_id),
     INDEX idx_agendamento_data (data),
-    INDEX idx_agendamento_status (status),
+    INDEX idx_agendamento_status_data (status, data),
+    INDEX idx_agendamento_serie (serie_id, data),
     
     -- Constraints de integridade referencial
     FOREIGN KEY (pet_id) REFERENCES pets(id) ON DELETE CASCADE,
     FOREIGN KEY (servico_id) REFERENCES services(id) ON DELETE CASCADE,
     FOREIGN KEY (prestador_id) REFERENCES users(id) ON DELETE CASCADE,
     
-    -- Constraint único para evitar conflitos de horário
-    UNIQUE KEY uk_prestador_data_hora (prestador_id, data, hora_inicio)
+    -- Constraint único para evitar conflitos de horário.
+    -- slot_ativo fica NULL em agendamentos cancelados, liberando o slot para nova reserva.
+    UNIQUE KEY uk_prestador_data_hora (prestador_id, data, hora_inicio, slot_ativo)
+);
+
+-- Uma linha por prestador/dia com reservas: a reserva bloqueia a linha antes do insert em agendamentos,
+-- serializando as reservas do mesmo prestador/dia. inventario = TRUE marca os dias já reservados pelo
+-- inventário de vagas (slots_inventario). Linhas de dias encerrados são removidas diariamente.
+CREATE TABLE IF NOT EXISTS bloqueios_agenda (
+    prestador_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    inventario BOOLEAN NOT NULL DEFAULT FALSE,
+
+    PRIMARY KEY (prestador_id, data)
+);
+
+-- Tabela de arquivo: agendamentos encerrados (CONCLUIDO/CANCELADO) mais antigos que o horizonte,
+-- movidos em lotes pelo ArquivamentoService. Mantém o id original; sem FKs nem unique key.
+CREATE TABLE IF NOT EXISTS agendamentos_arquivo (
+    id BIGINT PRIMARY KEY,
+    pet_id BIGINT NOT NULL,
+    servico_id BIGINT NOT NULL,
+    prestador_id BIGINT NOT NULL,
+    tutor_id BIGINT NULL,
+    serie_id BIGINT NULL,
+    data DATE NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fim TIME NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    arquivado_em TIMESTAMP NOT NULL,
+
+    INDEX idx_arquivo_pet (pet_id, data, hora_inicio),
+    INDEX idx_arquivo_tutor_data_hora (tutor_id, data, hora_inicio)
+);
+
+-- Consolidado diário de ocupação por prestador, mantido incrementalmente pelo OcupacaoDiariaService
+-- (upserts em lote). Pode ser refeito com POST /agendamentos/ocupacao/reconstruir.
+CREATE TABLE IF NOT EXISTS ocupacao_diaria (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    prestador_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    agendados BIGINT NOT NULL DEFAULT 0,
+    cancelados BIGINT NOT NULL DEFAULT 0,
+    concluidos BIGINT NOT NULL DEFAULT 0,
+    atualizado_em TIMESTAMP NOT NULL,
+
+    UNIQUE KEY uk_ocupacao_prestador_data (prestador_id, data)
+);
+
+-- Chaves de idempotência da criação de agendamentos (cabeçalho Idempotency-Key).
+-- Guarda a resposta original; as expiradas são removidas em lotes pelo IdempotenciaService.
+CREATE TABLE IF NOT EXISTS agendamento_idempotencia (
+    chave VARCHAR(100) PRIMARY KEY,
+    agendamento_id BIGINT NOT NULL,
+    pet_id BIGINT NOT NULL,
+    servico_id BIGINT NOT NULL,
+    prestador_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fim TIME NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expira_em TIMESTAMP NOT NULL,
+
+    INDEX idx_idempotencia_expira_em (expira_em)
+);
+
+-- Lista de espera por cancelamentos
+CREATE TABLE IF NOT EXISTS lista_espera (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    pet_id BIGINT NOT NULL,
+    tutor_id BIGINT NOT NULL,
+    servico_id BIGINT NOT NULL,
+    prestador_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    janela_inicio TIME NOT NULL,
+    janela_fim TIME NOT NULL,
+    horas_aceitas INT NOT NULL,
+    reserva_automatica BOOLEAN NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    agendamento_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    INDEX idx_espera_status_id (status, id),
+    INDEX idx_espera_pet (pet_id)
+);
+
+-- Séries recorrentes (semanais). As ocorrências viram agendamentos só dentro do horizonte,
+-- pelo SerieRecorrenteService; além dele são expandidas em memória a partir da regra.
+CREATE TABLE IF NOT EXISTS series_recorrentes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    pet_id BIGINT NOT NULL,
+    tutor_id BIGINT NOT NULL,
+    servico_id BIGINT NOT NULL,
+    prestador_id BIGINT NOT NULL,
+    data_inicio DATE NOT NULL,
+    data_fim DATE NOT NULL,
+    hora_inicio TIME NOT NULL,
+    hora_fim TIME NOT NULL,
+    intervalo_semanas INT NOT NULL,
+    ocorrencias INT NOT NULL,
+    materializada_ate DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+
+    INDEX idx_serie_status_id (status, id),
+    INDEX idx_serie_pet (pet_id)
+);
+
+-- Datas puladas de cada série (conflitos na criação ou na materialização)
+CREATE TABLE IF NOT EXISTS series_recorrentes_puladas (
+    serie_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+
+    PRIMARY KEY (serie_id, data),
+    FOREIGN KEY (serie_id) REFERENCES series_recorrentes(id) ON DELETE CASCADE
+);
+
+-- Datas fechadas (feriados e folgas); prestador_id nulo = fechamento global
+CREATE TABLE IF NOT EXISTS datas_fechadas (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    prestador_id BIGINT NULL,
+    data DATE NOT NULL,
+    motivo VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+
+    UNIQUE KEY uk_data_fechada_prestador (prestador_id, data),
+    INDEX idx_data_fechada_data (data)
+);
+
+-- Capacidade de atendimentos simultâneos por prestador (ex.: três tosadores no mesmo cadastro)
+CREATE TABLE IF NOT EXISTS capacidades_prestador (
+    prestador_id BIGINT PRIMARY KEY,
+    capacidade INT NOT NULL,
+    inventario_ate DATE NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Inventário de vagas por hora dos prestadores com capacidade, gerado em lotes pelo InventarioSlotsService.
+-- A reserva é um UPDATE condicional (reservados < capacidade) em vez da uk_prestador_data_hora.
+CREATE TABLE IF NOT EXISTS slots_inventario (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    prestador_id BIGINT NOT NULL,
+    data DATE NOT NULL,
+    hora TIME NOT NULL,
+    capacidade INT NOT NULL,
+    reservados INT NOT NULL DEFAULT 0,
+
+    UNIQUE KEY uk_slot_inventario (prestador_id, data, hora),
+    INDEX idx_slot_inventario_data (data)
+);
+
+-- Jornada semanal por prestador; ativo = false marca folga no dia (linhas nunca são removidas)
+CREATE TABLE IF NOT EXISTS horarios_prestador (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    prestador_id BIGINT NOT NULL,
+    dia_semana VARCHAR(20) NOT NULL,
+    hora_abertura TIME NULL,
+    hora_fechamento TIME NULL,
+    intervalo_inicio TIME NULL,
+    intervalo_fim TIME NULL,
+    ativo BOOLEAN NOT NULL DEFAULT TRUE,
+    versao BIGINT NOT NULL DEFAULT 0,
+
+    UNIQUE KEY uk_horario_prestador_dia (prestador_id, dia_semana)
 );
 
 -- Tabela de configuração de horário
@@ -37,6 +210,7 @@ CREATE TABLE IF NOT EXISTS configuracoes_horario (
     hora_abertura TIME NOT NULL,
     hora_fechamento TIME NOT NULL,
     ativo BOOLEAN NOT NULL DEFAULT TRUE,
+    versao BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     
@@ -57,6 +231,7 @@ ON DUPLICATE KEY UPDATE
     hora_abertura = VALUES(hora_abertura),
     hora_fechamento = VALUES(hora_fechamento),
     ativo = VALUES(ativo),
+    versao = versao + 1,
     updated_at = CURRENT_TIMESTAMP;
 
 -- Comentários das tabelas
@@ -67,7 +242,57 @@ ALTER TABLE configuracoes_horario COMMENT = 'Configurações de horário comerci
 ALTER TABLE agendamentos 
     MODIFY COLUMN status VARCHAR(20) COMMENT 'Status: AGENDADO, CONFIRMADO, EM_ANDAMENTO, CONCLUIDO, CANCELADO',
     MODIFY COLUMN hora_inicio TIME COMMENT 'Horário de início (deve ser hora cheia)',
-    MODIFY COLUMN hora_fim TIME COMMENT 'Horário de fim (calculado automaticamente: hora_inicio + 1h)';
+    MODIFY COLUMN hora_fim TIME COMMENT 'Horário de fim (calculado automaticamente: hora_inicio + duração do serviço)',
+    MODIFY COLUMN slot_ativo BOOLEAN NULL COMMENT 'TRUE enquanto ocupa o slot; NULL quando CANCELADO',
+    MODIFY COLUMN tutor_id BIGINT NULL COMMENT 'Tutor do pet no momento da reserva (desnormalizado de pets.usuario_id)';
+
+-- Migração de bases criadas antes da coluna slot_ativo (executar uma única vez):
+-- ALTER TABLE agendamentos ADD COLUMN slot_ativo BOOLEAN NULL DEFAULT TRUE;
+-- UPDATE agendamentos SET slot_ativo = NULL WHERE status = 'CANCELADO';
+-- ALTER TABLE agendamentos DROP INDEX uk_prestador_data_hora,
+--     ADD UNIQUE KEY uk_prestador_data_hora (prestador_id, data, hora_inicio, slot_ativo);
+
+-- Migração da coluna de versão do horário comercial (executar uma única vez):
+-- ALTER TABLE configuracoes_horario ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+
+-- Migração do índice de histórico por pet (paginação por data, hora_inicio, id; executar uma única vez):
+-- ALTER TABLE agendamentos DROP INDEX idx_agendamento_pet,
+--     ADD INDEX idx_agendamento_pet (pet_id, data, hora_inicio);
+
+-- Migração da coluna tutor_id (executar uma única vez; o preenchimento é feito pelo TutorBackfillService):
+-- ALTER TABLE agendamentos ADD COLUMN tutor_id BIGINT NULL AFTER prestador_id,
+--     ADD INDEX idx_agendamento_tutor_data_hora (tutor_id, data, hora_inicio);
+
+-- Migração da duração dos serviços (executar uma única vez; serviços existentes ficam com 1h):
+-- ALTER TABLE services ADD COLUMN duracao_minutos INT NOT NULL DEFAULT 60;
+
+-- Migração do índice de status usado pelo motor de transição (executar uma única vez):
+-- ALTER TABLE agendamentos DROP INDEX idx_agendamento_status,
+--     ADD INDEX idx_agendamento_status_data (status, data);
+
+-- Migração da coluna serie_id (executar uma única vez):
+-- ALTER TABLE agendamentos ADD COLUMN serie_id BIGINT NULL AFTER tutor_id,
+--     ADD INDEX idx_agendamento_serie (serie_id, data);
+-- ALTER TABLE agendamentos_arquivo ADD COLUMN serie_id BIGINT NULL AFTER tutor_id;
+
+-- Migração da coluna inventario (executar uma única vez):
+-- ALTER TABLE agendamentos ADD COLUMN inventario BOOLEAN NOT NULL DEFAULT FALSE AFTER slot_ativo;
+
+-- Particionamento mensal de agendamentos por data (opcional, MySQL 8; executar uma única vez).
+-- Restrições do MySQL para tabelas particionadas:
+--   * toda chave única precisa conter a coluna data (a PK passa a ser (id, data));
+--   * InnoDB não suporta foreign keys em tabelas particionadas: as FKs para pets, services e users
+--     são removidas e a remoção em cascata deixa de ser feita pelo banco.
+-- Depois de aplicado, habilite agendamento.particionamento.habilitado=true para que o
+-- ParticionamentoService crie as partições dos meses seguintes a partir de p_futuro.
+-- ALTER TABLE agendamentos DROP FOREIGN KEY <fk_pet>, DROP FOREIGN KEY <fk_servico>, DROP FOREIGN KEY <fk_prestador>;
+-- ALTER TABLE agendamentos DROP PRIMARY KEY, ADD PRIMARY KEY (id, data);
+-- ALTER TABLE agendamentos PARTITION BY RANGE COLUMNS (data) (
+--     PARTITION p_antigo VALUES LESS THAN ('2025-01-01'),
+--     PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+--     -- ... uma partição por mês até o mês atual ...
+--     PARTITION p_futuro VALUES LESS THAN (MAXVALUE)
+-- );
 
 -- Verificar se as tabelas foram criadas corretamente
 SELECT 
@@ -76,7 +301,7 @@ SELECT
     CREATE_TIME
 FROM information_schema.TABLES 
 WHERE TABLE_SCHEMA = DATABASE() 
-AND TABLE_NAME IN ('agendamentos', 'configuracoes_horario');
+AND TABLE_NAME IN ('agendamentos', 'agendamentos_arquivo', 'ocupacao_diaria', 'configuracoes_horario');
 
 -- Verificar configurações de horário
 SELECT 
@@ -1,11 +1,15 @@
 package com.juliherms.agendamento.pets.agendamento.api;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
+import java.util.List;
 
 public interface AgendamentoApi {
 
@@ -35,6 +39,69 @@ public interface AgendamentoApi {
             ZonedDateTime createdAt
     ) {}
 
+    /**
+     * Página do histórico de agendamentos.
+     * proximoCursor é opaco e nulo na última página.
+     */
+    record PaginaAgendamentosResponse(
+            List<AgendamentoResponse> itens,
+            String proximoCursor
+    ) {}
+
+    /**
+     * Reserva temporária de um horário durante o checkout; vale até {@code expiraEm}
+     */
+    record ReservaTemporariaResponse(
+            String id,
+            Long petId,
+            Long servicoId,
+            Long prestadorId,
+            LocalDate data,
+            LocalTime horaInicio,
+            LocalTime horaFim,
+            ZonedDateTime expiraEm
+    ) {}
+
+    /**
+     * Mapa de calor de disponibilidade de um prestador: {@code livres[i]} é a quantidade de
+     * horários de 1 hora livres em {@code dataInicio + i} (serializado em Base64)
+     */
+    record MapaCalorResponse(
+            Long prestadorId,
+            LocalDate dataInicio,
+            byte[] livres
+    ) {}
+
+    /**
+     * Horários livres de um prestador em uma data
+     */
+    record HorariosLivresResponse(
+            Long prestadorId,
+            LocalDate data,
+            List<LocalTime> horarios
+    ) {}
+
+    /**
+     * Horário livre encontrado na busca dos próximos horários
+     */
+    record ProximoHorarioResponse(
+            Long prestadorId,
+            LocalDate data,
+            LocalTime horario
+    ) {}
+
+    /**
+     * Alteração de disponibilidade enviada pelo fluxo SSE: horário ocupado ({@code livre = false})
+     * ou liberado por cancelamento ({@code livre = true})
+     */
+    record AlteracaoDisponibilidadeResponse(
+            Long prestadorId,
+            LocalDate data,
+            LocalTime horaInicio,
+            LocalTime horaFim,
+            boolean livre
+    ) {}
+
     /**
      * Status do agendamento
      */
@@ -47,7 +114,7 @@ public interface AgendamentoApi {
     }
 
     /**
-     * Evento publicado quando um agendamento é criado
+     * Evento publicado quando um agendamento é criado. ocorridoEm é o updated_at gravado na linha.
      */
     record AgendamentoCriadoEvent(
             Long agendamentoId,
@@ -56,7 +123,185 @@ public interface AgendamentoApi {
             Long prestadorId,
             LocalDate data,
             LocalTime horaInicio,
-            LocalTime horaFim
+            LocalTime horaFim,
+            ZonedDateTime ocorridoEm
+    ) {}
+
+    /**
+     * Evento publicado quando o status de um agendamento é alterado. ocorridoEm é o updated_at gravado na linha.
+     */
+    record AgendamentoStatusAlteradoEvent(
+            Long agendamentoId,
+            Long prestadorId,
+            LocalDate data,
+            LocalTime horaInicio,
+            LocalTime horaFim,
+            Status statusAnterior,
+            Status novoStatus,
+            ZonedDateTime ocorridoEm
+    ) {}
+
+    /**
+     * Evento publicado uma vez por lote do motor de transição de status,
+     * agrupando todos os agendamentos que avançaram para o mesmo status
+     */
+    record AgendamentosStatusAlteradosEvent(
+            List<Long> agendamentoIds,
+            Status novoStatus,
+            ZonedDateTime ocorridoEm
     ) {}
-}
 
+    /**
+     * Request para entrar na lista de espera de um prestador em uma data e janela de horário
+     */
+    record CreateInteresseEsperaRequest(
+            @NotNull @Positive Long petId,
+            @NotNull @Positive Long servicoId,
+            @NotNull @Positive Long prestadorId,
+            @NotNull LocalDate data,
+            @NotNull LocalTime janelaInicio,
+            @NotNull LocalTime janelaFim,
+            boolean reservaAutomatica
+    ) {}
+
+    /**
+     * Response com dados de uma entrada da lista de espera
+     */
+    record InteresseEsperaResponse(
+            Long id,
+            Long petId,
+            Long servicoId,
+            Long prestadorId,
+            LocalDate data,
+            LocalTime janelaInicio,
+            LocalTime janelaFim,
+            boolean reservaAutomatica,
+            StatusEspera status,
+            Long agendamentoId
+    ) {}
+
+    /**
+     * Status de uma entrada da lista de espera
+     */
+    enum StatusEspera {
+        AGUARDANDO,
+        NOTIFICADO,
+        ATENDIDO,
+        CANCELADO,
+        EXPIRADO
+    }
+
+    /**
+     * Request para criar uma série semanal de agendamentos (mesmo dia da semana e horário de dataInicio),
+     * a cada intervaloSemanas (padrão 1). Com pularConflitos, as datas já ocupadas ficam fora da série
+     * em vez de recusá-la.
+     */
+    record CreateSerieRecorrenteRequest(
+            @NotNull @Positive Long petId,
+            @NotNull @Positive Long servicoId,
+            @NotNull @Positive Long prestadorId,
+            @NotNull LocalDate dataInicio,
+            @NotNull LocalTime horaInicio,
+            @Positive @Max(4) Integer intervaloSemanas,
+            @NotNull @Positive @Max(52) Integer ocorrencias,
+            boolean pularConflitos
+    ) {}
+
+    /**
+     * Response com dados de uma série recorrente; as ocorrências até materializadaAte já são agendamentos
+     */
+    record SerieRecorrenteResponse(
+            Long id,
+            Long petId,
+            Long servicoId,
+            Long prestadorId,
+            LocalDate dataInicio,
+            LocalDate dataFim,
+            LocalTime horaInicio,
+            LocalTime horaFim,
+            int intervaloSemanas,
+            int ocorrencias,
+            List<LocalDate> datasPuladas,
+            LocalDate materializadaAte,
+            StatusSerie status
+    ) {}
+
+    /**
+     * Ocorrência de uma série em uma janela; agendamentoId é nulo enquanto não materializada
+     */
+    record OcorrenciaSerieResponse(
+            Long serieId,
+            LocalDate data,
+            LocalTime horaInicio,
+            LocalTime horaFim,
+            Long agendamentoId,
+            Status status
+    ) {}
+
+    /**
+     * Status de uma série recorrente
+     */
+    enum StatusSerie {
+        ATIVA,
+        CANCELADA
+    }
+
+    /**
+     * Jornada de um prestador em um dia da semana (horários em múltiplos de 30 minutos)
+     */
+    record JornadaDiaRequest(
+            @NotNull DayOfWeek diaSemana,
+            @NotNull LocalTime horaAbertura,
+            @NotNull LocalTime horaFechamento,
+            LocalTime intervaloInicio,
+            LocalTime intervaloFim
+    ) {}
+
+    /**
+     * Capacidade de atendimentos simultâneos de um prestador (ex.: número de tosadores)
+     */
+    record CapacidadePrestadorRequest(
+            @NotNull @Positive @Max(50) Integer capacidade
+    ) {}
+
+    /**
+     * Capacidade do prestador e último dia com vagas no inventário (nulo sem capacidade configurada)
+     */
+    record CapacidadePrestadorResponse(
+            Long prestadorId,
+            int capacidade,
+            LocalDate inventarioAte
+    ) {}
+
+    /**
+     * DTO para fechar uma data; sem prestadorId o fechamento vale para todo o estabelecimento
+     */
+    record CreateDataFechadaRequest(
+            @NotNull LocalDate data,
+            @Positive Long prestadorId,
+            @Size(max = 255) String motivo
+    ) {}
+
+    /**
+     * Data fechada para agendamentos (prestadorId nulo = fechamento global)
+     */
+    record DataFechadaResponse(
+            Long id,
+            Long prestadorId,
+            LocalDate data,
+            String motivo
+    ) {}
+
+    /**
+     * Evento publicado quando um cancelamento libera um horário para uma entrada
+     * da lista de espera sem reserva automática (o tutor deve ser avisado)
+     */
+    record VagaListaEsperaEvent(
+            Long interesseId,
+            Long petId,
+            Long servicoId,
+            Long prestadorId,
+            LocalDate data,
+            LocalTime horaInicio
+    ) {}
+}
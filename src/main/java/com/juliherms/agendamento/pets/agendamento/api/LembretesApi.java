@@ -0,0 +1,60 @@
+package com.juliherms.agendamento.pets.agendamento.api;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leituras usadas pelos lembretes e avisos do módulo de notificações: agendamentos ativos
+ * e contatos dos tutores, sem expor as tabelas de agendamentos, pets e usuários.
+ */
+public interface LembretesApi {
+
+    /**
+     * Percorre os agendamentos ativos (AGENDADO/CONFIRMADO) com data no intervalo, sem montar lista.
+     */
+    void paraCadaAtivo(LocalDate dataInicio, LocalDate dataFim, Visitante visitante);
+
+    /**
+     * Destinatários dos lembretes de um lote, em uma única consulta.
+     * Agendamentos que deixaram de estar ativos (cancelados, concluídos) não retornam.
+     */
+    List<LembreteDestino> findDestinos(Collection<Long> agendamentoIds);
+
+    /**
+     * Contato do tutor de um pet.
+     */
+    Optional<ContatoPet> findContato(Long petId);
+
+    @FunctionalInterface
+    interface Visitante {
+        void visitar(long agendamentoId, LocalDate data, LocalTime horaInicio);
+    }
+
+    /**
+     * Dados necessários para enviar o lembrete de um agendamento: horário, pet e contatos do tutor.
+     */
+    record LembreteDestino(
+            Long agendamentoId,
+            LocalDate data,
+            LocalTime horaInicio,
+            String nomePet,
+            String email,
+            String telefone,
+            boolean emailVerificado,
+            boolean telefoneVerificado
+    ) {}
+
+    /**
+     * Contato do tutor de um pet, para avisos fora de um agendamento (ex.: vaga da lista de espera).
+     */
+    record ContatoPet(
+            String nomePet,
+            String email,
+            String telefone,
+            boolean emailVerificado,
+            boolean telefoneVerificado
+    ) {}
+}
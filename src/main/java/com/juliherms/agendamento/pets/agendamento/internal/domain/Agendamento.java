@@ -10,17 +10,30 @@ import java.time.ZonedDateTime;
 
 /**
  * Entidade que representa um agendamento de serviço para pet.
- * Cada agendamento ocupa um slot de 1 hora a partir do horário de início.
+ * Cada agendamento ocupa o intervalo [horaInicio, horaFim), com o fim definido pela duração do serviço
+ * (sempre informado por quem cria o agendamento).
+ * A unique key uk_prestador_data_hora garante um único agendamento ativo por slot,
+ * exceto para prestadores com capacidade, cujas vagas são controladas pelo inventário.
  */
 @Entity
 @Table(name = "agendamentos", 
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_prestador_data_hora",
+                  columnNames = {"prestador_id", "data", "hora_inicio", "slot_ativo"})
+       },
        indexes = {
            @Index(name = "idx_agendamento_prestador_data_hora", 
                   columnList = "prestadorId, data, horaInicio"),
            @Index(name = "idx_agendamento_pet", 
-                  columnList = "petId"),
+                  columnList = "petId, data, horaInicio"),
+           @Index(name = "idx_agendamento_tutor_data_hora", 
+                  columnList = "tutorId, data, horaInicio"),
            @Index(name = "idx_agendamento_servico", 
-                  columnList = "servicoId")
+                  columnList = "servicoId"),
+           @Index(name = "idx_agendamento_status_data", 
+                  columnList = "status, data"),
+           @Index(name = "idx_agendamento_serie",
+                  columnList = "serieId, data")
        })
 public class Agendamento {
 
@@ -37,6 +50,15 @@ public class Agendamento {
     @Column(name = "prestador_id", nullable = false)
     private Long prestadorId;
 
+    // Tutor do pet no momento da reserva (desnormalizado para o histórico sem JOIN em pets).
+    // Nulo apenas em linhas antigas ainda não preenchidas pelo backfill.
+    @Column(name = "tutor_id")
+    private Long tutorId;
+
+    // Série recorrente que gerou o agendamento (nulo em agendamentos avulsos)
+    @Column(name = "serie_id")
+    private Long serieId;
+
     @Column(name = "data", nullable = false)
     private LocalDate data;
 
@@ -50,6 +72,16 @@ public class Agendamento {
     @Column(name = "status", nullable = false)
     private Status status = Status.AGENDADO;
 
+    // TRUE enquanto o agendamento ocupa o slot; NULL quando cancelado.
+    // Como NULLs não colidem em índices únicos, cancelamentos liberam o slot na uk_prestador_data_hora.
+    @Column(name = "slot_ativo")
+    private Boolean slotAtivo = Boolean.TRUE;
+
+    // TRUE quando a vaga foi tomada no inventário (prestador com capacidade): a capacidade é garantida
+    // por slots_inventario e slot_ativo fica sempre NULL, fora da uk_prestador_data_hora.
+    @Column(name = "inventario", nullable = false)
+    private boolean inventario;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private ZonedDateTime createdAt;
 
@@ -62,11 +94,6 @@ public class Agendamento {
         ZonedDateTime now = ZonedDateTime.now(zoneId);
         createdAt = now;
         updatedAt = now;
-        
-        // Calcula hora fim (1 hora após início)
-        if (horaInicio != null) {
-            horaFim = horaInicio.plusHours(1);
-        }
     }
 
     @PreUpdate
@@ -108,6 +135,22 @@ public class Agendamento {
         this.prestadorId = prestadorId;
     }
 
+    public Long getTutorId() {
+        return tutorId;
+    }
+
+    public void setTutorId(Long tutorId) {
+        this.tutorId = tutorId;
+    }
+
+    public Long getSerieId() {
+        return serieId;
+    }
+
+    public void setSerieId(Long serieId) {
+        this.serieId = serieId;
+    }
+
     public LocalDate getData() {
         return data;
     }
@@ -122,9 +165,6 @@ public class Agendamento {
 
     public void setHoraInicio(LocalTime horaInicio) {
         this.horaInicio = horaInicio;
-        if (horaInicio != null) {
-            this.horaFim = horaInicio.plusHours(1);
-        }
     }
 
     public LocalTime getHoraFim() {
@@ -141,6 +181,23 @@ public class Agendamento {
 
     public void setStatus(Status status) {
         this.status = status;
+        this.slotAtivo = status == Status.CANCELADO || inventario ? null : Boolean.TRUE;
+    }
+
+    public Boolean getSlotAtivo() {
+        return slotAtivo;
+    }
+
+    public boolean isInventario() {
+        return inventario;
+    }
+
+    /**
+     * Marca o agendamento como reservado pelo inventário de vagas, liberando-o da unique key.
+     */
+    public void ocuparPeloInventario() {
+        this.inventario = true;
+        this.slotAtivo = null;
     }
 
     public ZonedDateTime getCreatedAt() {
@@ -0,0 +1,119 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Agendamento encerrado (concluído ou cancelado) movido para a tabela de arquivo.
+ * Mantém o id original, para que o histórico possa mesclar as duas tabelas com o
+ * mesmo cursor. Somente leitura: as linhas são gravadas pelo arquivador via SQL.
+ */
+@Entity
+@Immutable
+@Table(name = "agendamentos_arquivo",
+       indexes = {
+           @Index(name = "idx_arquivo_pet",
+                  columnList = "petId, data, horaInicio"),
+           @Index(name = "idx_arquivo_tutor_data_hora",
+                  columnList = "tutorId, data, horaInicio")
+       })
+public class AgendamentoArquivado {
+
+    @Id
+    private Long id;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "servico_id", nullable = false)
+    private Long servicoId;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Column(name = "tutor_id")
+    private Long tutorId;
+
+    @Column(name = "serie_id")
+    private Long serieId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fim", nullable = false)
+    private LocalTime horaFim;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @Column(name = "arquivado_em", nullable = false)
+    private ZonedDateTime arquivadoEm;
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPetId() {
+        return petId;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public Long getTutorId() {
+        return tutorId;
+    }
+
+    public Long getSerieId() {
+        return serieId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public LocalTime getHoraInicio() {
+        return horaInicio;
+    }
+
+    public LocalTime getHoraFim() {
+        return horaFim;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public ZonedDateTime getArquivadoEm() {
+        return arquivadoEm;
+    }
+}
@@ -0,0 +1,68 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Linha de bloqueio de um prestador em um dia. A reserva bloqueia a linha
+ * (INSERT ... ON DUPLICATE KEY UPDATE) antes do insert em agendamentos, então reservas do mesmo
+ * prestador/dia passam uma de cada vez. {@code inventario} indica que o dia já é reservado pelo
+ * inventário de vagas. Gravada e removida só por SQL no BloqueioAgendaService.
+ */
+@Entity
+@Table(name = "bloqueios_agenda")
+@IdClass(BloqueioAgenda.Chave.class)
+public class BloqueioAgenda {
+
+    @Id
+    @Column(name = "prestador_id")
+    private Long prestadorId;
+
+    @Id
+    @Column(name = "data")
+    private LocalDate data;
+
+    @Column(name = "inventario", nullable = false)
+    private boolean inventario;
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public boolean isInventario() {
+        return inventario;
+    }
+
+    public static class Chave implements Serializable {
+
+        private Long prestadorId;
+        private LocalDate data;
+
+        public Chave() {
+        }
+
+        public Chave(Long prestadorId, LocalDate data) {
+            this.prestadorId = prestadorId;
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Chave outra
+                    && Objects.equals(prestadorId, outra.prestadorId)
+                    && Objects.equals(data, outra.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(prestadorId, data);
+        }
+    }
+}
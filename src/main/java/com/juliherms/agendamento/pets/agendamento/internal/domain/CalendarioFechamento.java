@@ -0,0 +1,104 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot imutável das datas fechadas, em bitsets indexados por epoch-day a partir de {@code base}
+ * (bit N = dia base + N fechado): um global e um por prestador com fechamentos próprios.
+ * A consulta de uma data é O(1). Alterações geram um novo snapshot (cópia dos bitsets afetados),
+ * trocado atomicamente como o {@link HorarioComercial}; {@code versao} muda só quando o conteúdo muda.
+ * Datas anteriores à base são tratadas como abertas (o passado já é barrado por validarHorario).
+ */
+public final class CalendarioFechamento {
+
+    public static final CalendarioFechamento VAZIO = new CalendarioFechamento(0, 0, new BitSet(), Map.of());
+
+    private final long versao;
+    private final long base;
+    private final BitSet globais;
+    private final Map<Long, BitSet> porPrestador;
+
+    private CalendarioFechamento(long versao, long base, BitSet globais, Map<Long, BitSet> porPrestador) {
+        this.versao = versao;
+        this.base = base;
+        this.globais = globais;
+        this.porPrestador = porPrestador;
+    }
+
+    public static CalendarioFechamento of(long versao, LocalDate base, List<DataFechada> datas) {
+        long inicio = base.toEpochDay();
+        BitSet globais = new BitSet();
+        Map<Long, BitSet> porPrestador = new HashMap<>();
+        for (DataFechada data : datas) {
+            long dia = data.getData().toEpochDay() - inicio;
+            if (dia < 0 || dia > Integer.MAX_VALUE) {
+                continue;
+            }
+            BitSet bits = data.getPrestadorId() == null
+                    ? globais
+                    : porPrestador.computeIfAbsent(data.getPrestadorId(), id -> new BitSet());
+            bits.set((int) dia);
+        }
+        return new CalendarioFechamento(versao, inicio, globais, Map.copyOf(porPrestador));
+    }
+
+    public long versao() {
+        return versao;
+    }
+
+    /**
+     * Verifica se o estabelecimento inteiro está fechado na data.
+     */
+    public boolean fechado(LocalDate data) {
+        return testar(globais, data);
+    }
+
+    /**
+     * Verifica se a data está fechada para o prestador (fechamento global ou próprio).
+     */
+    public boolean fechado(Long prestadorId, LocalDate data) {
+        return testar(globais, data) || testar(porPrestador.get(prestadorId), data);
+    }
+
+    /**
+     * Novo snapshot com a data fechada ou reaberta; copia apenas o bitset afetado.
+     */
+    public CalendarioFechamento alterar(Long prestadorId, LocalDate data, boolean fechado, long novaVersao) {
+        long dia = data.toEpochDay() - base;
+        if (dia < 0 || dia > Integer.MAX_VALUE) {
+            return this;
+        }
+        BitSet atual = prestadorId == null ? globais : porPrestador.get(prestadorId);
+        BitSet bits = atual == null ? new BitSet() : (BitSet) atual.clone();
+        bits.set((int) dia, fechado);
+        if (prestadorId == null) {
+            return new CalendarioFechamento(novaVersao, base, bits, porPrestador);
+        }
+        Map<Long, BitSet> prestadores = new HashMap<>(porPrestador);
+        if (bits.isEmpty()) {
+            prestadores.remove(prestadorId);
+        } else {
+            prestadores.put(prestadorId, bits);
+        }
+        return new CalendarioFechamento(novaVersao, base, globais, Map.copyOf(prestadores));
+    }
+
+    /**
+     * Compara o conteúdo (base e bitsets), ignorando a versão.
+     */
+    public boolean mesmoConteudo(CalendarioFechamento outro) {
+        return base == outro.base && globais.equals(outro.globais) && porPrestador.equals(outro.porPrestador);
+    }
+
+    private boolean testar(BitSet bits, LocalDate data) {
+        if (bits == null) {
+            return false;
+        }
+        long dia = data.toEpochDay() - base;
+        return dia >= 0 && dia <= Integer.MAX_VALUE && bits.get((int) dia);
+    }
+}
@@ -0,0 +1,65 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Capacidade de atendimentos simultâneos de um prestador. Prestadores com linha aqui
+ * reservam pelo inventário de vagas (slots_inventario) em vez da unique key de agendamentos.
+ */
+@Entity
+@Table(name = "capacidades_prestador")
+public class CapacidadePrestador {
+
+    @Id
+    @Column(name = "prestador_id")
+    private Long prestadorId;
+
+    @Column(name = "capacidade", nullable = false)
+    private int capacidade;
+
+    // Último dia com vagas geradas no inventário (nulo antes da primeira geração)
+    @Column(name = "inventario_ate")
+    private LocalDate inventarioAte;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void preUpdate() {
+        updatedAt = ZonedDateTime.now(ZoneId.of("America/Recife"));
+    }
+
+    // Getters and Setters
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public void setPrestadorId(Long prestadorId) {
+        this.prestadorId = prestadorId;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public LocalDate getInventarioAte() {
+        return inventarioAte;
+    }
+
+    public void setInventarioAte(LocalDate inventarioAte) {
+        this.inventarioAte = inventarioAte;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
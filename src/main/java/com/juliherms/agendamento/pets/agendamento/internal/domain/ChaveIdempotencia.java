@@ -0,0 +1,114 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Resultado de uma criação de agendamento feita com cabeçalho Idempotency-Key.
+ * Guarda os campos da resposta original (que incluem os da requisição), de modo que uma
+ * repetição com a mesma chave é respondida por uma única leitura pela chave primária.
+ * Gravada na mesma transação do agendamento e nunca alterada; expira em {@code expiraEm}.
+ */
+@Entity
+@Table(name = "agendamento_idempotencia",
+       indexes = {
+           @Index(name = "idx_idempotencia_expira_em", columnList = "expiraEm")
+       })
+public class ChaveIdempotencia implements Persistable<String> {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    @Id
+    @Column(name = "chave", length = TAMANHO_MAXIMO)
+    private String chave;
+
+    @Column(name = "agendamento_id", nullable = false)
+    private Long agendamentoId;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "servico_id", nullable = false)
+    private Long servicoId;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fim", nullable = false)
+    private LocalTime horaFim;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "expira_em", nullable = false)
+    private ZonedDateTime expiraEm;
+
+    // Sempre insert: uma chave repetida viola a PK em vez de sobrescrever a resposta original
+    @Transient
+    private boolean novo;
+
+    protected ChaveIdempotencia() {
+    }
+
+    public ChaveIdempotencia(String chave, AgendamentoApi.AgendamentoResponse resposta, ZonedDateTime expiraEm) {
+        this.chave = chave;
+        this.agendamentoId = resposta.id();
+        this.petId = resposta.petId();
+        this.servicoId = resposta.servicoId();
+        this.prestadorId = resposta.prestadorId();
+        this.data = resposta.data();
+        this.horaInicio = resposta.horaInicio();
+        this.horaFim = resposta.horaFim();
+        this.status = resposta.status();
+        this.createdAt = resposta.createdAt();
+        this.expiraEm = expiraEm;
+        this.novo = true;
+    }
+
+    /**
+     * Indica se a requisição é a mesma que gerou a resposta guardada.
+     */
+    public boolean corresponde(AgendamentoApi.CreateAgendamentoRequest request) {
+        return petId.equals(request.petId())
+                && servicoId.equals(request.servicoId())
+                && prestadorId.equals(request.prestadorId())
+                && data.equals(request.data())
+                && horaInicio.equals(request.horaInicio());
+    }
+
+    public AgendamentoApi.AgendamentoResponse toResponse() {
+        return new AgendamentoApi.AgendamentoResponse(agendamentoId, petId, servicoId, prestadorId,
+                data, horaInicio, horaFim, status, createdAt.withZoneSameInstant(ZoneId.of("America/Recife")));
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    public ZonedDateTime getExpiraEm() {
+        return expiraEm;
+    }
+}
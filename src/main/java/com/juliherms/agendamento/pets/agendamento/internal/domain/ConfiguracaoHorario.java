@@ -8,6 +8,8 @@ import java.time.LocalTime;
 /**
  * Configuração de horário comercial do estabelecimento.
  * Define os horários de funcionamento para cada dia da semana.
+ * A coluna versao é incrementada a cada alteração e permite que cada nó
+ * detecte mudanças feitas por outros nós (ver ConfiguracaoHorarioService).
  */
 @Entity
 @Table(name = "configuracoes_horario")
@@ -30,6 +32,10 @@ public class ConfiguracaoHorario {
     @Column(name = "ativo", nullable = false)
     private boolean ativo = true;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private long versao;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private java.time.Instant createdAt;
 
@@ -89,6 +95,10 @@ public class ConfiguracaoHorario {
         this.ativo = ativo;
     }
 
+    public long getVersao() {
+        return versao;
+    }
+
     public java.time.Instant getCreatedAt() {
         return createdAt;
     }
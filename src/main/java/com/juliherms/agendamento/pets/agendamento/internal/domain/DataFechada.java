@@ -0,0 +1,79 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Data sem atendimento (feriado, folga, manutenção).
+ * Sem prestador, fecha o estabelecimento inteiro; com prestador, apenas a agenda dele.
+ */
+@Entity
+@Table(name = "datas_fechadas",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_data_fechada_prestador",
+                             columnNames = {"prestador_id", "data"})
+       },
+       indexes = {
+           @Index(name = "idx_data_fechada_data",
+                  columnList = "data")
+       })
+public class DataFechada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Nulo = fechamento global
+    @Column(name = "prestador_id")
+    private Long prestadorId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "motivo")
+    private String motivo;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private ZonedDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        createdAt = ZonedDateTime.now(ZoneId.of("America/Recife"));
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public void setPrestadorId(Long prestadorId) {
+        this.prestadorId = prestadorId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public void setData(LocalDate data) {
+        this.data = data;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
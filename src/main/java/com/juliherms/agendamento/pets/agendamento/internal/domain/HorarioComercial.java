@@ -0,0 +1,163 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Snapshot imutável do horário comercial, indexado por {@link DayOfWeek#ordinal()}.
+ * Substituído por inteiro (troca atômica de referência) sempre que a configuração muda;
+ * {@code versao} identifica o estado das tabelas configuracoes_horario e horarios_prestador
+ * que o originou.
+ * Cada dia também é codificado em uma máscara de 48 bits (bit N = meia hora [N*30, N*30+30) aberta).
+ * Prestadores com jornada própria ficam em dois arrays paralelos: ids ordenados e 7 máscaras por id
+ * (64 bytes por prestador, sem objetos por entrada); os demais seguem a máscara global.
+ */
+public final class HorarioComercial {
+
+    public static final int MEIAS_HORAS = 48;
+
+    private final long versao;
+    private final LocalTime[] abertura = new LocalTime[7];
+    private final LocalTime[] fechamento = new LocalTime[7];
+    // Bit N = início às N:00 permitido (abertura <= N:00 < fechamento)
+    private final int[] mascara = new int[7];
+    private final long[] meiasHoras = new long[7];
+    private final long[] prestadores;
+    private final long[] jornadas;
+
+    private HorarioComercial(long versao, List<ConfiguracaoHorario> configuracoes, List<HorarioPrestador> horariosPrestador) {
+        this.versao = versao;
+        for (ConfiguracaoHorario config : configuracoes) {
+            if (!config.isAtivo()) {
+                continue;
+            }
+            int dia = config.getDiaSemana().ordinal();
+            abertura[dia] = config.getHoraAbertura();
+            fechamento[dia] = config.getHoraFechamento();
+            mascara[dia] = mascaraEntre(config.getHoraAbertura(), config.getHoraFechamento());
+            meiasHoras[dia] = meiasHoras(config.getHoraAbertura(), config.getHoraFechamento());
+        }
+
+        TreeMap<Long, long[]> porPrestador = new TreeMap<>();
+        for (HorarioPrestador horario : horariosPrestador) {
+            long[] semana = porPrestador.computeIfAbsent(horario.getPrestadorId(), id -> new long[7]);
+            semana[horario.getDiaSemana().ordinal()] = meiasHoras(horario);
+        }
+        prestadores = new long[porPrestador.size()];
+        jornadas = new long[porPrestador.size() * 7];
+        int i = 0;
+        for (var entrada : porPrestador.entrySet()) {
+            prestadores[i] = entrada.getKey();
+            System.arraycopy(entrada.getValue(), 0, jornadas, i * 7, 7);
+            i++;
+        }
+    }
+
+    public static HorarioComercial of(long versao, List<ConfiguracaoHorario> configuracoes) {
+        return new HorarioComercial(versao, configuracoes, List.of());
+    }
+
+    public static HorarioComercial of(long versao, List<ConfiguracaoHorario> configuracoes,
+                                      List<HorarioPrestador> horariosPrestador) {
+        return new HorarioComercial(versao, configuracoes, horariosPrestador);
+    }
+
+    public long versao() {
+        return versao;
+    }
+
+    public boolean funciona(DayOfWeek dia) {
+        return abertura[dia.ordinal()] != null;
+    }
+
+    public LocalTime abertura(DayOfWeek dia) {
+        return abertura[dia.ordinal()];
+    }
+
+    public LocalTime fechamento(DayOfWeek dia) {
+        return fechamento[dia.ordinal()];
+    }
+
+    /**
+     * Bitset dos horários de início permitidos no dia (0 quando o dia não funciona).
+     */
+    public int mascara(DayOfWeek dia) {
+        return mascara[dia.ordinal()];
+    }
+
+    /**
+     * Máscara de meias horas abertas no dia pelo horário comercial global.
+     */
+    public long meiasHoras(DayOfWeek dia) {
+        return meiasHoras[dia.ordinal()];
+    }
+
+    /**
+     * Máscara de meias horas abertas no dia para o prestador: a jornada própria, se houver,
+     * ou o horário comercial global. Busca binária nos ids, sem alocação.
+     */
+    public long meiasHoras(Long prestadorId, DayOfWeek dia) {
+        int indice = prestadorId == null ? -1 : Arrays.binarySearch(prestadores, prestadorId);
+        return indice >= 0 ? jornadas[indice * 7 + dia.ordinal()] : meiasHoras[dia.ordinal()];
+    }
+
+    public boolean temJornada(Long prestadorId) {
+        return prestadorId != null && Arrays.binarySearch(prestadores, prestadorId) >= 0;
+    }
+
+    public int prestadoresComJornada() {
+        return prestadores.length;
+    }
+
+    /**
+     * Meias horas tocadas pelo intervalo [inicio, fim); fim à meia-noite conta como 24:00.
+     */
+    public static long meiasHoras(LocalTime inicio, LocalTime fim) {
+        int primeira = (inicio.getHour() * 60 + inicio.getMinute()) / 30;
+        int fimMin = fim.equals(LocalTime.MIDNIGHT) ? 24 * 60 : fim.getHour() * 60 + fim.getMinute();
+        int ultima = Math.min(MEIAS_HORAS, (fimMin + 29) / 30);
+        if (ultima <= primeira) {
+            return 0;
+        }
+        return (-1L >>> (64 - (ultima - primeira))) << primeira;
+    }
+
+    /**
+     * Início da primeira meia hora aberta da máscara (não vazia).
+     */
+    public static LocalTime abertura(long meiasHoras) {
+        return LocalTime.MIN.plusMinutes(30L * Long.numberOfTrailingZeros(meiasHoras));
+    }
+
+    /**
+     * Fim da última meia hora aberta da máscara (não vazia).
+     */
+    public static LocalTime fechamento(long meiasHoras) {
+        return LocalTime.MIN.plusMinutes(30L * (64 - Long.numberOfLeadingZeros(meiasHoras)));
+    }
+
+    private static long meiasHoras(HorarioPrestador horario) {
+        if (!horario.isAtivo()) {
+            return 0;
+        }
+        long jornada = meiasHoras(horario.getHoraAbertura(), horario.getHoraFechamento());
+        if (horario.getIntervaloInicio() != null && horario.getIntervaloFim() != null) {
+            jornada &= ~meiasHoras(horario.getIntervaloInicio(), horario.getIntervaloFim());
+        }
+        return jornada;
+    }
+
+    private static int mascaraEntre(LocalTime abertura, LocalTime fechamento) {
+        int bits = 0;
+        for (int h = 0; h < 24; h++) {
+            LocalTime hora = LocalTime.of(h, 0);
+            if (!hora.isBefore(abertura) && hora.isBefore(fechamento)) {
+                bits |= 1 << h;
+            }
+        }
+        return bits;
+    }
+}
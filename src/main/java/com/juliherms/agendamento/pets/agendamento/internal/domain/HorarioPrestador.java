@@ -0,0 +1,117 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Jornada de um prestador em um dia da semana, com intervalo opcional (ex.: almoço).
+ * Prestadores com jornada própria deixam de seguir o horário comercial global;
+ * dias com {@code ativo = false} são folga. Horários em múltiplos de 30 minutos.
+ * A coluna versao entra na versão agregada do {@link HorarioComercial}.
+ */
+@Entity
+@Table(name = "horarios_prestador",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_horario_prestador_dia",
+                             columnNames = {"prestador_id", "dia_semana"})
+       })
+public class HorarioPrestador {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false)
+    private DayOfWeek diaSemana;
+
+    // Nulos nos dias de folga
+    @Column(name = "hora_abertura")
+    private LocalTime horaAbertura;
+
+    @Column(name = "hora_fechamento")
+    private LocalTime horaFechamento;
+
+    @Column(name = "intervalo_inicio")
+    private LocalTime intervaloInicio;
+
+    @Column(name = "intervalo_fim")
+    private LocalTime intervaloFim;
+
+    @Column(name = "ativo", nullable = false)
+    private boolean ativo = true;
+
+    @Version
+    @Column(name = "versao", nullable = false)
+    private long versao;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public void setPrestadorId(Long prestadorId) {
+        this.prestadorId = prestadorId;
+    }
+
+    public DayOfWeek getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(DayOfWeek diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public LocalTime getHoraAbertura() {
+        return horaAbertura;
+    }
+
+    public void setHoraAbertura(LocalTime horaAbertura) {
+        this.horaAbertura = horaAbertura;
+    }
+
+    public LocalTime getHoraFechamento() {
+        return horaFechamento;
+    }
+
+    public void setHoraFechamento(LocalTime horaFechamento) {
+        this.horaFechamento = horaFechamento;
+    }
+
+    public LocalTime getIntervaloInicio() {
+        return intervaloInicio;
+    }
+
+    public void setIntervaloInicio(LocalTime intervaloInicio) {
+        this.intervaloInicio = intervaloInicio;
+    }
+
+    public LocalTime getIntervaloFim() {
+        return intervaloFim;
+    }
+
+    public void setIntervaloFim(LocalTime intervaloFim) {
+        this.intervaloFim = intervaloFim;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(boolean ativo) {
+        this.ativo = ativo;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+}
@@ -0,0 +1,183 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.StatusEspera;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Entrada da lista de espera: interesse de um tutor por um horário de um prestador
+ * em uma data, dentro de uma janela. {@code horasAceitas} é uma máscara de 24 bits com as
+ * horas de início em que o serviço cabe inteiro na janela, calculada no cadastro.
+ */
+@Entity
+@Table(name = "lista_espera",
+       indexes = {
+           @Index(name = "idx_espera_status_id",
+                  columnList = "status, id"),
+           @Index(name = "idx_espera_pet",
+                  columnList = "petId")
+       })
+public class InteresseEspera {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "tutor_id", nullable = false)
+    private Long tutorId;
+
+    @Column(name = "servico_id", nullable = false)
+    private Long servicoId;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "janela_inicio", nullable = false)
+    private LocalTime janelaInicio;
+
+    @Column(name = "janela_fim", nullable = false)
+    private LocalTime janelaFim;
+
+    @Column(name = "horas_aceitas", nullable = false)
+    private int horasAceitas;
+
+    @Column(name = "reserva_automatica", nullable = false)
+    private boolean reservaAutomatica;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatusEspera status = StatusEspera.AGUARDANDO;
+
+    // Agendamento criado pela reserva automática
+    @Column(name = "agendamento_id")
+    private Long agendamentoId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("America/Recife"));
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        updatedAt = ZonedDateTime.now(ZoneId.of("America/Recife"));
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPetId() {
+        return petId;
+    }
+
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+
+    public Long getTutorId() {
+        return tutorId;
+    }
+
+    public void setTutorId(Long tutorId) {
+        this.tutorId = tutorId;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public void setServicoId(Long servicoId) {
+        this.servicoId = servicoId;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public void setPrestadorId(Long prestadorId) {
+        this.prestadorId = prestadorId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public void setData(LocalDate data) {
+        this.data = data;
+    }
+
+    public LocalTime getJanelaInicio() {
+        return janelaInicio;
+    }
+
+    public void setJanelaInicio(LocalTime janelaInicio) {
+        this.janelaInicio = janelaInicio;
+    }
+
+    public LocalTime getJanelaFim() {
+        return janelaFim;
+    }
+
+    public void setJanelaFim(LocalTime janelaFim) {
+        this.janelaFim = janelaFim;
+    }
+
+    public int getHorasAceitas() {
+        return horasAceitas;
+    }
+
+    public void setHorasAceitas(int horasAceitas) {
+        this.horasAceitas = horasAceitas;
+    }
+
+    public boolean isReservaAutomatica() {
+        return reservaAutomatica;
+    }
+
+    public void setReservaAutomatica(boolean reservaAutomatica) {
+        this.reservaAutomatica = reservaAutomatica;
+    }
+
+    public StatusEspera getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusEspera status) {
+        this.status = status;
+    }
+
+    public Long getAgendamentoId() {
+        return agendamentoId;
+    }
+
+    public void setAgendamentoId(Long agendamentoId) {
+        this.agendamentoId = agendamentoId;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
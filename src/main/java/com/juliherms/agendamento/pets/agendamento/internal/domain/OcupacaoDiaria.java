@@ -0,0 +1,73 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * Consolidado diário de ocupação por prestador: quantos agendamentos do dia estão ativos
+ * (agendado, confirmado ou em andamento), cancelados e concluídos.
+ * Somente leitura: as linhas são mantidas por upserts incrementais do {@code OcupacaoDiariaService}
+ * e podem ser reconstruídas a partir de agendamentos + agendamentos_arquivo.
+ */
+@Entity
+@Immutable
+@Table(name = "ocupacao_diaria",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_ocupacao_prestador_data",
+                  columnNames = {"prestador_id", "data"})
+       })
+public class OcupacaoDiaria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "agendados", nullable = false)
+    private long agendados;
+
+    @Column(name = "cancelados", nullable = false)
+    private long cancelados;
+
+    @Column(name = "concluidos", nullable = false)
+    private long concluidos;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private ZonedDateTime atualizadoEm;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public long getAgendados() {
+        return agendados;
+    }
+
+    public long getCancelados() {
+        return cancelados;
+    }
+
+    public long getConcluidos() {
+        return concluidos;
+    }
+
+    public ZonedDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+}
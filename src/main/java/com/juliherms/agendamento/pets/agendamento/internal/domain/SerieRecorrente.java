@@ -0,0 +1,208 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.StatusSerie;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Série semanal de agendamentos: mesmo pet, serviço, prestador e horário, a cada
+ * {@code intervaloSemanas} semanas a partir de {@code dataInicio}, por {@code ocorrencias} vezes.
+ * Só as ocorrências até {@code materializadaAte} existem como linhas em agendamentos;
+ * as demais são expandidas a partir da regra. {@code datasPuladas} guarda as datas
+ * excluídas por conflito.
+ */
+@Entity
+@Table(name = "series_recorrentes",
+       indexes = {
+           @Index(name = "idx_serie_status_id",
+                  columnList = "status, id"),
+           @Index(name = "idx_serie_pet",
+                  columnList = "petId")
+       })
+public class SerieRecorrente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "tutor_id", nullable = false)
+    private Long tutorId;
+
+    @Column(name = "servico_id", nullable = false)
+    private Long servicoId;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Column(name = "data_inicio", nullable = false)
+    private LocalDate dataInicio;
+
+    // Data da última ocorrência (calculada na criação)
+    @Column(name = "data_fim", nullable = false)
+    private LocalDate dataFim;
+
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @Column(name = "hora_fim", nullable = false)
+    private LocalTime horaFim;
+
+    @Column(name = "intervalo_semanas", nullable = false)
+    private int intervaloSemanas;
+
+    @Column(name = "ocorrencias", nullable = false)
+    private int ocorrencias;
+
+    // Última data já convertida em agendamentos (dataInicio - 1 antes da primeira materialização)
+    @Column(name = "materializada_ate", nullable = false)
+    private LocalDate materializadaAte;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private StatusSerie status = StatusSerie.ATIVA;
+
+    @ElementCollection
+    @CollectionTable(name = "series_recorrentes_puladas", joinColumns = @JoinColumn(name = "serie_id"))
+    @Column(name = "data", nullable = false)
+    private Set<LocalDate> datasPuladas = new HashSet<>();
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @PrePersist
+    void prePersist() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of("America/Recife"));
+        createdAt = now;
+        updatedAt = now;
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        updatedAt = ZonedDateTime.now(ZoneId.of("America/Recife"));
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPetId() {
+        return petId;
+    }
+
+    public void setPetId(Long petId) {
+        this.petId = petId;
+    }
+
+    public Long getTutorId() {
+        return tutorId;
+    }
+
+    public void setTutorId(Long tutorId) {
+        this.tutorId = tutorId;
+    }
+
+    public Long getServicoId() {
+        return servicoId;
+    }
+
+    public void setServicoId(Long servicoId) {
+        this.servicoId = servicoId;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public void setPrestadorId(Long prestadorId) {
+        this.prestadorId = prestadorId;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public void setDataInicio(LocalDate dataInicio) {
+        this.dataInicio = dataInicio;
+    }
+
+    public LocalDate getDataFim() {
+        return dataFim;
+    }
+
+    public void setDataFim(LocalDate dataFim) {
+        this.dataFim = dataFim;
+    }
+
+    public LocalTime getHoraInicio() {
+        return horaInicio;
+    }
+
+    public void setHoraInicio(LocalTime horaInicio) {
+        this.horaInicio = horaInicio;
+    }
+
+    public LocalTime getHoraFim() {
+        return horaFim;
+    }
+
+    public void setHoraFim(LocalTime horaFim) {
+        this.horaFim = horaFim;
+    }
+
+    public int getIntervaloSemanas() {
+        return intervaloSemanas;
+    }
+
+    public void setIntervaloSemanas(int intervaloSemanas) {
+        this.intervaloSemanas = intervaloSemanas;
+    }
+
+    public int getOcorrencias() {
+        return ocorrencias;
+    }
+
+    public void setOcorrencias(int ocorrencias) {
+        this.ocorrencias = ocorrencias;
+    }
+
+    public LocalDate getMaterializadaAte() {
+        return materializadaAte;
+    }
+
+    public void setMaterializadaAte(LocalDate materializadaAte) {
+        this.materializadaAte = materializadaAte;
+    }
+
+    public StatusSerie getStatus() {
+        return status;
+    }
+
+    public void setStatus(StatusSerie status) {
+        this.status = status;
+    }
+
+    public Set<LocalDate> getDatasPuladas() {
+        return datasPuladas;
+    }
+
+    public ZonedDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public ZonedDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.juliherms.agendamento.pets.agendamento.internal.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Vaga de uma hora cheia de um prestador com capacidade: até {@code capacidade} atendimentos
+ * simultâneos (ex.: três tosadores sob o mesmo prestador), dos quais {@code reservados} já ocupados.
+ * Linhas geradas em lote a partir da jornada; a reserva é um UPDATE condicional
+ * ({@code reservados < capacidade}), sem leitura prévia.
+ */
+@Entity
+@Table(name = "slots_inventario",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_slot_inventario",
+                             columnNames = {"prestador_id", "data", "hora"})
+       })
+public class SlotInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "prestador_id", nullable = false)
+    private Long prestadorId;
+
+    @Column(name = "data", nullable = false)
+    private LocalDate data;
+
+    @Column(name = "hora", nullable = false)
+    private LocalTime hora;
+
+    @Column(name = "capacidade", nullable = false)
+    private int capacidade;
+
+    @Column(name = "reservados", nullable = false)
+    private int reservados;
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPrestadorId() {
+        return prestadorId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public LocalTime getHora() {
+        return hora;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public int getReservados() {
+        return reservados;
+    }
+}
@@ -107,5 +107,125 @@ public class AgendamentoExceptionHandler {
             super(message);
         }
     }
-}
 
+    /**
+     * Exceção lançada quando o período de busca informado é inválido.
+     */
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public static class PeriodoInvalidoException extends RuntimeException {
+        public PeriodoInvalidoException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a configuração de horário comercial informada é inválida.
+     */
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public static class ConfiguracaoHorarioInvalidaException extends RuntimeException {
+        public ConfiguracaoHorarioInvalidaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando o cursor de paginação recebido não pode ser decodificado.
+     */
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public static class CursorInvalidoException extends RuntimeException {
+        public CursorInvalidoException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a fila de reservas do prestador está cheia ou a espera excede o limite.
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class RaiaSobrecarregadaException extends RuntimeException {
+        public RaiaSobrecarregadaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando o banco desfaz a reserva por falha de lock (deadlock ou timeout);
+     * o horário não foi dado como ocupado e a reserva pode ser repetida.
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class ReservaConcorrenteException extends RuntimeException {
+        public ReservaConcorrenteException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando o fluxo de disponibilidade já está no limite de assinantes do nó.
+     */
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class AssinaturasEsgotadasException extends RuntimeException {
+        public AssinaturasEsgotadasException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a mudança de status solicitada não é permitida.
+     */
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public static class TransicaoStatusInvalidaException extends RuntimeException {
+        public TransicaoStatusInvalidaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a chave de idempotência é inválida ou já foi usada com outra requisição.
+     */
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public static class ChaveIdempotenciaInvalidaException extends RuntimeException {
+        public ChaveIdempotenciaInvalidaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a entrada da lista de espera não é encontrada.
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public static class InteresseEsperaNaoEncontradoException extends RuntimeException {
+        public InteresseEsperaNaoEncontradoException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a reserva temporária não existe ou já expirou.
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public static class ReservaTemporariaNaoEncontradaException extends RuntimeException {
+        public ReservaTemporariaNaoEncontradaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a série recorrente não é encontrada.
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public static class SerieRecorrenteNaoEncontradaException extends RuntimeException {
+        public SerieRecorrenteNaoEncontradaException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Exceção lançada quando a data fechada não é encontrada.
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public static class DataFechadaNaoEncontradaException extends RuntimeException {
+        public DataFechadaNaoEncontradaException(String message) {
+            super(message);
+        }
+    }
+}
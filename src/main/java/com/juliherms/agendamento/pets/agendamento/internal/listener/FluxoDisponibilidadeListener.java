@@ -0,0 +1,35 @@
+package com.juliherms.agendamento.pets.agendamento.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.FluxoDisponibilidade;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repassa os eventos de agendamento ao fluxo SSE de disponibilidade só após o commit
+ * ({@link AposCommit}), para que um rollback nunca chegue aos calendários.
+ */
+@Component
+public class FluxoDisponibilidadeListener {
+
+    private final FluxoDisponibilidade fluxoDisponibilidade;
+
+    public FluxoDisponibilidadeListener(FluxoDisponibilidade fluxoDisponibilidade) {
+        this.fluxoDisponibilidade = fluxoDisponibilidade;
+    }
+
+    @EventListener
+    public void onAgendamentoCriado(AgendamentoApi.AgendamentoCriadoEvent event) {
+        AposCommit.executar(() -> fluxoDisponibilidade.publicar(
+                event.prestadorId(), event.data(), event.horaInicio(), event.horaFim(), false));
+    }
+
+    @EventListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        if (event.novoStatus() == AgendamentoApi.Status.CANCELADO && event.horaFim() != null) {
+            AposCommit.executar(() -> fluxoDisponibilidade.publicar(
+                    event.prestadorId(), event.data(), event.horaInicio(), event.horaFim(), true));
+        }
+    }
+}
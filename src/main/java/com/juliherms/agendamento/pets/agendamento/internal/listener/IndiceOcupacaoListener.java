@@ -0,0 +1,35 @@
+package com.juliherms.agendamento.pets.agendamento.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém o índice de ocupação atualizado a partir dos eventos de agendamento.
+ * As alterações só são aplicadas após o commit ({@link AposCommit}), para que um rollback
+ * não deixe o índice divergente do banco.
+ */
+@Component
+public class IndiceOcupacaoListener {
+
+    private final IndiceOcupacao indiceOcupacao;
+
+    public IndiceOcupacaoListener(IndiceOcupacao indiceOcupacao) {
+        this.indiceOcupacao = indiceOcupacao;
+    }
+
+    @EventListener
+    public void onAgendamentoCriado(AgendamentoApi.AgendamentoCriadoEvent event) {
+        AposCommit.executar(() ->
+                indiceOcupacao.ocupar(event.prestadorId(), event.data(), event.horaInicio(), event.horaFim()));
+    }
+
+    @EventListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        if (event.novoStatus() == AgendamentoApi.Status.CANCELADO) {
+            AposCommit.executar(() -> indiceOcupacao.liberar(event.prestadorId(), event.data(), event.horaInicio()));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.juliherms.agendamento.pets.agendamento.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ListaEsperaService;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Atende a lista de espera a cada cancelamento.
+ * Usa @ApplicationModuleListener (assíncrono, após o commit e registrado no event publication
+ * registry): a reserva automática roda fora da requisição de cancelamento, e um cancelamento
+ * cujo atendimento falhar fica pendente para reenvio.
+ */
+@Component
+public class ListaEsperaListener {
+
+    private final ListaEsperaService listaEsperaService;
+
+    public ListaEsperaListener(ListaEsperaService listaEsperaService) {
+        this.listaEsperaService = listaEsperaService;
+    }
+
+    @ApplicationModuleListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        if (event.novoStatus() == AgendamentoApi.Status.CANCELADO) {
+            listaEsperaService.aoLiberar(event.prestadorId(), event.data(), event.horaInicio(), event.horaFim());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.juliherms.agendamento.pets.agendamento.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.MapaCalorService;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém o mapa de calor de disponibilidade atualizado a partir dos eventos de agendamento,
+ * aplicando as alterações só após o commit ({@link AposCommit}).
+ */
+@Component
+public class MapaCalorListener {
+
+    private final MapaCalorService mapaCalorService;
+
+    public MapaCalorListener(MapaCalorService mapaCalorService) {
+        this.mapaCalorService = mapaCalorService;
+    }
+
+    @EventListener
+    public void onAgendamentoCriado(AgendamentoApi.AgendamentoCriadoEvent event) {
+        AposCommit.executar(() ->
+                mapaCalorService.ocupar(event.prestadorId(), event.data(), event.horaInicio(), event.horaFim()));
+    }
+
+    @EventListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        if (event.novoStatus() == AgendamentoApi.Status.CANCELADO && event.horaFim() != null) {
+            AposCommit.executar(() ->
+                    mapaCalorService.liberar(event.prestadorId(), event.data(), event.horaInicio(), event.horaFim()));
+        }
+    }
+}
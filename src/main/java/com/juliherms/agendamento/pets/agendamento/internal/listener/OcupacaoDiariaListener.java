@@ -0,0 +1,39 @@
+package com.juliherms.agendamento.pets.agendamento.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.OcupacaoDiariaService;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alimenta o consolidado diário de ocupação a partir dos eventos de agendamento.
+ * Diferente do índice em memória, o consolidado é persistente: usa @ApplicationModuleListener
+ * (assíncrono, após o commit e registrado no event publication registry), de modo que
+ * eventos cujo processamento falhar ficam pendentes para reenvio.
+ */
+@Component
+public class OcupacaoDiariaListener {
+
+    private final OcupacaoDiariaService ocupacaoDiariaService;
+
+    public OcupacaoDiariaListener(OcupacaoDiariaService ocupacaoDiariaService) {
+        this.ocupacaoDiariaService = ocupacaoDiariaService;
+    }
+
+    @ApplicationModuleListener
+    public void onAgendamentoCriado(AgendamentoApi.AgendamentoCriadoEvent event) {
+        ocupacaoDiariaService.registrar(event.prestadorId(), event.data(), null, AgendamentoApi.Status.AGENDADO, 1,
+                event.ocorridoEm());
+    }
+
+    @ApplicationModuleListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        ocupacaoDiariaService.registrar(event.prestadorId(), event.data(), event.statusAnterior(), event.novoStatus(), 1,
+                event.ocorridoEm());
+    }
+
+    @ApplicationModuleListener
+    public void onStatusAlteradoEmLote(AgendamentoApi.AgendamentosStatusAlteradosEvent event) {
+        ocupacaoDiariaService.registrarLote(event.agendamentoIds(), event.novoStatus(), event.ocorridoEm());
+    }
+}
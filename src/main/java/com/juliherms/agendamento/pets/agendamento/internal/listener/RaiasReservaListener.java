@@ -0,0 +1,26 @@
+package com.juliherms.agendamento.pets.agendamento.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.RaiasReserva;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tira das raias de reserva os slots cujo agendamento mudou de status, só após o commit
+ * ({@link AposCommit}).
+ */
+@Component
+public class RaiasReservaListener {
+
+    private final RaiasReserva raiasReserva;
+
+    public RaiasReservaListener(RaiasReserva raiasReserva) {
+        this.raiasReserva = raiasReserva;
+    }
+
+    @EventListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        AposCommit.executar(() -> raiasReserva.liberar(event.prestadorId(), event.data(), event.horaInicio()));
+    }
+}
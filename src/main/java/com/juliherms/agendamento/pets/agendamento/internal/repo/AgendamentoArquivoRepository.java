@@ -0,0 +1,74 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.AgendamentoResponse;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.AgendamentoArquivado;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório da tabela de arquivo (agendamentos_arquivo).
+ * As consultas de histórico usam o mesmo keyset (data, horaInicio, id) de
+ * {@link AgendamentoRepository} e a mesma projeção em DTO, para que as duas tabelas possam ser mescladas.
+ */
+@Repository
+public interface AgendamentoArquivoRepository extends JpaRepository<AgendamentoArquivado, Long> {
+
+    /**
+     * Copia para o arquivo os agendamentos informados, preservando o id original.
+     * Executado na mesma transação que remove as linhas de agendamentos.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO agendamentos_arquivo (id, pet_id, servico_id, prestador_id, tutor_id, serie_id, " +
+           "data, hora_inicio, hora_fim, status, created_at, updated_at, arquivado_em) " +
+           "SELECT id, pet_id, servico_id, prestador_id, tutor_id, serie_id, data, hora_inicio, hora_fim, " +
+           "status, created_at, updated_at, :arquivadoEm FROM agendamentos WHERE id IN :ids",
+           nativeQuery = true)
+    int copiarDeAgendamentos(@Param("ids") Collection<Long> ids, @Param("arquivadoEm") ZonedDateTime arquivadoEm);
+
+    @Transactional(readOnly = true)
+    @Query(AgendamentoRepository.PROJECAO_RESPONSE + "FROM AgendamentoArquivado a WHERE a.petId = :petId " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorPet(@Param("petId") Long petId, Limit limite);
+
+    @Transactional(readOnly = true)
+    @Query(AgendamentoRepository.PROJECAO_RESPONSE + "FROM AgendamentoArquivado a WHERE a.petId = :petId AND (a.data < :data " +
+           "OR (a.data = :data AND (a.horaInicio < :horaInicio " +
+           "OR (a.horaInicio = :horaInicio AND a.id < :id)))) " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorPetApos(
+            @Param("petId") Long petId,
+            @Param("data") LocalDate data,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("id") Long id,
+            Limit limite
+    );
+
+    @Transactional(readOnly = true)
+    @Query(AgendamentoRepository.PROJECAO_RESPONSE + "FROM AgendamentoArquivado a WHERE a.tutorId = :usuarioId " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorUsuario(@Param("usuarioId") Long usuarioId, Limit limite);
+
+    @Transactional(readOnly = true)
+    @Query(AgendamentoRepository.PROJECAO_RESPONSE + "FROM AgendamentoArquivado a WHERE a.tutorId = :usuarioId AND (a.data < :data " +
+           "OR (a.data = :data AND (a.horaInicio < :horaInicio " +
+           "OR (a.horaInicio = :horaInicio AND a.id < :id)))) " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorUsuarioApos(
+            @Param("usuarioId") Long usuarioId,
+            @Param("data") LocalDate data,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("id") Long id,
+            Limit limite
+    );
+}
@@ -1,58 +1,325 @@
 package com.juliherms.agendamento.pets.agendamento.internal.repo;
 
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.AgendamentoResponse;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.OcorrenciaSerieResponse;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
 import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Repositório para operações de agendamento.
  * Inclui métodos para verificar disponibilidade de horários.
+ * Conflitos no insert são barrados pela unique key uk_prestador_data_hora.
  */
 @Repository
 public interface AgendamentoRepository extends JpaRepository<Agendamento, Long> {
 
     /**
-     * Verifica se existe agendamento conflitante para o mesmo prestador,
-     * data e horário de início.
+     * Projeção das leituras de histórico direto em {@link AgendamentoResponse} (expressão de construtor):
+     * nada entra no contexto de persistência e não há snapshot para dirty checking.
+     * Compartilhada com {@link AgendamentoArquivoRepository}; a entidade deve usar o alias {@code a}.
      */
-    @Query("SELECT a FROM Agendamento a WHERE a.prestadorId = :prestadorId " +
-           "AND a.data = :data AND a.horaInicio = :horaInicio " +
-           "AND a.status NOT IN ('CANCELADO')")
-    Optional<Agendamento> findByPrestadorIdAndDataAndHoraInicio(
-            @Param("prestadorId") Long prestadorId,
-            @Param("data") LocalDate data,
-            @Param("horaInicio") LocalTime horaInicio
-    );
+    String PROJECAO_RESPONSE = "SELECT new com.juliherms.agendamento.pets.agendamento.api." +
+            "AgendamentoApi$AgendamentoResponse(a.id, a.petId, a.servicoId, a.prestadorId, " +
+            "a.data, a.horaInicio, a.horaFim, a.status, a.createdAt) ";
 
     /**
      * Busca agendamentos por prestador e data.
      */
-    @Query("SELECT a FROM Agendamento a WHERE a.prestadorId = :prestadorId " +
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_RESPONSE + "FROM Agendamento a WHERE a.prestadorId = :prestadorId " +
            "AND a.data = :data AND a.status NOT IN ('CANCELADO') " +
            "ORDER BY a.horaInicio")
-    List<Agendamento> findByPrestadorIdAndData(
+    List<AgendamentoResponse> findByPrestadorIdAndData(
             @Param("prestadorId") Long prestadorId,
             @Param("data") LocalDate data
     );
 
     /**
-     * Busca agendamentos por pet.
+     * Lê, em uma única ida ao banco, os flags usados na validação de um novo agendamento:
+     * tutor do pet e seu status, flag ativo e duração do serviço, status e perfil do prestador.
+     * Consulta nativa com subconsultas escalares para não hidratar Pet, User e OfferedService.
+     */
+    @Query(value = "SELECT " +
+           "(SELECT p.usuario_id FROM pets p WHERE p.id = :petId) AS tutorId, " +
+           "(SELECT u.status FROM pets p JOIN users u ON u.id = p.usuario_id WHERE p.id = :petId) AS statusTutor, " +
+           "(SELECT s.ativo FROM services s WHERE s.id = :servicoId) AS servicoAtivo, " +
+           "(SELECT u.status FROM users u WHERE u.id = :prestadorId) AS statusPrestador, " +
+           "(SELECT u.perfil FROM users u WHERE u.id = :prestadorId) AS perfilPrestador, " +
+           "(SELECT s.duracao_minutos FROM services s WHERE s.id = :servicoId) AS duracaoServico",
+           nativeQuery = true)
+    ValidacaoAgendamento findValidacao(
+            @Param("petId") Long petId,
+            @Param("servicoId") Long servicoId,
+            @Param("prestadorId") Long prestadorId
+    );
+
+    /**
+     * Lista os intervalos ocupados de um prestador em uma data.
+     * Usado para carregar o índice de ocupação sem hidratar entidades.
+     */
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado(" +
+           "a.prestadorId, a.data, a.horaInicio, a.horaFim) FROM Agendamento a " +
+           "WHERE a.prestadorId = :prestadorId AND a.data = :data AND a.status NOT IN ('CANCELADO')")
+    List<SlotOcupado> findSlotsOcupadosPorPrestador(
+            @Param("prestadorId") Long prestadorId,
+            @Param("data") LocalDate data
+    );
+
+    /**
+     * Ids dos agendamentos ativos do prestador que sobrepõem [horaInicio, horaFim), exceto o informado.
+     * Leitura com lock (FOR UPDATE) feita logo após o insert, para enxergar reservas já commitadas
+     * depois do snapshot da transação. Roda com a linha de bloqueio do prestador/dia tomada, então
+     * os gap locks desta leitura não são disputados por outra reserva do mesmo prestador/dia.
+     * Usa o prefixo (prestador_id, data, hora_inicio) de idx_agendamento_prestador_data_hora.
+     */
+    @Query(value = "SELECT id FROM agendamentos WHERE prestador_id = :prestadorId AND data = :data " +
+           "AND hora_inicio < :horaFim AND hora_fim > :horaInicio " +
+           "AND slot_ativo IS NOT NULL AND id <> :id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> findIdsSobrepostos(
+            @Param("prestadorId") Long prestadorId,
+            @Param("data") LocalDate data,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("horaFim") LocalTime horaFim,
+            @Param("id") Long id
+    );
+
+    /**
+     * Passa os agendamentos ativos do prestador a partir da data para o inventário de vagas
+     * (ao configurar a capacidade), tirando-os da unique key.
+     */
+    @Modifying
+    @Query("UPDATE Agendamento a SET a.inventario = true, a.slotAtivo = NULL " +
+           "WHERE a.prestadorId = :prestadorId AND a.data >= :desde AND a.inventario = false " +
+           "AND a.status NOT IN ('CANCELADO')")
+    int marcarInventario(@Param("prestadorId") Long prestadorId, @Param("desde") LocalDate desde);
+
+    /**
+     * Agendamentos ativos do prestador a partir da data que ainda não contam no inventário de vagas,
+     * com lock (FOR UPDATE) para não serem cancelados durante a reconciliação.
+     */
+    @Query(value = "SELECT * FROM agendamentos WHERE prestador_id = :prestadorId AND data >= :desde " +
+           "AND inventario = FALSE AND status <> 'CANCELADO' FOR UPDATE",
+           nativeQuery = true)
+    List<Agendamento> findForaDoInventario(@Param("prestadorId") Long prestadorId, @Param("desde") LocalDate desde);
+
+    /**
+     * Lista os slots ocupados de todos os prestadores em um período, em uma única consulta.
+     */
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado(" +
+           "a.prestadorId, a.data, a.horaInicio, a.horaFim) FROM Agendamento a " +
+           "WHERE a.data BETWEEN :dataInicio AND :dataFim AND a.status NOT IN ('CANCELADO')")
+    List<SlotOcupado> findSlotsOcupados(
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    /**
+     * Lista os slots ocupados de um conjunto de prestadores em um período, em uma única consulta.
      */
-    List<Agendamento> findByPetIdOrderByDataDescHoraInicioDesc(Long petId);
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado(" +
+           "a.prestadorId, a.data, a.horaInicio, a.horaFim) FROM Agendamento a " +
+           "WHERE a.prestadorId IN :prestadorIds AND a.data BETWEEN :dataInicio AND :dataFim " +
+           "AND a.status NOT IN ('CANCELADO')")
+    List<SlotOcupado> findSlotsOcupadosPorPrestadores(
+            @Param("prestadorIds") Collection<Long> prestadorIds,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    /**
+     * Datas, dentre as informadas, em que o prestador já tem agendamento sobrepondo [horaInicio, horaFim).
+     * Verificação de conflitos de uma série inteira em uma única consulta.
+     */
+    @Query("SELECT DISTINCT a.data FROM Agendamento a WHERE a.prestadorId = :prestadorId AND a.data IN :datas " +
+           "AND a.horaInicio < :horaFim AND a.horaFim > :horaInicio AND a.status NOT IN ('CANCELADO')")
+    List<LocalDate> findDatasOcupadas(
+            @Param("prestadorId") Long prestadorId,
+            @Param("datas") Collection<LocalDate> datas,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("horaFim") LocalTime horaFim
+    );
+
+    /**
+     * Ocorrências de séries do pet já materializadas em agendamentos no período.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi$OcorrenciaSerieResponse(" +
+           "a.serieId, a.data, a.horaInicio, a.horaFim, a.id, a.status) FROM Agendamento a " +
+           "WHERE a.petId = :petId AND a.data BETWEEN :dataInicio AND :dataFim AND a.serieId IS NOT NULL")
+    List<OcorrenciaSerieResponse> findOcorrenciasMaterializadas(
+            @Param("petId") Long petId,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    /**
+     * Agendamentos ainda não iniciados de uma série a partir da data (cancelamento da série).
+     */
+    @Query("SELECT a.id FROM Agendamento a WHERE a.serieId = :serieId AND a.data >= :data " +
+           "AND a.status IN ('AGENDADO', 'CONFIRMADO')")
+    List<Long> findIdsFuturosDaSerie(@Param("serieId") Long serieId, @Param("data") LocalDate data);
+
+    /**
+     * Primeira página do histórico de um pet, do mais recente para o mais antigo.
+     */
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_RESPONSE + "FROM Agendamento a WHERE a.petId = :petId " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorPet(@Param("petId") Long petId, Limit limite);
+
+    /**
+     * Página seguinte do histórico de um pet (keyset em data, horaInicio, id).
+     */
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_RESPONSE + "FROM Agendamento a WHERE a.petId = :petId AND (a.data < :data " +
+           "OR (a.data = :data AND (a.horaInicio < :horaInicio " +
+           "OR (a.horaInicio = :horaInicio AND a.id < :id)))) " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorPetApos(
+            @Param("petId") Long petId,
+            @Param("data") LocalDate data,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("id") Long id,
+            Limit limite
+    );
+
+    /**
+     * Primeira página do histórico de um usuário (tutor dos pets), do mais recente para o mais antigo.
+     * Filtra pelo tutor_id desnormalizado: varredura de intervalo em idx_agendamento_tutor_data_hora.
+     */
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_RESPONSE + "FROM Agendamento a WHERE a.tutorId = :usuarioId " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorUsuario(@Param("usuarioId") Long usuarioId, Limit limite);
+
+    /**
+     * Página seguinte do histórico de um usuário (keyset em data, horaInicio, id).
+     */
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_RESPONSE + "FROM Agendamento a WHERE a.tutorId = :usuarioId AND (a.data < :data " +
+           "OR (a.data = :data AND (a.horaInicio < :horaInicio " +
+           "OR (a.horaInicio = :horaInicio AND a.id < :id)))) " +
+           "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC")
+    List<AgendamentoResponse> findHistoricoPorUsuarioApos(
+            @Param("usuarioId") Long usuarioId,
+            @Param("data") LocalDate data,
+            @Param("horaInicio") LocalTime horaInicio,
+            @Param("id") Long id,
+            Limit limite
+    );
+
+    /**
+     * Faixa de ids ainda sem tutor_id preenchido, usada pelo backfill.
+     */
+    @Query("SELECT MIN(a.id) FROM Agendamento a WHERE a.tutorId IS NULL")
+    Long findMenorIdSemTutor();
+
+    @Query("SELECT MAX(a.id) FROM Agendamento a WHERE a.tutorId IS NULL")
+    Long findMaiorIdSemTutor();
+
+    /**
+     * Preenche o tutor_id a partir de pets.usuario_id para um lote de ids.
+     * Cada lote roda em sua própria transação para manter os locks curtos.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Agendamento a SET a.tutorId = " +
+           "(SELECT p.usuarioId FROM Pet p WHERE p.id = a.petId) " +
+           "WHERE a.tutorId IS NULL AND a.id BETWEEN :idInicial AND :idFinal")
+    int preencherTutor(@Param("idInicial") Long idInicial, @Param("idFinal") Long idFinal);
+
+    /**
+     * Próximo lote de agendamentos encerrados (concluídos ou cancelados) anteriores à data limite,
+     * usado pelo arquivador. Ordenado por id: as linhas mais antigas ficam no início da chave primária.
+     */
+    @Query("SELECT a.id FROM Agendamento a WHERE a.data < :dataLimite " +
+           "AND a.status IN ('CONCLUIDO', 'CANCELADO') ORDER BY a.id")
+    List<Long> findIdsArquivaveis(@Param("dataLimite") LocalDate dataLimite, Limit limite);
+
+    /**
+     * Remove um lote de agendamentos já copiados para agendamentos_arquivo.
+     */
+    @Modifying
+    @Query("DELETE FROM Agendamento a WHERE a.id IN :ids")
+    int removerPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Próximo lote de agendamentos nos status de origem cujo término já passou.
+     * Sem ORDER BY: cada lote sai do filtro ao ser atualizado. Usa idx_agendamento_status_data.
+     */
+    @Query("SELECT a.id FROM Agendamento a WHERE a.status IN :origens " +
+           "AND (a.data < :hoje OR (a.data = :hoje AND a.horaFim <= :agora))")
+    List<Long> findIdsEncerrados(
+            @Param("origens") Collection<Status> origens,
+            @Param("hoje") LocalDate hoje,
+            @Param("agora") LocalTime agora,
+            Limit limite
+    );
+
+    /**
+     * Próximo lote de agendamentos nos status de origem que estão em curso agora.
+     */
+    @Query("SELECT a.id FROM Agendamento a WHERE a.status IN :origens " +
+           "AND a.data = :hoje AND a.horaInicio <= :agora AND a.horaFim > :agora")
+    List<Long> findIdsEmCurso(
+            @Param("origens") Collection<Status> origens,
+            @Param("hoje") LocalDate hoje,
+            @Param("agora") LocalTime agora,
+            Limit limite
+    );
+
+    /**
+     * Avança o status de um lote em um único UPDATE por chave primária.
+     * Linhas que mudaram de status desde a leitura (ex.: canceladas) são ignoradas pelo filtro de origem.
+     */
+    @Modifying
+    @Query("UPDATE Agendamento a SET a.status = :destino, a.updatedAt = :agora " +
+           "WHERE a.id IN :ids AND a.status IN :origens")
+    int atualizarStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("origens") Collection<Status> origens,
+            @Param("destino") Status destino,
+            @Param("agora") ZonedDateTime agora
+    );
+
+    @Query("SELECT a.id FROM Agendamento a WHERE a.id IN :ids AND a.status = :status")
+    List<Long> findIdsPorStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    /**
+     * Horas ocupadas por prestador e dia em um período, em uma única consulta (mapa de calor).
+     * Agendamentos começam em hora cheia: cada um ocupa da hora de início até o término arredondado para cima.
+     */
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.internal.repo.HorasOcupadas(" +
+           "a.prestadorId, a.data, SUM(EXTRACT(HOUR FROM a.horaFim) - EXTRACT(HOUR FROM a.horaInicio) + " +
+           "CASE WHEN EXTRACT(MINUTE FROM a.horaFim) > 0 THEN 1 ELSE 0 END)) FROM Agendamento a " +
+           "WHERE a.data BETWEEN :dataInicio AND :dataFim AND a.status NOT IN ('CANCELADO') " +
+           "GROUP BY a.prestadorId, a.data")
+    List<HorasOcupadas> somarHorasOcupadas(
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
 
     /**
-     * Busca agendamentos por usuário (tutor do pet).
+     * Agrupa por prestador e data os agendamentos de um lote (consolidado diário de ocupação).
      */
-    @Query("SELECT a FROM Agendamento a JOIN Pet p ON a.petId = p.id " +
-           "WHERE p.usuarioId = :usuarioId ORDER BY a.data DESC, a.horaInicio DESC")
-    List<Agendamento> findByUsuarioId(@Param("usuarioId") Long usuarioId);
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.internal.repo.OcupacaoParcial(" +
+           "a.prestadorId, a.data, COUNT(a)) FROM Agendamento a WHERE a.id IN :ids " +
+           "GROUP BY a.prestadorId, a.data")
+    List<OcupacaoParcial> contarPorPrestadorEData(@Param("ids") Collection<Long> ids);
 
     /**
      * Verifica se existe agendamento ativo para o pet.
@@ -0,0 +1,43 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.BloqueioAgenda;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repositório das linhas de bloqueio por prestador/dia.
+ */
+@Repository
+public interface BloqueioAgendaRepository extends JpaRepository<BloqueioAgenda, BloqueioAgenda.Chave> {
+
+    /**
+     * Cria a linha do prestador/dia ou, se já existe, bloqueia-a (lock exclusivo de registro na PK,
+     * mantido até o commit). Uma segunda reserva do mesmo prestador/dia espera aqui.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO bloqueios_agenda (prestador_id, data, inventario) VALUES (:prestadorId, :data, FALSE) " +
+           "ON DUPLICATE KEY UPDATE prestador_id = prestador_id",
+           nativeQuery = true)
+    int bloquear(@Param("prestadorId") Long prestadorId, @Param("data") LocalDate data);
+
+    /**
+     * 1 se o dia da linha já bloqueada pela transação passou para o inventário de vagas, 0 caso contrário.
+     * Leitura atual (FOR UPDATE), não do snapshot: enxerga a troca commitada enquanto a reserva esperava o lock.
+     */
+    @Query(value = "SELECT COUNT(*) FROM bloqueios_agenda WHERE prestador_id = :prestadorId AND data = :data " +
+           "AND inventario = TRUE FOR UPDATE",
+           nativeQuery = true)
+    long contarInventario(@Param("prestadorId") Long prestadorId, @Param("data") LocalDate data);
+
+    /**
+     * Remove as linhas de dias já encerrados.
+     */
+    @Modifying
+    @Query("DELETE FROM BloqueioAgenda b WHERE b.data < :limite")
+    int removerAnteriores(@Param("limite") LocalDate limite);
+}
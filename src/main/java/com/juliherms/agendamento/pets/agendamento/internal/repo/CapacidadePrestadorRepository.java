@@ -0,0 +1,12 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CapacidadePrestador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório das capacidades de atendimento por prestador (tabela pequena, lida inteira no snapshot).
+ */
+@Repository
+public interface CapacidadePrestadorRepository extends JpaRepository<CapacidadePrestador, Long> {
+}
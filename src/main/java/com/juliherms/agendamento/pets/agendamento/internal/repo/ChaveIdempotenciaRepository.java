@@ -0,0 +1,30 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.ChaveIdempotencia;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório das chaves de idempotência da criação de agendamentos.
+ */
+@Repository
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, String> {
+
+    /**
+     * Próximo lote de chaves expiradas (pelo índice de expira_em).
+     */
+    @Query("SELECT c.chave FROM ChaveIdempotencia c WHERE c.expiraEm <= :agora ORDER BY c.expiraEm")
+    List<String> findChavesExpiradas(@Param("agora") ZonedDateTime agora, Limit limite);
+
+    @Modifying
+    @Query("DELETE FROM ChaveIdempotencia c WHERE c.chave IN :chaves")
+    int removerPorChaves(@Param("chaves") Collection<String> chaves);
+}
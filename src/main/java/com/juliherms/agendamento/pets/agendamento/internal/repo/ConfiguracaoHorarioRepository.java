@@ -2,6 +2,7 @@ package com.juliherms.agendamento.pets.agendamento.internal.repo;
 
 import com.juliherms.agendamento.pets.agendamento.internal.domain.ConfiguracaoHorario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
@@ -19,6 +20,11 @@ public interface ConfiguracaoHorarioRepository extends JpaRepository<Configuraca
      */
     Optional<ConfiguracaoHorario> findByDiaSemanaAndAtivoTrue(DayOfWeek diaSemana);
 
+    /**
+     * Busca configuração de um dia da semana, ativa ou não.
+     */
+    Optional<ConfiguracaoHorario> findByDiaSemana(DayOfWeek diaSemana);
+
     /**
      * Busca todas as configurações ativas.
      */
@@ -28,5 +34,12 @@ public interface ConfiguracaoHorarioRepository extends JpaRepository<Configuraca
      * Verifica se existe configuração para um dia específico.
      */
     boolean existsByDiaSemanaAndAtivoTrue(DayOfWeek diaSemana);
+
+    /**
+     * Versão agregada da tabela: soma das versões + quantidade de linhas.
+     * Cresce a cada insert ou update, então basta compará-la para saber se o snapshot está defasado.
+     */
+    @Query("SELECT COALESCE(SUM(c.versao), 0) + COUNT(c) FROM ConfiguracaoHorario c")
+    long versaoAgregada();
 }
 
@@ -0,0 +1,39 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.DataFechada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositório das datas fechadas (globais e por prestador).
+ */
+@Repository
+public interface DataFechadaRepository extends JpaRepository<DataFechada, Long> {
+
+    /**
+     * Datas fechadas a partir de uma data, para montar o calendário em memória.
+     */
+    List<DataFechada> findByDataGreaterThanEqual(LocalDate data);
+
+    /**
+     * Verifica se a data já está fechada no mesmo escopo (prestadorId nulo = global).
+     */
+    @Query("SELECT COUNT(d) > 0 FROM DataFechada d WHERE d.data = :data AND " +
+           "((:prestadorId IS NULL AND d.prestadorId IS NULL) OR d.prestadorId = :prestadorId)")
+    boolean existeFechamento(@Param("prestadorId") Long prestadorId, @Param("data") LocalDate data);
+
+    /**
+     * Datas fechadas no período; com prestador, apenas as globais e as dele.
+     */
+    @Query("SELECT d FROM DataFechada d WHERE d.data BETWEEN :dataInicio AND :dataFim " +
+           "AND (:prestadorId IS NULL OR d.prestadorId IS NULL OR d.prestadorId = :prestadorId) " +
+           "ORDER BY d.data, d.id")
+    List<DataFechada> findNoPeriodo(@Param("prestadorId") Long prestadorId,
+                                    @Param("dataInicio") LocalDate dataInicio,
+                                    @Param("dataFim") LocalDate dataFim);
+}
@@ -0,0 +1,13 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Projeção de uma hora do inventário sem vagas (reservados >= capacidade), usada na busca de disponibilidade.
+ */
+public record HoraLotada(
+        Long prestadorId,
+        LocalDate data,
+        LocalTime hora
+) {}
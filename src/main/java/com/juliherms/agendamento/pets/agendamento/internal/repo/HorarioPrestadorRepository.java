@@ -0,0 +1,27 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioPrestador;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório das jornadas semanais por prestador.
+ */
+@Repository
+public interface HorarioPrestadorRepository extends JpaRepository<HorarioPrestador, Long> {
+
+    /**
+     * Jornada de um prestador (uma linha por dia configurado).
+     */
+    List<HorarioPrestador> findByPrestadorId(Long prestadorId);
+
+    /**
+     * Versão agregada da tabela: soma das versões + quantidade de linhas.
+     * Dias nunca são apagados (folga = ativo falso), então o valor só cresce a cada insert ou update.
+     */
+    @Query("SELECT COALESCE(SUM(h.versao), 0) + COUNT(h) FROM HorarioPrestador h")
+    long versaoAgregada();
+}
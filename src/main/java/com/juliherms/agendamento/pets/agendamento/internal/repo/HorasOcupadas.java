@@ -0,0 +1,12 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import java.time.LocalDate;
+
+/**
+ * Horas de agenda ocupadas de um prestador em um dia, usadas para montar o mapa de calor.
+ */
+public record HorasOcupadas(
+        Long prestadorId,
+        LocalDate data,
+        Long horas
+) {}
@@ -0,0 +1,51 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.StatusEspera;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.InteresseEspera;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Repositório da lista de espera.
+ */
+@Repository
+public interface InteresseEsperaRepository extends JpaRepository<InteresseEspera, Long> {
+
+    /**
+     * Próximo lote de entradas aguardando com id maior que o informado (carga e sincronização do índice).
+     */
+    @Query("SELECT i FROM InteresseEspera i WHERE i.status = 'AGUARDANDO' AND i.id > :aposId " +
+           "AND i.data >= :hoje ORDER BY i.id")
+    List<InteresseEspera> findAguardandoApos(@Param("aposId") Long aposId, @Param("hoje") LocalDate hoje, Limit limite);
+
+    /**
+     * Muda o status de uma entrada somente se ela ainda estiver no status esperado
+     * (compare-and-set entre instâncias e contra cancelamentos concorrentes).
+     */
+    @Modifying
+    @Query("UPDATE InteresseEspera i SET i.status = :destino, i.agendamentoId = :agendamentoId, i.updatedAt = :agora " +
+           "WHERE i.id = :id AND i.status = :origem")
+    int marcar(
+            @Param("id") Long id,
+            @Param("origem") StatusEspera origem,
+            @Param("destino") StatusEspera destino,
+            @Param("agendamentoId") Long agendamentoId,
+            @Param("agora") ZonedDateTime agora
+    );
+
+    /**
+     * Expira as entradas aguardando de datas já passadas.
+     */
+    @Modifying
+    @Query("UPDATE InteresseEspera i SET i.status = 'EXPIRADO', i.updatedAt = :agora " +
+           "WHERE i.status = 'AGUARDANDO' AND i.data < :hoje")
+    int expirar(@Param("hoje") LocalDate hoje, @Param("agora") ZonedDateTime agora);
+}
@@ -0,0 +1,76 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.api.LembretesApi;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementação de {@link LembretesApi}: consultas de leitura do módulo de notificações sobre
+ * agendamentos, pets e usuários. Usa SQL direto (sem entidades) para que a reconstrução da roda
+ * de lembretes percorra o intervalo sem hidratar objetos.
+ */
+@Repository
+public class LembreteRepository implements LembretesApi {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LembreteRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Varredura de intervalo em idx_agendamento_status_data.
+     */
+    @Override
+    public void paraCadaAtivo(LocalDate dataInicio, LocalDate dataFim, Visitante visitante) {
+        jdbcTemplate.query(
+                "SELECT id, data, hora_inicio FROM agendamentos " +
+                "WHERE status IN ('AGENDADO', 'CONFIRMADO') AND data BETWEEN :dataInicio AND :dataFim",
+                Map.of("dataInicio", dataInicio, "dataFim", dataFim),
+                (RowCallbackHandler) rs -> visitante.visitar(
+                        rs.getLong("id"),
+                        rs.getObject("data", LocalDate.class),
+                        rs.getObject("hora_inicio", LocalTime.class)));
+    }
+
+    @Override
+    public List<LembreteDestino> findDestinos(Collection<Long> agendamentoIds) {
+        return jdbcTemplate.query(
+                "SELECT a.id, a.data, a.hora_inicio, p.nome, u.email, u.telefone, " +
+                "u.email_verificado, u.telefone_verificado " +
+                "FROM agendamentos a JOIN pets p ON p.id = a.pet_id JOIN users u ON u.id = p.usuario_id " +
+                "WHERE a.id IN (:ids) AND a.status IN ('AGENDADO', 'CONFIRMADO')",
+                Map.of("ids", agendamentoIds),
+                (rs, n) -> new LembreteDestino(
+                        rs.getLong("id"),
+                        rs.getObject("data", LocalDate.class),
+                        rs.getObject("hora_inicio", LocalTime.class),
+                        rs.getString("nome"),
+                        rs.getString("email"),
+                        rs.getString("telefone"),
+                        rs.getBoolean("email_verificado"),
+                        rs.getBoolean("telefone_verificado")));
+    }
+
+    @Override
+    public Optional<ContatoPet> findContato(Long petId) {
+        return jdbcTemplate.query(
+                "SELECT p.nome, u.email, u.telefone, u.email_verificado, u.telefone_verificado " +
+                "FROM pets p JOIN users u ON u.id = p.usuario_id WHERE p.id = :petId",
+                Map.of("petId", petId),
+                (rs, n) -> new ContatoPet(
+                        rs.getString("nome"),
+                        rs.getString("email"),
+                        rs.getString("telefone"),
+                        rs.getBoolean("email_verificado"),
+                        rs.getBoolean("telefone_verificado"))).stream().findFirst();
+    }
+}
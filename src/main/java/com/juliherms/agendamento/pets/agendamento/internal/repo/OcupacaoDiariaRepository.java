@@ -0,0 +1,17 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.OcupacaoDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Leitura do consolidado diário de ocupação. As gravações são feitas por SQL no OcupacaoDiariaService.
+ */
+@Repository
+public interface OcupacaoDiariaRepository extends JpaRepository<OcupacaoDiaria, Long> {
+
+    List<OcupacaoDiaria> findByPrestadorIdAndDataBetweenOrderByData(Long prestadorId, LocalDate inicio, LocalDate fim);
+}
@@ -0,0 +1,13 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import java.time.LocalDate;
+
+/**
+ * Quantidade de agendamentos de um lote agrupada por prestador e data,
+ * usada para aplicar ao consolidado diário as transições em lote.
+ */
+public record OcupacaoParcial(
+        Long prestadorId,
+        LocalDate data,
+        Long quantidade
+) {}
@@ -0,0 +1,33 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.SerieRecorrente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório das séries recorrentes.
+ */
+@Repository
+public interface SerieRecorrenteRepository extends JpaRepository<SerieRecorrente, Long> {
+
+    /**
+     * Próximo lote de séries ativas com ocorrências não materializadas até {@code ate},
+     * com id maior que o informado. Para a carga do índice, use uma data além da última ocorrência possível.
+     */
+    @Query("SELECT s.id FROM SerieRecorrente s WHERE s.status = 'ATIVA' AND s.id > :aposId " +
+           "AND s.materializadaAte < s.dataFim AND s.materializadaAte < :ate ORDER BY s.id")
+    List<Long> findIdsPendentesApos(@Param("aposId") Long aposId, @Param("ate") LocalDate ate, Limit limite);
+
+    /**
+     * Séries com as datas puladas já carregadas (uma consulta por lote, sem N+1).
+     */
+    @Query("SELECT DISTINCT s FROM SerieRecorrente s LEFT JOIN FETCH s.datasPuladas WHERE s.id IN :ids ORDER BY s.id")
+    List<SerieRecorrente> findComPuladas(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,96 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.SlotInventario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório do inventário de vagas. As gravações em lote são feitas por SQL no InventarioSlotsService.
+ */
+@Repository
+public interface SlotInventarioRepository extends JpaRepository<SlotInventario, Long> {
+
+    /**
+     * Ocupa uma vaga em cada hora informada, apenas onde ainda há vaga (compare-and-set no banco).
+     * Retorna quantas horas foram ocupadas: menos que o pedido significa hora lotada ou sem inventário,
+     * e o chamador deve desfazer a transação. A linha fica bloqueada só até o commit.
+     */
+    @Modifying
+    @Query("UPDATE SlotInventario s SET s.reservados = s.reservados + 1 " +
+           "WHERE s.prestadorId = :prestadorId AND s.data = :data AND s.hora IN :horas " +
+           "AND s.reservados < s.capacidade")
+    int reservar(
+            @Param("prestadorId") Long prestadorId,
+            @Param("data") LocalDate data,
+            @Param("horas") Collection<LocalTime> horas
+    );
+
+    /**
+     * Conta uma reserva já existente em cada hora informada, sem conferir a capacidade
+     * (reconciliação de agendamentos gravados fora do inventário).
+     */
+    @Modifying
+    @Query("UPDATE SlotInventario s SET s.reservados = s.reservados + 1 " +
+           "WHERE s.prestadorId = :prestadorId AND s.data = :data AND s.hora IN :horas")
+    int somar(
+            @Param("prestadorId") Long prestadorId,
+            @Param("data") LocalDate data,
+            @Param("horas") Collection<LocalTime> horas
+    );
+
+    /**
+     * Devolve uma vaga em cada hora informada (cancelamento).
+     */
+    @Modifying
+    @Query("UPDATE SlotInventario s SET s.reservados = s.reservados - 1 " +
+           "WHERE s.prestadorId = :prestadorId AND s.data = :data AND s.hora IN :horas " +
+           "AND s.reservados > 0")
+    int liberar(
+            @Param("prestadorId") Long prestadorId,
+            @Param("data") LocalDate data,
+            @Param("horas") Collection<LocalTime> horas
+    );
+
+    /**
+     * Aplica a nova capacidade às vagas já geradas a partir da data. Horas com mais reservas
+     * que a nova capacidade ficam lotadas até haver cancelamentos.
+     */
+    @Modifying
+    @Query("UPDATE SlotInventario s SET s.capacidade = :capacidade " +
+           "WHERE s.prestadorId = :prestadorId AND s.data >= :desde")
+    int alterarCapacidade(
+            @Param("prestadorId") Long prestadorId,
+            @Param("desde") LocalDate desde,
+            @Param("capacidade") int capacidade
+    );
+
+    /**
+     * Remove as vagas de dias já encerrados.
+     */
+    @Modifying
+    @Query("DELETE FROM SlotInventario s WHERE s.data < :limite")
+    int removerAnteriores(@Param("limite") LocalDate limite);
+
+    /**
+     * Horas lotadas de um conjunto de prestadores em um período, em uma única consulta.
+     */
+    @Query("SELECT new com.juliherms.agendamento.pets.agendamento.internal.repo.HoraLotada(" +
+           "s.prestadorId, s.data, s.hora) FROM SlotInventario s " +
+           "WHERE s.prestadorId IN :prestadorIds AND s.data BETWEEN :dataInicio AND :dataFim " +
+           "AND s.reservados >= s.capacidade")
+    List<HoraLotada> findLotadas(
+            @Param("prestadorIds") Collection<Long> prestadorIds,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim
+    );
+
+    List<SlotInventario> findByPrestadorIdAndDataOrderByHora(Long prestadorId, LocalDate data);
+}
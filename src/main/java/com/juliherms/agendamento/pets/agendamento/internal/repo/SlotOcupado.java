@@ -0,0 +1,15 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Projeção enxuta de um intervalo ocupado (prestador, data, início e fim),
+ * usada nas consultas de disponibilidade e na carga do índice de ocupação.
+ */
+public record SlotOcupado(
+        Long prestadorId,
+        LocalDate data,
+        LocalTime horaInicio,
+        LocalTime horaFim
+) {}
@@ -0,0 +1,28 @@
+package com.juliherms.agendamento.pets.agendamento.internal.repo;
+
+import com.juliherms.agendamento.pets.users.api.UserApi;
+
+/**
+ * Projeção com os flags necessários para validar um novo agendamento
+ * (pet, tutor, serviço e prestador), lidos em uma única consulta.
+ * Cada valor é nulo quando o registro correspondente não existe.
+ */
+public interface ValidacaoAgendamento {
+
+    /** Tutor do pet; nulo se o pet não existir. */
+    Long getTutorId();
+
+    /** Status do tutor do pet; nulo se o tutor não existir. */
+    UserApi.Status getStatusTutor();
+
+    /** Flag ativo do serviço; nulo se o serviço não existir. */
+    Boolean getServicoAtivo();
+
+    /** Status do prestador; nulo se o prestador não existir. */
+    UserApi.Status getStatusPrestador();
+
+    /** Perfil do prestador; nulo se o prestador não existir. */
+    UserApi.Perfil getPerfilPrestador();
+
+    Integer getDuracaoServico();
+}
@@ -0,0 +1,58 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Intervalos ocupados de um prestador em um dia, em minutos desde 00:00 e semiabertos [início, fim).
+ * Os agendamentos de um prestador não se sobrepõem, então uma árvore ordenada pelo início
+ * basta como árvore de intervalos: o único candidato a sobrepor [a, b) é o intervalo com
+ * o maior início anterior a b. Consultas e atualizações custam O(log n).
+ */
+final class AgendaDia {
+
+    private final ConcurrentSkipListMap<Integer, Integer> intervalos = new ConcurrentSkipListMap<>();
+
+    void ocupar(LocalTime inicio, LocalTime fim) {
+        intervalos.put(minutos(inicio), minutosFim(fim));
+    }
+
+    void liberar(LocalTime inicio) {
+        intervalos.remove(minutos(inicio));
+    }
+
+    /**
+     * Verifica se [inicio, fim) sobrepõe algum intervalo ocupado.
+     */
+    boolean temSobreposicao(LocalTime inicio, LocalTime fim) {
+        return sobrepoe(minutos(inicio), minutosFim(fim));
+    }
+
+    /**
+     * Verifica se o instante está dentro de algum intervalo ocupado.
+     */
+    boolean contem(LocalTime instante) {
+        int minuto = minutos(instante);
+        return sobrepoe(minuto, minuto + 1);
+    }
+
+    int tamanho() {
+        return intervalos.size();
+    }
+
+    private boolean sobrepoe(int inicio, int fim) {
+        Map.Entry<Integer, Integer> anterior = intervalos.lowerEntry(fim);
+        return anterior != null && anterior.getValue() > inicio;
+    }
+
+    private static int minutos(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    // 00:00 como término representa a meia-noite do fim do dia
+    private static int minutosFim(LocalTime fim) {
+        int minutos = minutos(fim);
+        return minutos == 0 ? 24 * 60 : minutos;
+    }
+}
@@ -3,24 +3,35 @@ package com.juliherms.agendamento.pets.agendamento.internal.service;
 import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
 
 import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.ChaveIdempotencia;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
 import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoArquivoRepository;
 import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
-import com.juliherms.agendamento.pets.agendamento.internal.repo.ConfiguracaoHorarioRepository;
-import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
-import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ChaveIdempotenciaRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ValidacaoAgendamento;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
 import com.juliherms.agendamento.pets.users.api.UserApi;
-import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Serviço responsável pela criação e validação de agendamentos.
@@ -31,25 +42,52 @@ public class AgendamentoService {
 
     private static final Logger log = LoggerFactory.getLogger(AgendamentoService.class);
 
+    public static final int TAMANHO_PAGINA_PADRAO = 20;
+    public static final int TAMANHO_PAGINA_MAXIMO = 100;
+    static final int TAMANHO_LOTE_EXPORTACAO = 500;
+    static final int DURACAO_PADRAO_MINUTOS = 60;
+
+    // Mesma ordem das consultas de histórico: data, horaInicio e id decrescentes
+    private static final Comparator<AgendamentoApi.AgendamentoResponse> ORDEM_HISTORICO =
+            Comparator.comparing(AgendamentoApi.AgendamentoResponse::data)
+                    .thenComparing(AgendamentoApi.AgendamentoResponse::horaInicio)
+                    .thenComparing(AgendamentoApi.AgendamentoResponse::id)
+                    .reversed();
+
     private final AgendamentoRepository agendamentoRepository;
-    private final ConfiguracaoHorarioRepository configuracaoHorarioRepository;
-    private final PetRepository petRepository;
-    private final OfferedServiceRepository servicoRepository;
-    private final UserRepository userRepository;
+    private final AgendamentoArquivoRepository arquivoRepository;
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final ConfiguracaoHorarioService configuracaoHorarioService;
+    private final CalendarioFechamentoService calendarioFechamentoService;
+    private final IndiceOcupacao indiceOcupacao;
+    private final ReservasTemporarias reservasTemporarias;
+    private final IndiceSeries indiceSeries;
+    private final InventarioSlotsService inventarioSlotsService;
+    private final BloqueioAgendaService bloqueioAgendaService;
     private final ApplicationEventPublisher eventPublisher;
 
     public AgendamentoService(
             AgendamentoRepository agendamentoRepository,
-            ConfiguracaoHorarioRepository configuracaoHorarioRepository,
-            PetRepository petRepository,
-            OfferedServiceRepository servicoRepository,
-            UserRepository userRepository,
+            AgendamentoArquivoRepository arquivoRepository,
+            ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+            ConfiguracaoHorarioService configuracaoHorarioService,
+            CalendarioFechamentoService calendarioFechamentoService,
+            IndiceOcupacao indiceOcupacao,
+            ReservasTemporarias reservasTemporarias,
+            IndiceSeries indiceSeries,
+            InventarioSlotsService inventarioSlotsService,
+            BloqueioAgendaService bloqueioAgendaService,
             ApplicationEventPublisher eventPublisher) {
         this.agendamentoRepository = agendamentoRepository;
-        this.configuracaoHorarioRepository = configuracaoHorarioRepository;
-        this.petRepository = petRepository;
-        this.servicoRepository = servicoRepository;
-        this.userRepository = userRepository;
+        this.arquivoRepository = arquivoRepository;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.configuracaoHorarioService = configuracaoHorarioService;
+        this.calendarioFechamentoService = calendarioFechamentoService;
+        this.indiceOcupacao = indiceOcupacao;
+        this.reservasTemporarias = reservasTemporarias;
+        this.indiceSeries = indiceSeries;
+        this.inventarioSlotsService = inventarioSlotsService;
+        this.bloqueioAgendaService = bloqueioAgendaService;
         this.eventPublisher = eventPublisher;
     }
 
@@ -61,26 +99,127 @@ public class AgendamentoService {
      */
     @Transactional
     public AgendamentoApi.AgendamentoResponse criarAgendamento(AgendamentoApi.CreateAgendamentoRequest request) {
+        return criarAgendamento(request, null, null);
+    }
+
+    /**
+     * Cria um novo agendamento e, se houver chave de idempotência, grava a resposta
+     * na mesma transação (uma chave repetida desfaz a criação pela violação da PK).
+     *
+     * @param request Dados do agendamento a ser criado
+     * @param chaveIdempotencia Valor do cabeçalho Idempotency-Key (opcional)
+     * @param expiraEm Validade da chave (obrigatória se houver chave)
+     * @return Response com os dados do agendamento criado
+     */
+    @Transactional
+    public AgendamentoApi.AgendamentoResponse criarAgendamento(AgendamentoApi.CreateAgendamentoRequest request,
+                                                               String chaveIdempotencia, ZonedDateTime expiraEm) {
 
         log.info("[AGENDAMENTO] Iniciando criação de agendamento para pet {}, serviço {}, prestador {}",
                 request.petId(), request.servicoId(), request.prestadorId());
 
-        // Validações de negócio
-        validarPet(request.petId());
-        validarServico(request.servicoId());
-        validarPrestador(request.prestadorId());
-        validarHorario(request.data(), request.horaInicio());
-        validarDisponibilidade(request.prestadorId(), request.data(), request.horaInicio());
+        ValidacaoAgendamento validacao = validar(request.petId(), request.servicoId(), request.prestadorId());
+
+        int duracao = duracao(validacao);
+        LocalTime horaFim = request.horaInicio().plusMinutes(duracao);
+        validarHorario(request.prestadorId(), request.data(), request.horaInicio(), horaFim);
+        validarDisponibilidade(request.prestadorId(), request.data(), request.horaInicio(), horaFim);
 
         // Cria o agendamento
         Agendamento agendamento = new Agendamento();
         agendamento.setPetId(request.petId());
         agendamento.setServicoId(request.servicoId());
         agendamento.setPrestadorId(request.prestadorId());
+        agendamento.setTutorId(validacao.getTutorId());
         agendamento.setData(request.data());
         agendamento.setHoraInicio(request.horaInicio());
+        agendamento.setHoraFim(horaFim);
+
+        AgendamentoApi.AgendamentoResponse response = registrar(agendamento);
+        if (chaveIdempotencia != null) {
+            chaveIdempotenciaRepository.saveAndFlush(new ChaveIdempotencia(chaveIdempotencia, response, expiraEm));
+        }
+        return response;
+    }
+
+    /**
+     * Reserva temporariamente um horário durante o checkout, com as mesmas validações da criação.
+     * Enquanto vigente, o horário é recusado para outros clientes.
+     *
+     * @param request Dados do agendamento pretendido
+     * @return Reserva com id e validade
+     */
+    @Transactional(readOnly = true)
+    public AgendamentoApi.ReservaTemporariaResponse reservarHorario(AgendamentoApi.CreateAgendamentoRequest request) {
+        ValidacaoAgendamento validacao = validar(request.petId(), request.servicoId(), request.prestadorId());
+
+        LocalTime horaFim = request.horaInicio().plusMinutes(duracao(validacao));
+        validarHorario(request.prestadorId(), request.data(), request.horaInicio(), horaFim);
+        validarDisponibilidade(request.prestadorId(), request.data(), request.horaInicio(), horaFim);
+
+        ReservasTemporarias.Reserva reserva = reservasTemporarias.reservar(request.petId(), request.servicoId(),
+                request.prestadorId(), validacao.getTutorId(), request.data(), request.horaInicio(), horaFim,
+                Instant.now());
+        if (reserva == null) {
+            throw new AgendamentoExceptionHandler.HorarioIndisponivelException(
+                    "Horário reservado temporariamente por outro cliente");
+        }
 
-        Agendamento saved = agendamentoRepository.save(agendamento);
+        log.info("[AGENDAMENTO] Reserva temporária {} criada para prestador {} em {} {}",
+                reserva.id(), reserva.prestadorId(), reserva.data(), reserva.horaInicio());
+        return mapToResponse(reserva);
+    }
+
+    /**
+     * Converte uma reserva temporária vigente em agendamento. As validações de pet, serviço,
+     * prestador e horário já foram feitas na reserva e não são repetidas; a sobreposição
+     * com outros agendamentos continua garantida no insert. A reserva só sai da memória após o commit
+     * ({@link AposCommit}): se a transação for desfeita, o horário continua segurado até expirar.
+     *
+     * @param reservaId ID da reserva temporária
+     * @return Agendamento criado
+     */
+    @Transactional
+    public AgendamentoApi.AgendamentoResponse confirmarReserva(String reservaId) {
+        ReservasTemporarias.Reserva reserva = reservaVigente(reservaId);
+
+        Agendamento agendamento = new Agendamento();
+        agendamento.setPetId(reserva.petId());
+        agendamento.setServicoId(reserva.servicoId());
+        agendamento.setPrestadorId(reserva.prestadorId());
+        agendamento.setTutorId(reserva.tutorId());
+        agendamento.setData(reserva.data());
+        agendamento.setHoraInicio(reserva.horaInicio());
+        agendamento.setHoraFim(reserva.horaFim());
+
+        AgendamentoApi.AgendamentoResponse response = registrar(agendamento);
+        AposCommit.executar(() -> reservasTemporarias.converter(reserva));
+        return response;
+    }
+
+    /**
+     * Desiste de uma reserva temporária, liberando o horário antes da expiração.
+     *
+     * @param reservaId ID da reserva temporária
+     */
+    public void liberarReserva(String reservaId) {
+        reservasTemporarias.liberar(reservaVigente(reservaId));
+    }
+
+    private ReservasTemporarias.Reserva reservaVigente(String reservaId) {
+        ReservasTemporarias.Reserva reserva = reservasTemporarias.buscar(reservaId, Instant.now());
+        if (reserva == null) {
+            throw new AgendamentoExceptionHandler.ReservaTemporariaNaoEncontradaException(
+                    "Reserva temporária não encontrada ou expirada: " + reservaId);
+        }
+        return reserva;
+    }
+
+    /**
+     * Persiste o agendamento já validado e publica o evento de criação.
+     */
+    AgendamentoApi.AgendamentoResponse registrar(Agendamento agendamento) {
+        Agendamento saved = salvar(agendamento);
 
         log.info("[AGENDAMENTO] Agendamento criado com sucesso: ID {}", saved.getId());
 
@@ -92,7 +231,8 @@ public class AgendamentoService {
                 saved.getPrestadorId(),
                 saved.getData(),
                 saved.getHoraInicio(),
-                saved.getHoraFim()
+                saved.getHoraFim(),
+                saved.getUpdatedAt()
         );
         eventPublisher.publishEvent(event);
 
@@ -110,20 +250,37 @@ public class AgendamentoService {
         );
     }
 
+    /**
+     * Validações de negócio de pet, serviço e prestador, lidos em uma única consulta.
+     */
+    ValidacaoAgendamento validar(Long petId, Long servicoId, Long prestadorId) {
+        ValidacaoAgendamento validacao = agendamentoRepository.findValidacao(petId, servicoId, prestadorId);
+        validarPet(petId, validacao);
+        validarServico(servicoId, validacao);
+        validarPrestador(prestadorId, validacao);
+        return validacao;
+    }
+
+    static int duracao(ValidacaoAgendamento validacao) {
+        return validacao.getDuracaoServico() != null ? validacao.getDuracaoServico() : DURACAO_PADRAO_MINUTOS;
+    }
+
     /**
      * Valida se o pet existe e está ativo.
      */
-    private void validarPet(Long petId) {
-        var pet = petRepository.findById(petId)
-                .orElseThrow(() -> new AgendamentoExceptionHandler.PetNaoEncontradoException(
-                        "Pet não encontrado com ID: " + petId));
+    private void validarPet(Long petId, ValidacaoAgendamento validacao) {
+        if (validacao.getTutorId() == null) {
+            throw new AgendamentoExceptionHandler.PetNaoEncontradoException(
+                    "Pet não encontrado com ID: " + petId);
+        }
 
         // Verifica se o pet pertence a um usuário ativo
-        var user = userRepository.findById(pet.getUsuarioId())
-                .orElseThrow(() -> new AgendamentoExceptionHandler.UsuarioSemPermissaoException(
-                        "Usuário do pet não encontrado"));
+        if (validacao.getStatusTutor() == null) {
+            throw new AgendamentoExceptionHandler.UsuarioSemPermissaoException(
+                    "Usuário do pet não encontrado");
+        }
 
-        if (user.getStatus() != UserApi.Status.ativo) {
+        if (validacao.getStatusTutor() != UserApi.Status.ativo) {
             throw new AgendamentoExceptionHandler.UsuarioSemPermissaoException(
                     "Usuário do pet não está ativo");
         }
@@ -132,12 +289,13 @@ public class AgendamentoService {
     /**
      * Valida se o serviço existe e está ativo.
      */
-    private void validarServico(Long servicoId) {
-        var servico = servicoRepository.findById(servicoId)
-                .orElseThrow(() -> new AgendamentoExceptionHandler.ServicoNaoEncontradoException(
-                        "Serviço não encontrado com ID: " + servicoId));
+    private void validarServico(Long servicoId, ValidacaoAgendamento validacao) {
+        if (validacao.getServicoAtivo() == null) {
+            throw new AgendamentoExceptionHandler.ServicoNaoEncontradoException(
+                    "Serviço não encontrado com ID: " + servicoId);
+        }
 
-        if (!servico.isAtivo()) {
+        if (!validacao.getServicoAtivo()) {
             throw new AgendamentoExceptionHandler.ServicoNaoEncontradoException(
                     "Serviço não está ativo");
         }
@@ -146,17 +304,18 @@ public class AgendamentoService {
     /**
      * Valida se o prestador existe e está ativo.
      */
-    private void validarPrestador(Long prestadorId) {
-        var prestador = userRepository.findById(prestadorId)
-                .orElseThrow(() -> new AgendamentoExceptionHandler.PrestadorNaoEncontradoException(
-                        "Prestador não encontrado com ID: " + prestadorId));
+    private void validarPrestador(Long prestadorId, ValidacaoAgendamento validacao) {
+        if (validacao.getStatusPrestador() == null) {
+            throw new AgendamentoExceptionHandler.PrestadorNaoEncontradoException(
+                    "Prestador não encontrado com ID: " + prestadorId);
+        }
 
-        if (prestador.getStatus() != UserApi.Status.ativo) {
+        if (validacao.getStatusPrestador() != UserApi.Status.ativo) {
             throw new AgendamentoExceptionHandler.PrestadorNaoEncontradoException(
                     "Prestador não está ativo");
         }
 
-        if (prestador.getPerfil() != UserApi.Perfil.PROVEDOR) {
+        if (validacao.getPerfilPrestador() != UserApi.Perfil.PROVEDOR) {
             throw new AgendamentoExceptionHandler.PrestadorNaoEncontradoException(
                     "Usuário não é um prestador de serviços");
         }
@@ -164,8 +323,10 @@ public class AgendamentoService {
 
     /**
      * Valida se o horário solicitado está dentro das regras de negócio.
+     * O expediente é a jornada do prestador (ou o horário comercial global) em máscara de meias horas:
+     * o intervalo pedido cabe se todos os seus bits estiverem abertos.
      */
-    private void validarHorario(LocalDate data, LocalTime horaInicio) {
+    void validarHorario(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
         ZoneId zoneId = ZoneId.of("America/Recife");
         ZonedDateTime agora = ZonedDateTime.now(zoneId);
         ZonedDateTime horarioSolicitado = data.atTime(horaInicio).atZone(zoneId);
@@ -195,54 +356,332 @@ public class AgendamentoService {
                     "Domingo não é dia de funcionamento");
         }
 
-        // Valida horário comercial
-        var configHorario = configuracaoHorarioRepository.findByDiaSemanaAndAtivoTrue(diaSemana)
-                .orElseThrow(() -> new AgendamentoExceptionHandler.DiaIndisponivelException(
-                        "Dia " + diaSemana + " não configurado para funcionamento"));
+        // Valida horário comercial (snapshot em memória, sem consulta ao banco)
+        var horarioComercial = configuracaoHorarioService.snapshot();
+        long expediente = horarioComercial.meiasHoras(prestadorId, diaSemana);
+        if (expediente == 0) {
+            throw new AgendamentoExceptionHandler.DiaIndisponivelException(
+                    "Dia " + diaSemana + " não configurado para funcionamento");
+        }
 
-        if (horaInicio.isBefore(configHorario.getHoraAbertura()) || 
-            horaInicio.isAfter(configHorario.getHoraFechamento()) ||
-            horaInicio.equals(configHorario.getHoraFechamento())) {
+        LocalTime abertura = HorarioComercial.abertura(expediente);
+        LocalTime fechamento = HorarioComercial.fechamento(expediente);
+        if ((expediente & HorarioComercial.meiasHoras(horaInicio, horaInicio.plusMinutes(30))) == 0) {
             throw new AgendamentoExceptionHandler.HorarioForaComercialException(
-                    "Horário fora do horário comercial (" + 
-                    configHorario.getHoraAbertura() + " - " + 
-                    configHorario.getHoraFechamento() + ")");
+                    "Horário fora do horário comercial (" + abertura + " - " + fechamento + ")");
+        }
+
+        // O serviço precisa terminar até o fechamento (e no mesmo dia), sem invadir o intervalo do prestador
+        if (!horaFim.isAfter(horaInicio) || horaFim.isAfter(fechamento)) {
+            throw new AgendamentoExceptionHandler.HorarioForaComercialException(
+                    "Serviço terminaria às " + horaFim + ", após o fechamento (" + fechamento + ")");
+        }
+        if ((HorarioComercial.meiasHoras(horaInicio, horaFim) & ~expediente) != 0) {
+            throw new AgendamentoExceptionHandler.HorarioForaComercialException(
+                    "Serviço terminaria às " + horaFim + ", dentro do intervalo do prestador");
         }
     }
 
     /**
-     * Valida se o horário está disponível para o prestador.
+     * Rejeita datas fechadas (feriados e folgas do prestador) e, antecipadamente, intervalos reservados
+     * temporariamente por outro cliente, ocupados por ocorrências ainda não materializadas de séries
+     * recorrentes ou que o índice de ocupação já sabe estarem em conflito.
+     * Não consulta o banco: a disponibilidade é garantida no insert
+     * (ver {@link #salvar(Agendamento)}).
      */
-    private void validarDisponibilidade(Long prestadorId, LocalDate data, LocalTime horaInicio) {
-        var conflito = agendamentoRepository.findByPrestadorIdAndDataAndHoraInicio(
-                prestadorId, data, horaInicio);
-
-        if (conflito.isPresent()) {
+    private void validarDisponibilidade(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        if (calendarioFechamentoService.fechado(prestadorId, data)) {
+            throw new AgendamentoExceptionHandler.DiaIndisponivelException(
+                    "Data " + data + " fechada para agendamentos");
+        }
+        if (reservasTemporarias.temSobreposicao(prestadorId, data, horaInicio, horaFim, null, Instant.now())) {
+            throw new AgendamentoExceptionHandler.HorarioIndisponivelException(
+                    "Horário reservado temporariamente por outro cliente");
+        }
+        if (indiceSeries.temSobreposicao(prestadorId, data, horaInicio, horaFim)) {
+            throw new AgendamentoExceptionHandler.HorarioIndisponivelException(
+                    "Horário reservado por um agendamento recorrente");
+        }
+        // O índice trata cada hora como vaga única; prestadores com capacidade são conferidos no inventário
+        if (indiceOcupacao.isHabilitado() && !inventarioSlotsService.usaInventario(prestadorId)
+                && indiceOcupacao.temSobreposicao(prestadorId, data, horaInicio, horaFim)) {
             throw new AgendamentoExceptionHandler.HorarioIndisponivelException(
                     "Horário indisponível para o prestador");
         }
     }
 
     /**
-     * Busca agendamentos por usuário (tutor do pet).
+     * Persiste o agendamento (insert otimista) e confirma que não há sobreposição.
+     * Reservas do mesmo prestador/dia passam uma de cada vez pela linha de bloqueio
+     * ({@link BloqueioAgendaService}), tomada antes do insert. Mesmo início é barrado pela
+     * unique key uk_prestador_data_hora; sobreposições com início diferente, pela leitura
+     * com lock do intervalo logo após o insert. Conflitos viram horário indisponível e a
+     * transação é desfeita; falhas de lock (deadlock ou timeout) não indicam conflito e
+     * viram {@link AgendamentoExceptionHandler.ReservaConcorrenteException}.
+     * Prestadores com capacidade tomam a vaga no inventário (UPDATE condicional) antes do insert,
+     * sem a linha de bloqueio nem a leitura com lock. Se o prestador passou para o inventário depois
+     * da última sincronização deste nó, a linha de bloqueio já vem marcada e a reserva segue pelo inventário.
      */
-    public java.util.List<AgendamentoApi.AgendamentoResponse> buscarAgendamentosPorUsuario(Long usuarioId) {
-        var agendamentos = agendamentoRepository.findByUsuarioId(usuarioId);
-        
-        return agendamentos.stream()
-                .map(this::mapToResponse)
-                .toList();
+    private Agendamento salvar(Agendamento agendamento) {
+        if (inventarioSlotsService.usaInventario(agendamento.getPrestadorId())) {
+            return salvarNoInventario(agendamento);
+        }
+        try {
+            if (bloqueioAgendaService.bloquear(agendamento.getPrestadorId(), agendamento.getData())) {
+                AposCommit.executar(inventarioSlotsService::sincronizar);
+                return salvarNoInventario(agendamento);
+            }
+            Agendamento saved = agendamentoRepository.saveAndFlush(agendamento);
+            List<Long> sobrepostos = agendamentoRepository.findIdsSobrepostos(
+                    saved.getPrestadorId(), saved.getData(), saved.getHoraInicio(), saved.getHoraFim(), saved.getId());
+            if (!sobrepostos.isEmpty()) {
+                throw conflito(agendamento);
+            }
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (!violouSlotUnico(e)) {
+                throw e;
+            }
+            throw conflito(agendamento);
+        } catch (PessimisticLockingFailureException e) {
+            // O InnoDB desfez esta transação por lock, não por conflito: o horário pode estar livre
+            log.warn("[AGENDAMENTO] Falha de lock ao reservar para prestador {} em {} {}: {}",
+                    agendamento.getPrestadorId(), agendamento.getData(), agendamento.getHoraInicio(),
+                    e.getMostSpecificCause().getMessage());
+            throw new AgendamentoExceptionHandler.ReservaConcorrenteException(
+                    "Reserva concorrente para o prestador; tente novamente");
+        }
+    }
+
+    private Agendamento salvarNoInventario(Agendamento agendamento) {
+        if (!inventarioSlotsService.reservar(agendamento.getPrestadorId(), agendamento.getData(),
+                agendamento.getHoraInicio(), agendamento.getHoraFim())) {
+            throw conflito(agendamento);
+        }
+        agendamento.ocuparPeloInventario();
+        return agendamentoRepository.saveAndFlush(agendamento);
+    }
+
+    private AgendamentoExceptionHandler.HorarioIndisponivelException conflito(Agendamento agendamento) {
+        log.info("[AGENDAMENTO] Conflito de horário detectado pelo banco para prestador {} em {} {}-{}",
+                agendamento.getPrestadorId(), agendamento.getData(),
+                agendamento.getHoraInicio(), agendamento.getHoraFim());
+        // O índice estava desatualizado para esse prestador/data: força nova carga
+        indiceOcupacao.invalidar(agendamento.getPrestadorId(), agendamento.getData());
+        return new AgendamentoExceptionHandler.HorarioIndisponivelException(
+                "Horário indisponível para o prestador");
+    }
+
+    private boolean violouSlotUnico(DataIntegrityViolationException e) {
+        String mensagem = e.getMostSpecificCause().getMessage();
+        return mensagem != null && mensagem.toLowerCase().contains("uk_prestador_data_hora");
+    }
+
+    /**
+     * Cancela um agendamento, liberando o horário do prestador.
+     *
+     * @param agendamentoId ID do agendamento a ser cancelado
+     * @return Response com os dados do agendamento cancelado
+     */
+    @Transactional
+    public AgendamentoApi.AgendamentoResponse cancelarAgendamento(Long agendamentoId) {
+        Agendamento agendamento = agendamentoRepository.findById(agendamentoId)
+                .orElseThrow(() -> new AgendamentoExceptionHandler.AgendamentoNaoEncontradoException(
+                        "Agendamento não encontrado com ID: " + agendamentoId));
+
+        AgendamentoApi.Status statusAnterior = agendamento.getStatus();
+        if (statusAnterior == AgendamentoApi.Status.CANCELADO) {
+            return mapToResponse(agendamento);
+        }
+        if (statusAnterior == AgendamentoApi.Status.CONCLUIDO) {
+            throw new AgendamentoExceptionHandler.TransicaoStatusInvalidaException(
+                    "Agendamento já concluído não pode ser cancelado");
+        }
+
+        agendamento.setStatus(AgendamentoApi.Status.CANCELADO);
+        // Flush para o evento levar o updated_at gravado
+        agendamentoRepository.saveAndFlush(agendamento);
+        if (agendamento.isInventario()) {
+            inventarioSlotsService.liberar(agendamento.getPrestadorId(), agendamento.getData(),
+                    agendamento.getHoraInicio(), agendamento.getHoraFim());
+        }
+
+        log.info("[AGENDAMENTO] Agendamento {} cancelado (status anterior: {})", agendamentoId, statusAnterior);
+
+        eventPublisher.publishEvent(new AgendamentoApi.AgendamentoStatusAlteradoEvent(
+                agendamento.getId(),
+                agendamento.getPrestadorId(),
+                agendamento.getData(),
+                agendamento.getHoraInicio(),
+                agendamento.getHoraFim(),
+                statusAnterior,
+                AgendamentoApi.Status.CANCELADO,
+                agendamento.getUpdatedAt()
+        ));
+
+        return mapToResponse(agendamento);
+    }
+
+    /**
+     * Busca uma página do histórico de agendamentos de um usuário (tutor do pet).
+     *
+     * @param usuarioId ID do tutor
+     * @param cursor Token de continuação da página anterior (nulo na primeira página)
+     * @param tamanho Itens por página, limitado a {@link #TAMANHO_PAGINA_MAXIMO}
+     */
+    @Transactional(readOnly = true)
+    public AgendamentoApi.PaginaAgendamentosResponse buscarAgendamentosPorUsuario(Long usuarioId, String cursor, int tamanho) {
+        return buscarAgendamentosPorUsuario(usuarioId, cursor, tamanho, false);
+    }
+
+    /**
+     * Busca uma página do histórico de um usuário, opcionalmente incluindo os agendamentos arquivados.
+     *
+     * @param incluirArquivo Se true, mescla agendamentos_arquivo na mesma ordem e cursor
+     */
+    @Transactional(readOnly = true)
+    public AgendamentoApi.PaginaAgendamentosResponse buscarAgendamentosPorUsuario(
+            Long usuarioId, String cursor, int tamanho, boolean incluirArquivo) {
+        return paginar(historicoPorUsuario(usuarioId, incluirArquivo), CursorHistorico.decodificar(cursor), limitarTamanho(tamanho));
+    }
+
+    /**
+     * Busca uma página do histórico de agendamentos de um pet.
+     *
+     * @param petId ID do pet
+     * @param cursor Token de continuação da página anterior (nulo na primeira página)
+     * @param tamanho Itens por página, limitado a {@link #TAMANHO_PAGINA_MAXIMO}
+     */
+    @Transactional(readOnly = true)
+    public AgendamentoApi.PaginaAgendamentosResponse buscarAgendamentosPorPet(Long petId, String cursor, int tamanho) {
+        return buscarAgendamentosPorPet(petId, cursor, tamanho, false);
+    }
+
+    /**
+     * Busca uma página do histórico de um pet, opcionalmente incluindo os agendamentos arquivados.
+     *
+     * @param incluirArquivo Se true, mescla agendamentos_arquivo na mesma ordem e cursor
+     */
+    @Transactional(readOnly = true)
+    public AgendamentoApi.PaginaAgendamentosResponse buscarAgendamentosPorPet(
+            Long petId, String cursor, int tamanho, boolean incluirArquivo) {
+        return paginar(historicoPorPet(petId, incluirArquivo), CursorHistorico.decodificar(cursor), limitarTamanho(tamanho));
     }
 
     /**
-     * Busca agendamentos por pet.
+     * Histórico completo de um usuário para exportação. O stream é lazy: lê lotes
+     * de {@link #TAMANHO_LOTE_EXPORTACAO} sob demanda, sem manter o resultado inteiro em memória.
      */
-    public java.util.List<AgendamentoApi.AgendamentoResponse> buscarAgendamentosPorPet(Long petId) {
-        var agendamentos = agendamentoRepository.findByPetIdOrderByDataDescHoraInicioDesc(petId);
-        
-        return agendamentos.stream()
-                .map(this::mapToResponse)
-                .toList();
+    public Stream<AgendamentoApi.AgendamentoResponse> exportarAgendamentosPorUsuario(Long usuarioId) {
+        return exportarAgendamentosPorUsuario(usuarioId, false);
+    }
+
+    public Stream<AgendamentoApi.AgendamentoResponse> exportarAgendamentosPorUsuario(Long usuarioId, boolean incluirArquivo) {
+        return exportar(historicoPorUsuario(usuarioId, incluirArquivo));
+    }
+
+    /**
+     * Histórico completo de um pet para exportação, lido em lotes sob demanda.
+     */
+    public Stream<AgendamentoApi.AgendamentoResponse> exportarAgendamentosPorPet(Long petId) {
+        return exportarAgendamentosPorPet(petId, false);
+    }
+
+    public Stream<AgendamentoApi.AgendamentoResponse> exportarAgendamentosPorPet(Long petId, boolean incluirArquivo) {
+        return exportar(historicoPorPet(petId, incluirArquivo));
+    }
+
+    private ConsultaHistorico historicoPorUsuario(Long usuarioId, boolean incluirArquivo) {
+        ConsultaHistorico ativos = (apos, limite) -> apos == null
+                ? agendamentoRepository.findHistoricoPorUsuario(usuarioId, limite)
+                : agendamentoRepository.findHistoricoPorUsuarioApos(
+                        usuarioId, apos.data(), apos.horaInicio(), apos.id(), limite);
+        if (!incluirArquivo) {
+            return ativos;
+        }
+        ConsultaHistorico arquivados = (apos, limite) -> apos == null
+                ? arquivoRepository.findHistoricoPorUsuario(usuarioId, limite)
+                : arquivoRepository.findHistoricoPorUsuarioApos(
+                        usuarioId, apos.data(), apos.horaInicio(), apos.id(), limite);
+        return mesclar(ativos, arquivados);
+    }
+
+    private ConsultaHistorico historicoPorPet(Long petId, boolean incluirArquivo) {
+        ConsultaHistorico ativos = (apos, limite) -> apos == null
+                ? agendamentoRepository.findHistoricoPorPet(petId, limite)
+                : agendamentoRepository.findHistoricoPorPetApos(
+                        petId, apos.data(), apos.horaInicio(), apos.id(), limite);
+        if (!incluirArquivo) {
+            return ativos;
+        }
+        ConsultaHistorico arquivados = (apos, limite) -> apos == null
+                ? arquivoRepository.findHistoricoPorPet(petId, limite)
+                : arquivoRepository.findHistoricoPorPetApos(
+                        petId, apos.data(), apos.horaInicio(), apos.id(), limite);
+        return mesclar(ativos, arquivados);
+    }
+
+    /**
+     * União das duas tabelas: o mesmo keyset é aplicado a ambas, e as duas listas já ordenadas
+     * são intercaladas e cortadas no limite. Como o arquivo preserva os ids, o cursor continua
+     * único e a página seguinte recomeça corretamente nas duas tabelas.
+     */
+    private static ConsultaHistorico mesclar(ConsultaHistorico ativos, ConsultaHistorico arquivados) {
+        return (apos, limite) -> {
+            List<AgendamentoApi.AgendamentoResponse> a = ativos.buscar(apos, limite);
+            List<AgendamentoApi.AgendamentoResponse> b = arquivados.buscar(apos, limite);
+            int max = limite.max();
+            List<AgendamentoApi.AgendamentoResponse> resultado = new ArrayList<>(Math.min(max, a.size() + b.size()));
+            int i = 0;
+            int j = 0;
+            while (resultado.size() < max && (i < a.size() || j < b.size())) {
+                if (j >= b.size() || (i < a.size() && ORDEM_HISTORICO.compare(a.get(i), b.get(j)) <= 0)) {
+                    resultado.add(a.get(i++));
+                } else {
+                    resultado.add(b.get(j++));
+                }
+            }
+            return resultado;
+        };
+    }
+
+    private AgendamentoApi.PaginaAgendamentosResponse paginar(ConsultaHistorico consulta, CursorHistorico apos, int tamanho) {
+        // Busca um item a mais para saber se existe próxima página sem COUNT
+        List<AgendamentoApi.AgendamentoResponse> agendamentos = consulta.buscar(apos, Limit.of(tamanho + 1));
+        boolean temProxima = agendamentos.size() > tamanho;
+        List<AgendamentoApi.AgendamentoResponse> pagina = temProxima ? agendamentos.subList(0, tamanho) : agendamentos;
+
+        String proximoCursor = temProxima
+                ? CursorHistorico.de(pagina.get(pagina.size() - 1)).codificar()
+                : null;
+
+        return new AgendamentoApi.PaginaAgendamentosResponse(pagina, proximoCursor);
+    }
+
+    private Stream<AgendamentoApi.AgendamentoResponse> exportar(ConsultaHistorico consulta) {
+        return Stream.iterate(
+                        consulta.buscar(null, Limit.of(TAMANHO_LOTE_EXPORTACAO)),
+                        Objects::nonNull,
+                        lote -> lote.size() < TAMANHO_LOTE_EXPORTACAO
+                                ? null
+                                : consulta.buscar(CursorHistorico.de(lote.get(lote.size() - 1)),
+                                        Limit.of(TAMANHO_LOTE_EXPORTACAO)))
+                .flatMap(List::stream);
+    }
+
+    private static int limitarTamanho(int tamanho) {
+        if (tamanho <= 0) {
+            return TAMANHO_PAGINA_PADRAO;
+        }
+        return Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+    }
+
+    /**
+     * Consulta de uma página do histórico a partir de um cursor (nulo = início).
+     */
+    @FunctionalInterface
+    private interface ConsultaHistorico {
+        List<AgendamentoApi.AgendamentoResponse> buscar(CursorHistorico apos, Limit limite);
     }
 
     /**
@@ -261,5 +700,17 @@ public class AgendamentoService {
                 agendamento.getCreatedAt()
         );
     }
-}
 
+    private AgendamentoApi.ReservaTemporariaResponse mapToResponse(ReservasTemporarias.Reserva reserva) {
+        return new AgendamentoApi.ReservaTemporariaResponse(
+                reserva.id(),
+                reserva.petId(),
+                reserva.servicoId(),
+                reserva.prestadorId(),
+                reserva.data(),
+                reserva.horaInicio(),
+                reserva.horaFim(),
+                reserva.expiraEm().atZone(ZoneId.of("America/Recife"))
+        );
+    }
+}
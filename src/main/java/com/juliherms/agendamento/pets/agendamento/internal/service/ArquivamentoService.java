@@ -0,0 +1,143 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoArquivoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Move agendamentos encerrados (concluídos ou cancelados) mais antigos que o horizonte
+ * configurado para agendamentos_arquivo, mantendo a tabela quente e seus índices pequenos.
+ * Trabalha em lotes limitados, cada um em sua própria transação (copia e remove),
+ * para nunca segurar locks por muito tempo.
+ */
+@Service
+public class ArquivamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoService.class);
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final AgendamentoArquivoRepository arquivoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter movidos;
+    private final AtomicBoolean executando = new AtomicBoolean();
+    private final boolean habilitado;
+    private final int horizonteDias;
+    private final int tamanhoLote;
+    private final long pausaMs;
+
+    public ArquivamentoService(
+            AgendamentoRepository agendamentoRepository,
+            AgendamentoArquivoRepository arquivoRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.arquivo.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.arquivo.horizonte-dias:365}") int horizonteDias,
+            @Value("${agendamento.arquivo.tamanho-lote:500}") int tamanhoLote,
+            @Value("${agendamento.arquivo.pausa-ms:50}") long pausaMs) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.arquivoRepository = arquivoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.horizonteDias = horizonteDias;
+        this.tamanhoLote = tamanhoLote;
+        this.pausaMs = pausaMs;
+        this.movidos = Counter.builder("agendamento.arquivo.movidos")
+                .description("Agendamentos movidos para a tabela de arquivo")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${agendamento.arquivo.cron:0 30 3 * * *}", zone = "America/Recife")
+    public void agendado() {
+        if (habilitado) {
+            executar();
+        }
+    }
+
+    /**
+     * Arquiva os agendamentos encerrados com data anterior a hoje menos o horizonte.
+     *
+     * @return Quantidade de agendamentos movidos
+     */
+    public int executar() {
+        LocalDate dataLimite = LocalDate.now(ZoneId.of("America/Recife")).minusDays(horizonteDias);
+        return executar(dataLimite);
+    }
+
+    /**
+     * Arquiva os agendamentos encerrados com data anterior à data limite.
+     * Execuções concorrentes na mesma instância são ignoradas.
+     *
+     * @param dataLimite Primeira data que permanece na tabela quente
+     * @return Quantidade de agendamentos movidos
+     */
+    public int executar(LocalDate dataLimite) {
+        if (!executando.compareAndSet(false, true)) {
+            log.info("[AGENDAMENTO] Arquivamento já em execução; ignorando");
+            return 0;
+        }
+        try {
+            log.info("[AGENDAMENTO] Arquivamento iniciado (agendamentos encerrados antes de {})", dataLimite);
+
+            int total = 0;
+            List<Long> ids;
+            while (!(ids = agendamentoRepository.findIdsArquivaveis(dataLimite, Limit.of(tamanhoLote))).isEmpty()) {
+                int movidosLote = moverLote(ids);
+                total += movidosLote;
+                movidos.increment(movidosLote);
+                if (ids.size() < tamanhoLote || !pausar()) {
+                    break;
+                }
+            }
+
+            log.info("[AGENDAMENTO] Arquivamento concluído: {} agendamentos movidos", total);
+            return total;
+        } finally {
+            executando.set(false);
+        }
+    }
+
+    private int moverLote(List<Long> ids) {
+        ZonedDateTime agora = ZonedDateTime.now(ZoneId.of("America/Recife"));
+        Integer removidos = transactionTemplate.execute(status -> {
+            int copiados = arquivoRepository.copiarDeAgendamentos(ids, agora);
+            if (copiados != ids.size()) {
+                // Linhas removidas por outra transação entre a leitura e a cópia: refaz no próximo ciclo
+                throw new IllegalStateException("Lote de arquivamento divergente: " + copiados + " de " + ids.size());
+            }
+            return agendamentoRepository.removerPorIds(ids);
+        });
+        return removidos != null ? removidos : 0;
+    }
+
+    /**
+     * Pausa entre lotes para ceder espaço ao tráfego de reservas.
+     *
+     * @return false se a thread foi interrompida
+     */
+    private boolean pausar() {
+        if (pausaMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pausaMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
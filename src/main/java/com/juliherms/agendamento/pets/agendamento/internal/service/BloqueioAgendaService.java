@@ -0,0 +1,89 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.internal.repo.BloqueioAgendaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializa as reservas do mesmo prestador/dia no caminho com unique key.
+ * A leitura com lock de sobreposição feita após o insert pega next-key e gap locks no índice
+ * (prestador_id, data, hora_inicio); sem serialização, duas reservas sem sobreposição do mesmo dia
+ * (ex.: 09:00 e 15:00) podiam travar uma à outra e o InnoDB abortava uma delas. Com a linha de
+ * bloqueio tomada antes do insert, quem chega depois apenas espera o commit de quem chegou antes.
+ * A mesma linha separa as reservas da passagem do prestador para o inventário de vagas: a configuração
+ * marca os dias do horizonte com as linhas bloqueadas, e a reserva que esperava enxerga a marca.
+ */
+@Service
+public class BloqueioAgendaService {
+
+    private static final Logger log = LoggerFactory.getLogger(BloqueioAgendaService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+
+    private static final String MARCAR_INVENTARIO =
+            "INSERT INTO bloqueios_agenda (prestador_id, data, inventario) VALUES (?, ?, TRUE) " +
+            "ON DUPLICATE KEY UPDATE inventario = TRUE";
+
+    private final BloqueioAgendaRepository bloqueioAgendaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BloqueioAgendaService(BloqueioAgendaRepository bloqueioAgendaRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate) {
+        this.bloqueioAgendaRepository = bloqueioAgendaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Bloqueia o prestador/dia até o fim da transação corrente. Deve rodar na transação da reserva,
+     * antes do insert.
+     *
+     * @return true se o dia já passou para o inventário de vagas (a reserva não pode usar a unique key)
+     */
+    public boolean bloquear(Long prestadorId, LocalDate data) {
+        bloqueioAgendaRepository.bloquear(prestadorId, data);
+        return bloqueioAgendaRepository.contarInventario(prestadorId, data) > 0;
+    }
+
+    /**
+     * Marca os dias do período como reservados pelo inventário, bloqueando as linhas em ordem de data
+     * até o fim da transação corrente. Reservas em andamento nesses dias terminam antes; as seguintes
+     * esperam o commit e passam ao inventário. Deve ser a primeira leitura/escrita da transação, para que
+     * o snapshot dela já inclua as reservas que terminaram.
+     */
+    public void marcarInventario(Long prestadorId, LocalDate de, LocalDate ate) {
+        List<Object[]> dias = new ArrayList<>();
+        for (LocalDate data = de; !data.isAfter(ate); data = data.plusDays(1)) {
+            dias.add(new Object[]{prestadorId, Date.valueOf(data)});
+        }
+        jdbcTemplate.batchUpdate(MARCAR_INVENTARIO, dias);
+    }
+
+    @Scheduled(cron = "${agendamento.bloqueios.cron:0 40 3 * * *}", zone = "America/Recife")
+    public void agendado() {
+        limpar(LocalDate.now(ZONA));
+    }
+
+    /**
+     * Remove as linhas de dias anteriores ao informado (não recebem mais reservas).
+     *
+     * @return Quantidade de linhas removidas
+     */
+    public int limpar(LocalDate hoje) {
+        Integer removidas = transactionTemplate.execute(tx -> bloqueioAgendaRepository.removerAnteriores(hoje));
+        log.info("[AGENDAMENTO] Bloqueios de agenda anteriores a {} removidos: {}", hoje, removidas);
+        return removidas == null ? 0 : removidas;
+    }
+}
@@ -0,0 +1,162 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CalendarioFechamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.DataFechada;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.DataFechadaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Serviço do calendário de datas fechadas (feriados e folgas), global e por prestador.
+ * Mantém em memória um snapshot imutável ({@link CalendarioFechamento}) carregado uma vez
+ * com as datas a partir de ontem; alterações via API publicam um novo snapshot na hora
+ * e a sincronização periódica traz as feitas em outros nós. Consultas não acessam o banco.
+ */
+@Service
+public class CalendarioFechamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarioFechamentoService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+    static final int MAX_DIAS_LISTAGEM = 366;
+
+    private final DataFechadaRepository dataFechadaRepository;
+
+    private volatile CalendarioFechamento snapshot;
+
+    public CalendarioFechamentoService(DataFechadaRepository dataFechadaRepository) {
+        this.dataFechadaRepository = dataFechadaRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        log.info("[AGENDAMENTO] Calendário de datas fechadas carregado: {}", recarregar().versao());
+    }
+
+    /**
+     * Snapshot atual do calendário. Não acessa o banco, exceto na primeira chamada
+     * caso ocorra antes da inicialização.
+     */
+    public CalendarioFechamento snapshot() {
+        CalendarioFechamento atual = snapshot;
+        return atual != null ? atual : recarregar();
+    }
+
+    /**
+     * Verifica se a data está fechada para o prestador (fechamento global ou próprio). O(1).
+     */
+    public boolean fechado(Long prestadorId, LocalDate data) {
+        return snapshot().fechado(prestadorId, data);
+    }
+
+    /**
+     * Fecha uma data para todo o estabelecimento ou para um prestador.
+     * Agendamentos já existentes na data não são cancelados.
+     *
+     * @param request Data, prestador (opcional) e motivo
+     * @return Data fechada
+     */
+    public AgendamentoApi.DataFechadaResponse fechar(AgendamentoApi.CreateDataFechadaRequest request) {
+        if (request.data().isBefore(LocalDate.now(ZONA))) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Não é possível fechar uma data no passado");
+        }
+        if (dataFechadaRepository.existeFechamento(request.prestadorId(), request.data())) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Data " + request.data() + " já está fechada");
+        }
+
+        DataFechada dataFechada = new DataFechada();
+        dataFechada.setPrestadorId(request.prestadorId());
+        dataFechada.setData(request.data());
+        dataFechada.setMotivo(request.motivo());
+        DataFechada salva = dataFechadaRepository.save(dataFechada);
+        alterar(salva.getPrestadorId(), salva.getData(), true);
+
+        log.info("[AGENDAMENTO] Data {} fechada ({}): {}", salva.getData(),
+                salva.getPrestadorId() == null ? "global" : "prestador " + salva.getPrestadorId(), salva.getMotivo());
+        return toResponse(salva);
+    }
+
+    /**
+     * Reabre uma data fechada.
+     *
+     * @param id ID da data fechada
+     */
+    public void reabrir(Long id) {
+        DataFechada dataFechada = dataFechadaRepository.findById(id)
+                .orElseThrow(() -> new AgendamentoExceptionHandler.DataFechadaNaoEncontradaException(
+                        "Data fechada não encontrada com ID: " + id));
+        dataFechadaRepository.delete(dataFechada);
+        alterar(dataFechada.getPrestadorId(), dataFechada.getData(), false);
+
+        log.info("[AGENDAMENTO] Data {} reaberta", dataFechada.getData());
+    }
+
+    /**
+     * Datas fechadas no período; com prestador, as globais e as dele.
+     */
+    @Transactional(readOnly = true)
+    public List<AgendamentoApi.DataFechadaResponse> listar(Long prestadorId, LocalDate dataInicio, LocalDate dataFim) {
+        if (dataFim.isBefore(dataInicio) || ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS_LISTAGEM) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Período inválido; limite de " + MAX_DIAS_LISTAGEM + " dias");
+        }
+        return dataFechadaRepository.findNoPeriodo(prestadorId, dataInicio, dataFim).stream()
+                .map(CalendarioFechamentoService::toResponse)
+                .toList();
+    }
+
+    /**
+     * Recarrega o calendário para refletir alterações de outros nós (e avançar a base a cada dia).
+     * A tabela só guarda feriados e folgas, então a carga completa das datas futuras é barata.
+     */
+    @Scheduled(fixedDelayString = "${agendamento.calendario.sincronizacao-ms:60000}",
+               initialDelayString = "${agendamento.calendario.sincronizacao-ms:60000}")
+    public void sincronizar() {
+        long anterior = snapshot().versao();
+        if (recarregar().versao() != anterior) {
+            log.info("[AGENDAMENTO] Calendário de datas fechadas atualizado para versão {}", snapshot.versao());
+        }
+    }
+
+    private synchronized CalendarioFechamento recarregar() {
+        LocalDate base = LocalDate.now(ZONA).minusDays(1);
+        CalendarioFechamento atual = snapshot;
+        long versao = atual == null ? 1 : atual.versao();
+        List<DataFechada> datas = dataFechadaRepository.findByDataGreaterThanEqual(base);
+        CalendarioFechamento novo = CalendarioFechamento.of(versao, base, datas);
+        if (atual != null && !novo.mesmoConteudo(atual)) {
+            // A versão só muda com o conteúdo: caches derivados (mapa de calor) continuam válidos
+            novo = CalendarioFechamento.of(versao + 1, base, datas);
+        }
+        snapshot = novo;
+        return novo;
+    }
+
+    private synchronized void alterar(Long prestadorId, LocalDate data, boolean fechado) {
+        CalendarioFechamento atual = snapshot();
+        snapshot = atual.alterar(prestadorId, data, fechado, atual.versao() + 1);
+    }
+
+    private static AgendamentoApi.DataFechadaResponse toResponse(DataFechada dataFechada) {
+        return new AgendamentoApi.DataFechadaResponse(
+                dataFechada.getId(),
+                dataFechada.getPrestadorId(),
+                dataFechada.getData(),
+                dataFechada.getMotivo()
+        );
+    }
+}
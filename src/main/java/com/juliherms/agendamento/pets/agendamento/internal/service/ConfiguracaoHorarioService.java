@@ -1,18 +1,33 @@
 package com.juliherms.agendamento.pets.agendamento.internal.service;
 
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
 import com.juliherms.agendamento.pets.agendamento.internal.domain.ConfiguracaoHorario;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioPrestador;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
 import com.juliherms.agendamento.pets.agendamento.internal.repo.ConfiguracaoHorarioRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.HorarioPrestadorRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Serviço para inicializar configurações de horário comercial padrão.
- * Executa na inicialização da aplicação para garantir que as configurações básicas existam.
+ * Serviço de horário comercial.
+ * Inicializa as configurações padrão e mantém em memória um snapshot imutável
+ * ({@link HorarioComercial}) usado no caminho de agendamento, sem ida ao banco.
+ * O snapshot é trocado atomicamente após alterações via API e, em outros nós,
+ * pela sincronização periódica baseada na coluna versao.
+ * O snapshot inclui as jornadas por prestador (horarios_prestador), já codificadas em máscaras
+ * de meia hora: validar um horário ou montar a disponibilidade vira operação de bits.
  */
 @Service
 public class ConfiguracaoHorarioService implements CommandLineRunner {
@@ -20,17 +35,23 @@ public class ConfiguracaoHorarioService implements CommandLineRunner {
     private static final Logger log = LoggerFactory.getLogger(ConfiguracaoHorarioService.class);
 
     private final ConfiguracaoHorarioRepository configuracaoHorarioRepository;
+    private final HorarioPrestadorRepository horarioPrestadorRepository;
 
-    public ConfiguracaoHorarioService(ConfiguracaoHorarioRepository configuracaoHorarioRepository) {
+    private volatile HorarioComercial snapshot;
+
+    public ConfiguracaoHorarioService(ConfiguracaoHorarioRepository configuracaoHorarioRepository,
+                                      HorarioPrestadorRepository horarioPrestadorRepository) {
         this.configuracaoHorarioRepository = configuracaoHorarioRepository;
+        this.horarioPrestadorRepository = horarioPrestadorRepository;
     }
 
     @Override
     public void run(String... args) throws Exception {
         log.info("[CONFIGURACAO] Inicializando configurações de horário comercial padrão");
-        
+
         inicializarConfiguracoesPadrao();
-        
+        recarregar();
+
         log.info("[CONFIGURACAO] Configurações de horário comercial inicializadas com sucesso");
     }
 
@@ -41,65 +62,202 @@ public class ConfiguracaoHorarioService implements CommandLineRunner {
      */
     private void inicializarConfiguracoesPadrao() {
         // Segunda-feira
-        criarOuAtualizarConfiguracao(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
-        
+        criarSeAusente(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
+
         // Terça-feira
-        criarOuAtualizarConfiguracao(DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
-        
+        criarSeAusente(DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
+
         // Quarta-feira
-        criarOuAtualizarConfiguracao(DayOfWeek.WEDNESDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
-        
+        criarSeAusente(DayOfWeek.WEDNESDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
+
         // Quinta-feira
-        criarOuAtualizarConfiguracao(DayOfWeek.THURSDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
-        
+        criarSeAusente(DayOfWeek.THURSDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
+
         // Sexta-feira
-        criarOuAtualizarConfiguracao(DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
-        
+        criarSeAusente(DayOfWeek.FRIDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
+
         // Sábado
-        criarOuAtualizarConfiguracao(DayOfWeek.SATURDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
-        
+        criarSeAusente(DayOfWeek.SATURDAY, LocalTime.of(9, 0), LocalTime.of(18, 0));
+
         // Domingo - não configurado (não funciona)
         log.info("[CONFIGURACAO] Domingo configurado como dia não funcionante");
     }
 
     /**
-     * Cria ou atualiza uma configuração de horário para um dia específico.
+     * Cria a configuração padrão de um dia apenas se ainda não existir,
+     * preservando alterações feitas pela API de administração.
      */
-    private void criarOuAtualizarConfiguracao(DayOfWeek diaSemana, LocalTime horaAbertura, LocalTime horaFechamento) {
-        var configExistente = configuracaoHorarioRepository.findByDiaSemanaAndAtivoTrue(diaSemana);
-        
-        if (configExistente.isPresent()) {
-            var config = configExistente.get();
-            config.setHoraAbertura(horaAbertura);
-            config.setHoraFechamento(horaFechamento);
-            configuracaoHorarioRepository.save(config);
-            log.debug("[CONFIGURACAO] Configuração atualizada para {}: {} - {}", 
-                     diaSemana, horaAbertura, horaFechamento);
-        } else {
-            var novaConfig = new ConfiguracaoHorario();
-            novaConfig.setDiaSemana(diaSemana);
-            novaConfig.setHoraAbertura(horaAbertura);
-            novaConfig.setHoraFechamento(horaFechamento);
-            novaConfig.setAtivo(true);
-            configuracaoHorarioRepository.save(novaConfig);
-            log.debug("[CONFIGURACAO] Nova configuração criada para {}: {} - {}", 
-                     diaSemana, horaAbertura, horaFechamento);
+    private void criarSeAusente(DayOfWeek diaSemana, LocalTime horaAbertura, LocalTime horaFechamento) {
+        if (configuracaoHorarioRepository.findByDiaSemana(diaSemana).isPresent()) {
+            return;
         }
+
+        var novaConfig = new ConfiguracaoHorario();
+        novaConfig.setDiaSemana(diaSemana);
+        novaConfig.setHoraAbertura(horaAbertura);
+        novaConfig.setHoraFechamento(horaFechamento);
+        novaConfig.setAtivo(true);
+        configuracaoHorarioRepository.save(novaConfig);
+        log.debug("[CONFIGURACAO] Nova configuração criada para {}: {} - {}",
+                 diaSemana, horaAbertura, horaFechamento);
     }
 
     /**
-     * Busca configuração de horário para um dia específico.
+     * Snapshot atual do horário comercial. Não acessa o banco, exceto na primeira chamada
+     * caso ocorra antes da inicialização.
      */
-    public ConfiguracaoHorario buscarConfiguracao(DayOfWeek diaSemana) {
-        return configuracaoHorarioRepository.findByDiaSemanaAndAtivoTrue(diaSemana)
-                .orElseThrow(() -> new RuntimeException("Configuração de horário não encontrada para " + diaSemana));
+    public HorarioComercial snapshot() {
+        HorarioComercial atual = snapshot;
+        return atual != null ? atual : recarregar();
     }
 
     /**
-     * Verifica se um dia está configurado para funcionamento.
+     * Atualiza o horário de um dia da semana e publica um novo snapshot.
+     *
+     * @param diaSemana Dia a ser alterado
+     * @param horaAbertura Horário de abertura, em múltiplo de 30 minutos
+     * @param horaFechamento Horário de fechamento (exclusivo), em múltiplo de 30 minutos
+     * @param ativo Se o estabelecimento funciona no dia
+     * @return Snapshot já atualizado
      */
-    public boolean diaFunciona(DayOfWeek diaSemana) {
-        return configuracaoHorarioRepository.existsByDiaSemanaAndAtivoTrue(diaSemana);
+    public HorarioComercial atualizarHorario(DayOfWeek diaSemana, LocalTime horaAbertura,
+                                             LocalTime horaFechamento, boolean ativo) {
+        validarMeiasHoras("Horários de abertura e fechamento", horaAbertura, horaFechamento);
+        if (!horaAbertura.isBefore(horaFechamento)) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Horário de abertura deve ser anterior ao de fechamento");
+        }
+
+        var config = configuracaoHorarioRepository.findByDiaSemana(diaSemana)
+                .orElseGet(() -> {
+                    var nova = new ConfiguracaoHorario();
+                    nova.setDiaSemana(diaSemana);
+                    return nova;
+                });
+        config.setHoraAbertura(horaAbertura);
+        config.setHoraFechamento(horaFechamento);
+        config.setAtivo(ativo);
+        configuracaoHorarioRepository.save(config);
+
+        log.info("[CONFIGURACAO] Horário de {} atualizado: {} - {} (ativo: {})",
+                diaSemana, horaAbertura, horaFechamento, ativo);
+
+        return recarregar();
     }
-}
 
+    /**
+     * Substitui a jornada semanal de um prestador e publica um novo snapshot.
+     * Dias ausentes da lista viram folga; a linha é mantida (ativo falso) para a versão agregada só crescer.
+     *
+     * @param prestadorId Prestador
+     * @param dias Jornada de cada dia trabalhado, com intervalo opcional, em múltiplos de 30 minutos
+     * @return Snapshot já atualizado
+     */
+    @Transactional
+    public HorarioComercial atualizarJornada(Long prestadorId, List<AgendamentoApi.JornadaDiaRequest> dias) {
+        Map<DayOfWeek, AgendamentoApi.JornadaDiaRequest> porDia = new EnumMap<>(DayOfWeek.class);
+        for (AgendamentoApi.JornadaDiaRequest dia : dias) {
+            validarJornada(dia);
+            if (porDia.put(dia.diaSemana(), dia) != null) {
+                throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                        "Dia " + dia.diaSemana() + " informado mais de uma vez");
+            }
+        }
+
+        Map<DayOfWeek, HorarioPrestador> existentes = new EnumMap<>(DayOfWeek.class);
+        for (HorarioPrestador horario : horarioPrestadorRepository.findByPrestadorId(prestadorId)) {
+            existentes.put(horario.getDiaSemana(), horario);
+        }
+        for (DayOfWeek diaSemana : DayOfWeek.values()) {
+            AgendamentoApi.JornadaDiaRequest dia = porDia.get(diaSemana);
+            HorarioPrestador horario = existentes.get(diaSemana);
+            if (horario == null) {
+                if (dia == null) {
+                    continue;
+                }
+                horario = new HorarioPrestador();
+                horario.setPrestadorId(prestadorId);
+                horario.setDiaSemana(diaSemana);
+            }
+            horario.setAtivo(dia != null);
+            horario.setHoraAbertura(dia != null ? dia.horaAbertura() : null);
+            horario.setHoraFechamento(dia != null ? dia.horaFechamento() : null);
+            horario.setIntervaloInicio(dia != null ? dia.intervaloInicio() : null);
+            horario.setIntervaloFim(dia != null ? dia.intervaloFim() : null);
+            horarioPrestadorRepository.save(horario);
+        }
+        horarioPrestadorRepository.flush();
+
+        log.info("[CONFIGURACAO] Jornada do prestador {} atualizada: {} dias de trabalho", prestadorId, porDia.size());
+
+        return recarregar();
+    }
+
+    private void validarJornada(AgendamentoApi.JornadaDiaRequest dia) {
+        if (dia == null || dia.diaSemana() == null || dia.horaAbertura() == null || dia.horaFechamento() == null) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Informe dia da semana, abertura e fechamento de cada dia da jornada");
+        }
+        if (dia.diaSemana() == DayOfWeek.SUNDAY) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Domingo não é dia de funcionamento");
+        }
+        if ((dia.intervaloInicio() == null) != (dia.intervaloFim() == null)) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Informe início e fim do intervalo");
+        }
+        validarMeiasHoras("Horários da jornada",
+                dia.horaAbertura(), dia.horaFechamento(), dia.intervaloInicio(), dia.intervaloFim());
+        if (!dia.horaAbertura().isBefore(dia.horaFechamento())) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Horário de abertura deve ser anterior ao de fechamento");
+        }
+        if (dia.intervaloInicio() != null
+                && (!dia.horaAbertura().isBefore(dia.intervaloInicio())
+                    || !dia.intervaloInicio().isBefore(dia.intervaloFim())
+                    || !dia.intervaloFim().isBefore(dia.horaFechamento()))) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Intervalo deve ficar dentro da jornada");
+        }
+    }
+
+    /**
+     * Os horários viram máscaras de meias horas (HorarioComercial.meiasHoras), que arredondam o fim para cima:
+     * fora de múltiplos de 30 minutos, um fechamento às 18:15 abriria 18:30.
+     */
+    private static void validarMeiasHoras(String descricao, LocalTime... horas) {
+        for (LocalTime hora : horas) {
+            if (hora != null && (hora.getMinute() % 30 != 0 || hora.getSecond() != 0 || hora.getNano() != 0)) {
+                throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                        descricao + " devem ser múltiplos de 30 minutos");
+            }
+        }
+    }
+
+    /**
+     * Compara a versão agregada da tabela com a do snapshot e recarrega se outro nó
+     * tiver alterado o horário comercial ou as jornadas. Custa duas consultas de linha única por ciclo.
+     */
+    @Scheduled(fixedDelayString = "${agendamento.horario.sincronizacao-ms:30000}",
+               initialDelayString = "${agendamento.horario.sincronizacao-ms:30000}")
+    public void sincronizar() {
+        HorarioComercial atual = snapshot;
+        if (atual == null || versaoAgregada() != atual.versao()) {
+            recarregar();
+            log.info("[CONFIGURACAO] Snapshot de horário comercial atualizado para versão {}", snapshot.versao());
+        }
+    }
+
+    private synchronized HorarioComercial recarregar() {
+        // Lê a versão antes das linhas: se houver alteração no meio, a próxima sincronização recarrega de novo
+        long versao = versaoAgregada();
+        HorarioComercial novo = HorarioComercial.of(versao, configuracaoHorarioRepository.findByAtivoTrueOrderByDiaSemana(),
+                horarioPrestadorRepository.findAll());
+        snapshot = novo;
+        return novo;
+    }
+
+    private long versaoAgregada() {
+        return configuracaoHorarioRepository.versaoAgregada() + horarioPrestadorRepository.versaoAgregada();
+    }
+}
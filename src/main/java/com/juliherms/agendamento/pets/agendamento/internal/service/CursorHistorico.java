@@ -0,0 +1,61 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Posição de continuação no histórico de agendamentos, ordenado por
+ * (data, horaInicio, id) decrescente. Exposta aos clientes apenas como
+ * token opaco (Base64 URL de 20 bytes: epochDay, segundo do dia e id).
+ */
+public record CursorHistorico(LocalDate data, LocalTime horaInicio, Long id) {
+
+    private static final int TAMANHO = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    public static CursorHistorico de(Agendamento agendamento) {
+        return new CursorHistorico(agendamento.getData(), agendamento.getHoraInicio(), agendamento.getId());
+    }
+
+    public static CursorHistorico de(AgendamentoApi.AgendamentoResponse agendamento) {
+        return new CursorHistorico(agendamento.data(), agendamento.horaInicio(), agendamento.id());
+    }
+
+    public String codificar() {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO)
+                .putLong(data.toEpochDay())
+                .putInt(horaInicio.toSecondOfDay())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodifica um token recebido do cliente.
+     *
+     * @param token Token opaco; nulo ou vazio indica a primeira página
+     * @return Cursor decodificado, ou null para a primeira página
+     */
+    public static CursorHistorico decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != TAMANHO) {
+                throw new IllegalArgumentException("tamanho inesperado");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new CursorHistorico(
+                    LocalDate.ofEpochDay(buffer.getLong()),
+                    LocalTime.ofSecondOfDay(buffer.getInt()),
+                    buffer.getLong());
+        } catch (RuntimeException e) {
+            throw new AgendamentoExceptionHandler.CursorInvalidoException("Cursor de paginação inválido");
+        }
+    }
+}
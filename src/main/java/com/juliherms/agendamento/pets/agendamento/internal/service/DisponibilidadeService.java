@@ -0,0 +1,493 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CalendarioFechamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.HoraLotada;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço de busca de horários livres para vários prestadores em um período.
+ * Carrega a ocupação de todos os prestadores com uma única consulta e cruza
+ * o resultado em memória com o horário comercial, usando bitsets por dia
+ * (bit N = início às N:00 possível para a duração do serviço).
+ * Prestadores com jornada própria usam as máscaras de meia hora dela, calculadas uma vez por busca.
+ * Ocorrências de séries recorrentes ainda não materializadas vêm do {@link IndiceSeries}
+ * e datas fechadas, do calendário em memória (sem consultas extras).
+ * Prestadores com capacidade ficam ocupados só nas horas lotadas do inventário de vagas
+ * (uma consulta a mais, feita apenas quando algum deles está na busca).
+ * A busca dos próximos horários faz um merge por fila de prioridade sobre iteradores preguiçosos
+ * por prestador, carregando a ocupação em janelas crescentes até achar a quantidade pedida.
+ */
+@Service
+public class DisponibilidadeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadeService.class);
+
+    static final int MAX_DIAS_BUSCA = 31;
+    static final int MAX_PROXIMOS = 50;
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final ConfiguracaoHorarioService configuracaoHorarioService;
+    private final CalendarioFechamentoService calendarioFechamentoService;
+    private final OfferedServiceRepository servicoRepository;
+    private final UserRepository userRepository;
+    private final IndiceSeries indiceSeries;
+    private final InventarioSlotsService inventarioSlotsService;
+    private final int horizonteProximos;
+    private final int janelaProximos;
+
+    public DisponibilidadeService(
+            AgendamentoRepository agendamentoRepository,
+            ConfiguracaoHorarioService configuracaoHorarioService,
+            CalendarioFechamentoService calendarioFechamentoService,
+            OfferedServiceRepository servicoRepository,
+            UserRepository userRepository,
+            IndiceSeries indiceSeries,
+            InventarioSlotsService inventarioSlotsService,
+            @Value("${agendamento.disponibilidade.proximos.horizonte-dias:60}") int horizonteProximos,
+            @Value("${agendamento.disponibilidade.proximos.janela-dias:7}") int janelaProximos) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.configuracaoHorarioService = configuracaoHorarioService;
+        this.calendarioFechamentoService = calendarioFechamentoService;
+        this.servicoRepository = servicoRepository;
+        this.userRepository = userRepository;
+        this.indiceSeries = indiceSeries;
+        this.inventarioSlotsService = inventarioSlotsService;
+        this.horizonteProximos = horizonteProximos;
+        this.janelaProximos = Math.max(1, janelaProximos);
+    }
+
+    /**
+     * Busca os horários livres de um serviço no período informado.
+     *
+     * @param servicoId ID do serviço desejado
+     * @param dataInicio Primeiro dia do período (inclusivo)
+     * @param dataFim Último dia do período (inclusivo)
+     * @param prestadorIds Prestadores a considerar; vazio ou nulo considera todos os prestadores ativos
+     * @return Horários livres por prestador e dia, ordenados por data e prestador
+     */
+    @Transactional(readOnly = true)
+    public List<AgendamentoApi.HorariosLivresResponse> buscarHorariosLivres(
+            Long servicoId, LocalDate dataInicio, LocalDate dataFim, Set<Long> prestadorIds) {
+
+        validarPeriodo(dataInicio, dataFim);
+        int duracao = validarServico(servicoId);
+
+        List<Long> prestadores = prestadoresElegiveis(prestadorIds);
+        if (prestadores.isEmpty()) {
+            return List.of();
+        }
+
+        int dias = (int) ChronoUnit.DAYS.between(dataInicio, dataFim) + 1;
+        Map<Long, int[]> ocupacao = carregarOcupacao(prestadores, prestadorIds, dataInicio, dataFim, dias, duracao);
+        HorarioComercial horarioComercial = configuracaoHorarioService.snapshot();
+        CalendarioFechamento calendario = calendarioFechamentoService.snapshot();
+
+        ZonedDateTime agora = ZonedDateTime.now(ZoneId.of("America/Recife"));
+        List<AgendamentoApi.HorariosLivresResponse> resultado = new ArrayList<>();
+
+        // Inícios permitidos por dia da semana: um vetor global e um por prestador com jornada própria
+        int[] semanaGlobal = semana(horarioComercial, null, duracao);
+        Map<Long, int[]> semanasProprias = new HashMap<>();
+        for (Long prestadorId : prestadores) {
+            if (horarioComercial.temJornada(prestadorId)) {
+                semanasProprias.put(prestadorId, semana(horarioComercial, prestadorId, duracao));
+            }
+        }
+
+        for (int d = 0; d < dias; d++) {
+            LocalDate data = dataInicio.plusDays(d);
+            int naoPassada = mascaraNaoPassada(data, agora);
+            if (naoPassada == 0 || calendario.fechado(data)) {
+                continue;
+            }
+            int diaSemana = data.getDayOfWeek().ordinal();
+            for (Long prestadorId : prestadores) {
+                int abertos = semanasProprias.getOrDefault(prestadorId, semanaGlobal)[diaSemana] & naoPassada;
+                if (abertos == 0 || calendario.fechado(prestadorId, data)) {
+                    continue;
+                }
+                int livres = abertos & ~ocupacao.get(prestadorId)[d];
+                if (livres != 0) {
+                    resultado.add(new AgendamentoApi.HorariosLivresResponse(prestadorId, data, horarios(livres)));
+                }
+            }
+        }
+
+        log.debug("[AGENDAMENTO] Busca de disponibilidade: {} prestadores, {} dias, {} resultados",
+                prestadores.size(), dias, resultado.size());
+
+        return resultado;
+    }
+
+    /**
+     * Busca os primeiros horários livres de um serviço com qualquer prestador elegível.
+     * A ocupação é carregada por janela (uma consulta por janela, começando em
+     * {@code agendamento.disponibilidade.proximos.janela-dias} e dobrando), e cada prestador vira um
+     * iterador que só avança sobre os dias da janela quando é consumido; a fila de prioridade entrega os
+     * horários em ordem de data, hora e prestador e a busca para assim que a quantidade é atingida.
+     *
+     * @param servicoId ID do serviço desejado
+     * @param aPartirDe Primeiro dia da busca; nulo ou no passado começa hoje
+     * @param quantidade Quantidade de horários desejada (1 a 50)
+     * @param horizonteDias Dias a percorrer a partir do primeiro dia; nulo usa o máximo configurado
+     * @param prestadorIds Prestadores a considerar; vazio ou nulo considera todos os prestadores ativos
+     * @return Até {@code quantidade} horários, do mais cedo para o mais tarde
+     */
+    @Transactional(readOnly = true)
+    public List<AgendamentoApi.ProximoHorarioResponse> buscarProximosHorarios(
+            Long servicoId, LocalDate aPartirDe, int quantidade, Integer horizonteDias, Set<Long> prestadorIds) {
+
+        if (quantidade < 1 || quantidade > MAX_PROXIMOS) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Quantidade deve estar entre 1 e " + MAX_PROXIMOS);
+        }
+        int horizonte = horizonteDias != null ? horizonteDias : horizonteProximos;
+        if (horizonte < 1 || horizonte > horizonteProximos) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Horizonte de busca deve estar entre 1 e " + horizonteProximos + " dias");
+        }
+        int duracao = validarServico(servicoId);
+
+        List<Long> prestadores = prestadoresElegiveis(prestadorIds);
+        if (prestadores.isEmpty()) {
+            return List.of();
+        }
+
+        ZonedDateTime agora = ZonedDateTime.now(ZoneId.of("America/Recife"));
+        LocalDate hoje = agora.toLocalDate();
+        LocalDate inicio = aPartirDe == null || aPartirDe.isBefore(hoje) ? hoje : aPartirDe;
+        LocalDate limite = inicio.plusDays(horizonte - 1L);
+
+        HorarioComercial horarioComercial = configuracaoHorarioService.snapshot();
+        CalendarioFechamento calendario = calendarioFechamentoService.snapshot();
+        int[] semanaGlobal = semana(horarioComercial, null, duracao);
+        Map<Long, int[]> semanas = new HashMap<>(prestadores.size() * 2);
+        for (Long prestadorId : prestadores) {
+            semanas.put(prestadorId, horarioComercial.temJornada(prestadorId)
+                    ? semana(horarioComercial, prestadorId, duracao)
+                    : semanaGlobal);
+        }
+
+        List<AgendamentoApi.ProximoHorarioResponse> resultado = new ArrayList<>(quantidade);
+        int janela = janelaProximos;
+        int consultas = 0;
+        LocalDate de = inicio;
+        while (resultado.size() < quantidade && !de.isAfter(limite)) {
+            LocalDate ate = de.plusDays(janela - 1L).isAfter(limite) ? limite : de.plusDays(janela - 1L);
+            int dias = (int) ChronoUnit.DAYS.between(de, ate) + 1;
+            Map<Long, int[]> ocupacao = carregarOcupacao(prestadores, prestadorIds, de, ate, dias, duracao);
+            consultas++;
+
+            // Máscara do dia comum a todos: horários não passados e estabelecimento aberto
+            int[] base = new int[dias];
+            for (int d = 0; d < dias; d++) {
+                LocalDate data = de.plusDays(d);
+                base[d] = calendario.fechado(data) ? 0 : mascaraNaoPassada(data, agora);
+            }
+
+            PriorityQueue<LivresPrestador> fila = new PriorityQueue<>(prestadores.size(), LivresPrestador.ORDEM);
+            for (Long prestadorId : prestadores) {
+                LivresPrestador livres = new LivresPrestador(prestadorId, de, base, semanas.get(prestadorId),
+                        ocupacao.get(prestadorId), calendario);
+                if (livres.avancar()) {
+                    fila.add(livres);
+                }
+            }
+            while (resultado.size() < quantidade && !fila.isEmpty()) {
+                LivresPrestador proximo = fila.poll();
+                resultado.add(new AgendamentoApi.ProximoHorarioResponse(
+                        proximo.prestadorId, proximo.data(), LocalTime.of(proximo.hora, 0)));
+                if (proximo.avancar()) {
+                    fila.add(proximo);
+                }
+            }
+
+            de = ate.plusDays(1);
+            janela = Math.min(janela * 2, horizonte);
+        }
+
+        log.debug("[AGENDAMENTO] Busca de próximos horários: {} prestadores, {} janelas, {} resultados",
+                prestadores.size(), consultas, resultado.size());
+
+        return resultado;
+    }
+
+    /**
+     * Bitset dos horários de início permitidos no dia da semana para a duração do serviço,
+     * pelo horário comercial global.
+     */
+    static int mascaraExpediente(HorarioComercial horarioComercial, DayOfWeek dia, int duracao) {
+        return mascaraExpediente(horarioComercial, null, dia, duracao);
+    }
+
+    /**
+     * Bitset dos horários de início permitidos no dia da semana para a duração do serviço,
+     * pela jornada do prestador (ou o horário global). Segue as mesmas regras de validarHorario:
+     * domingo sempre fechado e todas as meias horas do serviço abertas.
+     */
+    static int mascaraExpediente(HorarioComercial horarioComercial, Long prestadorId, DayOfWeek dia, int duracao) {
+        if (dia == DayOfWeek.SUNDAY) {
+            return 0;
+        }
+        return mascaraInicios(horarioComercial.meiasHoras(prestadorId, dia), duracao);
+    }
+
+    /**
+     * Inícios de hora cheia h em que o serviço [h, h + duração) cabe inteiro na máscara de meias horas.
+     */
+    static int mascaraInicios(long meiasHoras, int duracao) {
+        if (meiasHoras == 0) {
+            return 0;
+        }
+        int meias = Math.max(1, (duracao + 29) / 30);
+        long servico = meias >= 64 ? -1L : (1L << meias) - 1;
+        int mascara = 0;
+        for (int h = 0; h < 24 && 2 * h + meias <= HorarioComercial.MEIAS_HORAS; h++) {
+            if (((servico << (2 * h)) & ~meiasHoras) == 0) {
+                mascara |= 1 << h;
+            }
+        }
+        return mascara;
+    }
+
+    private static int[] semana(HorarioComercial horarioComercial, Long prestadorId, int duracao) {
+        int[] semana = new int[7];
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            semana[dia.ordinal()] = mascaraExpediente(horarioComercial, prestadorId, dia, duracao);
+        }
+        return semana;
+    }
+
+    /**
+     * Bitset dos inícios de hora cheia que conflitam com o intervalo ocupado [inicio, fim)
+     * para um serviço da duração informada: h conflita se h < fim e h + duração > inicio.
+     */
+    static int mascaraConflito(LocalTime inicio, LocalTime fim, int duracao) {
+        int inicioMin = inicio.getHour() * 60 + inicio.getMinute();
+        int fimMin = fim.equals(LocalTime.MIDNIGHT) ? 24 * 60 : fim.getHour() * 60 + fim.getMinute();
+        int mascara = 0;
+        for (int h = 0; h < 24; h++) {
+            if (h * 60 < fimMin && h * 60 + duracao > inicioMin) {
+                mascara |= 1 << h;
+            }
+        }
+        return mascara;
+    }
+
+    private Map<Long, int[]> carregarOcupacao(List<Long> prestadores, Set<Long> filtro,
+                                              LocalDate dataInicio, LocalDate dataFim, int dias, int duracao) {
+        Map<Long, int[]> ocupacao = new HashMap<>(prestadores.size() * 2);
+        for (Long prestadorId : prestadores) {
+            ocupacao.put(prestadorId, new int[dias]);
+        }
+
+        List<SlotOcupado> slots = (filtro == null || filtro.isEmpty())
+                ? agendamentoRepository.findSlotsOcupados(dataInicio, dataFim)
+                : agendamentoRepository.findSlotsOcupadosPorPrestadores(prestadores, dataInicio, dataFim);
+
+        Set<Long> comCapacidade = prestadores.stream()
+                .filter(inventarioSlotsService::usaInventario)
+                .collect(Collectors.toSet());
+        for (SlotOcupado slot : slots) {
+            int[] porDia = ocupacao.get(slot.prestadorId());
+            if (porDia != null && !comCapacidade.contains(slot.prestadorId())) {
+                porDia[(int) ChronoUnit.DAYS.between(dataInicio, slot.data())] |=
+                        mascaraConflito(slot.horaInicio(), slot.horaFim(), duracao);
+            }
+        }
+
+        if (!comCapacidade.isEmpty()) {
+            marcarLotadas(ocupacao, comCapacidade, dataInicio, dataFim, dias, duracao);
+        }
+
+        for (Long prestadorId : prestadores) {
+            int[] porDia = ocupacao.get(prestadorId);
+            for (IndiceSeries.Serie serie : indiceSeries.doPrestador(prestadorId)) {
+                int conflito = mascaraConflito(serie.horaInicio(), serie.horaFim(), duracao);
+                for (LocalDate data : serie.datas(dataInicio, dataFim)) {
+                    porDia[(int) ChronoUnit.DAYS.between(dataInicio, data)] |= conflito;
+                }
+            }
+        }
+        return ocupacao;
+    }
+
+    /**
+     * Ocupação dos prestadores com capacidade: horas lotadas do inventário e, além do último dia
+     * gerado, o dia inteiro (sem vagas não há como reservar).
+     */
+    private void marcarLotadas(Map<Long, int[]> ocupacao, Set<Long> comCapacidade,
+                               LocalDate dataInicio, LocalDate dataFim, int dias, int duracao) {
+        for (HoraLotada lotada : inventarioSlotsService.lotadas(List.copyOf(comCapacidade), dataInicio, dataFim)) {
+            ocupacao.get(lotada.prestadorId())[(int) ChronoUnit.DAYS.between(dataInicio, lotada.data())] |=
+                    mascaraConflito(lotada.hora(), lotada.hora().plusHours(1), duracao);
+        }
+        for (Long prestadorId : comCapacidade) {
+            LocalDate ate = inventarioSlotsService.inventarioAte(prestadorId);
+            int[] porDia = ocupacao.get(prestadorId);
+            for (int d = 0; d < dias; d++) {
+                if (ate == null || dataInicio.plusDays(d).isAfter(ate)) {
+                    porDia[d] = -1;
+                }
+            }
+        }
+    }
+
+    private List<Long> prestadoresElegiveis(Set<Long> prestadorIds) {
+        List<Long> ativos = userRepository.findIdsByPerfilAndStatus(UserApi.Perfil.PROVEDOR, UserApi.Status.ativo);
+        if (prestadorIds == null || prestadorIds.isEmpty()) {
+            return ativos;
+        }
+        return ativos.stream().filter(prestadorIds::contains).toList();
+    }
+
+    private void validarPeriodo(LocalDate dataInicio, LocalDate dataFim) {
+        if (dataFim.isBefore(dataInicio)) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Data final anterior à data inicial");
+        }
+        if (ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS_BUSCA) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Período de busca limitado a " + MAX_DIAS_BUSCA + " dias");
+        }
+    }
+
+    /**
+     * Valida o serviço e retorna sua duração em minutos.
+     */
+    private int validarServico(Long servicoId) {
+        var servico = servicoRepository.findById(servicoId)
+                .orElseThrow(() -> new AgendamentoExceptionHandler.ServicoNaoEncontradoException(
+                        "Serviço não encontrado com ID: " + servicoId));
+
+        if (!servico.isAtivo()) {
+            throw new AgendamentoExceptionHandler.ServicoNaoEncontradoException(
+                    "Serviço não está ativo");
+        }
+        return servico.getDuracaoMinutos() != null
+                ? servico.getDuracaoMinutos()
+                : AgendamentoService.DURACAO_PADRAO_MINUTOS;
+    }
+
+    /**
+     * Remove os horários que já passaram (dias anteriores a hoje ficam vazios).
+     */
+    private static int mascaraNaoPassada(LocalDate data, ZonedDateTime agora) {
+        LocalDate hoje = agora.toLocalDate();
+        if (data.isBefore(hoje)) {
+            return 0;
+        }
+        if (data.isAfter(hoje)) {
+            return -1;
+        }
+        int mascara = 0;
+        for (int h = 0; h < 24; h++) {
+            if (!LocalTime.of(h, 0).isBefore(agora.toLocalTime())) {
+                mascara |= 1 << h;
+            }
+        }
+        return mascara;
+    }
+
+    static List<LocalTime> horarios(int mascara) {
+        List<LocalTime> horarios = new ArrayList<>(Integer.bitCount(mascara));
+        int restante = mascara;
+        while (restante != 0) {
+            int hora = Integer.numberOfTrailingZeros(restante);
+            horarios.add(LocalTime.of(hora, 0));
+            restante &= restante - 1;
+        }
+        return horarios;
+    }
+
+    /**
+     * Iterador dos horários livres de um prestador dentro de uma janela, em ordem de data e hora.
+     * Cada dia só é calculado quando o iterador chega nele.
+     */
+    private static final class LivresPrestador {
+
+        static final Comparator<LivresPrestador> ORDEM = Comparator
+                .comparingInt((LivresPrestador l) -> l.dia)
+                .thenComparingInt(l -> l.hora)
+                .thenComparingLong(l -> l.prestadorId);
+
+        private final Long prestadorId;
+        private final LocalDate dataInicio;
+        private final int[] base;
+        private final int[] semana;
+        private final int[] ocupado;
+        private final CalendarioFechamento calendario;
+
+        private int dia = -1;
+        private int hora;
+        private int restantes;
+
+        LivresPrestador(Long prestadorId, LocalDate dataInicio, int[] base, int[] semana,
+                        int[] ocupado, CalendarioFechamento calendario) {
+            this.prestadorId = prestadorId;
+            this.dataInicio = dataInicio;
+            this.base = base;
+            this.semana = semana;
+            this.ocupado = ocupado;
+            this.calendario = calendario;
+        }
+
+        /**
+         * Posiciona no próximo horário livre; false quando a janela acabou.
+         */
+        boolean avancar() {
+            while (restantes == 0) {
+                if (++dia >= base.length) {
+                    return false;
+                }
+                restantes = livres(dia);
+            }
+            hora = Integer.numberOfTrailingZeros(restantes);
+            restantes &= restantes - 1;
+            return true;
+        }
+
+        LocalDate data() {
+            return dataInicio.plusDays(dia);
+        }
+
+        private int livres(int d) {
+            if (base[d] == 0) {
+                return 0;
+            }
+            LocalDate data = dataInicio.plusDays(d);
+            int abertos = semana[data.getDayOfWeek().ordinal()] & base[d];
+            if (abertos == 0 || calendario.fechado(prestadorId, data)) {
+                return 0;
+            }
+            return abertos & ~ocupado[d];
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fluxo SSE de alterações de disponibilidade para os calendários abertos (substitui o polling).
+ * Cada assinante escolhe prestadores e um período; os assinantes ficam indexados por prestador,
+ * então um evento só percorre quem acompanha aquele prestador. A mensagem é serializada uma vez
+ * e enfileirada no buffer limitado de cada assinante; o envio roda numa virtual thread por
+ * assinante, criada sob demanda e encerrada quando o buffer esvazia (mesmo esquema das
+ * {@link RaiasReserva}). Quem publica nunca bloqueia: buffer cheio derruba o assinante lento,
+ * que reconecta e recarrega a disponibilidade.
+ */
+@Component
+public class FluxoDisponibilidade {
+
+    private static final Logger log = LoggerFactory.getLogger(FluxoDisponibilidade.class);
+
+    static final int MAX_PRESTADORES = 50;
+    static final int MAX_DIAS = 31;
+
+    private final ConcurrentHashMap<Long, Set<Assinante>> porPrestador = new ConcurrentHashMap<>();
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final AtomicInteger ativos = new AtomicInteger();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final Counter descartados;
+    private final int maxAssinantes;
+    private final int tamanhoBuffer;
+    private final long timeoutMs;
+    private final Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("").build();
+
+    public FluxoDisponibilidade(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.disponibilidade.stream.max-assinantes:10000}") int maxAssinantes,
+            @Value("${agendamento.disponibilidade.stream.tamanho-buffer:64}") int tamanhoBuffer,
+            @Value("${agendamento.disponibilidade.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.maxAssinantes = maxAssinantes;
+        this.tamanhoBuffer = tamanhoBuffer;
+        this.timeoutMs = timeoutMs;
+        this.descartados = Counter.builder("agendamento.disponibilidade.stream.descartados")
+                .description("Assinantes derrubados por buffer cheio")
+                .register(meterRegistry);
+        Gauge.builder("agendamento.disponibilidade.stream.assinantes", assinantes, AtomicInteger::get)
+                .description("Assinantes conectados ao fluxo de disponibilidade")
+                .register(meterRegistry);
+        Gauge.builder("agendamento.disponibilidade.stream.ativos", ativos, AtomicInteger::get)
+                .description("Assinantes com virtual thread enviando")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um assinante para os prestadores e o período informados.
+     *
+     * @return Emitter SSE que recebe os eventos {@code horario-ocupado} e {@code horario-liberado}
+     */
+    public SseEmitter assinar(Set<Long> prestadorIds, LocalDate dataInicio, LocalDate dataFim) {
+        if (prestadorIds == null || prestadorIds.isEmpty() || prestadorIds.size() > MAX_PRESTADORES) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Informe de 1 a " + MAX_PRESTADORES + " prestadores");
+        }
+        if (dataFim.isBefore(dataInicio) || ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Período deve ter de 1 a " + MAX_DIAS + " dias");
+        }
+        if (assinantes.incrementAndGet() > maxAssinantes) {
+            assinantes.decrementAndGet();
+            throw new AgendamentoExceptionHandler.AssinaturasEsgotadasException(
+                    "Limite de assinantes do fluxo de disponibilidade atingido; tente novamente");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Assinante assinante = new Assinante(emitter, Set.copyOf(prestadorIds), dataInicio, dataFim);
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(e -> remover(assinante));
+        for (Long prestadorId : assinante.prestadorIds) {
+            porPrestador.computeIfAbsent(prestadorId, id -> ConcurrentHashMap.newKeySet()).add(assinante);
+        }
+        // Comentário inicial para o cliente (e proxies) receberem os cabeçalhos de imediato
+        assinante.enfileirar(heartbeat);
+
+        log.debug("[AGENDAMENTO] Assinante do fluxo de disponibilidade conectado: {} prestadores, {} a {}",
+                prestadorIds.size(), dataInicio, dataFim);
+        return emitter;
+    }
+
+    /**
+     * Avisa os assinantes do prestador que um horário foi ocupado ou liberado.
+     * Não bloqueia: apenas enfileira nos buffers dos assinantes interessados.
+     */
+    public void publicar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim, boolean livre) {
+        Set<Assinante> interessados = porPrestador.get(prestadorId);
+        if (interessados == null || interessados.isEmpty()) {
+            return;
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> mensagem;
+        try {
+            String json = objectMapper.writeValueAsString(
+                    new AgendamentoApi.AlteracaoDisponibilidadeResponse(prestadorId, data, horaInicio, horaFim, livre));
+            mensagem = SseEmitter.event()
+                    .id(Long.toString(sequencia.incrementAndGet()))
+                    .name(livre ? "horario-liberado" : "horario-ocupado")
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("[AGENDAMENTO] Falha ao serializar alteração de disponibilidade do prestador {}", prestadorId, e);
+            return;
+        }
+
+        for (Assinante assinante : interessados) {
+            if (assinante.interessa(data)) {
+                assinante.enfileirar(mensagem);
+            }
+        }
+    }
+
+    /**
+     * Comentário periódico: mantém proxies com a conexão aberta e detecta clientes desconectados.
+     */
+    @Scheduled(fixedDelayString = "${agendamento.disponibilidade.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<Assinante> enviados = new HashSet<>(assinantes.get() * 2);
+        for (Set<Assinante> doPrestador : porPrestador.values()) {
+            for (Assinante assinante : doPrestador) {
+                if (enviados.add(assinante)) {
+                    assinante.enfileirar(heartbeat);
+                }
+            }
+        }
+    }
+
+    public int assinantes() {
+        return assinantes.get();
+    }
+
+    /**
+     * Retira o assinante dos índices; false se ele já tinha sido removido.
+     */
+    private boolean remover(Assinante assinante) {
+        if (!assinante.encerrado.compareAndSet(false, true)) {
+            return false;
+        }
+        for (Long prestadorId : assinante.prestadorIds) {
+            porPrestador.computeIfPresent(prestadorId, (id, doPrestador) -> {
+                doPrestador.remove(assinante);
+                return doPrestador.isEmpty() ? null : doPrestador;
+            });
+        }
+        assinante.fila.clear();
+        assinantes.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Derruba um assinante lento. O complete do emitter espera o envio em andamento,
+     * então roda fora da thread de quem publicou.
+     */
+    private void descartar(Assinante assinante) {
+        if (!remover(assinante)) {
+            return;
+        }
+        descartados.increment();
+        Thread.ofVirtual().name("sse-disponibilidade-descarte").start(assinante.emitter::complete);
+        log.debug("[AGENDAMENTO] Assinante do fluxo de disponibilidade descartado: buffer cheio");
+    }
+
+    /**
+     * Conexão de um calendário. Somente a thread que venceu o CAS em {@code enviando}
+     * escreve no emitter.
+     */
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+        private final Set<Long> prestadorIds;
+        private final LocalDate dataInicio;
+        private final LocalDate dataFim;
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> fila;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean encerrado = new AtomicBoolean();
+
+        Assinante(SseEmitter emitter, Set<Long> prestadorIds, LocalDate dataInicio, LocalDate dataFim) {
+            this.emitter = emitter;
+            this.prestadorIds = prestadorIds;
+            this.dataInicio = dataInicio;
+            this.dataFim = dataFim;
+            this.fila = new ArrayBlockingQueue<>(tamanhoBuffer);
+        }
+
+        boolean interessa(LocalDate data) {
+            return !data.isBefore(dataInicio) && !data.isAfter(dataFim);
+        }
+
+        void enfileirar(Set<ResponseBodyEmitter.DataWithMediaType> mensagem) {
+            if (encerrado.get()) {
+                return;
+            }
+            if (!fila.offer(mensagem)) {
+                descartar(this);
+                return;
+            }
+            if (enviando.compareAndSet(false, true)) {
+                ativos.incrementAndGet();
+                Thread.ofVirtual().name("sse-disponibilidade").start(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> mensagem;
+                try {
+                    while (!encerrado.get() && (mensagem = fila.poll()) != null) {
+                        emitter.send(mensagem);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado ou emitter já encerrado: libera a requisição assíncrona
+                    if (remover(this)) {
+                        completarComErro(e);
+                    }
+                }
+
+                // Sai do envio; se alguém enfileirou entre o último poll e a liberação, retoma
+                ativos.decrementAndGet();
+                enviando.set(false);
+                if (encerrado.get() || fila.isEmpty() || !enviando.compareAndSet(false, true)) {
+                    return;
+                }
+                ativos.incrementAndGet();
+            }
+        }
+
+        private void completarComErro(Exception e) {
+            try {
+                emitter.completeWithError(e);
+            } catch (IllegalStateException jaEncerrado) {
+                log.debug("[AGENDAMENTO] Emitter do fluxo de disponibilidade já encerrado");
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.ChaveIdempotencia;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ChaveIdempotenciaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criação idempotente de agendamentos (cabeçalho Idempotency-Key).
+ * A primeira requisição com uma chave cria o agendamento e grava a resposta na mesma transação;
+ * as repetições são respondidas por um cache LRU limitado ou por uma leitura pela PK,
+ * sem passar pelas validações nem pelo insert. Chaves expiram após a validade e são removidas em lotes.
+ */
+@Service
+public class IdempotenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+
+    private final RaiasReserva raiasReserva;
+    private final ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration validade;
+    private final int tamanhoLote;
+    private final Map<String, ChaveIdempotencia> cache;
+
+    public IdempotenciaService(
+            RaiasReserva raiasReserva,
+            ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.idempotencia.validade-horas:24}") int validadeHoras,
+            @Value("${agendamento.idempotencia.cache-max:10000}") int cacheMax,
+            @Value("${agendamento.idempotencia.tamanho-lote:1000}") int tamanhoLote) {
+        this.raiasReserva = raiasReserva;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.validade = Duration.ofHours(validadeHoras);
+        this.tamanhoLote = tamanhoLote;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ChaveIdempotencia> maisAntiga) {
+                return size() > cacheMax;
+            }
+        };
+    }
+
+    /**
+     * Cria o agendamento ou, se a chave já foi usada com a mesma requisição, devolve a resposta original.
+     *
+     * @param chave Valor do cabeçalho Idempotency-Key (null para criação sem idempotência)
+     * @param request Dados do agendamento
+     * @return Resposta da criação (original, em caso de repetição)
+     * @throws AgendamentoExceptionHandler.ChaveIdempotenciaInvalidaException se a chave for inválida
+     *         ou já tiver sido usada com outra requisição
+     */
+    public AgendamentoApi.AgendamentoResponse criar(String chave, AgendamentoApi.CreateAgendamentoRequest request) {
+        if (chave == null) {
+            return raiasReserva.reservar(request);
+        }
+        if (chave.isBlank() || chave.length() > ChaveIdempotencia.TAMANHO_MAXIMO) {
+            throw new AgendamentoExceptionHandler.ChaveIdempotenciaInvalidaException(
+                    "Idempotency-Key deve ter entre 1 e " + ChaveIdempotencia.TAMANHO_MAXIMO + " caracteres");
+        }
+
+        ZonedDateTime agora = ZonedDateTime.now(ZONA);
+        ChaveIdempotencia existente = buscar(chave);
+        if (existente != null) {
+            if (existente.getExpiraEm().isAfter(agora)) {
+                return repetir(existente, request);
+            }
+            // Expirada mas ainda não removida pela limpeza: libera a chave para reuso
+            esquecer(chave);
+        }
+
+        try {
+            AgendamentoApi.AgendamentoResponse resposta = raiasReserva.reservar(request, chave, agora.plus(validade));
+            lembrar(new ChaveIdempotencia(chave, resposta, agora.plus(validade)));
+            return resposta;
+        } catch (RuntimeException e) {
+            // Uma tentativa concorrente com a mesma chave pode ter vencido (slot ou PK já ocupados)
+            ChaveIdempotencia vencedora = buscar(chave);
+            if (vencedora != null && vencedora.getExpiraEm().isAfter(agora)) {
+                return repetir(vencedora, request);
+            }
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${agendamento.idempotencia.limpeza-ms:600000}",
+               initialDelayString = "${agendamento.idempotencia.limpeza-ms:600000}")
+    public void agendado() {
+        limpar(ZonedDateTime.now(ZONA));
+    }
+
+    /**
+     * Remove as chaves expiradas no instante informado, em lotes com transação própria.
+     *
+     * @return Quantidade de chaves removidas
+     */
+    public int limpar(ZonedDateTime agora) {
+        synchronized (cache) {
+            cache.values().removeIf(c -> !c.getExpiraEm().isAfter(agora));
+        }
+        int total = 0;
+        while (true) {
+            Integer removidas = transactionTemplate.execute(tx -> {
+                List<String> chaves = chaveIdempotenciaRepository.findChavesExpiradas(agora, Limit.of(tamanhoLote));
+                return chaves.isEmpty() ? 0 : chaveIdempotenciaRepository.removerPorChaves(chaves);
+            });
+            if (removidas == null || removidas == 0) {
+                break;
+            }
+            total += removidas;
+        }
+        if (total > 0) {
+            log.info("[AGENDAMENTO] {} chaves de idempotência expiradas removidas", total);
+        }
+        return total;
+    }
+
+    private ChaveIdempotencia buscar(String chave) {
+        ChaveIdempotencia encontrada;
+        synchronized (cache) {
+            encontrada = cache.get(chave);
+        }
+        if (encontrada == null) {
+            encontrada = chaveIdempotenciaRepository.findById(chave).orElse(null);
+            if (encontrada != null) {
+                lembrar(encontrada);
+            }
+        }
+        return encontrada;
+    }
+
+    private void esquecer(String chave) {
+        synchronized (cache) {
+            cache.remove(chave);
+        }
+        transactionTemplate.executeWithoutResult(tx -> chaveIdempotenciaRepository.removerPorChaves(List.of(chave)));
+    }
+
+    private AgendamentoApi.AgendamentoResponse repetir(ChaveIdempotencia chave,
+                                                       AgendamentoApi.CreateAgendamentoRequest request) {
+        if (!chave.corresponde(request)) {
+            throw new AgendamentoExceptionHandler.ChaveIdempotenciaInvalidaException(
+                    "Idempotency-Key já utilizada com outra requisição");
+        }
+        meterRegistry.counter("agendamento.idempotencia.repeticoes").increment();
+        return chave.toResponse();
+    }
+
+    private void lembrar(ChaveIdempotencia chave) {
+        synchronized (cache) {
+            cache.put(chave.getId(), chave);
+        }
+    }
+}
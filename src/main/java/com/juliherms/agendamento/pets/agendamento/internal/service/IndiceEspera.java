@@ -0,0 +1,135 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice em memória da lista de espera, por prestador e dia.
+ * Em cada dia, cada hora de início tem um conjunto ordenado com os ids das entradas que aceitam
+ * começar nela; como os ids crescem com o cadastro, o primeiro é o interessado mais antigo.
+ * Achar e retirar o primeiro interessado de uma hora custa O(log n) (mais a remoção das outras
+ * horas da mesma entrada, no máximo 24). As alterações de um dia são serializadas pelo
+ * {@code compute} do mapa, que também remove dias vazios.
+ */
+public final class IndiceEspera {
+
+    /**
+     * Entrada indexada. {@code horasAceitas}: bit h ligado se o serviço pode começar às h horas.
+     */
+    public record Entrada(long id, long petId, long servicoId, int horasAceitas, boolean reservaAutomatica) {}
+
+    private record Chave(long prestadorId, LocalDate data) {}
+
+    private final ConcurrentHashMap<Chave, Dia> dias = new ConcurrentHashMap<>();
+    private final AtomicInteger tamanho = new AtomicInteger();
+
+    public void adicionar(long prestadorId, LocalDate data, Entrada entrada) {
+        dias.compute(new Chave(prestadorId, data), (chave, dia) -> {
+            Dia atual = dia != null ? dia : new Dia();
+            if (atual.adicionar(entrada)) {
+                tamanho.incrementAndGet();
+            }
+            return atual;
+        });
+    }
+
+    /**
+     * Retira e devolve o interessado mais antigo que aceita começar na hora informada, ou null.
+     */
+    public Entrada retirarPrimeiro(long prestadorId, LocalDate data, int hora) {
+        Entrada[] retirada = new Entrada[1];
+        dias.computeIfPresent(new Chave(prestadorId, data), (chave, dia) -> {
+            retirada[0] = dia.retirarPrimeiro(hora);
+            return dia.vazio() ? null : dia;
+        });
+        if (retirada[0] != null) {
+            tamanho.decrementAndGet();
+        }
+        return retirada[0];
+    }
+
+    public boolean remover(long prestadorId, LocalDate data, long id) {
+        boolean[] removida = new boolean[1];
+        dias.computeIfPresent(new Chave(prestadorId, data), (chave, dia) -> {
+            removida[0] = dia.remover(id) != null;
+            return dia.vazio() ? null : dia;
+        });
+        if (removida[0]) {
+            tamanho.decrementAndGet();
+        }
+        return removida[0];
+    }
+
+    /**
+     * Descarta os dias anteriores à data informada.
+     */
+    public void descartarAntesDe(LocalDate data) {
+        for (Chave chave : dias.keySet()) {
+            if (chave.data().isBefore(data)) {
+                dias.computeIfPresent(chave, (c, dia) -> {
+                    tamanho.addAndGet(-dia.entradas.size());
+                    return null;
+                });
+            }
+        }
+    }
+
+    public int tamanho() {
+        return tamanho.get();
+    }
+
+    private static final class Dia {
+
+        @SuppressWarnings("unchecked")
+        private final TreeSet<Long>[] porHora = new TreeSet[24];
+        private final Map<Long, Entrada> entradas = new HashMap<>();
+
+        boolean adicionar(Entrada entrada) {
+            Entrada anterior = entradas.put(entrada.id(), entrada);
+            if (anterior != null) {
+                desindexar(anterior);
+            }
+            for (int hora = 0; hora < 24; hora++) {
+                if ((entrada.horasAceitas() & (1 << hora)) != 0) {
+                    if (porHora[hora] == null) {
+                        porHora[hora] = new TreeSet<>();
+                    }
+                    porHora[hora].add(entrada.id());
+                }
+            }
+            return anterior == null;
+        }
+
+        Entrada retirarPrimeiro(int hora) {
+            TreeSet<Long> ids = porHora[hora];
+            if (ids == null || ids.isEmpty()) {
+                return null;
+            }
+            return remover(ids.first());
+        }
+
+        Entrada remover(long id) {
+            Entrada entrada = entradas.remove(id);
+            if (entrada != null) {
+                desindexar(entrada);
+            }
+            return entrada;
+        }
+
+        boolean vazio() {
+            return entradas.isEmpty();
+        }
+
+        private void desindexar(Entrada entrada) {
+            for (int hora = 0; hora < 24; hora++) {
+                if ((entrada.horasAceitas() & (1 << hora)) != 0 && porHora[hora] != null) {
+                    porHora[hora].remove(entrada.id());
+                }
+            }
+        }
+    }
+}
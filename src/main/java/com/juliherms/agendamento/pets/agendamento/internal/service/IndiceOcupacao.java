@@ -0,0 +1,190 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice em memória da ocupação de horários por prestador e data.
+ * Cada entrada guarda os intervalos ocupados do dia ({@link AgendaDia}), carregados
+ * sob demanda da tabela de agendamentos e mantidos pelos eventos do módulo.
+ * O banco (unique key e verificação de sobreposição no insert) continua sendo o árbitro final.
+ * Cada entrada vale por no máximo {@code agendamento.ocupacao.indice.ttl-ms}: cancelamentos feitos em
+ * outros nós só chegam por recarga, então um "ocupado" desatualizado dura no máximo esse tempo.
+ * Uma carga que cruza com uma liberação não é guardada, para não perder o cancelamento.
+ */
+@Component
+public class IndiceOcupacao {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceOcupacao.class);
+
+    // Chave = prestadorId nos bits altos + epochDay nos 20 bits baixos
+    private static final int BITS_DIA = 20;
+    private static final long MASCARA_DIA = (1L << BITS_DIA) - 1;
+
+    private final ConcurrentHashMap<Long, Entrada> ocupacao = new ConcurrentHashMap<>();
+    // Incrementado a cada liberação/invalidação; uma carga só é guardada se ele não mudou durante a leitura
+    private final AtomicLong liberacoes = new AtomicLong();
+    private final AgendamentoRepository agendamentoRepository;
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final Counter hits;
+    private final Counter misses;
+    private volatile boolean habilitado;
+
+    public IndiceOcupacao(
+            AgendamentoRepository agendamentoRepository,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.ocupacao.indice.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.ocupacao.indice.max-entradas:100000}") int maxEntradas,
+            @Value("${agendamento.ocupacao.indice.ttl-ms:30000}") long ttlMs) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.habilitado = habilitado;
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.hits = Counter.builder("agendamento.ocupacao.indice")
+                .tag("resultado", "hit")
+                .description("Consultas ao índice de ocupação respondidas em memória")
+                .register(meterRegistry);
+        this.misses = Counter.builder("agendamento.ocupacao.indice")
+                .tag("resultado", "miss")
+                .description("Consultas ao índice de ocupação que exigiram carga do banco")
+                .register(meterRegistry);
+        Gauge.builder("agendamento.ocupacao.indice.entradas", ocupacao, Map::size)
+                .description("Pares prestador/data carregados no índice")
+                .register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Liga ou desliga o índice em tempo de execução. Ao desligar, descarta o conteúdo
+     * para que uma religação não reaproveite dados desatualizados.
+     */
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+        if (!habilitado) {
+            limpar();
+        }
+    }
+
+    /**
+     * Verifica se o instante cai dentro de algum agendamento do prestador
+     * (nesse caso qualquer serviço iniciado nele estaria em conflito).
+     */
+    public boolean estaOcupado(Long prestadorId, LocalDate data, LocalTime instante) {
+        return agenda(prestadorId, data).contem(instante);
+    }
+
+    /**
+     * Verifica se o intervalo [horaInicio, horaFim) sobrepõe algum agendamento do prestador na data.
+     */
+    public boolean temSobreposicao(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        return agenda(prestadorId, data).temSobreposicao(horaInicio, horaFim);
+    }
+
+    /**
+     * Marca o intervalo como ocupado. Entradas ainda não carregadas são ignoradas,
+     * pois a próxima carga já refletirá o banco.
+     */
+    public void ocupar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        Entrada entrada = ocupacao.get(chave(prestadorId, data));
+        if (entrada != null) {
+            entrada.agenda().ocupar(horaInicio, horaFim);
+        }
+    }
+
+    /**
+     * Libera o intervalo iniciado em {@code horaInicio} (ex: após cancelamento).
+     */
+    public void liberar(Long prestadorId, LocalDate data, LocalTime horaInicio) {
+        liberacoes.incrementAndGet();
+        Entrada entrada = ocupacao.get(chave(prestadorId, data));
+        if (entrada != null) {
+            entrada.agenda().liberar(horaInicio);
+        }
+    }
+
+    /**
+     * Descarta a entrada do prestador na data, forçando nova carga na próxima consulta.
+     */
+    public void invalidar(Long prestadorId, LocalDate data) {
+        liberacoes.incrementAndGet();
+        ocupacao.remove(chave(prestadorId, data));
+    }
+
+    public void limpar() {
+        ocupacao.clear();
+    }
+
+    /**
+     * Agenda do prestador na data, carregando do banco em caso de miss ou de entrada expirada.
+     */
+    private AgendaDia agenda(Long prestadorId, LocalDate data) {
+        long chave = chave(prestadorId, data);
+        Entrada entrada = ocupacao.get(chave);
+        if (entrada != null) {
+            if (System.nanoTime() - entrada.carregadaEm() < ttlNanos) {
+                hits.increment();
+                return entrada.agenda();
+            }
+            ocupacao.remove(chave, entrada);
+        }
+        misses.increment();
+        return carregar(chave, prestadorId, data);
+    }
+
+    private AgendaDia carregar(long chave, Long prestadorId, LocalDate data) {
+        long versao = liberacoes.get();
+        long carregadaEm = System.nanoTime();
+        AgendaDia carregado = new AgendaDia();
+        for (SlotOcupado slot : agendamentoRepository.findSlotsOcupadosPorPrestador(prestadorId, data)) {
+            carregado.ocupar(slot.horaInicio(), slot.horaFim());
+        }
+
+        // Uma liberação durante a leitura pode não estar no resultado e não acharia a entrada
+        // para corrigir: usa a carga só nesta consulta, sem guardá-la
+        if (liberacoes.get() != versao) {
+            return carregado;
+        }
+
+        if (ocupacao.size() >= maxEntradas) {
+            descartarDiasPassados();
+        }
+
+        Entrada existente = ocupacao.putIfAbsent(chave, new Entrada(carregado, carregadaEm));
+        return existente != null ? existente.agenda() : carregado;
+    }
+
+    private void descartarDiasPassados() {
+        long hoje = LocalDate.now(ZoneId.of("America/Recife")).toEpochDay();
+        ocupacao.keySet().removeIf(chave -> (chave & MASCARA_DIA) < hoje);
+
+        if (ocupacao.size() >= maxEntradas) {
+            log.warn("[AGENDAMENTO] Índice de ocupação atingiu o limite de {} entradas; descartando conteúdo", maxEntradas);
+            ocupacao.clear();
+        }
+    }
+
+    private static long chave(Long prestadorId, LocalDate data) {
+        return (prestadorId << BITS_DIA) | (data.toEpochDay() & MASCARA_DIA);
+    }
+
+    private record Entrada(AgendaDia agenda, long carregadaEm) {}
+}
@@ -0,0 +1,128 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória das séries recorrentes ativas que ainda têm ocorrências não materializadas,
+ * por prestador e por pet. As ocorrências após {@code materializadaAte} são expandidas a partir da
+ * regra sob demanda (O(1) por data), sem linhas no banco; as anteriores já são agendamentos.
+ * As listas são imutáveis e trocadas a cada alteração (leituras sem lock).
+ */
+@Component
+public class IndiceSeries {
+
+    private volatile Map<Long, List<Serie>> porPrestador = new ConcurrentHashMap<>();
+    private volatile Map<Long, List<Serie>> porPet = new ConcurrentHashMap<>();
+
+    /**
+     * Substitui o conteúdo do índice (carga completa a partir do banco).
+     */
+    public synchronized void substituir(Collection<Serie> series) {
+        Map<Long, List<Serie>> prestadores = new ConcurrentHashMap<>();
+        Map<Long, List<Serie>> pets = new ConcurrentHashMap<>();
+        for (Serie serie : series) {
+            if (serie.pendente()) {
+                prestadores.computeIfAbsent(serie.prestadorId(), id -> new ArrayList<>()).add(serie);
+                pets.computeIfAbsent(serie.petId(), id -> new ArrayList<>()).add(serie);
+            }
+        }
+        prestadores.replaceAll((id, lista) -> List.copyOf(lista));
+        pets.replaceAll((id, lista) -> List.copyOf(lista));
+        porPrestador = prestadores;
+        porPet = pets;
+    }
+
+    /**
+     * Adiciona a série ou substitui a versão anterior com o mesmo id.
+     */
+    public synchronized void atualizar(Serie serie) {
+        remover(serie.id(), serie.prestadorId(), serie.petId());
+        if (serie.pendente()) {
+            porPrestador.merge(serie.prestadorId(), List.of(serie), IndiceSeries::juntar);
+            porPet.merge(serie.petId(), List.of(serie), IndiceSeries::juntar);
+        }
+    }
+
+    public synchronized void remover(Long serieId, Long prestadorId, Long petId) {
+        porPrestador.computeIfPresent(prestadorId, (id, lista) -> semSerie(lista, serieId));
+        porPet.computeIfPresent(petId, (id, lista) -> semSerie(lista, serieId));
+    }
+
+    /**
+     * Verifica se alguma ocorrência não materializada do prestador na data sobrepõe [horaInicio, horaFim).
+     */
+    public boolean temSobreposicao(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        for (Serie serie : doPrestador(prestadorId)) {
+            if (serie.horaInicio().isBefore(horaFim) && serie.horaFim().isAfter(horaInicio) && serie.ocorreEm(data)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Serie> doPrestador(Long prestadorId) {
+        return porPrestador.getOrDefault(prestadorId, List.of());
+    }
+
+    public List<Serie> doPet(Long petId) {
+        return porPet.getOrDefault(petId, List.of());
+    }
+
+    public int tamanho() {
+        return porPrestador.values().stream().mapToInt(List::size).sum();
+    }
+
+    private static List<Serie> juntar(List<Serie> atual, List<Serie> nova) {
+        List<Serie> lista = new ArrayList<>(atual);
+        lista.addAll(nova);
+        return List.copyOf(lista);
+    }
+
+    private static List<Serie> semSerie(List<Serie> lista, Long serieId) {
+        List<Serie> restante = lista.stream().filter(s -> !s.id().equals(serieId)).toList();
+        return restante.isEmpty() ? null : restante;
+    }
+
+    /**
+     * Regra de uma série com as datas puladas e o limite já materializado.
+     */
+    public record Serie(Long id, Long petId, Long prestadorId, LocalDate dataInicio, LocalDate dataFim,
+                        LocalTime horaInicio, LocalTime horaFim, int intervaloSemanas,
+                        LocalDate materializadaAte, Set<LocalDate> puladas) {
+
+        boolean pendente() {
+            return materializadaAte.isBefore(dataFim);
+        }
+
+        /**
+         * Verifica se a série tem uma ocorrência não materializada na data.
+         */
+        public boolean ocorreEm(LocalDate data) {
+            if (!data.isAfter(materializadaAte) || data.isBefore(dataInicio) || data.isAfter(dataFim)) {
+                return false;
+            }
+            return ChronoUnit.DAYS.between(dataInicio, data) % (7L * intervaloSemanas) == 0 && !puladas.contains(data);
+        }
+
+        /**
+         * Ocorrências não materializadas em [de, ate], em ordem.
+         */
+        public List<LocalDate> datas(LocalDate de, LocalDate ate) {
+            LocalDate inicio = de.isAfter(materializadaAte) ? de : materializadaAte.plusDays(1);
+            LocalDate fim = ate.isBefore(dataFim) ? ate : dataFim;
+            return SerieRecorrenteService.ocorrencias(dataInicio, intervaloSemanas, inicio, fim).stream()
+                    .filter(data -> !puladas.contains(data))
+                    .toList();
+        }
+    }
+}
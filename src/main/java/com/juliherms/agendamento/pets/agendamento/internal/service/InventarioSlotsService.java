@@ -0,0 +1,357 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CapacidadePrestador;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.CapacidadePrestadorRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.HoraLotada;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotInventarioRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inventário de vagas dos prestadores com capacidade (ex.: pet shop com três tosadores cadastrado
+ * como um único prestador). Cada hora de trabalho vira uma linha (prestador, data, hora, capacidade,
+ * reservados) em slots_inventario, gerada em lotes a partir da jornada para os próximos
+ * {@code agendamento.inventario.horizonte-dias} dias.
+ * A reserva é um único UPDATE condicional sobre as horas do serviço ({@code reservados < capacidade}):
+ * o banco faz o compare-and-set na própria linha, sem SELECT FOR UPDATE; se alguma hora estiver lotada,
+ * menos linhas são alteradas e a transação é desfeita.
+ * As capacidades ficam em memória (snapshot imutável), então decidir o caminho da reserva não consulta o banco;
+ * prestadores sem capacidade configurada continuam no insert com uk_prestador_data_hora.
+ * Na troca de caminho, os dias do horizonte são marcados nas linhas de bloqueio ({@link BloqueioAgendaService})
+ * antes de ler os agendamentos: reservas em andamento terminam antes e as seguintes passam para o inventário,
+ * mesmo em nós que ainda não sincronizaram as capacidades.
+ */
+@Service
+public class InventarioSlotsService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventarioSlotsService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+    static final int CAPACIDADE_MAXIMA = 50;
+
+    private static final String INSERIR =
+            "INSERT IGNORE INTO slots_inventario (prestador_id, data, hora, capacidade, reservados) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final SlotInventarioRepository slotInventarioRepository;
+    private final CapacidadePrestadorRepository capacidadePrestadorRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final ConfiguracaoHorarioService configuracaoHorarioService;
+    private final BloqueioAgendaService bloqueioAgendaService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonteDias;
+    private final int tamanhoLote;
+
+    // prestadorId -> capacidade e último dia gerado; trocado por inteiro a cada alteração
+    private volatile Map<Long, Capacidade> capacidades;
+
+    public InventarioSlotsService(
+            SlotInventarioRepository slotInventarioRepository,
+            CapacidadePrestadorRepository capacidadePrestadorRepository,
+            AgendamentoRepository agendamentoRepository,
+            ConfiguracaoHorarioService configuracaoHorarioService,
+            BloqueioAgendaService bloqueioAgendaService,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${agendamento.inventario.horizonte-dias:90}") int horizonteDias,
+            @Value("${agendamento.inventario.tamanho-lote:500}") int tamanhoLote) {
+        this.slotInventarioRepository = slotInventarioRepository;
+        this.capacidadePrestadorRepository = capacidadePrestadorRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.configuracaoHorarioService = configuracaoHorarioService;
+        this.bloqueioAgendaService = bloqueioAgendaService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.horizonteDias = horizonteDias;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        log.info("[AGENDAMENTO] Inventário de vagas: {} prestadores com capacidade", recarregar().size());
+    }
+
+    /**
+     * Indica se o prestador reserva pelo inventário. Não acessa o banco.
+     */
+    public boolean usaInventario(Long prestadorId) {
+        return capacidades().containsKey(prestadorId);
+    }
+
+    /**
+     * Atendimentos simultâneos do prestador (1 para quem não tem capacidade configurada).
+     */
+    public int capacidade(Long prestadorId) {
+        Capacidade capacidade = capacidades().get(prestadorId);
+        return capacidade == null ? 1 : capacidade.vagas();
+    }
+
+    /**
+     * Último dia com vagas geradas para o prestador (nulo se ele não usa o inventário).
+     */
+    public LocalDate inventarioAte(Long prestadorId) {
+        Capacidade capacidade = capacidades().get(prestadorId);
+        return capacidade == null ? null : capacidade.ate();
+    }
+
+    /**
+     * Ocupa uma vaga em cada hora tocada por [horaInicio, horaFim). Deve rodar na transação da reserva:
+     * com retorno false, parte das horas pode ter sido incrementada e o chamador precisa desfazer a transação.
+     *
+     * @return true se todas as horas tinham vaga
+     */
+    public boolean reservar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        List<LocalTime> horas = horas(horaInicio, horaFim);
+        return slotInventarioRepository.reservar(prestadorId, data, horas) == horas.size();
+    }
+
+    /**
+     * Devolve as vagas de um agendamento cancelado, na transação do cancelamento.
+     */
+    public void liberar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        slotInventarioRepository.liberar(prestadorId, data, horas(horaInicio, horaFim));
+    }
+
+    /**
+     * Horas sem vaga dos prestadores no período, em uma única consulta.
+     */
+    public List<HoraLotada> lotadas(List<Long> prestadorIds, LocalDate dataInicio, LocalDate dataFim) {
+        return slotInventarioRepository.findLotadas(prestadorIds, dataInicio, dataFim);
+    }
+
+    /**
+     * Define a capacidade do prestador e gera o inventário do horizonte. Na primeira configuração,
+     * os agendamentos futuros do prestador passam a contar nas vagas (e saem da unique key).
+     *
+     * @param prestadorId ID do prestador
+     * @param capacidade Atendimentos simultâneos (1 a {@link #CAPACIDADE_MAXIMA})
+     * @return Capacidade e último dia com vagas geradas
+     */
+    @Transactional
+    public AgendamentoApi.CapacidadePrestadorResponse configurar(Long prestadorId, int capacidade) {
+        if (capacidade < 1 || capacidade > CAPACIDADE_MAXIMA) {
+            throw new AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException(
+                    "Capacidade deve estar entre 1 e " + CAPACIDADE_MAXIMA);
+        }
+        LocalDate hoje = LocalDate.now(ZONA);
+        LocalDate ate = hoje.plusDays(horizonteDias - 1L);
+        // Antes da primeira leitura: espera as reservas em andamento e desvia as próximas para o inventário
+        bloqueioAgendaService.marcarInventario(prestadorId, hoje, ate);
+
+        CapacidadePrestador config = capacidadePrestadorRepository.findById(prestadorId).orElse(null);
+        if (config == null) {
+            config = new CapacidadePrestador();
+            config.setPrestadorId(prestadorId);
+            agendamentoRepository.marcarInventario(prestadorId, hoje);
+        }
+        config.setCapacidade(capacidade);
+        config.setInventarioAte(ate);
+        capacidadePrestadorRepository.save(config);
+
+        slotInventarioRepository.alterarCapacidade(prestadorId, hoje, capacidade);
+        int geradas = gerar(prestadorId, capacidade, hoje, ate, ocupadas(prestadorId, hoje, ate));
+        AposCommit.executar(() -> publicar(prestadorId, new Capacidade(capacidade, ate)));
+
+        log.info("[AGENDAMENTO] Capacidade do prestador {} definida em {} ({} vagas novas até {})",
+                prestadorId, capacidade, geradas, ate);
+        return new AgendamentoApi.CapacidadePrestadorResponse(prestadorId, capacidade, ate);
+    }
+
+    /**
+     * Capacidade atual do prestador.
+     */
+    public AgendamentoApi.CapacidadePrestadorResponse consultar(Long prestadorId) {
+        Capacidade capacidade = capacidades().get(prestadorId);
+        return capacidade == null
+                ? new AgendamentoApi.CapacidadePrestadorResponse(prestadorId, 1, null)
+                : new AgendamentoApi.CapacidadePrestadorResponse(prestadorId, capacidade.vagas(), capacidade.ate());
+    }
+
+    @Scheduled(cron = "${agendamento.inventario.cron:0 10 0 * * *}", zone = "America/Recife")
+    public void agendado() {
+        gerar();
+    }
+
+    /**
+     * Avança o horizonte do inventário de todos os prestadores com capacidade e remove vagas de dias encerrados.
+     * Linhas existentes não são alteradas (INSERT IGNORE), então a execução é idempotente e também cobre
+     * horas abertas depois da última geração. Uma transação por prestador, que também reconcilia
+     * agendamentos gravados pela unique key depois da troca (nós que ainda não viam a capacidade).
+     *
+     * @return Quantidade de vagas novas
+     */
+    public int gerar() {
+        LocalDate hoje = LocalDate.now(ZONA);
+        LocalDate ate = hoje.plusDays(horizonteDias - 1L);
+        int total = 0;
+        for (CapacidadePrestador config : capacidadePrestadorRepository.findAll()) {
+            Integer geradas = transactionTemplate.execute(status -> {
+                bloqueioAgendaService.marcarInventario(config.getPrestadorId(), hoje, ate);
+                Map<Long, Integer> ocupadas = reconciliar(config.getPrestadorId(), hoje);
+                int novas = gerar(config.getPrestadorId(), config.getCapacidade(), hoje, ate, ocupadas);
+                config.setInventarioAte(ate);
+                capacidadePrestadorRepository.save(config);
+                return novas;
+            });
+            total += geradas == null ? 0 : geradas;
+        }
+        Integer removidas = transactionTemplate.execute(status -> slotInventarioRepository.removerAnteriores(hoje));
+        recarregar();
+
+        log.info("[AGENDAMENTO] Inventário de vagas gerado até {}: {} vagas novas, {} removidas",
+                ate, total, removidas);
+        return total;
+    }
+
+    /**
+     * Relê as capacidades para refletir alterações feitas em outros nós (tabela pequena, lida inteira).
+     */
+    @Scheduled(fixedDelayString = "${agendamento.inventario.sincronizacao-ms:30000}",
+               initialDelayString = "${agendamento.inventario.sincronizacao-ms:30000}")
+    public void sincronizar() {
+        recarregar();
+    }
+
+    /**
+     * Horas cheias tocadas por [horaInicio, horaFim); fim à meia-noite conta como 24:00.
+     */
+    static List<LocalTime> horas(LocalTime horaInicio, LocalTime horaFim) {
+        int fimMin = horaFim.equals(LocalTime.MIDNIGHT) ? 24 * 60 : horaFim.getHour() * 60 + horaFim.getMinute();
+        List<LocalTime> horas = new ArrayList<>(2);
+        for (int h = horaInicio.getHour(); h < 24 && h * 60 < fimMin; h++) {
+            horas.add(LocalTime.of(h, 0));
+        }
+        return horas;
+    }
+
+    /**
+     * Insere, em lotes de {@code tamanhoLote}, uma vaga por hora de trabalho de cada dia do período
+     * (horas com alguma meia hora aberta na jornada). Vagas já existentes são mantidas.
+     *
+     * @param ocupadas Reservas já existentes por (epochDay * 24 + hora), usadas nas vagas novas
+     */
+    private int gerar(Long prestadorId, int capacidade, LocalDate de, LocalDate ate, Map<Long, Integer> ocupadas) {
+        HorarioComercial horarioComercial = configuracaoHorarioService.snapshot();
+        List<Object[]> lote = new ArrayList<>(tamanhoLote);
+        int total = 0;
+        for (LocalDate data = de; !data.isAfter(ate); data = data.plusDays(1)) {
+            if (data.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            long meiasHoras = horarioComercial.meiasHoras(prestadorId, data.getDayOfWeek());
+            for (int h = 0; h < 24; h++) {
+                if (((meiasHoras >>> (2 * h)) & 0b11) == 0) {
+                    continue;
+                }
+                int reservados = ocupadas.getOrDefault(data.toEpochDay() * 24 + h, 0);
+                lote.add(new Object[]{prestadorId, Date.valueOf(data), Time.valueOf(LocalTime.of(h, 0)),
+                        capacidade, reservados});
+                if (lote.size() == tamanhoLote) {
+                    total += inserir(lote);
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            total += inserir(lote);
+        }
+        return total;
+    }
+
+    private int inserir(List<Object[]> lote) {
+        int inseridas = 0;
+        for (int linhas : jdbcTemplate.batchUpdate(INSERIR, lote)) {
+            // O driver pode devolver SUCCESS_NO_INFO (-2) em lotes reescritos
+            inseridas += Math.max(linhas, 0);
+        }
+        return inseridas;
+    }
+
+    /**
+     * Reservas já existentes do prestador por hora no período (só relevante na primeira configuração).
+     */
+    private Map<Long, Integer> ocupadas(Long prestadorId, LocalDate de, LocalDate ate) {
+        Map<Long, Integer> ocupadas = new HashMap<>();
+        for (SlotOcupado slot : agendamentoRepository.findSlotsOcupadosPorPrestadores(List.of(prestadorId), de, ate)) {
+            long dia = slot.data().toEpochDay() * 24;
+            for (LocalTime hora : horas(slot.horaInicio(), slot.horaFim())) {
+                ocupadas.merge(dia + hora.getHour(), 1, Integer::sum);
+            }
+        }
+        return ocupadas;
+    }
+
+    /**
+     * Passa para o inventário os agendamentos futuros do prestador que ainda estão na unique key, somando
+     * cada um nas vagas já geradas.
+     *
+     * @return Reservas reconciliadas por (epochDay * 24 + hora), para as vagas ainda não geradas
+     */
+    private Map<Long, Integer> reconciliar(Long prestadorId, LocalDate desde) {
+        List<Agendamento> foraDoInventario = agendamentoRepository.findForaDoInventario(prestadorId, desde);
+        Map<Long, Integer> ocupadas = new HashMap<>();
+        for (Agendamento agendamento : foraDoInventario) {
+            List<LocalTime> horas = horas(agendamento.getHoraInicio(), agendamento.getHoraFim());
+            agendamento.ocuparPeloInventario();
+            slotInventarioRepository.somar(prestadorId, agendamento.getData(), horas);
+            long dia = agendamento.getData().toEpochDay() * 24;
+            for (LocalTime hora : horas) {
+                ocupadas.merge(dia + hora.getHour(), 1, Integer::sum);
+            }
+        }
+        if (!foraDoInventario.isEmpty()) {
+            log.warn("[AGENDAMENTO] {} agendamentos do prestador {} reconciliados com o inventário de vagas",
+                    foraDoInventario.size(), prestadorId);
+        }
+        return ocupadas;
+    }
+
+    private Map<Long, Capacidade> capacidades() {
+        Map<Long, Capacidade> atual = capacidades;
+        return atual != null ? atual : recarregar();
+    }
+
+    private synchronized Map<Long, Capacidade> recarregar() {
+        Map<Long, Capacidade> novo = new HashMap<>();
+        for (CapacidadePrestador config : capacidadePrestadorRepository.findAll()) {
+            novo.put(config.getPrestadorId(), new Capacidade(config.getCapacidade(), config.getInventarioAte()));
+        }
+        capacidades = Map.copyOf(novo);
+        return capacidades;
+    }
+
+    private synchronized void publicar(Long prestadorId, Capacidade capacidade) {
+        Map<Long, Capacidade> novo = new HashMap<>(capacidades());
+        novo.put(prestadorId, capacidade);
+        capacidades = Map.copyOf(novo);
+    }
+
+    private record Capacidade(int vagas, LocalDate ate) {}
+}
@@ -0,0 +1,340 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.StatusEspera;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.InteresseEspera;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.InteresseEsperaRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ValidacaoAgendamento;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista de espera por horários liberados em cancelamentos.
+ * Tutores registram interesse em (prestador, data, janela de horário); as entradas ficam em um
+ * {@link IndiceEspera} por prestador e dia. Cada cancelamento retira, para cada hora liberada, o interessado
+ * mais antigo que aceita começar nela e o reserva automaticamente ou publica um
+ * {@link AgendamentoApi.VagaListaEsperaEvent} para que seja avisado.
+ * Entre instâncias, o status no banco funciona como compare-and-set: uma entrada só é atendida uma vez.
+ */
+@Service
+public class ListaEsperaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+
+    private final IndiceEspera indice = new IndiceEspera();
+    private final InteresseEsperaRepository interesseEsperaRepository;
+    private final AgendamentoService agendamentoService;
+    private final TransactionTemplate transacaoPropria;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final int maxTentativas;
+    private final int tamanhoLote;
+
+    // Maior id já carregado do banco (sincronização incremental com as outras instâncias)
+    private long ultimoIdCarregado;
+
+    public ListaEsperaService(
+            InteresseEsperaRepository interesseEsperaRepository,
+            AgendamentoService agendamentoService,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.lista-espera.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.lista-espera.max-tentativas:3}") int maxTentativas,
+            @Value("${agendamento.lista-espera.tamanho-lote:1000}") int tamanhoLote) {
+        this.interesseEsperaRepository = interesseEsperaRepository;
+        this.agendamentoService = agendamentoService;
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.maxTentativas = maxTentativas;
+        this.tamanhoLote = tamanhoLote;
+
+        Gauge.builder("agendamento.lista-espera.entradas", indice, IndiceEspera::tamanho)
+                .description("Entradas aguardando na lista de espera (índice em memória)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        if (habilitado) {
+            log.info("[AGENDAMENTO] Lista de espera carregada: {} entradas", sincronizar());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${agendamento.lista-espera.sincronizacao-ms:30000}",
+               initialDelayString = "${agendamento.lista-espera.sincronizacao-ms:30000}")
+    public void agendado() {
+        if (habilitado) {
+            sincronizar();
+        }
+    }
+
+    /**
+     * Carrega no índice as entradas aguardando cadastradas desde a última carga (inclusive por outras instâncias).
+     *
+     * @return Quantidade de entradas carregadas
+     */
+    public synchronized int sincronizar() {
+        LocalDate hoje = LocalDate.now(ZONA);
+        int total = 0;
+        List<InteresseEspera> lote;
+        do {
+            lote = interesseEsperaRepository.findAguardandoApos(ultimoIdCarregado, hoje, Limit.of(tamanhoLote));
+            for (InteresseEspera interesse : lote) {
+                indexar(interesse);
+                ultimoIdCarregado = Math.max(ultimoIdCarregado, interesse.getId());
+            }
+            total += lote.size();
+        } while (lote.size() == tamanhoLote);
+        return total;
+    }
+
+    /**
+     * Registra interesse em um horário do prestador na data, dentro da janela informada.
+     *
+     * @param request Pet, serviço, prestador, data, janela e se a reserva deve ser automática
+     * @return Entrada criada
+     */
+    public AgendamentoApi.InteresseEsperaResponse registrar(AgendamentoApi.CreateInteresseEsperaRequest request) {
+        if (request.data().isBefore(LocalDate.now(ZONA)) || !request.janelaFim().isAfter(request.janelaInicio())) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Janela inválida: a data não pode estar no passado e o fim deve ser posterior ao início");
+        }
+        ValidacaoAgendamento validacao = agendamentoService.validar(
+                request.petId(), request.servicoId(), request.prestadorId());
+        int horasAceitas = horasAceitas(request.janelaInicio(), request.janelaFim(), AgendamentoService.duracao(validacao));
+        if (horasAceitas == 0) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "O serviço não cabe na janela informada");
+        }
+
+        InteresseEspera interesse = new InteresseEspera();
+        interesse.setPetId(request.petId());
+        interesse.setTutorId(validacao.getTutorId());
+        interesse.setServicoId(request.servicoId());
+        interesse.setPrestadorId(request.prestadorId());
+        interesse.setData(request.data());
+        interesse.setJanelaInicio(request.janelaInicio());
+        interesse.setJanelaFim(request.janelaFim());
+        interesse.setHorasAceitas(horasAceitas);
+        interesse.setReservaAutomatica(request.reservaAutomatica());
+        InteresseEspera salvo = interesseEsperaRepository.save(interesse);
+        if (habilitado) {
+            indexar(salvo);
+        }
+
+        log.info("[AGENDAMENTO] Interesse {} registrado na lista de espera do prestador {} em {}",
+                salvo.getId(), salvo.getPrestadorId(), salvo.getData());
+        return toResponse(salvo);
+    }
+
+    /**
+     * Retira uma entrada da lista de espera. Entradas já atendidas não mudam.
+     */
+    public AgendamentoApi.InteresseEsperaResponse cancelar(Long interesseId) {
+        InteresseEspera interesse = buscar(interesseId);
+        if (interesse.getStatus() == StatusEspera.AGUARDANDO) {
+            transacaoPropria.executeWithoutResult(tx -> interesseEsperaRepository.marcar(
+                    interesseId, StatusEspera.AGUARDANDO, StatusEspera.CANCELADO, null, ZonedDateTime.now(ZONA)));
+            indice.remover(interesse.getPrestadorId(), interesse.getData(), interesseId);
+        }
+        return toResponse(buscar(interesseId));
+    }
+
+    /**
+     * Atende a lista de espera de um horário liberado [horaInicio, horaFim): em cada hora cheia tocada,
+     * em ordem, o interessado mais antigo que aceita começar nela é reservado ou avisado. Se a reserva
+     * automática falhar (ex.: o serviço não cabe no espaço livre), tenta os próximos, até
+     * {@code max-tentativas} por hora.
+     *
+     * @return Ids das entradas atendidas (vazio se ninguém foi atendido)
+     */
+    public List<Long> aoLiberar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        if (!habilitado || data.isBefore(LocalDate.now(ZONA))) {
+            return List.of();
+        }
+        List<Long> atendidas = new ArrayList<>();
+        List<IndiceEspera.Entrada> adiadas = new ArrayList<>();
+        try {
+            for (LocalTime hora : InventarioSlotsService.horas(horaInicio, horaFim)) {
+                Long atendida = atender(prestadorId, data, hora, adiadas);
+                if (atendida != null) {
+                    atendidas.add(atendida);
+                }
+            }
+            return atendidas;
+        } finally {
+            adiadas.forEach(entrada -> indice.adicionar(prestadorId, data, entrada));
+        }
+    }
+
+    /**
+     * Atende uma hora liberada. Entradas adiadas saem do índice até o fim do atendimento,
+     * para não serem tentadas de novo nas horas seguintes.
+     *
+     * @return Id da entrada atendida, ou null se ninguém foi atendido
+     */
+    private Long atender(Long prestadorId, LocalDate data, LocalTime hora, List<IndiceEspera.Entrada> adiadas) {
+        for (int tentativa = 0; tentativa < maxTentativas; tentativa++) {
+            IndiceEspera.Entrada entrada = indice.retirarPrimeiro(prestadorId, data, hora.getHour());
+            if (entrada == null) {
+                return null;
+            }
+            Atendimento atendimento = entrada.reservaAutomatica()
+                    ? reservar(entrada, prestadorId, data, hora)
+                    : avisar(entrada, prestadorId, data, hora);
+            if (atendimento == Atendimento.ATENDIDA) {
+                return entrada.id();
+            }
+            if (atendimento == Atendimento.ADIADA) {
+                adiadas.add(entrada);
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(cron = "${agendamento.lista-espera.cron:0 10 0 * * *}", zone = "America/Recife")
+    public void expirar() {
+        if (!habilitado) {
+            return;
+        }
+        LocalDate hoje = LocalDate.now(ZONA);
+        Integer expiradas = transacaoPropria.execute(tx -> interesseEsperaRepository.expirar(hoje, ZonedDateTime.now(ZONA)));
+        indice.descartarAntesDe(hoje);
+        log.info("[AGENDAMENTO] Lista de espera: {} entradas expiradas", expiradas);
+    }
+
+    public int pendentes() {
+        return indice.tamanho();
+    }
+
+    /**
+     * Máscara das horas de início em que um serviço com a duração informada cabe inteiro na janela.
+     */
+    static int horasAceitas(LocalTime janelaInicio, LocalTime janelaFim, int duracaoMinutos) {
+        int inicio = janelaInicio.toSecondOfDay() / 60;
+        int fim = janelaFim.toSecondOfDay() / 60;
+        int mascara = 0;
+        for (int hora = 0; hora < 24; hora++) {
+            int minuto = hora * 60;
+            if (minuto >= inicio && minuto + duracaoMinutos <= fim) {
+                mascara |= 1 << hora;
+            }
+        }
+        return mascara;
+    }
+
+    private Atendimento reservar(IndiceEspera.Entrada entrada, Long prestadorId, LocalDate data, LocalTime hora) {
+        var request = new AgendamentoApi.CreateAgendamentoRequest(
+                entrada.petId(), entrada.servicoId(), prestadorId, data, hora);
+        try {
+            // Reserva e baixa da entrada na mesma transação: se a entrada foi cancelada, a reserva é desfeita
+            Long agendamentoId = transacaoPropria.execute(tx -> {
+                var agendamento = agendamentoService.criarAgendamento(request);
+                if (interesseEsperaRepository.marcar(entrada.id(), StatusEspera.AGUARDANDO, StatusEspera.ATENDIDO,
+                        agendamento.id(), ZonedDateTime.now(ZONA)) == 0) {
+                    tx.setRollbackOnly();
+                    return null;
+                }
+                return agendamento.id();
+            });
+            if (agendamentoId == null) {
+                return Atendimento.DESCARTADA;
+            }
+            meterRegistry.counter("agendamento.lista-espera.atendimentos", "resultado", "reservado").increment();
+            log.info("[AGENDAMENTO] Lista de espera: interesse {} reservado automaticamente (agendamento {})",
+                    entrada.id(), agendamentoId);
+            return Atendimento.ATENDIDA;
+        } catch (AgendamentoExceptionHandler.HorarioIndisponivelException
+                 | AgendamentoExceptionHandler.ReservaConcorrenteException | DataAccessException e) {
+            // Não coube neste horário: continua na lista para os próximos cancelamentos
+            return Atendimento.ADIADA;
+        } catch (RuntimeException e) {
+            // Pet, serviço ou prestador deixaram de ser válidos, ou horário fora das regras
+            log.info("[AGENDAMENTO] Lista de espera: interesse {} expirado: {}", entrada.id(), e.getMessage());
+            transacaoPropria.executeWithoutResult(tx -> interesseEsperaRepository.marcar(
+                    entrada.id(), StatusEspera.AGUARDANDO, StatusEspera.EXPIRADO, null, ZonedDateTime.now(ZONA)));
+            return Atendimento.DESCARTADA;
+        }
+    }
+
+    private Atendimento avisar(IndiceEspera.Entrada entrada, Long prestadorId, LocalDate data, LocalTime hora) {
+        // O evento é publicado na transação da baixa, para os listeners transacionais
+        Boolean avisada = transacaoPropria.execute(tx -> {
+            if (interesseEsperaRepository.marcar(entrada.id(), StatusEspera.AGUARDANDO, StatusEspera.NOTIFICADO,
+                    null, ZonedDateTime.now(ZONA)) == 0) {
+                return false;
+            }
+            eventPublisher.publishEvent(new AgendamentoApi.VagaListaEsperaEvent(
+                    entrada.id(), entrada.petId(), entrada.servicoId(), prestadorId, data, hora));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(avisada)) {
+            return Atendimento.DESCARTADA;
+        }
+        meterRegistry.counter("agendamento.lista-espera.atendimentos", "resultado", "notificado").increment();
+        return Atendimento.ATENDIDA;
+    }
+
+    private void indexar(InteresseEspera interesse) {
+        indice.adicionar(interesse.getPrestadorId(), interesse.getData(), new IndiceEspera.Entrada(
+                interesse.getId(), interesse.getPetId(), interesse.getServicoId(),
+                interesse.getHorasAceitas(), interesse.isReservaAutomatica()));
+    }
+
+    private InteresseEspera buscar(Long interesseId) {
+        return interesseEsperaRepository.findById(interesseId)
+                .orElseThrow(() -> new AgendamentoExceptionHandler.InteresseEsperaNaoEncontradoException(
+                        "Entrada da lista de espera não encontrada com ID: " + interesseId));
+    }
+
+    private static AgendamentoApi.InteresseEsperaResponse toResponse(InteresseEspera interesse) {
+        return new AgendamentoApi.InteresseEsperaResponse(
+                interesse.getId(),
+                interesse.getPetId(),
+                interesse.getServicoId(),
+                interesse.getPrestadorId(),
+                interesse.getData(),
+                interesse.getJanelaInicio(),
+                interesse.getJanelaFim(),
+                interesse.isReservaAutomatica(),
+                interesse.getStatus(),
+                interesse.getAgendamentoId());
+    }
+
+    private enum Atendimento {
+        // Reservada ou avisada
+        ATENDIDA,
+        // Não coube no horário; volta para a lista
+        ADIADA,
+        // Já não estava aguardando (ou deixou de ser válida); sai da lista
+        DESCARTADA
+    }
+}
@@ -0,0 +1,202 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CalendarioFechamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.HorasOcupadas;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Mapa de calor de disponibilidade dos próximos {@link #DIAS} dias, por prestador.
+ * Cada prestador guarda um byte de horas ocupadas por dia; a janela inteira é montada com
+ * uma única consulta agrupada e mantida pelos eventos de criação e cancelamento (após o commit).
+ * A resposta (horas livres por dia e ETag pelo conteúdo) fica em cache no próprio mapa até a
+ * próxima alteração ou troca do horário comercial ou do calendário de datas fechadas (dias
+ * fechados têm capacidade zero): uma leitura não consulta o banco.
+ * Para prestadores com capacidade, a capacidade do dia é multiplicada pelas vagas por hora.
+ * A reconstrução periódica corrige agendamentos feitos por outras instâncias e avança a janela.
+ */
+@Service
+public class MapaCalorService {
+
+    private static final Logger log = LoggerFactory.getLogger(MapaCalorService.class);
+
+    public static final int DIAS = 90;
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final ConfiguracaoHorarioService configuracaoHorarioService;
+    private final CalendarioFechamentoService calendarioFechamentoService;
+    private final InventarioSlotsService inventarioSlotsService;
+
+    private volatile Estado estado;
+
+    public MapaCalorService(
+            AgendamentoRepository agendamentoRepository,
+            ConfiguracaoHorarioService configuracaoHorarioService,
+            CalendarioFechamentoService calendarioFechamentoService,
+            InventarioSlotsService inventarioSlotsService,
+            MeterRegistry meterRegistry) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.configuracaoHorarioService = configuracaoHorarioService;
+        this.calendarioFechamentoService = calendarioFechamentoService;
+        this.inventarioSlotsService = inventarioSlotsService;
+
+        Gauge.builder("agendamento.mapa-calor.prestadores", this,
+                        s -> s.estado == null ? 0 : s.estado.mapas().size())
+                .description("Prestadores com agendamentos na janela do mapa de calor")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        reconstruir();
+    }
+
+    @Scheduled(fixedDelayString = "${agendamento.mapa-calor.reconstrucao-ms:300000}",
+               initialDelayString = "${agendamento.mapa-calor.reconstrucao-ms:300000}")
+    public void agendado() {
+        reconstruir();
+    }
+
+    /**
+     * Monta a janela a partir de hoje com uma consulta agrupada e troca o estado atomicamente.
+     */
+    public synchronized void reconstruir() {
+        LocalDate inicio = LocalDate.now(ZONA);
+        ConcurrentHashMap<Long, Mapa> mapas = new ConcurrentHashMap<>();
+        for (HorasOcupadas ocupadas : agendamentoRepository.somarHorasOcupadas(inicio, inicio.plusDays(DIAS - 1))) {
+            mapas.computeIfAbsent(ocupadas.prestadorId(), id -> new Mapa())
+                    .somar((int) ChronoUnit.DAYS.between(inicio, ocupadas.data()), ocupadas.horas().intValue());
+        }
+        estado = new Estado(inicio, mapas);
+        log.debug("[AGENDAMENTO] Mapa de calor reconstruído: {} prestadores a partir de {}", mapas.size(), inicio);
+    }
+
+    /**
+     * Mapa de calor do prestador a partir de hoje. Prestadores sem agendamentos na janela
+     * recebem a capacidade integral do horário comercial.
+     */
+    public MapaCalor buscar(Long prestadorId) {
+        Estado atual = estadoDeHoje();
+        HorarioComercial horarioComercial = configuracaoHorarioService.snapshot();
+        CalendarioFechamento calendario = calendarioFechamentoService.snapshot();
+        int vagas = inventarioSlotsService.capacidade(prestadorId);
+        Mapa mapa = atual.mapas().get(prestadorId);
+        if (mapa == null) {
+            return montar(prestadorId, atual.inicio(), new byte[DIAS], vagas, horarioComercial, calendario);
+        }
+        return mapa.resposta(prestadorId, atual.inicio(), vagas, horarioComercial, calendario);
+    }
+
+    public void ocupar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        ajustar(prestadorId, data, horas(horaInicio, horaFim));
+    }
+
+    public void liberar(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim) {
+        ajustar(prestadorId, data, -horas(horaInicio, horaFim));
+    }
+
+    private void ajustar(Long prestadorId, LocalDate data, int horas) {
+        Estado atual = estado;
+        if (atual == null) {
+            return;
+        }
+        long dia = ChronoUnit.DAYS.between(atual.inicio(), data);
+        if (dia < 0 || dia >= DIAS) {
+            return;
+        }
+        atual.mapas().computeIfAbsent(prestadorId, id -> new Mapa()).somar((int) dia, horas);
+    }
+
+    private Estado estadoDeHoje() {
+        Estado atual = estado;
+        if (atual == null || !atual.inicio().equals(LocalDate.now(ZONA))) {
+            synchronized (this) {
+                atual = estado;
+                if (atual == null || !atual.inicio().equals(LocalDate.now(ZONA))) {
+                    reconstruir();
+                    atual = estado;
+                }
+            }
+        }
+        return atual;
+    }
+
+    /**
+     * Horas de início ocupadas por um agendamento iniciado em hora cheia (mesma regra da consulta agrupada).
+     */
+    static int horas(LocalTime horaInicio, LocalTime horaFim) {
+        return horaFim.getHour() - horaInicio.getHour() + (horaFim.getMinute() > 0 ? 1 : 0);
+    }
+
+    private static MapaCalor montar(Long prestadorId, LocalDate inicio, byte[] ocupadas, int vagas,
+                                    HorarioComercial horarioComercial, CalendarioFechamento calendario) {
+        byte[] livres = new byte[DIAS];
+        for (int d = 0; d < DIAS; d++) {
+            LocalDate data = inicio.plusDays(d);
+            if (calendario.fechado(prestadorId, data)) {
+                continue;
+            }
+            int capacidade = Integer.bitCount(DisponibilidadeService.mascaraExpediente(
+                    horarioComercial, prestadorId, data.getDayOfWeek(), 60));
+            livres[d] = (byte) Math.max(0, Math.min(Byte.MAX_VALUE, capacidade * vagas - ocupadas[d]));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(livres);
+        String etag = Long.toHexString(inicio.toEpochDay()) + "-" + Long.toHexString(crc.getValue());
+        return new MapaCalor(new AgendamentoApi.MapaCalorResponse(prestadorId, inicio, livres), etag,
+                horarioComercial.versao(), calendario.versao(), vagas);
+    }
+
+    /**
+     * Resposta pronta para servir, com a ETag calculada sobre o conteúdo.
+     */
+    public record MapaCalor(AgendamentoApi.MapaCalorResponse response, String etag,
+                            long versaoHorario, long versaoCalendario, int vagas) {}
+
+    private record Estado(LocalDate inicio, ConcurrentHashMap<Long, Mapa> mapas) {}
+
+    /**
+     * Horas ocupadas por dia de um prestador e a última resposta montada a partir delas.
+     */
+    private static final class Mapa {
+
+        private final byte[] ocupadas = new byte[DIAS];
+        private volatile MapaCalor resposta;
+
+        synchronized void somar(int dia, int horas) {
+            ocupadas[dia] = (byte) Math.max(0, Math.min(Byte.MAX_VALUE, ocupadas[dia] + horas));
+            resposta = null;
+        }
+
+        MapaCalor resposta(Long prestadorId, LocalDate inicio, int vagas, HorarioComercial horarioComercial,
+                           CalendarioFechamento calendario) {
+            MapaCalor atual = resposta;
+            if (atual != null && atual.versaoHorario() == horarioComercial.versao()
+                    && atual.versaoCalendario() == calendario.versao() && atual.vagas() == vagas) {
+                return atual;
+            }
+            synchronized (this) {
+                atual = montar(prestadorId, inicio, ocupadas, vagas, horarioComercial, calendario);
+                resposta = atual;
+                return atual;
+            }
+        }
+    }
+}
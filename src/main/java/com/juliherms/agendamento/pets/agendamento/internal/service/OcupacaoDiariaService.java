@@ -0,0 +1,334 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.OcupacaoDiaria;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.OcupacaoDiariaRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.OcupacaoParcial;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantém o consolidado diário de ocupação por prestador (tabela ocupacao_diaria).
+ * Os eventos de agendamento acumulam deltas em memória por (prestador, data); a cada janela
+ * curta os deltas pendentes são gravados em um único lote de upserts. Uma rajada de mil
+ * reservas para o mesmo prestador vira poucas linhas gravadas.
+ * Deltas ainda não gravados se perdem se a instância cair; {@link #reconstruir()} refaz o
+ * consolidado a partir de agendamentos + agendamentos_arquivo.
+ * Os eventos chegam de forma assíncrona após o commit, então podem chegar depois de uma reconstrução
+ * que já leu a alteração. A reconstrução guarda o maior updated_at lido (marca d'água) e descarta
+ * os deltas com ocorridoEm até ela. A comparação é feita em segundos, pois updated_at pode ser
+ * gravado sem fração (TIMESTAMP arredonda os milissegundos).
+ */
+@Service
+public class OcupacaoDiariaService {
+
+    private static final Logger log = LoggerFactory.getLogger(OcupacaoDiariaService.class);
+
+    private static final int ATIVOS = 0;
+    private static final int CANCELADOS = 1;
+    private static final int CONCLUIDOS = 2;
+
+    private static final String UPSERT =
+            "INSERT INTO ocupacao_diaria (prestador_id, data, agendados, cancelados, concluidos, atualizado_em) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "agendados = agendados + VALUES(agendados), " +
+            "cancelados = cancelados + VALUES(cancelados), " +
+            "concluidos = concluidos + VALUES(concluidos), " +
+            "atualizado_em = VALUES(atualizado_em)";
+
+    private static final String MARCA = "SELECT MAX(updated_at) FROM agendamentos";
+
+    private static final String CONSOLIDAR =
+            "SELECT prestador_id, data, " +
+            "SUM(status IN ('AGENDADO', 'CONFIRMADO', 'EM_ANDAMENTO')), " +
+            "SUM(status = 'CANCELADO'), SUM(status = 'CONCLUIDO') " +
+            "FROM (SELECT prestador_id, data, status FROM agendamentos " +
+            "      UNION ALL SELECT prestador_id, data, status FROM agendamentos_arquivo) a " +
+            "GROUP BY prestador_id, data";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AgendamentoRepository agendamentoRepository;
+    private final OcupacaoDiariaRepository ocupacaoDiariaRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final int maxPendentes;
+
+    // Deltas ainda não gravados: (prestador, data) -> [ativos, cancelados, concluídos]
+    private final Object trava = new Object();
+    private Map<Chave, long[]> pendentes = new HashMap<>();
+    // Registros recebidos durante a reconstrução, filtrados pela marca ao final (null fora dela)
+    private List<Registro> duranteReconstrucao;
+    // Maior updated_at lido pela última reconstrução: alterações até ele já estão no consolidado
+    private Instant marca;
+
+    // Serializa descargas e reconstrução
+    private final Object descarga = new Object();
+
+    public OcupacaoDiariaService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            AgendamentoRepository agendamentoRepository,
+            OcupacaoDiariaRepository ocupacaoDiariaRepository,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.ocupacao.diaria.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.ocupacao.diaria.max-pendentes:5000}") int maxPendentes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.agendamentoRepository = agendamentoRepository;
+        this.ocupacaoDiariaRepository = ocupacaoDiariaRepository;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.maxPendentes = maxPendentes;
+    }
+
+    /**
+     * Registra a mudança de status de agendamentos de um mesmo prestador e dia.
+     *
+     * @param anterior Status anterior (null para agendamento recém-criado)
+     * @param novo Novo status
+     * @param quantidade Quantidade de agendamentos
+     * @param ocorridoEm updated_at gravado pela alteração (null em eventos antigos: sempre registrado)
+     */
+    public void registrar(Long prestadorId, LocalDate data, Status anterior, Status novo, long quantidade,
+                          ZonedDateTime ocorridoEm) {
+        if (!habilitado) {
+            return;
+        }
+        int destino = coluna(novo);
+        int origem = anterior == null ? -1 : coluna(anterior);
+        if (origem == destino) {
+            return;
+        }
+        Registro registro = new Registro(new Chave(prestadorId, data), origem, destino, quantidade,
+                ocorridoEm == null ? null : ocorridoEm.toInstant().truncatedTo(ChronoUnit.SECONDS));
+        boolean cheio;
+        synchronized (trava) {
+            if (jaConsolidado(registro)) {
+                return;
+            }
+            if (duranteReconstrucao != null) {
+                duranteReconstrucao.add(registro);
+                return;
+            }
+            acumular(registro);
+            cheio = pendentes.size() >= maxPendentes;
+        }
+        if (cheio) {
+            descarregar();
+        }
+    }
+
+    /**
+     * Registra um lote do motor de transição. Só a conclusão muda o consolidado
+     * (as origens são todas status ativos); o lote é agrupado por prestador e dia em uma consulta.
+     */
+    public void registrarLote(List<Long> agendamentoIds, Status novo, ZonedDateTime ocorridoEm) {
+        if (!habilitado || coluna(novo) == ATIVOS || agendamentoIds.isEmpty()) {
+            return;
+        }
+        for (OcupacaoParcial parcial : agendamentoRepository.contarPorPrestadorEData(agendamentoIds)) {
+            registrar(parcial.prestadorId(), parcial.data(), Status.AGENDADO, novo, parcial.quantidade(), ocorridoEm);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${agendamento.ocupacao.diaria.janela-ms:1000}",
+               initialDelayString = "${agendamento.ocupacao.diaria.janela-ms:1000}")
+    public void agendado() {
+        if (habilitado) {
+            descarregar();
+        }
+    }
+
+    /**
+     * Grava os deltas pendentes em um único lote de upserts. Em caso de falha os deltas
+     * voltam para a fila e são tentados na próxima janela.
+     *
+     * @return Quantidade de linhas (prestador, dia) gravadas
+     */
+    public int descarregar() {
+        synchronized (descarga) {
+            Map<Chave, long[]> lote;
+            synchronized (trava) {
+                if (pendentes.isEmpty()) {
+                    return 0;
+                }
+                lote = pendentes;
+                pendentes = new HashMap<>();
+            }
+
+            // Ordem fixa de chaves: instâncias concorrentes travam as linhas na mesma ordem (sem deadlock)
+            Timestamp agora = agora();
+            List<Object[]> linhas = new ArrayList<>(lote.size());
+            lote.entrySet().stream()
+                    .filter(e -> e.getValue()[ATIVOS] != 0 || e.getValue()[CANCELADOS] != 0 || e.getValue()[CONCLUIDOS] != 0)
+                    .sorted(Map.Entry.comparingByKey(Chave.ORDEM))
+                    .forEach(e -> linhas.add(new Object[]{e.getKey().prestadorId(), Date.valueOf(e.getKey().data()),
+                            e.getValue()[ATIVOS], e.getValue()[CANCELADOS], e.getValue()[CONCLUIDOS], agora}));
+            if (linhas.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                jdbcTemplate.batchUpdate(UPSERT, linhas);
+            } catch (DataAccessException e) {
+                devolver(lote);
+                log.error("[AGENDAMENTO] Falha ao gravar consolidado de ocupação ({} linhas); nova tentativa na próxima janela: {}",
+                        linhas.size(), e.getMessage());
+                return 0;
+            }
+            meterRegistry.counter("agendamento.ocupacao.diaria.upserts").increment(linhas.size());
+            return linhas.size();
+        }
+    }
+
+    /**
+     * Refaz todo o consolidado a partir de agendamentos e agendamentos_arquivo, para reparo.
+     * A leitura é feita em uma única transação (mesmo snapshot para o consolidado e a marca,
+     * sem locks nas tabelas de agendamento); a troca do conteúdo é feita em outra transação.
+     * Deltas pendentes são descartados: vieram de commits anteriores e já estão refletidos nas linhas lidas.
+     * Os que chegam durante a leitura ficam retidos e só entram se forem posteriores à marca.
+     * Uma alteração ainda sem commit no momento da leitura, com updated_at anterior à marca, não é contada;
+     * a janela é a duração de uma transação de reserva.
+     *
+     * @return Quantidade de linhas (prestador, dia) do novo consolidado
+     */
+    public int reconstruir() {
+        synchronized (descarga) {
+            Map<Chave, long[]> descartados;
+            synchronized (trava) {
+                descartados = pendentes;
+                pendentes = new HashMap<>();
+                duranteReconstrucao = new ArrayList<>();
+            }
+            boolean concluida = false;
+            Instant lida = null;
+            try {
+                Timestamp agora = agora();
+                List<Object[]> linhas = new ArrayList<>();
+                Timestamp ultimaAlteracao = transactionTemplate.execute(tx -> {
+                    linhas.addAll(jdbcTemplate.query(CONSOLIDAR, (rs, i) -> new Object[]{
+                            rs.getLong(1), rs.getDate(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), agora}));
+                    return jdbcTemplate.queryForObject(MARCA, Timestamp.class);
+                });
+
+                transactionTemplate.executeWithoutResult(tx -> {
+                    jdbcTemplate.update("DELETE FROM ocupacao_diaria");
+                    jdbcTemplate.batchUpdate(UPSERT, linhas);
+                });
+                concluida = true;
+                lida = ultimaAlteracao == null ? null : ultimaAlteracao.toInstant();
+                log.info("[AGENDAMENTO] Consolidado de ocupação reconstruído: {} linhas (marca {})",
+                        linhas.size(), lida);
+                return linhas.size();
+            } finally {
+                encerrarReconstrucao(concluida, lida, descartados);
+            }
+        }
+    }
+
+    /**
+     * Consolidado de um prestador em um período (dias sem agendamentos não aparecem).
+     */
+    public List<OcupacaoDiaria> buscar(Long prestadorId, LocalDate dataInicio, LocalDate dataFim) {
+        if (dataFim.isBefore(dataInicio) || ChronoUnit.DAYS.between(dataInicio, dataFim) > 366) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Período inválido: a data final deve ser posterior à inicial e o período de no máximo 1 ano");
+        }
+        return ocupacaoDiariaRepository.findByPrestadorIdAndDataBetweenOrderByData(prestadorId, dataInicio, dataFim);
+    }
+
+    public int pendentes() {
+        synchronized (trava) {
+            return pendentes.size();
+        }
+    }
+
+    /**
+     * Aplica a marca lida e libera os registros retidos. Se a reconstrução falhou, devolve também os descartados.
+     */
+    private void encerrarReconstrucao(boolean concluida, Instant lida, Map<Chave, long[]> descartados) {
+        List<Registro> retidos;
+        synchronized (trava) {
+            if (lida != null) {
+                marca = lida;
+            }
+            retidos = duranteReconstrucao;
+            duranteReconstrucao = null;
+            for (Registro registro : retidos) {
+                if (!jaConsolidado(registro)) {
+                    acumular(registro);
+                }
+            }
+        }
+        if (!concluida) {
+            devolver(descartados);
+        }
+    }
+
+    // Chamado com a trava
+    private boolean jaConsolidado(Registro registro) {
+        return marca != null && registro.ocorridoEm() != null && !registro.ocorridoEm().isAfter(marca);
+    }
+
+    // Chamado com a trava
+    private void acumular(Registro registro) {
+        long[] delta = pendentes.computeIfAbsent(registro.chave(), chave -> new long[3]);
+        delta[registro.destino()] += registro.quantidade();
+        if (registro.origem() >= 0) {
+            delta[registro.origem()] -= registro.quantidade();
+        }
+    }
+
+    private void devolver(Map<Chave, long[]> lote) {
+        synchronized (trava) {
+            lote.forEach((chave, delta) -> {
+                long[] atual = pendentes.computeIfAbsent(chave, c -> new long[3]);
+                for (int i = 0; i < 3; i++) {
+                    atual[i] += delta[i];
+                }
+            });
+        }
+    }
+
+    private static int coluna(Status status) {
+        return switch (status) {
+            case AGENDADO, CONFIRMADO, EM_ANDAMENTO -> ATIVOS;
+            case CANCELADO -> CANCELADOS;
+            case CONCLUIDO -> CONCLUIDOS;
+        };
+    }
+
+    private static Timestamp agora() {
+        return Timestamp.from(ZonedDateTime.now(ZoneId.of("America/Recife")).toInstant());
+    }
+
+    private record Registro(Chave chave, int origem, int destino, long quantidade, Instant ocorridoEm) {}
+
+    private record Chave(Long prestadorId, LocalDate data) {
+        static final Comparator<Chave> ORDEM =
+                Comparator.comparing(Chave::prestadorId).thenComparing(Chave::data);
+    }
+}
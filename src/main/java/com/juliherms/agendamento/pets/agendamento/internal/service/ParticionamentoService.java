@@ -0,0 +1,131 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manutenção do particionamento mensal (RANGE COLUMNS em data) da tabela agendamentos no MySQL.
+ * Cria antecipadamente as partições dos próximos meses dividindo a partição p_futuro (MAXVALUE),
+ * que fica sempre vazia ou quase vazia, o que torna o REORGANIZE barato.
+ * Só atua se a tabela já tiver sido particionada (ver init-agendamento.sql); desligado por padrão.
+ */
+@Service
+public class ParticionamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoService.class);
+
+    static final String PARTICAO_FUTURO = "p_futuro";
+    private static final DateTimeFormatter NOME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final int mesesAFrente;
+
+    public ParticionamentoService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${agendamento.particionamento.habilitado:false}") boolean habilitado,
+            @Value("${agendamento.particionamento.meses-a-frente:3}") int mesesAFrente) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitado = habilitado;
+        this.mesesAFrente = mesesAFrente;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        if (habilitado) {
+            garantirParticoes();
+        }
+    }
+
+    @Scheduled(cron = "${agendamento.particionamento.cron:0 0 4 * * *}", zone = "America/Recife")
+    public void agendado() {
+        if (habilitado) {
+            garantirParticoes();
+        }
+    }
+
+    /**
+     * Garante que existam partições mensais até o mês atual mais {@code mesesAFrente}.
+     *
+     * @return Quantidade de partições criadas
+     */
+    public int garantirParticoes() {
+        List<String> existentes = jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'agendamentos' " +
+                "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class);
+
+        if (!existentes.contains(PARTICAO_FUTURO)) {
+            log.warn("[AGENDAMENTO] Tabela agendamentos sem particionamento mensal; manutenção ignorada");
+            return 0;
+        }
+
+        YearMonth atual = YearMonth.now(ZoneId.of("America/Recife"));
+        List<YearMonth> novas = particoesFaltantes(ultimaParticao(existentes), atual, atual.plusMonths(mesesAFrente));
+        if (novas.isEmpty()) {
+            return 0;
+        }
+
+        jdbcTemplate.execute(ddlReorganizar(novas));
+        log.info("[AGENDAMENTO] Partições criadas em agendamentos: {} a {}",
+                nome(novas.get(0)), nome(novas.get(novas.size() - 1)));
+        return novas.size();
+    }
+
+    /**
+     * Último mês com partição própria, ou null se só houver p_futuro.
+     */
+    static YearMonth ultimaParticao(List<String> existentes) {
+        YearMonth ultima = null;
+        for (String particao : existentes) {
+            if (particao.matches("p\\d{6}")) {
+                YearMonth mes = YearMonth.parse(particao, NOME);
+                if (ultima == null || mes.isAfter(ultima)) {
+                    ultima = mes;
+                }
+            }
+        }
+        return ultima;
+    }
+
+    /**
+     * Meses a criar, em ordem, após a última partição existente até o alvo (inclusivo).
+     * Sem partição mensal (só p_futuro), começa no mês atual: as linhas antigas caem nela.
+     */
+    static List<YearMonth> particoesFaltantes(YearMonth ultima, YearMonth atual, YearMonth alvo) {
+        List<YearMonth> faltantes = new ArrayList<>();
+        YearMonth mes = ultima == null ? atual : ultima.plusMonths(1);
+        while (!mes.isAfter(alvo)) {
+            faltantes.add(mes);
+            mes = mes.plusMonths(1);
+        }
+        return faltantes;
+    }
+
+    static String ddlReorganizar(List<YearMonth> meses) {
+        StringBuilder ddl = new StringBuilder("ALTER TABLE agendamentos REORGANIZE PARTITION ")
+                .append(PARTICAO_FUTURO).append(" INTO (");
+        for (YearMonth mes : meses) {
+            ddl.append("PARTITION ").append(nome(mes))
+               .append(" VALUES LESS THAN ('").append(mes.plusMonths(1).atDay(1)).append("'), ");
+        }
+        return ddl.append("PARTITION ").append(PARTICAO_FUTURO).append(" VALUES LESS THAN (MAXVALUE))").toString();
+    }
+
+    private static String nome(YearMonth mes) {
+        return mes.format(NOME);
+    }
+}
@@ -0,0 +1,263 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo opcional de reserva com uma raia (fila) por prestador.
+ * Cada raia é uma fila lock-free drenada por uma única virtual thread, criada sob demanda
+ * e encerrada quando a fila esvazia; só prestadores com tráfego têm thread ativa.
+ * Como há um único escritor por prestador, a raia lembra os slots já reservados e
+ * rejeita os perdedores em memória, sem ir ao banco nem segurar conexão. Só criações bem-sucedidas
+ * entram nesse conjunto, e uma mudança de status do agendamento tira o slot dele.
+ * Com o modo desligado, ou para prestadores com capacidade (inventário de vagas), as reservas
+ * seguem direto para o {@link AgendamentoService}.
+ */
+@Component
+public class RaiasReserva {
+
+    private static final Logger log = LoggerFactory.getLogger(RaiasReserva.class);
+
+    private final ConcurrentHashMap<Long, Raia> raias = new ConcurrentHashMap<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+    private final AtomicInteger ativas = new AtomicInteger();
+    private final AgendamentoService agendamentoService;
+    private final IndiceOcupacao indiceOcupacao;
+    private final InventarioSlotsService inventarioSlotsService;
+    private final int maxProfundidade;
+    private final long timeoutMs;
+    private final DistributionSummary profundidade;
+    private final Timer espera;
+    private volatile boolean habilitado;
+
+    public RaiasReserva(
+            AgendamentoService agendamentoService,
+            IndiceOcupacao indiceOcupacao,
+            InventarioSlotsService inventarioSlotsService,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.raias.habilitado:false}") boolean habilitado,
+            @Value("${agendamento.raias.max-profundidade:1000}") int maxProfundidade,
+            @Value("${agendamento.raias.timeout-ms:5000}") long timeoutMs) {
+        this.agendamentoService = agendamentoService;
+        this.indiceOcupacao = indiceOcupacao;
+        this.inventarioSlotsService = inventarioSlotsService;
+        this.habilitado = habilitado;
+        this.maxProfundidade = maxProfundidade;
+        this.timeoutMs = timeoutMs;
+        this.profundidade = DistributionSummary.builder("agendamento.raia.profundidade")
+                .description("Profundidade da raia do prestador no momento do enfileiramento")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.espera = Timer.builder("agendamento.raia.espera")
+                .description("Tempo entre o enfileiramento e o início do processamento na raia")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("agendamento.raia.pendentes", pendentes, AtomicInteger::get)
+                .description("Reservas aguardando em todas as raias")
+                .register(meterRegistry);
+        Gauge.builder("agendamento.raia.ativas", ativas, AtomicInteger::get)
+                .description("Raias com virtual thread drenando")
+                .register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Cria o agendamento pela raia do prestador (ou direto, se o modo estiver desligado).
+     * Bloqueia o chamador até o processamento, com timeout configurável.
+     */
+    public AgendamentoApi.AgendamentoResponse reservar(AgendamentoApi.CreateAgendamentoRequest request) {
+        return reservar(request, null, null);
+    }
+
+    /**
+     * Como {@link #reservar(AgendamentoApi.CreateAgendamentoRequest)}, gravando a chave de
+     * idempotência na transação da criação.
+     */
+    public AgendamentoApi.AgendamentoResponse reservar(AgendamentoApi.CreateAgendamentoRequest request,
+                                                       String chaveIdempotencia, ZonedDateTime expiraEm) {
+        // Prestadores com capacidade aceitam várias reservas por hora: o inventário já faz o compare-and-set
+        if (!habilitado || inventarioSlotsService.usaInventario(request.prestadorId())) {
+            return criar(request, chaveIdempotencia, expiraEm);
+        }
+
+        Raia raia = raias.computeIfAbsent(request.prestadorId(), Raia::new);
+        Pedido pedido = raia.enfileirar(request, chaveIdempotencia, expiraEm);
+
+        try {
+            return pedido.resultado.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            // O pedido ainda pode ser processado; a raia descarta o resultado se o chamador desistiu
+            pedido.resultado.cancel(false);
+            throw new AgendamentoExceptionHandler.RaiaSobrecarregadaException(
+                    "Tempo de espera esgotado na fila do prestador");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AgendamentoExceptionHandler.RaiaSobrecarregadaException(
+                    "Reserva interrompida");
+        }
+    }
+
+    /**
+     * Esquece o slot reservado em memória quando o agendamento muda de status (cancelamento
+     * ou outra transição): a próxima tentativa nesse horário volta a ser decidida pelo banco.
+     */
+    public void liberar(Long prestadorId, LocalDate data, LocalTime horaInicio) {
+        Raia raia = raias.get(prestadorId);
+        // Sem drenagem ativa o conjunto de reservados já está vazio
+        if (raia != null && raia.drenando.get()) {
+            raia.liberados.offer(slot(data, horaInicio));
+        }
+    }
+
+    private static long slot(LocalDate data, LocalTime horaInicio) {
+        return data.toEpochDay() * 24 + horaInicio.getHour();
+    }
+
+    private AgendamentoApi.AgendamentoResponse criar(AgendamentoApi.CreateAgendamentoRequest request,
+                                                     String chaveIdempotencia, ZonedDateTime expiraEm) {
+        return chaveIdempotencia == null
+                ? agendamentoService.criarAgendamento(request)
+                : agendamentoService.criarAgendamento(request, chaveIdempotencia, expiraEm);
+    }
+
+    private record Pedido(AgendamentoApi.CreateAgendamentoRequest request,
+                          String chaveIdempotencia,
+                          ZonedDateTime expiraEm,
+                          CompletableFuture<AgendamentoApi.AgendamentoResponse> resultado,
+                          long enfileiradoEm) {}
+
+    /**
+     * Fila de um prestador. Somente a thread que venceu o CAS em {@code drenando}
+     * lê a fila e o conjunto {@code reservados}.
+     */
+    private final class Raia {
+
+        private final Long prestadorId;
+        private final ConcurrentLinkedQueue<Pedido> fila = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger tamanho = new AtomicInteger();
+        private final AtomicBoolean drenando = new AtomicBoolean();
+        // Slots (epochDay * 24 + hora) já reservados durante a vida da thread de drenagem
+        private final Set<Long> reservados = new HashSet<>();
+        // Slots cujo agendamento mudou de status; a thread de drenagem os tira de reservados
+        private final ConcurrentLinkedQueue<Long> liberados = new ConcurrentLinkedQueue<>();
+
+        Raia(Long prestadorId) {
+            this.prestadorId = prestadorId;
+        }
+
+        Pedido enfileirar(AgendamentoApi.CreateAgendamentoRequest request,
+                          String chaveIdempotencia, ZonedDateTime expiraEm) {
+            int profundidadeAtual = tamanho.incrementAndGet();
+            if (profundidadeAtual > maxProfundidade) {
+                tamanho.decrementAndGet();
+                throw new AgendamentoExceptionHandler.RaiaSobrecarregadaException(
+                        "Fila do prestador cheia; tente novamente");
+            }
+            profundidade.record(profundidadeAtual);
+            pendentes.incrementAndGet();
+
+            Pedido pedido = new Pedido(request, chaveIdempotencia, expiraEm,
+                    new CompletableFuture<>(), System.nanoTime());
+            fila.offer(pedido);
+            iniciarDrenagem();
+            return pedido;
+        }
+
+        private void iniciarDrenagem() {
+            if (drenando.compareAndSet(false, true)) {
+                ativas.incrementAndGet();
+                Thread.ofVirtual().name("raia-prestador-" + prestadorId).start(this::drenar);
+            }
+        }
+
+        private void drenar() {
+            while (true) {
+                Pedido pedido;
+                while ((pedido = fila.poll()) != null) {
+                    tamanho.decrementAndGet();
+                    pendentes.decrementAndGet();
+                    espera.record(System.nanoTime() - pedido.enfileiradoEm(), TimeUnit.NANOSECONDS);
+                    processar(pedido);
+                }
+
+                // Sai da drenagem; se alguém enfileirou entre o último poll e a liberação, retoma
+                reservados.clear();
+                liberados.clear();
+                ativas.decrementAndGet();
+                drenando.set(false);
+                if (fila.isEmpty() || !drenando.compareAndSet(false, true)) {
+                    return;
+                }
+                ativas.incrementAndGet();
+            }
+        }
+
+        private void processar(Pedido pedido) {
+            if (pedido.resultado().isDone()) {
+                return;
+            }
+            var request = pedido.request();
+            long slot = slot(request.data(), request.horaInicio());
+            Long liberado;
+            while ((liberado = liberados.poll()) != null) {
+                reservados.remove(liberado);
+            }
+
+            // A duração só é conhecida na validação; mesmo início ou início dentro de um
+            // agendamento existente conflita com qualquer duração
+            if (reservados.contains(slot)
+                    || (indiceOcupacao.isHabilitado()
+                        && indiceOcupacao.estaOcupado(prestadorId, request.data(), request.horaInicio()))) {
+                pedido.resultado().completeExceptionally(new AgendamentoExceptionHandler.HorarioIndisponivelException(
+                        "Horário indisponível para o prestador"));
+                return;
+            }
+
+            try {
+                pedido.resultado().complete(criar(request, pedido.chaveIdempotencia(), pedido.expiraEm()));
+                // Só a criação bem-sucedida prova que o slot é deste prestador; conflitos com reservas
+                // temporárias, séries ou falsos positivos do índice podem se desfazer sem passar pela raia
+                reservados.add(slot);
+            } catch (RuntimeException e) {
+                pedido.resultado().completeExceptionally(e);
+            } catch (Error e) {
+                log.error("[AGENDAMENTO] Erro na raia do prestador {}", prestadorId, e);
+                pedido.resultado().completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Reservas temporárias de horário (checkout), em memória e com validade fixa.
+ * Cada reserva ocupa as horas de início cobertas pelo serviço em um mapa prestador/data/hora,
+ * e disputas pela mesma hora são resolvidas atomicamente no mapa.
+ * Como a validade é a mesma para todas, a fila de criação já está em ordem de expiração:
+ * expirar é retirar da cabeça enquanto vencida, O(1) por reserva e sem varrer o mapa.
+ * Reservas convertidas ou liberadas antes do prazo ficam na fila até a sua vez e são ignoradas.
+ * Uma reserva vencida e ainda não retirada não bloqueia ninguém.
+ * O estado é local à instância; o banco continua sendo o árbitro final no insert.
+ */
+@Component
+public class ReservasTemporarias {
+
+    // Chave = prestadorId nos bits altos + epochDay (20 bits) + hora (5 bits)
+    private static final int BITS_HORA = 5;
+    private static final int BITS_DIA = 20;
+    private static final long MASCARA_DIA = (1L << BITS_DIA) - 1;
+
+    private final ConcurrentHashMap<Long, Reserva> porHora = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Reserva> porId = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Reserva> fila = new ConcurrentLinkedQueue<>();
+    private final MeterRegistry meterRegistry;
+    private final Duration validade;
+
+    public ReservasTemporarias(
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.reservas-temporarias.validade-segundos:300}") int validadeSegundos) {
+        this.meterRegistry = meterRegistry;
+        this.validade = Duration.ofSeconds(validadeSegundos);
+
+        Gauge.builder("agendamento.reservas-temporarias.ativas", porId, Map::size)
+                .description("Reservas temporárias de horário ainda não convertidas, liberadas ou expiradas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva o intervalo [horaInicio, horaFim) do prestador até {@code agora + validade}.
+     *
+     * @return A reserva criada, ou null se outra reserva vigente ocupa alguma das horas
+     */
+    public Reserva reservar(Long petId, Long servicoId, Long prestadorId, Long tutorId,
+                            LocalDate data, LocalTime horaInicio, LocalTime horaFim, Instant agora) {
+        expirar(agora);
+        Reserva nova = new Reserva(UUID.randomUUID().toString(), petId, servicoId, prestadorId, tutorId,
+                data, horaInicio, horaFim, agora.plus(validade));
+
+        int primeira = horaInicio.getHour();
+        int ultima = ultimaHora(horaFim);
+        for (int hora = primeira; hora < ultima; hora++) {
+            Reserva vigente = porHora.compute(chave(prestadorId, data, hora),
+                    (chave, atual) -> atual == null || atual.expirou(agora) ? nova : atual);
+            if (vigente != nova) {
+                for (int h = primeira; h < hora; h++) {
+                    porHora.remove(chave(prestadorId, data, h), nova);
+                }
+                meterRegistry.counter("agendamento.reservas-temporarias", "resultado", "conflito").increment();
+                return null;
+            }
+        }
+        porId.put(nova.id(), nova);
+        fila.add(nova);
+        meterRegistry.counter("agendamento.reservas-temporarias", "resultado", "criada").increment();
+        return nova;
+    }
+
+    /**
+     * Verifica se alguma reserva vigente, diferente de {@code ignorar}, ocupa horas do intervalo.
+     */
+    public boolean temSobreposicao(Long prestadorId, LocalDate data, LocalTime horaInicio, LocalTime horaFim,
+                                   String ignorar, Instant agora) {
+        if (porId.isEmpty()) {
+            return false;
+        }
+        for (int hora = horaInicio.getHour(); hora < ultimaHora(horaFim); hora++) {
+            Reserva reserva = porHora.get(chave(prestadorId, data, hora));
+            if (reserva != null && !reserva.expirou(agora) && !reserva.id().equals(ignorar)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reserva vigente com o id informado, ou null se não existe ou já expirou.
+     */
+    public Reserva buscar(String id, Instant agora) {
+        Reserva reserva = porId.get(id);
+        return reserva == null || reserva.expirou(agora) ? null : reserva;
+    }
+
+    /**
+     * Remove a reserva após virar agendamento.
+     */
+    public void converter(Reserva reserva) {
+        remover(reserva, "convertida");
+    }
+
+    /**
+     * Remove a reserva por desistência do cliente.
+     */
+    public boolean liberar(Reserva reserva) {
+        return remover(reserva, "liberada");
+    }
+
+    /**
+     * Retira da cabeça da fila as reservas vencidas em {@code agora}.
+     *
+     * @return Quantidade de reservas que expiraram sem conversão nem liberação
+     */
+    public synchronized int expirar(Instant agora) {
+        int expiradas = 0;
+        Reserva cabeca;
+        while ((cabeca = fila.peek()) != null && cabeca.expirou(agora)) {
+            fila.poll();
+            if (remover(cabeca, "expirada")) {
+                expiradas++;
+            }
+        }
+        return expiradas;
+    }
+
+    @Scheduled(fixedDelayString = "${agendamento.reservas-temporarias.limpeza-ms:5000}",
+               initialDelayString = "${agendamento.reservas-temporarias.limpeza-ms:5000}")
+    public void agendado() {
+        expirar(Instant.now());
+    }
+
+    public int tamanho() {
+        return porId.size();
+    }
+
+    public Duration validade() {
+        return validade;
+    }
+
+    private boolean remover(Reserva reserva, String resultado) {
+        if (!porId.remove(reserva.id(), reserva)) {
+            return false;
+        }
+        for (int hora = reserva.horaInicio().getHour(); hora < ultimaHora(reserva.horaFim()); hora++) {
+            porHora.remove(chave(reserva.prestadorId(), reserva.data(), hora), reserva);
+        }
+        meterRegistry.counter("agendamento.reservas-temporarias", "resultado", resultado).increment();
+        return true;
+    }
+
+    /**
+     * Primeira hora (exclusiva) não coberta por um intervalo que termina em {@code horaFim}.
+     */
+    private static int ultimaHora(LocalTime horaFim) {
+        return horaFim.getHour() + (horaFim.getMinute() > 0 ? 1 : 0);
+    }
+
+    private static long chave(Long prestadorId, LocalDate data, int hora) {
+        return (((prestadorId << BITS_DIA) | (data.toEpochDay() & MASCARA_DIA)) << BITS_HORA) | hora;
+    }
+
+    /**
+     * Reserva temporária com tudo que a conversão em agendamento precisa, já validado.
+     */
+    public record Reserva(String id, Long petId, Long servicoId, Long prestadorId, Long tutorId,
+                          LocalDate data, LocalTime horaInicio, LocalTime horaFim, Instant expiraEm) {
+
+        boolean expirou(Instant agora) {
+            return !expiraEm.isAfter(agora);
+        }
+    }
+}
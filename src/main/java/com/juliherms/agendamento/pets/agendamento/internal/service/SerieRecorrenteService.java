@@ -0,0 +1,396 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.StatusSerie;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.SerieRecorrente;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SerieRecorrenteRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ValidacaoAgendamento;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Séries recorrentes de agendamentos (ex.: banho semanal por meses).
+ * A criação valida pet, serviço, prestador e horário uma única vez e verifica os conflitos de
+ * todas as datas com uma consulta. Só as ocorrências dentro do horizonte
+ * ({@code agendamento.series.horizonte-dias}) viram agendamentos, na criação e depois pelo job
+ * diário em lotes; as demais ficam no {@link IndiceSeries} e são expandidas sob demanda na
+ * disponibilidade, na validação de novas reservas e na consulta de ocorrências do pet.
+ */
+@Service
+public class SerieRecorrenteService {
+
+    private static final Logger log = LoggerFactory.getLogger(SerieRecorrenteService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+    // Limite para carregar todas as séries pendentes no índice
+    private static final LocalDate SEM_LIMITE = LocalDate.of(9999, 12, 31);
+    static final int MAX_DIAS_OCORRENCIAS = 366;
+
+    private final SerieRecorrenteRepository serieRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final AgendamentoService agendamentoService;
+    private final IndiceSeries indiceSeries;
+    private final CalendarioFechamentoService calendarioFechamentoService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final int horizonteDias;
+    private final int tamanhoLote;
+
+    public SerieRecorrenteService(
+            SerieRecorrenteRepository serieRepository,
+            AgendamentoRepository agendamentoRepository,
+            AgendamentoService agendamentoService,
+            IndiceSeries indiceSeries,
+            CalendarioFechamentoService calendarioFechamentoService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.series.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.series.horizonte-dias:28}") int horizonteDias,
+            @Value("${agendamento.series.tamanho-lote:200}") int tamanhoLote) {
+        this.serieRepository = serieRepository;
+        this.agendamentoRepository = agendamentoRepository;
+        this.agendamentoService = agendamentoService;
+        this.indiceSeries = indiceSeries;
+        this.calendarioFechamentoService = calendarioFechamentoService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.horizonteDias = horizonteDias;
+        this.tamanhoLote = tamanhoLote;
+
+        Gauge.builder("agendamento.series.pendentes", indiceSeries, IndiceSeries::tamanho)
+                .description("Séries ativas com ocorrências ainda não materializadas")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        if (habilitado) {
+            log.info("[AGENDAMENTO] Índice de séries recorrentes carregado: {} séries", carregar());
+        }
+    }
+
+    /**
+     * Recarrega o índice periodicamente para refletir séries criadas ou materializadas em outras instâncias.
+     */
+    @Scheduled(fixedDelayString = "${agendamento.series.sincronizacao-ms:60000}",
+               initialDelayString = "${agendamento.series.sincronizacao-ms:60000}")
+    public void agendado() {
+        if (habilitado) {
+            carregar();
+        }
+    }
+
+    @Scheduled(cron = "${agendamento.series.cron:0 20 0 * * *}", zone = "America/Recife")
+    public void materializarAgendado() {
+        if (habilitado) {
+            materializar(LocalDate.now(ZONA));
+        }
+    }
+
+    /**
+     * Carrega no índice todas as séries ativas com ocorrências não materializadas, em lotes.
+     *
+     * @return Quantidade de séries carregadas
+     */
+    public synchronized int carregar() {
+        List<IndiceSeries.Serie> series = new ArrayList<>();
+        long aposId = 0;
+        List<Long> ids;
+        do {
+            ids = serieRepository.findIdsPendentesApos(aposId, SEM_LIMITE, Limit.of(tamanhoLote));
+            if (!ids.isEmpty()) {
+                serieRepository.findComPuladas(ids).forEach(serie -> series.add(resumo(serie)));
+                aposId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == tamanhoLote);
+        indiceSeries.substituir(series);
+        return series.size();
+    }
+
+    /**
+     * Cria uma série semanal em uma única requisição.
+     * Datas em conflito recusam a série ou, com pularConflitos, ficam de fora dela.
+     *
+     * @param request Pet, serviço, prestador, primeira data, horário, intervalo e quantidade de ocorrências
+     * @return Série criada, com as ocorrências do horizonte já agendadas
+     */
+    @Transactional
+    public AgendamentoApi.SerieRecorrenteResponse criar(AgendamentoApi.CreateSerieRecorrenteRequest request) {
+        int intervalo = request.intervaloSemanas() != null ? request.intervaloSemanas() : 1;
+        ValidacaoAgendamento validacao = agendamentoService.validar(
+                request.petId(), request.servicoId(), request.prestadorId());
+        LocalTime horaFim = request.horaInicio().plusMinutes(AgendamentoService.duracao(validacao));
+        // Todas as ocorrências caem no mesmo dia da semana e horário: as regras valem para a série inteira
+        agendamentoService.validarHorario(request.prestadorId(), request.dataInicio(), request.horaInicio(), horaFim);
+
+        LocalDate dataFim = request.dataInicio().plusWeeks((long) intervalo * (request.ocorrencias() - 1));
+        List<LocalDate> datas = ocorrencias(request.dataInicio(), intervalo, request.dataInicio(), dataFim);
+        Set<LocalDate> conflitos = conflitos(request.prestadorId(), datas, request.horaInicio(), horaFim);
+        if (!conflitos.isEmpty() && (!request.pularConflitos() || conflitos.size() == datas.size())) {
+            meterRegistry.counter("agendamento.series.criacoes", "resultado", "conflito").increment();
+            throw new AgendamentoExceptionHandler.HorarioIndisponivelException(
+                    "Horário indisponível para o prestador em " + conflitos);
+        }
+
+        SerieRecorrente serie = new SerieRecorrente();
+        serie.setPetId(request.petId());
+        serie.setTutorId(validacao.getTutorId());
+        serie.setServicoId(request.servicoId());
+        serie.setPrestadorId(request.prestadorId());
+        serie.setDataInicio(request.dataInicio());
+        serie.setDataFim(dataFim);
+        serie.setHoraInicio(request.horaInicio());
+        serie.setHoraFim(horaFim);
+        serie.setIntervaloSemanas(intervalo);
+        serie.setOcorrencias(request.ocorrencias());
+        serie.setMaterializadaAte(request.dataInicio().minusDays(1));
+        serie.getDatasPuladas().addAll(conflitos);
+        SerieRecorrente salva = serieRepository.save(serie);
+
+        LocalDate hoje = LocalDate.now(ZONA);
+        int agendados = materializar(salva, hoje, hoje.plusDays(horizonteDias), false);
+
+        IndiceSeries.Serie resumo = resumo(salva);
+        AposCommit.executar(() -> indiceSeries.atualizar(resumo));
+
+        meterRegistry.counter("agendamento.series.criacoes", "resultado", "criada").increment();
+        log.info("[AGENDAMENTO] Série {} criada: {} ocorrências, {} puladas, {} já agendadas",
+                salva.getId(), datas.size(), conflitos.size(), agendados);
+        return toResponse(salva);
+    }
+
+    /**
+     * Cancela a série e os agendamentos dela que ainda não começaram.
+     */
+    @Transactional
+    public AgendamentoApi.SerieRecorrenteResponse cancelar(Long serieId) {
+        SerieRecorrente serie = buscarSerie(serieId);
+        if (serie.getStatus() == StatusSerie.ATIVA) {
+            serie.setStatus(StatusSerie.CANCELADA);
+            for (Long agendamentoId : agendamentoRepository.findIdsFuturosDaSerie(serieId, LocalDate.now(ZONA))) {
+                agendamentoService.cancelarAgendamento(agendamentoId);
+            }
+            AposCommit.executar(() -> indiceSeries.remover(serie.getId(), serie.getPrestadorId(), serie.getPetId()));
+            log.info("[AGENDAMENTO] Série {} cancelada", serieId);
+        }
+        return toResponse(serie);
+    }
+
+    @Transactional(readOnly = true)
+    public AgendamentoApi.SerieRecorrenteResponse buscar(Long serieId) {
+        return toResponse(buscarSerie(serieId));
+    }
+
+    /**
+     * Ocorrências das séries do pet no período: as materializadas vêm do banco e as demais
+     * são expandidas da regra em memória (agendamentoId nulo).
+     */
+    @Transactional(readOnly = true)
+    public List<AgendamentoApi.OcorrenciaSerieResponse> buscarOcorrenciasPorPet(Long petId, LocalDate dataInicio, LocalDate dataFim) {
+        if (dataFim.isBefore(dataInicio) || ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS_OCORRENCIAS) {
+            throw new AgendamentoExceptionHandler.PeriodoInvalidoException(
+                    "Período inválido; limite de " + MAX_DIAS_OCORRENCIAS + " dias");
+        }
+        List<AgendamentoApi.OcorrenciaSerieResponse> ocorrencias =
+                new ArrayList<>(agendamentoRepository.findOcorrenciasMaterializadas(petId, dataInicio, dataFim));
+        for (IndiceSeries.Serie serie : indiceSeries.doPet(petId)) {
+            for (LocalDate data : serie.datas(dataInicio, dataFim)) {
+                ocorrencias.add(new AgendamentoApi.OcorrenciaSerieResponse(
+                        serie.id(), data, serie.horaInicio(), serie.horaFim(), null, AgendamentoApi.Status.AGENDADO));
+            }
+        }
+        ocorrencias.sort(Comparator.comparing(AgendamentoApi.OcorrenciaSerieResponse::data)
+                .thenComparing(AgendamentoApi.OcorrenciaSerieResponse::horaInicio));
+        return ocorrencias;
+    }
+
+    /**
+     * Materializa as ocorrências até {@code hoje + horizonte} de todas as séries ativas, em lotes
+     * com uma transação por lote. Se um lote falhar (ex.: reserva concorrente no mesmo horário),
+     * é refeito série a série para isolar a falha.
+     *
+     * @return Quantidade de agendamentos criados
+     */
+    public int materializar(LocalDate hoje) {
+        LocalDate limite = hoje.plusDays(horizonteDias);
+        long aposId = 0;
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = serieRepository.findIdsPendentesApos(aposId, limite, Limit.of(tamanhoLote));
+            if (!ids.isEmpty()) {
+                total += materializarLote(ids, hoje, limite);
+                aposId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == tamanhoLote);
+
+        carregar();
+        meterRegistry.counter("agendamento.series.materializados").increment(total);
+        log.info("[AGENDAMENTO] Séries recorrentes: {} ocorrências materializadas até {}", total, limite);
+        return total;
+    }
+
+    private int materializarLote(List<Long> ids, LocalDate hoje, LocalDate limite) {
+        try {
+            return materializarEmTransacao(ids, hoje, limite);
+        } catch (RuntimeException e) {
+            log.warn("[AGENDAMENTO] Falha ao materializar lote de séries; refazendo uma a uma: {}", e.getMessage());
+            int total = 0;
+            for (Long id : ids) {
+                try {
+                    total += materializarEmTransacao(List.of(id), hoje, limite);
+                } catch (RuntimeException falha) {
+                    meterRegistry.counter("agendamento.series.materializacao.falhas").increment();
+                    log.warn("[AGENDAMENTO] Série {} não materializada: {}", id, falha.getMessage());
+                }
+            }
+            return total;
+        }
+    }
+
+    private int materializarEmTransacao(List<Long> ids, LocalDate hoje, LocalDate limite) {
+        Integer criados = transactionTemplate.execute(tx -> {
+            int total = 0;
+            for (SerieRecorrente serie : serieRepository.findComPuladas(ids)) {
+                total += materializar(serie, hoje, limite, true);
+            }
+            return total;
+        });
+        return criados != null ? criados : 0;
+    }
+
+    /**
+     * Cria os agendamentos das ocorrências em [desde, limite] ainda não materializadas e avança
+     * {@code materializadaAte}. Com {@code verificar}, as datas já ocupadas (uma consulta para todas)
+     * ou fechadas depois da criação passam a puladas em vez de falhar.
+     */
+    private int materializar(SerieRecorrente serie, LocalDate desde, LocalDate limite, boolean verificar) {
+        LocalDate ate = limite.isBefore(serie.getDataFim()) ? limite : serie.getDataFim();
+        LocalDate inicio = serie.getMaterializadaAte().plusDays(1);
+        if (inicio.isBefore(desde)) {
+            inicio = desde;
+        }
+        if (ate.isBefore(inicio)) {
+            return 0;
+        }
+
+        Set<LocalDate> puladas = serie.getDatasPuladas();
+        List<LocalDate> datas = ocorrencias(serie.getDataInicio(), serie.getIntervaloSemanas(), inicio, ate).stream()
+                .filter(data -> !puladas.contains(data))
+                .toList();
+        if (verificar && !datas.isEmpty()) {
+            List<LocalDate> ocupadas = new ArrayList<>(agendamentoRepository.findDatasOcupadas(
+                    serie.getPrestadorId(), datas, serie.getHoraInicio(), serie.getHoraFim()));
+            for (LocalDate data : datas) {
+                if (calendarioFechamentoService.fechado(serie.getPrestadorId(), data) && !ocupadas.contains(data)) {
+                    ocupadas.add(data);
+                }
+            }
+            if (!ocupadas.isEmpty()) {
+                log.info("[AGENDAMENTO] Série {}: datas ocupadas ou fechadas puladas na materialização: {}", serie.getId(), ocupadas);
+                puladas.addAll(ocupadas);
+                datas = datas.stream().filter(data -> !ocupadas.contains(data)).toList();
+            }
+        }
+
+        for (LocalDate data : datas) {
+            Agendamento agendamento = new Agendamento();
+            agendamento.setPetId(serie.getPetId());
+            agendamento.setServicoId(serie.getServicoId());
+            agendamento.setPrestadorId(serie.getPrestadorId());
+            agendamento.setTutorId(serie.getTutorId());
+            agendamento.setSerieId(serie.getId());
+            agendamento.setData(data);
+            agendamento.setHoraInicio(serie.getHoraInicio());
+            agendamento.setHoraFim(serie.getHoraFim());
+            agendamentoService.registrar(agendamento);
+        }
+        serie.setMaterializadaAte(ate);
+        return datas.size();
+    }
+
+    /**
+     * Datas da série em que o prestador já está ocupado: agendamentos (uma consulta para todas as datas),
+     * ocorrências não materializadas de outras séries ou datas fechadas (em memória).
+     */
+    private Set<LocalDate> conflitos(Long prestadorId, List<LocalDate> datas, LocalTime horaInicio, LocalTime horaFim) {
+        Set<LocalDate> conflitos = new TreeSet<>(agendamentoRepository.findDatasOcupadas(prestadorId, datas, horaInicio, horaFim));
+        for (LocalDate data : datas) {
+            if (calendarioFechamentoService.fechado(prestadorId, data)
+                    || indiceSeries.temSobreposicao(prestadorId, data, horaInicio, horaFim)) {
+                conflitos.add(data);
+            }
+        }
+        return conflitos;
+    }
+
+    /**
+     * Datas da regra (a partir de dataInicio, a cada intervaloSemanas) dentro de [de, ate].
+     */
+    static List<LocalDate> ocorrencias(LocalDate dataInicio, int intervaloSemanas, LocalDate de, LocalDate ate) {
+        long passo = 7L * intervaloSemanas;
+        long desde = Math.max(0, ChronoUnit.DAYS.between(dataInicio, de));
+        List<LocalDate> datas = new ArrayList<>();
+        for (LocalDate data = dataInicio.plusDays((desde + passo - 1) / passo * passo);
+             !data.isAfter(ate); data = data.plusDays(passo)) {
+            datas.add(data);
+        }
+        return datas;
+    }
+
+    private SerieRecorrente buscarSerie(Long serieId) {
+        return serieRepository.findById(serieId)
+                .orElseThrow(() -> new AgendamentoExceptionHandler.SerieRecorrenteNaoEncontradaException(
+                        "Série recorrente não encontrada com ID: " + serieId));
+    }
+
+    private static IndiceSeries.Serie resumo(SerieRecorrente serie) {
+        return new IndiceSeries.Serie(serie.getId(), serie.getPetId(), serie.getPrestadorId(),
+                serie.getDataInicio(), serie.getDataFim(), serie.getHoraInicio(), serie.getHoraFim(),
+                serie.getIntervaloSemanas(), serie.getMaterializadaAte(), Set.copyOf(serie.getDatasPuladas()));
+    }
+
+    private static AgendamentoApi.SerieRecorrenteResponse toResponse(SerieRecorrente serie) {
+        return new AgendamentoApi.SerieRecorrenteResponse(
+                serie.getId(),
+                serie.getPetId(),
+                serie.getServicoId(),
+                serie.getPrestadorId(),
+                serie.getDataInicio(),
+                serie.getDataFim(),
+                serie.getHoraInicio(),
+                serie.getHoraFim(),
+                serie.getIntervaloSemanas(),
+                serie.getOcorrencias(),
+                serie.getDatasPuladas().stream().sorted().toList(),
+                serie.getMaterializadaAte(),
+                serie.getStatus()
+        );
+    }
+}
@@ -0,0 +1,139 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Motor de transição de status por tempo.
+ * Agendamentos cujo término já passou vão para CONCLUIDO; os que estão em curso, para EM_ANDAMENTO.
+ * Cada lote é um SELECT sem lock seguido de um UPDATE por chave primária, em transação própria,
+ * e gera um único {@link AgendamentoApi.AgendamentosStatusAlteradosEvent}. Como só as linhas do
+ * lote são travadas (sem gap locks), reservas concorrentes não esperam pelo motor.
+ */
+@Service
+public class TransicaoStatusService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransicaoStatusService.class);
+
+    private static final Set<Status> ORIGENS_CONCLUSAO =
+            EnumSet.of(Status.AGENDADO, Status.CONFIRMADO, Status.EM_ANDAMENTO);
+    private static final Set<Status> ORIGENS_INICIO =
+            EnumSet.of(Status.AGENDADO, Status.CONFIRMADO);
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean executando = new AtomicBoolean();
+    private final boolean habilitado;
+    private final int tamanhoLote;
+
+    public TransicaoStatusService(
+            AgendamentoRepository agendamentoRepository,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${agendamento.transicao.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.transicao.tamanho-lote:1000}") int tamanhoLote) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${agendamento.transicao.intervalo-ms:300000}",
+               initialDelayString = "${agendamento.transicao.intervalo-ms:300000}")
+    public void agendado() {
+        if (habilitado) {
+            executar(ZonedDateTime.now(ZoneId.of("America/Recife")));
+        }
+    }
+
+    /**
+     * Avança os status de todos os agendamentos vencidos no instante informado.
+     * Execuções concorrentes na mesma instância são ignoradas.
+     *
+     * @param agora Instante de referência (fuso America/Recife)
+     * @return Quantidade de agendamentos que mudaram de status
+     */
+    public int executar(ZonedDateTime agora) {
+        if (!executando.compareAndSet(false, true)) {
+            log.info("[AGENDAMENTO] Transição de status já em execução; ignorando");
+            return 0;
+        }
+        try {
+            LocalDate hoje = agora.toLocalDate();
+            LocalTime hora = agora.toLocalTime();
+
+            // Conclusões primeiro: um agendamento já encerrado não passa por EM_ANDAMENTO
+            int concluidos = avancar(ORIGENS_CONCLUSAO, Status.CONCLUIDO, agora,
+                    limite -> agendamentoRepository.findIdsEncerrados(ORIGENS_CONCLUSAO, hoje, hora, limite));
+            int iniciados = avancar(ORIGENS_INICIO, Status.EM_ANDAMENTO, agora,
+                    limite -> agendamentoRepository.findIdsEmCurso(ORIGENS_INICIO, hoje, hora, limite));
+
+            if (concluidos + iniciados > 0) {
+                log.info("[AGENDAMENTO] Transição de status: {} concluídos, {} em andamento", concluidos, iniciados);
+            }
+            return concluidos + iniciados;
+        } finally {
+            executando.set(false);
+        }
+    }
+
+    private int avancar(Set<Status> origens, Status destino, ZonedDateTime agora, ConsultaLote consulta) {
+        int total = 0;
+        while (true) {
+            Integer atualizados = transactionTemplate.execute(tx -> {
+                List<Long> ids = consulta.buscar(Limit.of(tamanhoLote));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int alterados = agendamentoRepository.atualizarStatus(ids, origens, destino, agora);
+                if (alterados == 0) {
+                    return 0;
+                }
+                // Só relê quando alguma linha mudou de status entre a leitura e o UPDATE
+                List<Long> avancados = alterados == ids.size()
+                        ? ids
+                        : agendamentoRepository.findIdsPorStatus(ids, destino);
+                eventPublisher.publishEvent(new AgendamentoApi.AgendamentosStatusAlteradosEvent(
+                        List.copyOf(avancados), destino, agora));
+                return alterados;
+            });
+            if (atualizados == null || atualizados == 0) {
+                return total;
+            }
+            total += atualizados;
+            meterRegistry.counter("agendamento.transicao.status", "destino", destino.name()).increment(atualizados);
+        }
+    }
+
+    /**
+     * Leitura do próximo lote de ids elegíveis para uma transição.
+     */
+    @FunctionalInterface
+    private interface ConsultaLote {
+        List<Long> buscar(Limit limite);
+    }
+}
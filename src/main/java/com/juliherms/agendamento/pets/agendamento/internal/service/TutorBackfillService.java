@@ -0,0 +1,67 @@
+package com.juliherms.agendamento.pets.agendamento.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Preenche agendamentos.tutor_id nas linhas criadas antes da desnormalização.
+ * Percorre a faixa de ids sem tutor em lotes, cada um em sua própria transação,
+ * e roda em segundo plano após a inicialização. Quando não há pendências custa
+ * apenas uma consulta no índice de tutor_id.
+ */
+@Service
+public class TutorBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(TutorBackfillService.class);
+
+    private final AgendamentoRepository agendamentoRepository;
+    private final boolean habilitado;
+    private final int tamanhoLote;
+
+    public TutorBackfillService(
+            AgendamentoRepository agendamentoRepository,
+            @Value("${agendamento.backfill.tutor.habilitado:true}") boolean habilitado,
+            @Value("${agendamento.backfill.tutor.tamanho-lote:1000}") int tamanhoLote) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.habilitado = habilitado;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        if (habilitado) {
+            executar();
+        }
+    }
+
+    /**
+     * Executa o backfill até não restarem linhas pendentes na faixa encontrada.
+     *
+     * @return Quantidade de agendamentos atualizados
+     */
+    public int executar() {
+        Long menorId = agendamentoRepository.findMenorIdSemTutor();
+        if (menorId == null) {
+            return 0;
+        }
+        Long maiorId = agendamentoRepository.findMaiorIdSemTutor();
+
+        log.info("[AGENDAMENTO] Backfill de tutor_id iniciado (ids {} a {})", menorId, maiorId);
+
+        int total = 0;
+        for (long inicio = menorId; inicio <= maiorId; inicio += tamanhoLote) {
+            long fim = Math.min(inicio + tamanhoLote - 1, maiorId);
+            total += agendamentoRepository.preencherTutor(inicio, fim);
+        }
+
+        log.info("[AGENDAMENTO] Backfill de tutor_id concluído: {} agendamentos atualizados", total);
+        return total;
+    }
+}
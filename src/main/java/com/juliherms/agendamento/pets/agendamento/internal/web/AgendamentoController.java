@@ -0,0 +1,226 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.DisponibilidadeService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.FluxoDisponibilidade;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IdempotenciaService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.MapaCalorService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Controlador REST para consultas e operações de agendamento.
+ */
+@RestController
+@RequestMapping("/agendamentos")
+@Tag(name = "Agendamentos", description = "Endpoints para agendamento de serviços")
+class AgendamentoController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AgendamentoService agendamentoService;
+    private final DisponibilidadeService disponibilidadeService;
+    private final IdempotenciaService idempotenciaService;
+    private final MapaCalorService mapaCalorService;
+    private final FluxoDisponibilidade fluxoDisponibilidade;
+    private final ObjectMapper objectMapper;
+
+    AgendamentoController(AgendamentoService agendamentoService,
+                          DisponibilidadeService disponibilidadeService,
+                          IdempotenciaService idempotenciaService,
+                          MapaCalorService mapaCalorService,
+                          FluxoDisponibilidade fluxoDisponibilidade,
+                          ObjectMapper objectMapper) {
+        this.agendamentoService = agendamentoService;
+        this.disponibilidadeService = disponibilidadeService;
+        this.idempotenciaService = idempotenciaService;
+        this.mapaCalorService = mapaCalorService;
+        this.fluxoDisponibilidade = fluxoDisponibilidade;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Endpoint para criar um agendamento.
+     * @param chaveIdempotencia Cabeçalho Idempotency-Key (opcional); repetições com a mesma chave
+     *                          devolvem o resultado original sem criar outro agendamento.
+     * @param req Pet, serviço, prestador, data e hora de início.
+     * @return Agendamento criado.
+     */
+    @PostMapping
+    @Operation(summary = "Cria agendamento", description = "Aceita Idempotency-Key para repetições seguras")
+    public ResponseEntity<?> criar(
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
+            @Valid @RequestBody AgendamentoApi.CreateAgendamentoRequest req) {
+        var resp = idempotenciaService.criar(chaveIdempotencia, req);
+        return ResponseEntity.status(HttpStatus.CREATED).body(resp);
+    }
+
+    /**
+     * Endpoint para listar o histórico de agendamentos de um usuário (tutor), paginado por cursor.
+     * @param usuarioId ID do tutor.
+     * @param cursor Token retornado em proximoCursor na página anterior (opcional).
+     * @param tamanho Itens por página (padrão 20, máximo 100).
+     * @param incluirArquivo Inclui agendamentos antigos já arquivados (padrão false).
+     * @return Página de agendamentos, do mais recente para o mais antigo.
+     */
+    @GetMapping("/usuario/{usuarioId}")
+    @Operation(summary = "Histórico do usuário", description = "Agendamentos dos pets do usuário, paginados por cursor")
+    public ResponseEntity<?> listarPorUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + AgendamentoService.TAMANHO_PAGINA_PADRAO) int tamanho,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
+        var resp = agendamentoService.buscarAgendamentosPorUsuario(usuarioId, cursor, tamanho, incluirArquivo);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Endpoint para listar o histórico de agendamentos de um pet, paginado por cursor.
+     * @param petId ID do pet.
+     * @param cursor Token retornado em proximoCursor na página anterior (opcional).
+     * @param tamanho Itens por página (padrão 20, máximo 100).
+     * @param incluirArquivo Inclui agendamentos antigos já arquivados (padrão false).
+     * @return Página de agendamentos, do mais recente para o mais antigo.
+     */
+    @GetMapping("/pet/{petId}")
+    @Operation(summary = "Histórico do pet", description = "Agendamentos do pet, paginados por cursor")
+    public ResponseEntity<?> listarPorPet(
+            @PathVariable Long petId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + AgendamentoService.TAMANHO_PAGINA_PADRAO) int tamanho,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
+        var resp = agendamentoService.buscarAgendamentosPorPet(petId, cursor, tamanho, incluirArquivo);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Endpoint para exportar o histórico completo de um usuário em NDJSON (um agendamento por linha).
+     * @param usuarioId ID do tutor.
+     * @param incluirArquivo Inclui agendamentos antigos já arquivados (padrão false).
+     * @return Stream com todos os agendamentos, escrito sob demanda.
+     */
+    @GetMapping("/usuario/{usuarioId}/exportar")
+    @Operation(summary = "Exporta histórico do usuário", description = "Histórico completo em NDJSON, lido do banco em lotes")
+    public ResponseEntity<StreamingResponseBody> exportarPorUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
+        return ResponseEntity.ok().contentType(NDJSON)
+                .body(out -> escrever(agendamentoService.exportarAgendamentosPorUsuario(usuarioId, incluirArquivo), out));
+    }
+
+    /**
+     * Endpoint para exportar o histórico completo de um pet em NDJSON (um agendamento por linha).
+     * @param petId ID do pet.
+     * @param incluirArquivo Inclui agendamentos antigos já arquivados (padrão false).
+     * @return Stream com todos os agendamentos, escrito sob demanda.
+     */
+    @GetMapping("/pet/{petId}/exportar")
+    @Operation(summary = "Exporta histórico do pet", description = "Histórico completo em NDJSON, lido do banco em lotes")
+    public ResponseEntity<StreamingResponseBody> exportarPorPet(
+            @PathVariable Long petId,
+            @RequestParam(defaultValue = "false") boolean incluirArquivo) {
+        return ResponseEntity.ok().contentType(NDJSON)
+                .body(out -> escrever(agendamentoService.exportarAgendamentosPorPet(petId, incluirArquivo), out));
+    }
+
+    private void escrever(Stream<AgendamentoApi.AgendamentoResponse> agendamentos, OutputStream out) throws IOException {
+        var iterator = agendamentos.iterator();
+        while (iterator.hasNext()) {
+            out.write(objectMapper.writeValueAsBytes(iterator.next()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Endpoint para buscar horários livres de um serviço em um período.
+     * @param servicoId ID do serviço desejado.
+     * @param dataInicio Primeiro dia do período (yyyy-MM-dd).
+     * @param dataFim Último dia do período (yyyy-MM-dd).
+     * @param prestadorIds Prestadores a considerar (opcional; padrão: todos os ativos).
+     * @return Horários livres por prestador e dia.
+     */
+    @GetMapping("/disponibilidade")
+    @Operation(summary = "Busca horários livres", description = "Horários livres por prestador e dia; período máximo de 31 dias")
+    public ResponseEntity<?> buscarDisponibilidade(
+            @RequestParam Long servicoId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Set<Long> prestadorIds) {
+        var resp = disponibilidadeService.buscarHorariosLivres(servicoId, dataInicio, dataFim, prestadorIds);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Endpoint para buscar os primeiros horários livres de um serviço com qualquer prestador.
+     * @param servicoId ID do serviço desejado.
+     * @param quantidade Quantidade de horários desejada (padrão 5, máximo 50).
+     * @param aPartirDe Primeiro dia da busca (yyyy-MM-dd, opcional; padrão: hoje).
+     * @param horizonteDias Dias a percorrer (opcional; padrão e máximo: agendamento.disponibilidade.proximos.horizonte-dias).
+     * @param prestadorIds Prestadores a considerar (opcional; padrão: todos os ativos).
+     * @return Horários livres do mais cedo para o mais tarde.
+     */
+    @GetMapping("/disponibilidade/proximos")
+    @Operation(summary = "Busca os próximos horários livres", description = "Primeiros horários livres entre todos os prestadores, em ordem de data e hora")
+    public ResponseEntity<List<AgendamentoApi.ProximoHorarioResponse>> buscarProximosHorarios(
+            @RequestParam Long servicoId,
+            @RequestParam(defaultValue = "5") int quantidade,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate aPartirDe,
+            @RequestParam(required = false) Integer horizonteDias,
+            @RequestParam(required = false) Set<Long> prestadorIds) {
+        var resp = disponibilidadeService.buscarProximosHorarios(servicoId, aPartirDe, quantidade, horizonteDias, prestadorIds);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Endpoint SSE com as alterações de disponibilidade dos prestadores no período, em vez de polling.
+     * Eventos {@code horario-ocupado} e {@code horario-liberado}; não há reenvio de eventos perdidos,
+     * então ao reconectar o cliente recarrega a disponibilidade.
+     * @param prestadorIds Prestadores acompanhados (1 a 50).
+     * @param dataInicio Primeiro dia do período (yyyy-MM-dd).
+     * @param dataFim Último dia do período (yyyy-MM-dd; máximo 31 dias).
+     * @return Fluxo text/event-stream.
+     */
+    @GetMapping(value = "/disponibilidade/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanha alterações de disponibilidade", description = "Server-Sent Events com horários ocupados e liberados dos prestadores no período")
+    public SseEmitter acompanharDisponibilidade(
+            @RequestParam Set<Long> prestadorIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return fluxoDisponibilidade.assinar(prestadorIds, dataInicio, dataFim);
+    }
+
+    /**
+     * Endpoint para o mapa de calor de disponibilidade de um prestador nos próximos 90 dias.
+     * Responde 304 quando o If-None-Match coincide com a ETag atual.
+     * @param prestadorId ID do prestador.
+     * @return Horas livres por dia a partir de hoje (um byte por dia, em base64).
+     */
+    @GetMapping("/disponibilidade/mapa/{prestadorId}")
+    @Operation(summary = "Mapa de calor de disponibilidade", description = "Horas livres por dia nos próximos 90 dias, servido da memória com ETag")
+    public ResponseEntity<AgendamentoApi.MapaCalorResponse> buscarMapaCalor(@PathVariable Long prestadorId) {
+        var mapa = mapaCalorService.buscar(prestadorId);
+        return ResponseEntity.ok()
+                .eTag(mapa.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(mapa.response());
+    }
+}
@@ -0,0 +1,66 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.CalendarioFechamentoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST para administração das datas fechadas (feriados e folgas).
+ */
+@RestController
+@RequestMapping("/configuracoes-horario/datas-fechadas")
+@Tag(name = "Datas Fechadas", description = "Feriados e folgas, globais ou por prestador")
+class CalendarioFechamentoController {
+
+    private final CalendarioFechamentoService calendarioFechamentoService;
+
+    CalendarioFechamentoController(CalendarioFechamentoService calendarioFechamentoService) {
+        this.calendarioFechamentoService = calendarioFechamentoService;
+    }
+
+    /**
+     * Endpoint para listar as datas fechadas de um período.
+     * @param dataInicio Primeiro dia do período (yyyy-MM-dd).
+     * @param dataFim Último dia do período (yyyy-MM-dd).
+     * @param prestadorId Prestador (opcional; com ele, lista as datas globais e as dele).
+     * @return Datas fechadas em ordem.
+     */
+    @GetMapping
+    @Operation(summary = "Lista datas fechadas", description = "Datas fechadas no período; máximo de 366 dias")
+    public ResponseEntity<?> listar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) Long prestadorId) {
+        return ResponseEntity.ok(calendarioFechamentoService.listar(prestadorId, dataInicio, dataFim));
+    }
+
+    /**
+     * Endpoint para fechar uma data.
+     * @param req Data, prestador (opcional) e motivo.
+     * @return Data fechada.
+     */
+    @PostMapping
+    @Operation(summary = "Fecha data", description = "Bloqueia novos agendamentos na data; sem prestador vale para todos")
+    public ResponseEntity<?> fechar(@Valid @RequestBody AgendamentoApi.CreateDataFechadaRequest req) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(calendarioFechamentoService.fechar(req));
+    }
+
+    /**
+     * Endpoint para reabrir uma data fechada.
+     * @param id ID da data fechada.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Reabre data", description = "Remove o fechamento e libera a data para agendamentos")
+    public ResponseEntity<Void> reabrir(@PathVariable Long id) {
+        calendarioFechamentoService.reabrir(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ConfiguracaoHorarioService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.InventarioSlotsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controlador REST para administração do horário comercial.
+ */
+@RestController
+@RequestMapping("/configuracoes-horario")
+@Tag(name = "Horário Comercial", description = "Endpoints para consulta e alteração do horário comercial")
+class ConfiguracaoHorarioController {
+
+    private final ConfiguracaoHorarioService configuracaoHorarioService;
+    private final InventarioSlotsService inventarioSlotsService;
+
+    ConfiguracaoHorarioController(ConfiguracaoHorarioService configuracaoHorarioService,
+                                  InventarioSlotsService inventarioSlotsService) {
+        this.configuracaoHorarioService = configuracaoHorarioService;
+        this.inventarioSlotsService = inventarioSlotsService;
+    }
+
+    /**
+     * Endpoint para consultar o horário comercial vigente.
+     * @return Horário de cada dia da semana e versão do snapshot.
+     */
+    @GetMapping
+    @Operation(summary = "Consulta horário comercial", description = "Horário vigente por dia da semana")
+    public ResponseEntity<?> consultar() {
+        return ResponseEntity.ok(toResponse(configuracaoHorarioService.snapshot()));
+    }
+
+    /**
+     * Endpoint para alterar o horário de um dia da semana.
+     * @param diaSemana Dia da semana (MONDAY, TUESDAY, ...).
+     * @param req Horários de abertura e fechamento e se o dia funciona.
+     * @return Horário comercial atualizado.
+     */
+    @PutMapping("/{diaSemana}")
+    @Operation(summary = "Altera horário de um dia", description = "Atualiza o horário comercial e publica um novo snapshot")
+    public ResponseEntity<?> atualizar(@PathVariable DayOfWeek diaSemana,
+                                       @Valid @RequestBody AtualizarHorarioRequest req) {
+        var snapshot = configuracaoHorarioService.atualizarHorario(
+                diaSemana, req.horaAbertura(), req.horaFechamento(), req.ativo());
+        return ResponseEntity.ok(toResponse(snapshot));
+    }
+
+    /**
+     * Endpoint para consultar a jornada efetiva de um prestador.
+     * @param prestadorId ID do prestador.
+     * @return Faixas de atendimento por dia (jornada própria ou horário comercial global).
+     */
+    @GetMapping("/prestadores/{prestadorId}")
+    @Operation(summary = "Consulta jornada do prestador", description = "Faixas de atendimento por dia da semana, já descontado o intervalo")
+    public ResponseEntity<?> consultarJornada(@PathVariable Long prestadorId) {
+        return ResponseEntity.ok(toResponse(prestadorId, configuracaoHorarioService.snapshot()));
+    }
+
+    /**
+     * Endpoint para substituir a jornada semanal de um prestador.
+     * @param prestadorId ID do prestador.
+     * @param dias Dias trabalhados com abertura, fechamento e intervalo opcional; dias ausentes são folga.
+     * @return Jornada atualizada.
+     */
+    @PutMapping("/prestadores/{prestadorId}")
+    @Operation(summary = "Altera jornada do prestador", description = "Substitui a semana do prestador, que deixa de seguir o horário comercial global")
+    public ResponseEntity<?> atualizarJornada(@PathVariable Long prestadorId,
+                                              @RequestBody List<AgendamentoApi.@Valid JornadaDiaRequest> dias) {
+        return ResponseEntity.ok(toResponse(prestadorId, configuracaoHorarioService.atualizarJornada(prestadorId, dias)));
+    }
+
+    /**
+     * Endpoint para consultar a capacidade de atendimentos simultâneos de um prestador.
+     * @param prestadorId ID do prestador.
+     * @return Capacidade (1 sem configuração) e último dia com vagas geradas.
+     */
+    @GetMapping("/prestadores/{prestadorId}/capacidade")
+    @Operation(summary = "Consulta capacidade do prestador", description = "Atendimentos simultâneos por hora")
+    public ResponseEntity<?> consultarCapacidade(@PathVariable Long prestadorId) {
+        return ResponseEntity.ok(inventarioSlotsService.consultar(prestadorId));
+    }
+
+    /**
+     * Endpoint para definir a capacidade de um prestador e gerar o inventário de vagas.
+     * @param prestadorId ID do prestador.
+     * @param req Atendimentos simultâneos por hora.
+     * @return Capacidade e último dia com vagas geradas.
+     */
+    @PutMapping("/prestadores/{prestadorId}/capacidade")
+    @Operation(summary = "Define capacidade do prestador", description = "Passa o prestador a reservar pelo inventário de vagas")
+    public ResponseEntity<?> atualizarCapacidade(@PathVariable Long prestadorId,
+                                                 @Valid @RequestBody AgendamentoApi.CapacidadePrestadorRequest req) {
+        return ResponseEntity.ok(inventarioSlotsService.configurar(prestadorId, req.capacidade()));
+    }
+
+    private static JornadaResponse toResponse(Long prestadorId, HorarioComercial snapshot) {
+        List<JornadaDiaResponse> dias = new ArrayList<>();
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            long meiasHoras = dia == DayOfWeek.SUNDAY ? 0 : snapshot.meiasHoras(prestadorId, dia);
+            List<FaixaResponse> faixas = new ArrayList<>();
+            // Cada sequência de bits 1 é uma faixa contínua de atendimento
+            while (meiasHoras != 0) {
+                int inicio = Long.numberOfTrailingZeros(meiasHoras);
+                int fim = Long.numberOfTrailingZeros(~(meiasHoras >>> inicio)) + inicio;
+                faixas.add(new FaixaResponse(LocalTime.MIN.plusMinutes(30L * inicio), LocalTime.MIN.plusMinutes(30L * fim)));
+                meiasHoras &= ~((-1L >>> (64 - (fim - inicio))) << inicio);
+            }
+            dias.add(new JornadaDiaResponse(dia, faixas));
+        }
+        return new JornadaResponse(prestadorId, snapshot.temJornada(prestadorId), snapshot.versao(), dias);
+    }
+
+    private static HorarioComercialResponse toResponse(HorarioComercial snapshot) {
+        List<DiaResponse> dias = new ArrayList<>();
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            dias.add(new DiaResponse(dia, snapshot.funciona(dia),
+                    snapshot.abertura(dia), snapshot.fechamento(dia)));
+        }
+        return new HorarioComercialResponse(snapshot.versao(), dias);
+    }
+
+    /**
+     * DTO para alteração do horário de um dia.
+     */
+    record AtualizarHorarioRequest(
+            @NotNull LocalTime horaAbertura,
+            @NotNull LocalTime horaFechamento,
+            boolean ativo
+    ) {}
+
+    record DiaResponse(DayOfWeek diaSemana, boolean funciona, LocalTime horaAbertura, LocalTime horaFechamento) {}
+
+    record HorarioComercialResponse(long versao, List<DiaResponse> dias) {}
+
+    record FaixaResponse(LocalTime inicio, LocalTime fim) {}
+
+    record JornadaDiaResponse(DayOfWeek diaSemana, List<FaixaResponse> faixas) {}
+
+    record JornadaResponse(Long prestadorId, boolean jornadaPropria, long versao, List<JornadaDiaResponse> dias) {}
+}
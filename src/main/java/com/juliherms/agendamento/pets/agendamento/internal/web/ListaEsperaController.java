@@ -0,0 +1,47 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ListaEsperaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST da lista de espera por horários liberados em cancelamentos.
+ */
+@RestController
+@RequestMapping("/agendamentos/lista-espera")
+@Tag(name = "Lista de Espera", description = "Interesse em horários liberados por cancelamentos")
+class ListaEsperaController {
+
+    private final ListaEsperaService listaEsperaService;
+
+    ListaEsperaController(ListaEsperaService listaEsperaService) {
+        this.listaEsperaService = listaEsperaService;
+    }
+
+    /**
+     * Endpoint para entrar na lista de espera de um prestador.
+     * @param req Pet, serviço, prestador, data, janela de horário e se a reserva deve ser automática.
+     * @return Entrada criada.
+     */
+    @PostMapping
+    @Operation(summary = "Entra na lista de espera", description = "Ao surgir um cancelamento na janela, reserva ou avisa o interessado mais antigo")
+    public ResponseEntity<?> registrar(@Valid @RequestBody AgendamentoApi.CreateInteresseEsperaRequest req) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(listaEsperaService.registrar(req));
+    }
+
+    /**
+     * Endpoint para sair da lista de espera.
+     * @param id ID da entrada.
+     * @return Entrada com o status atualizado.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Sai da lista de espera", description = "Cancela uma entrada ainda aguardando")
+    public ResponseEntity<?> cancelar(@PathVariable Long id) {
+        return ResponseEntity.ok(listaEsperaService.cancelar(id));
+    }
+}
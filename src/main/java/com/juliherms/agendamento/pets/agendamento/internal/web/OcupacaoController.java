@@ -0,0 +1,59 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.juliherms.agendamento.pets.agendamento.internal.service.OcupacaoDiariaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controlador REST do consolidado diário de ocupação por prestador.
+ */
+@RestController
+@RequestMapping("/agendamentos/ocupacao")
+@Tag(name = "Ocupação", description = "Consolidado diário de agendamentos por prestador")
+class OcupacaoController {
+
+    private final OcupacaoDiariaService ocupacaoDiariaService;
+
+    OcupacaoController(OcupacaoDiariaService ocupacaoDiariaService) {
+        this.ocupacaoDiariaService = ocupacaoDiariaService;
+    }
+
+    /**
+     * Endpoint para consultar a ocupação diária de um prestador.
+     * @param prestadorId ID do prestador.
+     * @param dataInicio Primeiro dia do período (yyyy-MM-dd).
+     * @param dataFim Último dia do período (yyyy-MM-dd).
+     * @return Contagens de agendamentos ativos, cancelados e concluídos por dia.
+     */
+    @GetMapping("/prestador/{prestadorId}")
+    @Operation(summary = "Consulta ocupação diária", description = "Contagens por dia do prestador; período máximo de 1 ano")
+    public ResponseEntity<?> buscar(
+            @PathVariable Long prestadorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        List<OcupacaoDiaResponse> dias = ocupacaoDiariaService.buscar(prestadorId, dataInicio, dataFim).stream()
+                .map(o -> new OcupacaoDiaResponse(o.getData(), o.getAgendados(), o.getCancelados(), o.getConcluidos()))
+                .toList();
+        return ResponseEntity.ok(dias);
+    }
+
+    /**
+     * Endpoint para reconstruir o consolidado a partir dos agendamentos (reparo).
+     * @return Quantidade de linhas (prestador, dia) geradas.
+     */
+    @PostMapping("/reconstruir")
+    @Operation(summary = "Reconstrói a ocupação diária", description = "Refaz o consolidado a partir de agendamentos e do arquivo")
+    public ResponseEntity<?> reconstruir() {
+        return ResponseEntity.ok(new ReconstrucaoResponse(ocupacaoDiariaService.reconstruir()));
+    }
+
+    record OcupacaoDiaResponse(LocalDate data, long agendados, long cancelados, long concluidos) {}
+
+    record ReconstrucaoResponse(int linhas) {}
+}
@@ -0,0 +1,58 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador REST das reservas temporárias de horário durante o checkout.
+ */
+@RestController
+@RequestMapping("/agendamentos/reservas-temporarias")
+@Tag(name = "Reservas Temporárias", description = "Segura um horário por alguns minutos até a confirmação")
+class ReservaTemporariaController {
+
+    private final AgendamentoService agendamentoService;
+
+    ReservaTemporariaController(AgendamentoService agendamentoService) {
+        this.agendamentoService = agendamentoService;
+    }
+
+    /**
+     * Endpoint para reservar temporariamente um horário.
+     * @param req Pet, serviço, prestador, data e hora de início.
+     * @return Reserva com id e validade.
+     */
+    @PostMapping
+    @Operation(summary = "Reserva horário", description = "Valida e segura o horário até expiraEm; outros clientes recebem 409")
+    public ResponseEntity<?> reservar(@Valid @RequestBody AgendamentoApi.CreateAgendamentoRequest req) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(agendamentoService.reservarHorario(req));
+    }
+
+    /**
+     * Endpoint para confirmar uma reserva temporária, criando o agendamento.
+     * @param id ID da reserva.
+     * @return Agendamento criado.
+     */
+    @PostMapping("/{id}/confirmar")
+    @Operation(summary = "Confirma reserva", description = "Cria o agendamento sem repetir as validações feitas na reserva")
+    public ResponseEntity<?> confirmar(@PathVariable String id) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(agendamentoService.confirmarReserva(id));
+    }
+
+    /**
+     * Endpoint para desistir de uma reserva temporária.
+     * @param id ID da reserva.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Libera reserva", description = "Devolve o horário antes da expiração")
+    public ResponseEntity<Void> liberar(@PathVariable String id) {
+        agendamentoService.liberarReserva(id);
+        return ResponseEntity.noContent().build();
+    }
+}
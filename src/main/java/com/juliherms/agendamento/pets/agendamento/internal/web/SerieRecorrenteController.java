@@ -0,0 +1,77 @@
+package com.juliherms.agendamento.pets.agendamento.internal.web;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.SerieRecorrenteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador REST das séries recorrentes de agendamento.
+ */
+@RestController
+@RequestMapping("/agendamentos/series")
+@Tag(name = "Séries Recorrentes", description = "Agendamentos semanais repetidos criados em uma única requisição")
+class SerieRecorrenteController {
+
+    private final SerieRecorrenteService serieRecorrenteService;
+
+    SerieRecorrenteController(SerieRecorrenteService serieRecorrenteService) {
+        this.serieRecorrenteService = serieRecorrenteService;
+    }
+
+    /**
+     * Endpoint para criar uma série recorrente.
+     * @param req Pet, serviço, prestador, primeira data, hora, intervalo em semanas e quantidade de ocorrências.
+     * @return Série criada com as datas puladas por conflito.
+     */
+    @PostMapping
+    @Operation(summary = "Cria série recorrente", description = "Valida uma vez e verifica os conflitos de todas as datas; com pularConflitos as datas ocupadas ficam de fora")
+    public ResponseEntity<?> criar(@Valid @RequestBody AgendamentoApi.CreateSerieRecorrenteRequest req) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(serieRecorrenteService.criar(req));
+    }
+
+    /**
+     * Endpoint para buscar uma série recorrente.
+     * @param id ID da série.
+     * @return Série com o limite já materializado.
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Busca série recorrente", description = "Regra da série, datas puladas e limite já materializado")
+    public ResponseEntity<?> buscar(@PathVariable Long id) {
+        return ResponseEntity.ok(serieRecorrenteService.buscar(id));
+    }
+
+    /**
+     * Endpoint para cancelar uma série recorrente e os agendamentos futuros dela.
+     * @param id ID da série.
+     * @return Série cancelada.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancela série recorrente", description = "Cancela a série e os agendamentos dela que ainda não começaram")
+    public ResponseEntity<?> cancelar(@PathVariable Long id) {
+        return ResponseEntity.ok(serieRecorrenteService.cancelar(id));
+    }
+
+    /**
+     * Endpoint para listar as ocorrências das séries de um pet em um período.
+     * @param petId ID do pet.
+     * @param dataInicio Primeiro dia do período (yyyy-MM-dd).
+     * @param dataFim Último dia do período (yyyy-MM-dd).
+     * @return Ocorrências por data; as ainda não materializadas vêm sem agendamentoId.
+     */
+    @GetMapping("/pet/{petId}/ocorrencias")
+    @Operation(summary = "Ocorrências do pet", description = "Ocorrências materializadas e futuras das séries do pet; período máximo de 366 dias")
+    public ResponseEntity<?> buscarOcorrencias(
+            @PathVariable Long petId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim) {
+        return ResponseEntity.ok(serieRecorrenteService.buscarOcorrenciasPorPet(petId, dataInicio, dataFim));
+    }
+}
@@ -2,7 +2,8 @@
     allowedDependencies = {
         "users::api",
         "pets::api", 
-        "services::api"
+        "services::api",
+        "shared::transacao"
     }
 )
 package com.juliherms.agendamento.pets.agendamento;
@@ -0,0 +1,98 @@
+package com.juliherms.agendamento.pets.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de segundo nível do Hibernate para as entidades de referência (usuários, pets e serviços),
+ * lidas por id a cada cadastro e raramente alteradas.
+ * Provedor JCache local (Caffeine) com tamanho máximo e TTL por região. Cada instância tem o seu
+ * cache: alterações feitas em outra instância ficam visíveis no máximo após o TTL. A validação de
+ * reservas lê esses dados direto do banco (AgendamentoRepository.findValidacao) e não é afetada.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    /**
+     * Regiões declaradas nas entidades com {@code @Cache(region = ...)}.
+     */
+    public static final List<String> REGIOES = List.of("usuarios", "pets", "servicos");
+
+    private final boolean habilitado;
+
+    public CacheSegundoNivelConfig(@Value("${cache.segundo-nivel.habilitado:true}") boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Provedor próprio por contexto: contextos de teste distintos não compartilham regiões.
+     */
+    @Bean(destroyMethod = "close")
+    public CaffeineCachingProvider cachingProviderSegundoNivel() {
+        return new CaffeineCachingProvider();
+    }
+
+    @Bean
+    public CacheManager cacheManagerSegundoNivel(
+            CaffeineCachingProvider cachingProviderSegundoNivel,
+            @Value("${cache.segundo-nivel.max-entradas:10000}") long maxEntradas,
+            @Value("${cache.segundo-nivel.ttl-minutos:5}") long ttlMinutos) {
+        CacheManager cacheManager = cachingProviderSegundoNivel.getCacheManager();
+
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(maxEntradas));
+        configuracao.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutos)));
+        configuracao.setStatisticsEnabled(true);
+        for (String regiao : REGIOES) {
+            if (cacheManager.getCache(regiao) == null) {
+                cacheManager.createCache(regiao, configuracao);
+            }
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheManagerSegundoNivel) {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, habilitado);
+            if (habilitado) {
+                propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+                // Região não criada acima é erro de configuração, não um cache sem limites
+                propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    /**
+     * Acertos, faltas, inserções e remoções por região, a partir das estatísticas do próprio JCache
+     * ({@code /actuator/metrics/cache.gets?tag=regiao:usuarios&tag=result:hit}).
+     * Não dependem de {@code hibernate.generate_statistics}, então existem em todos os perfis.
+     */
+    @Bean
+    public MeterBinder metricasCacheSegundoNivel(CacheManager cacheManagerSegundoNivel) {
+        return registry -> {
+            if (!habilitado) {
+                return;
+            }
+            for (String regiao : REGIOES) {
+                new JCacheMetrics<>(cacheManagerSegundoNivel.getCache(regiao), Tags.of("regiao", regiao))
+                        .bindTo(registry);
+            }
+        };
+    }
+}
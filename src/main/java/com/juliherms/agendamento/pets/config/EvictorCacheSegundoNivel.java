@@ -0,0 +1,83 @@
+package com.juliherms.agendamento.pets.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Remove do cache de segundo nível a entidade cujo status, perfil ou flag ativo mudou.
+ * Executa após o commit, depois de a estratégia READ_WRITE ter gravado o novo estado:
+ * a próxima leitura dessas entidades volta ao banco em vez de confiar na cópia em cache.
+ * Demais alterações (nome, preços etc.) seguem atualizando o cache normalmente.
+ */
+@Component
+public class EvictorCacheSegundoNivel implements PostCommitUpdateEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EvictorCacheSegundoNivel.class);
+
+    private static final Set<String> PROPRIEDADES_SENSIVEIS = Set.of("status", "perfil", "ativo");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    public EvictorCacheSegundoNivel(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void registrar() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!alterouPropriedadeSensivel(event)) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        event.getSession().getFactory().getCache().evictEntityData(persister.getEntityName(), event.getId());
+        meterRegistry.counter("hibernate.cache.segundo-nivel.remocoes",
+                "regiao", persister.getCacheAccessStrategy().getRegion().getName()).increment();
+        log.debug("[CACHE] {} {} removido do cache de segundo nível", persister.getEntityName(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rollback: a estratégia READ_WRITE já libera o soft lock e descarta o novo estado
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    private static boolean alterouPropriedadeSensivel(PostUpdateEvent event) {
+        int[] sujas = event.getDirtyProperties();
+        if (sujas == null) {
+            // Sem dirty checking (ex.: update de entidade destacada): remove por precaução
+            return true;
+        }
+        String[] nomes = event.getPersister().getPropertyNames();
+        for (int indice : sujas) {
+            if (PROPRIEDADES_SENSIVEIS.contains(nomes[indice])) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package com.juliherms.agendamento.pets.notifications.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.notifications.internal.service.LembreteService;
+import com.juliherms.agendamento.pets.shared.transacao.AposCommit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mantém a roda de lembretes sincronizada com os agendamentos.
+ * Como no índice de ocupação, as alterações só são aplicadas após o commit.
+ */
+@Component
+public class LembreteListener {
+
+    private final LembreteService lembreteService;
+
+    public LembreteListener(LembreteService lembreteService) {
+        this.lembreteService = lembreteService;
+    }
+
+    @EventListener
+    public void onAgendamentoCriado(AgendamentoApi.AgendamentoCriadoEvent event) {
+        AposCommit.executar(() -> lembreteService.agendar(event.agendamentoId(), event.data(), event.horaInicio()));
+    }
+
+    @EventListener
+    public void onStatusAlterado(AgendamentoApi.AgendamentoStatusAlteradoEvent event) {
+        if (event.novoStatus() == AgendamentoApi.Status.CANCELADO) {
+            AposCommit.executar(() -> lembreteService.cancelar(event.agendamentoId()));
+        }
+    }
+}
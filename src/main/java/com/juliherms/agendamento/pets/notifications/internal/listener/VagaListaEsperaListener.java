@@ -0,0 +1,24 @@
+package com.juliherms.agendamento.pets.notifications.internal.listener;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.notifications.internal.service.LembreteService;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avisa os tutores da lista de espera quando um cancelamento libera o horário desejado.
+ */
+@Component
+public class VagaListaEsperaListener {
+
+    private final LembreteService lembreteService;
+
+    public VagaListaEsperaListener(LembreteService lembreteService) {
+        this.lembreteService = lembreteService;
+    }
+
+    @ApplicationModuleListener
+    public void onVagaListaEspera(AgendamentoApi.VagaListaEsperaEvent event) {
+        lembreteService.avisarVaga(event);
+    }
+}
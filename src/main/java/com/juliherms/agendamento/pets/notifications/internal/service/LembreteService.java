@@ -0,0 +1,225 @@
+package com.juliherms.agendamento.pets.notifications.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.LembretesApi;
+import com.juliherms.agendamento.pets.verificador.api.EnvioMensagensApi;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agendador de lembretes de agendamento (24h e 1h antes do início).
+ * Os lembretes da janela [agora, agora + horizonte) ficam em uma {@link RodaTemporizacao}
+ * com tick de 1 minuto: a roda é reconstruída na inicialização por uma varredura limitada
+ * do banco, estendida a cada tick e mantida pelos eventos de criação e cancelamento.
+ * Lembretes vencidos são enviados em lotes, com uma consulta por lote para os destinatários;
+ * agendamentos que deixaram de estar ativos são descartados nessa consulta.
+ * Lembretes cujo horário de disparo já passou não são enviados (nem após reinício).
+ */
+@Service
+public class LembreteService {
+
+    private static final Logger log = LoggerFactory.getLogger(LembreteService.class);
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+    private static final int BALDES = 4096;
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final RodaTemporizacao roda;
+    private final LembretesApi lembretesApi;
+    private final EnvioMensagensApi envioMensagensApi;
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitado;
+    private final Duration horizonte;
+    private final int tamanhoLote;
+
+    // Fim (exclusivo) da janela de disparos já carregada na roda
+    private volatile ZonedDateTime limiteCarregado;
+
+    public LembreteService(
+            LembretesApi lembretesApi,
+            EnvioMensagensApi envioMensagensApi,
+            MeterRegistry meterRegistry,
+            @Value("${notificacoes.lembretes.habilitado:true}") boolean habilitado,
+            @Value("${notificacoes.lembretes.horizonte-horas:48}") int horizonteHoras,
+            @Value("${notificacoes.lembretes.tamanho-lote:200}") int tamanhoLote) {
+        this.lembretesApi = lembretesApi;
+        this.envioMensagensApi = envioMensagensApi;
+        this.meterRegistry = meterRegistry;
+        this.habilitado = habilitado;
+        this.horizonte = Duration.ofHours(horizonteHoras);
+        this.tamanhoLote = tamanhoLote;
+
+        ZonedDateTime agora = ZonedDateTime.now(ZONA);
+        this.roda = new RodaTemporizacao(BALDES, 1024, tick(agora) - 1);
+        this.limiteCarregado = agora;
+
+        Gauge.builder("notificacoes.lembretes.pendentes", roda, RodaTemporizacao::tamanho)
+                .description("Lembretes agendados na roda de temporização")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        if (habilitado) {
+            ZonedDateTime agora = ZonedDateTime.now(ZONA);
+            int carregados = carregar(agora, agora.plus(horizonte));
+            log.info("[NOTIFICACOES] Roda de lembretes reconstruída: {} lembretes nas próximas {} horas",
+                    carregados, horizonte.toHours());
+        }
+    }
+
+    /**
+     * Agenda os lembretes de um agendamento recém-criado que caiam na janela carregada.
+     * Disparos além da janela são carregados pela extensão periódica.
+     */
+    public void agendar(long agendamentoId, LocalDate data, LocalTime horaInicio) {
+        if (!habilitado) {
+            return;
+        }
+        ZonedDateTime agora = ZonedDateTime.now(ZONA);
+        agendar(agendamentoId, data.atTime(horaInicio).atZone(ZONA), agora, limiteCarregado);
+    }
+
+    /**
+     * Remove os lembretes pendentes de um agendamento. O(1).
+     */
+    public void cancelar(long agendamentoId) {
+        for (TipoLembrete tipo : TipoLembrete.values()) {
+            roda.cancelar(tipo.chave(agendamentoId));
+        }
+    }
+
+    /**
+     * Avança a roda até o minuto atual, estende a janela carregada e envia os lembretes vencidos.
+     */
+    @Scheduled(fixedDelayString = "${notificacoes.lembretes.tick-ms:60000}",
+               initialDelayString = "${notificacoes.lembretes.tick-ms:60000}")
+    public void processar() {
+        if (habilitado) {
+            processar(ZonedDateTime.now(ZONA));
+        }
+    }
+
+    public int pendentes() {
+        return roda.tamanho();
+    }
+
+    void processar(ZonedDateTime agora) {
+        ZonedDateTime novoLimite = agora.plus(horizonte);
+        if (novoLimite.isAfter(limiteCarregado)) {
+            carregar(limiteCarregado, novoLimite);
+        }
+        enviar(roda.avancar(tick(agora)));
+    }
+
+    /**
+     * Carrega os lembretes com disparo em [de, ate) a partir do banco.
+     * O limite é publicado antes da varredura: eventos que chegarem durante a carga
+     * já se agendam sozinhos, e agendar a mesma chave duas vezes apenas a substitui.
+     */
+    int carregar(ZonedDateTime de, ZonedDateTime ate) {
+        limiteCarregado = ate;
+        ZonedDateTime agora = ZonedDateTime.now(ZONA);
+        LocalDate primeiraData = de.plus(TipoLembrete.UMA_HORA.antecedencia()).toLocalDate();
+        LocalDate ultimaData = ate.plus(TipoLembrete.VESPERA.antecedencia()).toLocalDate();
+
+        int[] carregados = {0};
+        lembretesApi.paraCadaAtivo(primeiraData, ultimaData, (id, data, horaInicio) ->
+                carregados[0] += agendar(id, data.atTime(horaInicio).atZone(ZONA), agora.isAfter(de) ? agora : de, ate));
+        return carregados[0];
+    }
+
+    private int agendar(long agendamentoId, ZonedDateTime inicio, ZonedDateTime de, ZonedDateTime ate) {
+        int agendados = 0;
+        for (TipoLembrete tipo : TipoLembrete.values()) {
+            ZonedDateTime disparo = inicio.minus(tipo.antecedencia());
+            if (!disparo.isBefore(de) && disparo.isBefore(ate)) {
+                roda.agendar(tipo.chave(agendamentoId), tick(disparo));
+                agendados++;
+            }
+        }
+        return agendados;
+    }
+
+    private void enviar(long[] vencidas) {
+        for (int inicio = 0; inicio < vencidas.length; inicio += tamanhoLote) {
+            long[] lote = Arrays.copyOfRange(vencidas, inicio, Math.min(inicio + tamanhoLote, vencidas.length));
+            List<Long> ids = Arrays.stream(lote).map(TipoLembrete::agendamentoId).distinct().boxed().toList();
+
+            Map<Long, LembretesApi.LembreteDestino> destinos = new HashMap<>(ids.size() * 2);
+            for (LembretesApi.LembreteDestino destino : lembretesApi.findDestinos(ids)) {
+                destinos.put(destino.agendamentoId(), destino);
+            }
+
+            for (long chave : lote) {
+                LembretesApi.LembreteDestino destino = destinos.get(TipoLembrete.agendamentoId(chave));
+                if (destino != null) {
+                    enviar(destino, TipoLembrete.de(chave));
+                }
+            }
+        }
+    }
+
+    private void enviar(LembretesApi.LembreteDestino destino, TipoLembrete tipo) {
+        String quando = tipo == TipoLembrete.VESPERA ? "amanhã" : "em 1 hora";
+        String mensagem = String.format("Lembrete: %s tem atendimento %s, %s às %s.",
+                destino.nomePet(), quando, destino.data().format(DATA), destino.horaInicio());
+        enviar("notificacoes.lembretes", "lembrete " + tipo + " do agendamento " + destino.agendamentoId(),
+                destino.email(), destino.telefone(), destino.emailVerificado(), destino.telefoneVerificado(),
+                "Lembrete de agendamento", mensagem);
+    }
+
+    /**
+     * Avisa o tutor de que um cancelamento liberou um horário da sua entrada na lista de espera,
+     * pelo mesmo canal dos lembretes.
+     */
+    public void avisarVaga(AgendamentoApi.VagaListaEsperaEvent event) {
+        lembretesApi.findContato(event.petId()).ifPresent(contato -> {
+            String mensagem = String.format("Abriu um horário para %s em %s às %s. Reserve pelo app antes que acabe.",
+                    contato.nomePet(), event.data().format(DATA), event.horaInicio());
+            enviar("notificacoes.vagas", "aviso de vaga do interesse " + event.interesseId(),
+                    contato.email(), contato.telefone(), contato.emailVerificado(), contato.telefoneVerificado(),
+                    "Horário disponível", mensagem);
+        });
+    }
+
+    private void enviar(String metrica, String descricao, String email, String telefone,
+                        boolean emailVerificado, boolean telefoneVerificado, String assunto, String mensagem) {
+        // E-mail por padrão; SMS apenas quando só o telefone foi verificado
+        boolean porSms = !emailVerificado && telefoneVerificado;
+        String canal = porSms ? "sms" : "email";
+        try {
+            if (porSms) {
+                envioMensagensApi.enviarSMS(telefone, mensagem);
+            } else {
+                envioMensagensApi.enviarEmail(email, assunto, mensagem);
+            }
+            meterRegistry.counter(metrica + ".enviados", "canal", canal).increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter(metrica + ".falhas", "canal", canal).increment();
+            log.error("[NOTIFICACOES] Falha ao enviar {}: {}", descricao, e.getMessage());
+        }
+    }
+
+    private static long tick(ZonedDateTime instante) {
+        return instante.toEpochSecond() / 60;
+    }
+}
@@ -0,0 +1,277 @@
+package com.juliherms.agendamento.pets.notifications.internal.service;
+
+import java.util.Arrays;
+
+/**
+ * Roda de temporização com hash (hashed timing wheel) para chaves long.
+ * Cada entrada tem um prazo em ticks absolutos e fica na lista do balde {@code prazo & mascara};
+ * entradas de voltas futuras permanecem no balde até o prazo chegar.
+ * Agendar e cancelar são O(1): as listas são duplamente encadeadas por índice e um mapa
+ * aberto chave → índice localiza a entrada. O armazenamento é feito em arrays primitivos
+ * (cerca de 50 bytes por entrada, sem objetos por lembrete), para suportar milhões de entradas.
+ * Thread-safe por monitor: todas as operações são curtas.
+ */
+public final class RodaTemporizacao {
+
+    private static final int NENHUM = -1;
+
+    private final int mascara;
+    private final int[] cabecas;
+    private final MapaLongInt indices;
+
+    // Entradas (struct of arrays); posições livres encadeadas por proximo a partir de livre
+    private long[] chaves;
+    private long[] prazos;
+    private int[] proximo;
+    private int[] anterior;
+    private int livre = NENHUM;
+    private int usadas;
+    private int tamanho;
+
+    private long tickAtual;
+
+    /**
+     * @param baldes Quantidade de baldes (potência de 2)
+     * @param capacidadeInicial Entradas alocadas inicialmente (cresce sob demanda)
+     * @param tickInicial Último tick considerado processado
+     */
+    public RodaTemporizacao(int baldes, int capacidadeInicial, long tickInicial) {
+        if (Integer.bitCount(baldes) != 1) {
+            throw new IllegalArgumentException("Quantidade de baldes deve ser potência de 2");
+        }
+        this.mascara = baldes - 1;
+        this.cabecas = new int[baldes];
+        Arrays.fill(cabecas, NENHUM);
+        int capacidade = Math.max(16, capacidadeInicial);
+        this.chaves = new long[capacidade];
+        this.prazos = new long[capacidade];
+        this.proximo = new int[capacidade];
+        this.anterior = new int[capacidade];
+        this.indices = new MapaLongInt(capacidade);
+        this.tickAtual = tickInicial;
+    }
+
+    /**
+     * Agenda (ou reagenda) a chave para o tick informado. Prazos já vencidos
+     * disparam no próximo avanço.
+     *
+     * @param chave Chave não negativa
+     * @param prazo Tick absoluto de disparo
+     */
+    public synchronized void agendar(long chave, long prazo) {
+        if (chave < 0) {
+            throw new IllegalArgumentException("Chave deve ser não negativa");
+        }
+        int existente = indices.get(chave);
+        if (existente != NENHUM) {
+            desencadear(existente);
+            liberar(existente);
+            tamanho--;
+        }
+
+        int i = alocar();
+        long efetivo = Math.max(prazo, tickAtual + 1);
+        chaves[i] = chave;
+        prazos[i] = efetivo;
+        encadear(i, (int) (efetivo & mascara));
+        indices.put(chave, i);
+        tamanho++;
+    }
+
+    /**
+     * Remove a chave, se agendada.
+     *
+     * @return true se havia entrada para a chave
+     */
+    public synchronized boolean cancelar(long chave) {
+        int i = indices.remove(chave);
+        if (i == NENHUM) {
+            return false;
+        }
+        desencadear(i);
+        liberar(i);
+        tamanho--;
+        return true;
+    }
+
+    /**
+     * Avança a roda até o tick informado e devolve as chaves vencidas, em ordem de balde.
+     * Se o salto for maior que uma volta, cada balde é visitado uma única vez.
+     */
+    public synchronized long[] avancar(long ate) {
+        if (ate <= tickAtual) {
+            return new long[0];
+        }
+        long[] vencidas = new long[16];
+        int quantidade = 0;
+
+        long passos = Math.min(ate - tickAtual, cabecas.length);
+        for (long t = tickAtual + 1; t <= tickAtual + passos; t++) {
+            int balde = (int) (t & mascara);
+            int i = cabecas[balde];
+            while (i != NENHUM) {
+                int seguinte = proximo[i];
+                if (prazos[i] <= ate) {
+                    if (quantidade == vencidas.length) {
+                        vencidas = Arrays.copyOf(vencidas, quantidade * 2);
+                    }
+                    vencidas[quantidade++] = chaves[i];
+                    indices.remove(chaves[i]);
+                    desencadear(i);
+                    liberar(i);
+                    tamanho--;
+                }
+                i = seguinte;
+            }
+        }
+        tickAtual = ate;
+        return Arrays.copyOf(vencidas, quantidade);
+    }
+
+    public synchronized boolean contem(long chave) {
+        return indices.get(chave) != NENHUM;
+    }
+
+    public synchronized int tamanho() {
+        return tamanho;
+    }
+
+    public synchronized long tickAtual() {
+        return tickAtual;
+    }
+
+    private void encadear(int i, int balde) {
+        int cabeca = cabecas[balde];
+        anterior[i] = NENHUM;
+        proximo[i] = cabeca;
+        if (cabeca != NENHUM) {
+            anterior[cabeca] = i;
+        }
+        cabecas[balde] = i;
+    }
+
+    private void desencadear(int i) {
+        if (anterior[i] != NENHUM) {
+            proximo[anterior[i]] = proximo[i];
+        } else {
+            cabecas[(int) (prazos[i] & mascara)] = proximo[i];
+        }
+        if (proximo[i] != NENHUM) {
+            anterior[proximo[i]] = anterior[i];
+        }
+    }
+
+    private int alocar() {
+        if (livre != NENHUM) {
+            int i = livre;
+            livre = proximo[i];
+            return i;
+        }
+        if (usadas == chaves.length) {
+            int capacidade = chaves.length * 2;
+            chaves = Arrays.copyOf(chaves, capacidade);
+            prazos = Arrays.copyOf(prazos, capacidade);
+            proximo = Arrays.copyOf(proximo, capacidade);
+            anterior = Arrays.copyOf(anterior, capacidade);
+        }
+        return usadas++;
+    }
+
+    private void liberar(int i) {
+        proximo[i] = livre;
+        livre = i;
+    }
+
+    /**
+     * Mapa long → int de endereçamento aberto (sondagem linear, remoção por deslocamento),
+     * sem objetos por entrada. Chaves negativas são reservadas como vazio.
+     */
+    private static final class MapaLongInt {
+
+        private static final long VAZIO = -1L;
+
+        private long[] chaves;
+        private int[] valores;
+        private int quantidade;
+
+        MapaLongInt(int capacidadeEsperada) {
+            int capacidade = Integer.highestOneBit(Math.max(16, capacidadeEsperada * 2 - 1)) << 1;
+            chaves = new long[capacidade];
+            valores = new int[capacidade];
+            Arrays.fill(chaves, VAZIO);
+        }
+
+        int get(long chave) {
+            int mascara = chaves.length - 1;
+            for (int p = posicao(chave, mascara); chaves[p] != VAZIO; p = (p + 1) & mascara) {
+                if (chaves[p] == chave) {
+                    return valores[p];
+                }
+            }
+            return NENHUM;
+        }
+
+        void put(long chave, int valor) {
+            if ((quantidade + 1) * 2 > chaves.length) {
+                redimensionar();
+            }
+            int mascara = chaves.length - 1;
+            int p = posicao(chave, mascara);
+            while (chaves[p] != VAZIO && chaves[p] != chave) {
+                p = (p + 1) & mascara;
+            }
+            if (chaves[p] == VAZIO) {
+                quantidade++;
+            }
+            chaves[p] = chave;
+            valores[p] = valor;
+        }
+
+        int remove(long chave) {
+            int mascara = chaves.length - 1;
+            int p = posicao(chave, mascara);
+            while (chaves[p] != chave) {
+                if (chaves[p] == VAZIO) {
+                    return NENHUM;
+                }
+                p = (p + 1) & mascara;
+            }
+            int valor = valores[p];
+            quantidade--;
+
+            // Desloca para trás as entradas seguintes do mesmo agrupamento
+            int vazio = p;
+            int q = (p + 1) & mascara;
+            while (chaves[q] != VAZIO) {
+                int ideal = posicao(chaves[q], mascara);
+                if (((q - ideal) & mascara) >= ((q - vazio) & mascara)) {
+                    chaves[vazio] = chaves[q];
+                    valores[vazio] = valores[q];
+                    vazio = q;
+                }
+                q = (q + 1) & mascara;
+            }
+            chaves[vazio] = VAZIO;
+            return valor;
+        }
+
+        private void redimensionar() {
+            long[] antigasChaves = chaves;
+            int[] antigosValores = valores;
+            chaves = new long[antigasChaves.length * 2];
+            valores = new int[antigasChaves.length * 2];
+            Arrays.fill(chaves, VAZIO);
+            quantidade = 0;
+            for (int p = 0; p < antigasChaves.length; p++) {
+                if (antigasChaves[p] != VAZIO) {
+                    put(antigasChaves[p], antigosValores[p]);
+                }
+            }
+        }
+
+        private static int posicao(long chave, int mascara) {
+            long h = chave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.juliherms.agendamento.pets.notifications.internal.service;
+
+import java.time.Duration;
+
+/**
+ * Lembretes enviados antes de cada agendamento.
+ * O ordinal compõe a chave da roda de temporização (agendamentoId * 2 + ordinal).
+ */
+public enum TipoLembrete {
+
+    VESPERA(Duration.ofHours(24)),
+    UMA_HORA(Duration.ofHours(1));
+
+    private final Duration antecedencia;
+
+    TipoLembrete(Duration antecedencia) {
+        this.antecedencia = antecedencia;
+    }
+
+    public Duration antecedencia() {
+        return antecedencia;
+    }
+
+    public long chave(long agendamentoId) {
+        return agendamentoId * 2 + ordinal();
+    }
+
+    public static long agendamentoId(long chave) {
+        return chave / 2;
+    }
+
+    public static TipoLembrete de(long chave) {
+        return values()[(int) (chave % 2)];
+    }
+}
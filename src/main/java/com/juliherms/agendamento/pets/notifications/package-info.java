@@ -1,4 +1,10 @@
-@org.springframework.modulith.ApplicationModule
+@org.springframework.modulith.ApplicationModule(
+    allowedDependencies = {
+        "agendamento::api",
+        "verificador::api",
+        "shared::transacao"
+    }
+)
 package com.juliherms.agendamento.pets.notifications;
 
 
@@ -1,12 +1,16 @@
 package com.juliherms.agendamento.pets.services.internal.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "services")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "servicos")
 public class OfferedService {
 
     @Id
@@ -34,6 +38,10 @@ public class OfferedService {
     @Column(nullable = false)
     private boolean ativo = true;
 
+    // Duração do atendimento em minutos; define o horário de término do agendamento
+    @Column(nullable = false)
+    private Integer duracaoMinutos = 60;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -106,6 +114,14 @@ public class OfferedService {
         this.ativo = ativo;
     }
 
+    public Integer getDuracaoMinutos() {
+        return duracaoMinutos;
+    }
+
+    public void setDuracaoMinutos(Integer duracaoMinutos) {
+        this.duracaoMinutos = duracaoMinutos;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
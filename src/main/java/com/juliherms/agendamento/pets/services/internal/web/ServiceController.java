@@ -31,7 +31,8 @@ class ServiceController {
     }
 
     record Prices(@NotNull Double p, @NotNull Double m, @NotNull Double g) {}
-    record CreateServiceRequest(@NotBlank String titulo, @NotBlank String descricao, @NotNull Prices precosPorPorte, boolean ativo) {}
+    record CreateServiceRequest(@NotBlank String titulo, @NotBlank String descricao, @NotNull Prices precosPorPorte, boolean ativo,
+                                Integer duracaoMinutos) {}
 
     /**
      * Endpoint para cadastrar um novo serviço oferecido por um usuário.
@@ -40,7 +41,7 @@ class ServiceController {
      * @return Resposta HTTP com o status e o corpo apropriados.
      */
     @PostMapping
-    @Operation(summary = "Cadastra um novo serviço", description = "Somente para usuários com perfil PROVEDOR e conta ativa; valida preços > 0")
+    @Operation(summary = "Cadastra um novo serviço", description = "Somente para usuários com perfil PROVEDOR e conta ativa; valida preços > 0 e duração (15 a 480 min, múltiplo de 15; padrão 60)")
     public ResponseEntity<?> create(@PathVariable Long idUsuario, @Valid @RequestBody CreateServiceRequest req) {
 
         // Verifica se o usuário existe e está ativo
@@ -57,6 +58,12 @@ class ServiceController {
             throw new ServicesExceptionHandler.PrecosInvalidosException("preços devem ser > 0");
         }
 
+        // Valida a duração do atendimento (opcional; padrão 60 minutos)
+        int duracao = req.duracaoMinutos() != null ? req.duracaoMinutos() : 60;
+        if (duracao < 15 || duracao > 480 || duracao % 15 != 0) {
+            throw new ServicesExceptionHandler.DadosServicoInvalidosException("duração deve estar entre 15 e 480 minutos, em múltiplos de 15");
+        }
+
         // Cria e salva o serviço oferecido
         OfferedService svc = new OfferedService();
         svc.setUsuarioId(idUsuario);
@@ -66,6 +73,7 @@ class ServiceController {
         svc.setPrecoM(req.precosPorPorte.m());
         svc.setPrecoG(req.precosPorPorte.g());
         svc.setAtivo(req.ativo());
+        svc.setDuracaoMinutos(duracao);
 
         var saved = services.save(svc);
 
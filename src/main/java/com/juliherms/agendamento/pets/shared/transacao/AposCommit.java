@@ -0,0 +1,29 @@
+package com.juliherms.agendamento.pets.shared.transacao;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Adia uma ação para depois do commit da transação corrente, para que um rollback não deixe
+ * estruturas em memória divergentes do banco. Sem transação ativa, executa de imediato.
+ * Usado pelos listeners com @EventListener (em vez de @TransactionalEventListener) para não
+ * gerar registros no event publication registry do Modulith a cada agendamento.
+ */
+public final class AposCommit {
+
+    private AposCommit() {
+    }
+
+    public static void executar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
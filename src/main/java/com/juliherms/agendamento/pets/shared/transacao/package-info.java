@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("transacao")
+package com.juliherms.agendamento.pets.shared.transacao;
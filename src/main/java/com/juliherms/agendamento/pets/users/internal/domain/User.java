@@ -3,11 +3,15 @@ package com.juliherms.agendamento.pets.users.internal.domain;
 import com.juliherms.agendamento.pets.users.api.UserApi.Perfil;
 import com.juliherms.agendamento.pets.users.api.UserApi.Status;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 public class User {
 
     @Id
@@ -1,12 +1,19 @@
 package com.juliherms.agendamento.pets.users.internal.repo;
 
+import com.juliherms.agendamento.pets.users.api.UserApi;
 import com.juliherms.agendamento.pets.users.internal.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmailIgnoreCase(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.perfil = :perfil AND u.status = :status ORDER BY u.id")
+    List<Long> findIdsByPerfilAndStatus(@Param("perfil") UserApi.Perfil perfil, @Param("status") UserApi.Status status);
 }
 
 
@@ -0,0 +1,25 @@
+package com.juliherms.agendamento.pets.verificador.api;
+
+/**
+ * Envio de mensagens avulsas (lembretes, avisos) pelos canais do verificador.
+ * Falhas de envio são lançadas como exceções não verificadas.
+ */
+public interface EnvioMensagensApi {
+
+    /**
+     * Envia um e-mail de texto simples a partir do remetente configurado.
+     *
+     * @param destinatario Endereço de e-mail do destinatário
+     * @param assunto Assunto do e-mail
+     * @param mensagem Corpo do e-mail em texto simples
+     */
+    void enviarEmail(String destinatario, String assunto, String mensagem);
+
+    /**
+     * Envia um SMS com texto livre.
+     *
+     * @param telefone Número de telefone do destinatário
+     * @param mensagem Texto do SMS
+     */
+    void enviarSMS(String telefone, String mensagem);
+}
@@ -0,0 +1,2 @@
+@org.springframework.modulith.NamedInterface("api")
+package com.juliherms.agendamento.pets.verificador.api;
@@ -0,0 +1,36 @@
+package com.juliherms.agendamento.pets.verificador.internal.service;
+
+import com.juliherms.agendamento.pets.verificador.api.EnvioMensagensApi;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementação de {@link EnvioMensagensApi} sobre os serviços de e-mail (Mailtrap) e SMS do verificador.
+ */
+@Service
+public class EnvioMensagensService implements EnvioMensagensApi {
+
+    private final EmailService emailService;
+    private final SMSService smsService;
+    private final String remetente;
+
+    public EnvioMensagensService(
+            @Qualifier("emailServiceMailTrap") EmailService emailService,
+            SMSService smsService,
+            @Value("${app.mail.from:no-reply@pets.dev}") String remetente) {
+        this.emailService = emailService;
+        this.smsService = smsService;
+        this.remetente = remetente;
+    }
+
+    @Override
+    public void enviarEmail(String destinatario, String assunto, String mensagem) {
+        emailService.enviarEmailTexto(remetente, destinatario, assunto, mensagem);
+    }
+
+    @Override
+    public void enviarSMS(String telefone, String mensagem) {
+        smsService.enviarSMS(telefone, mensagem);
+    }
+}
@@ -57,6 +57,27 @@ public class SMSService {
         }
     }
     
+    /**
+     * Simula o envio de um SMS com texto livre (ex.: lembretes de agendamento).
+     *
+     * @param telefone Número de telefone do destinatário
+     * @param mensagem Texto do SMS
+     * @throws VerificadorExceptionHandler.FalhaEnvioSMSException se houver falha no envio
+     */
+    public void enviarSMS(String telefone, String mensagem) {
+        try {
+            log.info("[SMS] Enviando SMS para: {}", telefone);
+            simularProcessamento();
+            log.info("[SMS] SMS enviado com sucesso para: {}", telefone);
+            log.debug("[SMS] Mensagem: {}", mensagem);
+        } catch (Exception e) {
+            log.error("[SMS] Erro ao enviar SMS para {}: {}", telefone, e.getMessage());
+            throw new VerificadorExceptionHandler.FalhaEnvioSMSException(
+                "Falha no envio de SMS: " + e.getMessage()
+            );
+        }
+    }
+    
     private String gerarMensagemSMS(String token, Instant expiresAt) {
         long horasRestantes = Duration.between(Instant.now(), expiresAt).toHours();
 
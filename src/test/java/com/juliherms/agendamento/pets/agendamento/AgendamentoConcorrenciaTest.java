@@ -0,0 +1,182 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrency tests for the insert-first booking path.
+ * Many threads race for the same slot; the uk_prestador_data_hora unique key must
+ * let exactly one of them win, with or without the occupancy index. Concurrent bookings
+ * of different slots for the same provider must all succeed (no lock failure reported as conflict).
+ */
+@SpringBootTest
+class AgendamentoConcorrenciaTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private IndiceOcupacao indiceOcupacao;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long petId;
+    private Long servicoId;
+    private Long prestadorId;
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        petId = AgendamentoFixtures.pet(petRepository, tutor.getId()).getId();
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        data = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        indiceOcupacao.setHabilitado(true);
+    }
+
+    @Test
+    void shouldHaveExactlyOneWinnerPerSlotWithIndex() throws Exception {
+        indiceOcupacao.setHabilitado(true);
+
+        for (int hora = 9; hora < 12; hora++) {
+            assertThat(disputar(LocalTime.of(hora, 0))).isEqualTo(1);
+        }
+        assertThat(agendamentoRepository.findByPrestadorIdAndData(prestadorId, data)).hasSize(3);
+    }
+
+    @Test
+    void shouldHaveExactlyOneWinnerPerSlotWithoutIndex() throws Exception {
+        indiceOcupacao.setHabilitado(false);
+
+        for (int hora = 9; hora < 12; hora++) {
+            assertThat(disputar(LocalTime.of(hora, 0))).isEqualTo(1);
+        }
+        assertThat(agendamentoRepository.findByPrestadorIdAndData(prestadorId, data)).hasSize(3);
+    }
+
+    @Test
+    void shouldAllowRebookingAfterCancellation() {
+        var request = new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, LocalTime.of(15, 0));
+        var primeiro = agendamentoService.criarAgendamento(request);
+
+        agendamentoService.cancelarAgendamento(primeiro.id());
+        var segundo = agendamentoService.criarAgendamento(request);
+
+        assertThat(segundo.id()).isNotEqualTo(primeiro.id());
+        assertThat(agendamentoRepository.findByPrestadorIdAndData(prestadorId, data)).hasSize(1);
+    }
+
+    @Test
+    void shouldHaveExactlyOneWinnerAmongOverlappingDurations() throws Exception {
+        // Sem índice, para que toda a disputa seja arbitrada pelo banco
+        indiceOcupacao.setHabilitado(false);
+        Long servicoLongoId = AgendamentoFixtures.servico(servicoRepository, prestadorId, 120).getId();
+
+        // 13:00-15:00 sobrepõe 14:00-15:00, mas não tem o mesmo início (a unique key não ajuda)
+        int vencedores = disputar(List.of(
+                new AgendamentoApi.CreateAgendamentoRequest(petId, servicoLongoId, prestadorId, data, LocalTime.of(13, 0)),
+                new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, LocalTime.of(14, 0))));
+
+        assertThat(vencedores).isEqualTo(1);
+        assertThat(agendamentoRepository.findByPrestadorIdAndData(prestadorId, data)).hasSize(1);
+    }
+
+    @Test
+    void shouldBookEveryNonOverlappingSlotUnderConcurrency() throws Exception {
+        // Sem índice, para que todas as reservas cheguem ao banco ao mesmo tempo
+        indiceOcupacao.setHabilitado(false);
+        List<LocalDate> dias = AgendamentoFixtures.diasUteis(2);
+        List<AgendamentoApi.CreateAgendamentoRequest> pedidos = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            pedidos.add(new AgendamentoApi.CreateAgendamentoRequest(
+                    petId, servicoId, prestadorId, dias.get(i % 2), LocalTime.of(9 + i / 2, 0)));
+        }
+
+        assertThat(disputar(pedidos)).isEqualTo(THREADS);
+        for (LocalDate dia : dias) {
+            assertThat(agendamentoRepository.findByPrestadorIdAndData(prestadorId, dia)).hasSize(THREADS / 2);
+        }
+    }
+
+    /**
+     * Dispara THREADS reservas simultâneas para o mesmo slot e devolve quantas tiveram sucesso.
+     */
+    private int disputar(LocalTime hora) throws Exception {
+        return disputar(List.of(new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, hora)));
+    }
+
+    /**
+     * Dispara THREADS reservas simultâneas, alternando entre os pedidos informados.
+     */
+    private int disputar(List<AgendamentoApi.CreateAgendamentoRequest> pedidos) throws Exception {
+        AtomicInteger vencedores = new AtomicInteger();
+        AtomicInteger perdedores = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            var request = pedidos.get(i % pedidos.size());
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    agendamentoService.criarAgendamento(request);
+                    vencedores.incrementAndGet();
+                } catch (AgendamentoExceptionHandler.HorarioIndisponivelException e) {
+                    perdedores.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertThat(vencedores.get() + perdedores.get()).isEqualTo(THREADS);
+        return vencedores.get();
+    }
+}
@@ -0,0 +1,89 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.pets.internal.domain.Pet;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.domain.OfferedService;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.domain.User;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Helpers to persist the users, pets and services an appointment depends on.
+ * Shared by the integration tests and benchmarks of the agendamento module.
+ */
+final class AgendamentoFixtures {
+
+    private AgendamentoFixtures() {}
+
+    static User usuario(UserRepository users, UserApi.Perfil perfil) {
+        User user = new User();
+        user.setNome("Fixture " + perfil);
+        user.setEmail(UUID.randomUUID() + "@fixture.dev");
+        user.setTelefone("+5581999999999");
+        user.setEndereco("Rua dos Testes, 1");
+        user.setSenhaHash("hash");
+        user.setPerfil(perfil);
+        user.setStatus(UserApi.Status.ativo);
+        user.setEmailVerificado(true);
+        user.setTelefoneVerificado(false);
+        return users.save(user);
+    }
+
+    static List<Long> prestadores(UserRepository users, int quantidade) {
+        List<Long> ids = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            ids.add(usuario(users, UserApi.Perfil.PROVEDOR).getId());
+        }
+        return ids;
+    }
+
+    static Pet pet(PetRepository pets, Long usuarioId) {
+        Pet pet = new Pet();
+        pet.setUsuarioId(usuarioId);
+        pet.setNome("Rex");
+        pet.setIdade(3);
+        pet.setRaca("SRD");
+        pet.setPeso(12.5);
+        return pets.save(pet);
+    }
+
+    static OfferedService servico(OfferedServiceRepository services, Long prestadorId) {
+        return servico(services, prestadorId, 60);
+    }
+
+    static OfferedService servico(OfferedServiceRepository services, Long prestadorId, int duracaoMinutos) {
+        OfferedService servico = new OfferedService();
+        servico.setDuracaoMinutos(duracaoMinutos);
+        servico.setUsuarioId(prestadorId);
+        servico.setTitulo("Banho");
+        servico.setDescricao("Banho completo");
+        servico.setPrecoP(50.0);
+        servico.setPrecoM(70.0);
+        servico.setPrecoG(90.0);
+        servico.setAtivo(true);
+        return services.save(servico);
+    }
+
+    /**
+     * Próximos dias de funcionamento (segunda a sábado) a partir de amanhã.
+     */
+    static List<LocalDate> diasUteis(int quantidade) {
+        List<LocalDate> dias = new ArrayList<>(quantidade);
+        LocalDate dia = LocalDate.now(ZoneId.of("America/Recife")).plusDays(1);
+        while (dias.size() < quantidade) {
+            if (dia.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                dias.add(dia);
+            }
+            dia = dia.plusDays(1);
+        }
+        return dias;
+    }
+}
@@ -0,0 +1,96 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Query-count assertions for the booking hot path, using Hibernate statistics.
+ * Guards against regressions that add round trips to criarAgendamento.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AgendamentoQueryCountTest {
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Statistics statistics;
+    private Long petId;
+    private Long servicoId;
+    private Long prestadorId;
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        petId = AgendamentoFixtures.pet(petRepository, tutor.getId()).getId();
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        data = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @Test
+    void bookingShouldUseValidationReadInsertAndOverlapCheck() {
+        // Primeira reserva aquece o índice de ocupação do prestador/dia
+        agendamentoService.criarAgendamento(request(LocalTime.of(9, 0)));
+
+        statistics.clear();
+        agendamentoService.criarAgendamento(request(LocalTime.of(10, 0)));
+
+        // validação (1) + insert (1) + verificação de sobreposição com lock (1);
+        // horário comercial vem do snapshot em memória
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void rejectedBookingShouldStopAfterValidationRead() {
+        var servicoInativo = AgendamentoFixtures.servico(servicoRepository, prestadorId);
+        servicoInativo.setAtivo(false);
+        servicoRepository.save(servicoInativo);
+
+        statistics.clear();
+        var request = new AgendamentoApi.CreateAgendamentoRequest(
+                petId, servicoInativo.getId(), prestadorId, data, LocalTime.of(11, 0));
+
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.ServicoNaoEncontradoException.class);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private AgendamentoApi.CreateAgendamentoRequest request(LocalTime hora) {
+        return new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, hora);
+    }
+}
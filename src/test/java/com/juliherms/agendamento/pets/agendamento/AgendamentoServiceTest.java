@@ -3,28 +3,40 @@ package com.juliherms.agendamento.pets.agendamento;
 import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
 import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
 import com.juliherms.agendamento.pets.agendamento.internal.domain.ConfiguracaoHorario;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioPrestador;
 import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoArquivoRepository;
 import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
-import com.juliherms.agendamento.pets.agendamento.internal.repo.ConfiguracaoHorarioRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ChaveIdempotenciaRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ValidacaoAgendamento;
 import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
-import com.juliherms.agendamento.pets.pets.internal.domain.Pet;
-import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
-import com.juliherms.agendamento.pets.services.internal.domain.OfferedService;
-import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.BloqueioAgendaService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.CalendarioFechamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ConfiguracaoHorarioService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.CursorHistorico;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceSeries;
+import com.juliherms.agendamento.pets.agendamento.internal.service.InventarioSlotsService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ReservasTemporarias;
 import com.juliherms.agendamento.pets.users.api.UserApi;
-import com.juliherms.agendamento.pets.users.internal.domain.User;
-import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,16 +59,31 @@ class AgendamentoServiceTest {
     private AgendamentoRepository agendamentoRepository;
 
     @Mock
-    private ConfiguracaoHorarioRepository configuracaoHorarioRepository;
+    private AgendamentoArquivoRepository arquivoRepository;
 
     @Mock
-    private PetRepository petRepository;
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
 
     @Mock
-    private OfferedServiceRepository servicoRepository;
+    private ConfiguracaoHorarioService configuracaoHorarioService;
 
     @Mock
-    private UserRepository userRepository;
+    private CalendarioFechamentoService calendarioFechamentoService;
+
+    @Mock
+    private IndiceOcupacao indiceOcupacao;
+
+    @Mock
+    private ReservasTemporarias reservasTemporarias;
+
+    @Mock
+    private IndiceSeries indiceSeries;
+
+    @Mock
+    private InventarioSlotsService inventarioSlotsService;
+
+    @Mock
+    private BloqueioAgendaService bloqueioAgendaService;
 
     @Mock
     private ApplicationEventPublisher eventPublisher;
@@ -86,6 +113,15 @@ class AgendamentoServiceTest {
         return getCurrentDateInBrazil().plusDays(daysOffset);
     }
 
+    /**
+     * Helper method to get the next business day in Brazil timezone (tomorrow, or Monday when tomorrow is Sunday)
+     * @return LocalDate in Brazil timezone that is never a Sunday
+     */
+    private LocalDate getNextBusinessDayInBrazil() {
+        LocalDate tomorrow = getDateInBrazil(1);
+        return tomorrow.getDayOfWeek() == DayOfWeek.SUNDAY ? tomorrow.plusDays(1) : tomorrow;
+    }
+
     /**
      * Helper method to convert UTC date to Brazil timezone
      * @param utcDate date in UTC
@@ -109,19 +145,16 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(true)));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mockPrestador(UserApi.Status.ativo, UserApi.Perfil.PROVEDOR)));
-        when(configuracaoHorarioRepository.findByDiaSemanaAndAtivoTrue(any())).thenReturn(Optional.of(mockConfiguracaoHorario()));
-        when(agendamentoRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(agendamentoRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         AgendamentoApi.AgendamentoResponse response = agendamentoService.criarAgendamento(request);
 
         // Assert
         assertThat(response).isNotNull();
-        verify(agendamentoRepository).save(any(Agendamento.class));
+        verify(agendamentoRepository).saveAndFlush(argThat(a -> Long.valueOf(1L).equals(a.getTutorId())));
         verify(eventPublisher).publishEvent(any(AgendamentoApi.AgendamentoCriadoEvent.class));
     }
 
@@ -137,7 +170,7 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.empty());
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacaoSemPet());
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -146,39 +179,115 @@ class AgendamentoServiceTest {
     }
 
     /**
-     * Test fetching appointments by user ID.
-     * Mocks the repository to return a list of appointments and verifies the result.
+     * Test fetching the first page of a user's history.
+     * The repository returns one extra row, which signals a next page and is not exposed.
      */
     @Test
     void shouldFetchAgendamentosByUsuario() {
         // Arrange
-        when(agendamentoRepository.findByUsuarioId(1L)).thenReturn(mockAgendamentos());
+        when(agendamentoRepository.findHistoricoPorUsuario(eq(1L), any(Limit.class)))
+                .thenReturn(historico(3));
 
         // Act
-        var agendamentos = agendamentoService.buscarAgendamentosPorUsuario(1L);
+        var pagina = agendamentoService.buscarAgendamentosPorUsuario(1L, null, 2);
 
         // Assert
-        assertThat(agendamentos).isNotEmpty();
-        verify(agendamentoRepository).findByUsuarioId(1L);
+        assertThat(pagina.itens()).hasSize(2);
+        assertThat(pagina.proximoCursor()).isNotNull();
+        verify(agendamentoRepository).findHistoricoPorUsuario(1L, Limit.of(3));
     }
 
     /**
-     * Test fetching appointments by pet ID.
-     * Mocks the repository to return a list of appointments and verifies the result.
+     * Test fetching the next page of a pet's history using the continuation token.
+     * The keyset query must start right after the last item of the previous page.
      */
     @Test
     void shouldFetchAgendamentosByPet() {
         // Arrange
-        when(agendamentoRepository.findByPetIdOrderByDataDescHoraInicioDesc(1L)).thenReturn(mockAgendamentos());
+        var historico = historico(2);
+        var ultimo = historico.get(1);
+        String cursor = CursorHistorico.de(ultimo).codificar();
+        when(agendamentoRepository.findHistoricoPorPetApos(eq(1L), any(), any(), any(), any(Limit.class)))
+                .thenReturn(historico(1));
+
+        // Act
+        var pagina = agendamentoService.buscarAgendamentosPorPet(1L, cursor, 20);
+
+        // Assert
+        assertThat(pagina.itens()).hasSize(1);
+        assertThat(pagina.proximoCursor()).isNull();
+        verify(agendamentoRepository).findHistoricoPorPetApos(
+                1L, ultimo.data(), ultimo.horaInicio(), ultimo.id(), Limit.of(21));
+    }
+
+    /**
+     * Test that the archive table is only read when the caller asks for old history.
+     */
+    @Test
+    void shouldOnlyQueryArchiveWhenRequested() {
+        // Arrange
+        when(agendamentoRepository.findHistoricoPorPet(eq(1L), any(Limit.class))).thenReturn(historico(1));
+        when(arquivoRepository.findHistoricoPorPet(eq(1L), any(Limit.class))).thenReturn(java.util.List.of());
+
+        // Act
+        agendamentoService.buscarAgendamentosPorPet(1L, null, 20);
+        var pagina = agendamentoService.buscarAgendamentosPorPet(1L, null, 20, true);
+
+        // Assert
+        assertThat(pagina.itens()).hasSize(1);
+        verify(arquivoRepository, times(1)).findHistoricoPorPet(1L, Limit.of(21));
+    }
+
+    /**
+     * Test that page size is capped regardless of what the client asks for.
+     */
+    @Test
+    void shouldCapPageSize() {
+        // Arrange
+        when(agendamentoRepository.findHistoricoPorPet(eq(1L), any(Limit.class))).thenReturn(java.util.List.of());
 
         // Act
-        var agendamentos = agendamentoService.buscarAgendamentosPorPet(1L);
+        agendamentoService.buscarAgendamentosPorPet(1L, null, 10_000);
 
         // Assert
-        assertThat(agendamentos).isNotEmpty();
-        verify(agendamentoRepository).findByPetIdOrderByDataDescHoraInicioDesc(1L);
+        verify(agendamentoRepository).findHistoricoPorPet(1L, Limit.of(AgendamentoService.TAMANHO_PAGINA_MAXIMO + 1));
+    }
+
+    /**
+     * Test that a tampered continuation token is rejected.
+     * Expects a CursorInvalidoException to be thrown.
+     */
+    @Test
+    void shouldRejectInvalidCursor() {
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.buscarAgendamentosPorPet(1L, "nao-e-um-cursor", 20))
+                .isInstanceOf(AgendamentoExceptionHandler.CursorInvalidoException.class);
+        verifyNoInteractions(agendamentoRepository);
     }
 
+    /**
+     * Test that the export stream reads batches lazily until a short batch is returned.
+     */
+    @Test
+    void shouldExportHistoryInBatches() {
+        // Arrange
+        when(agendamentoRepository.findHistoricoPorUsuario(eq(1L), any(Limit.class))).thenReturn(historico(500));
+        when(agendamentoRepository.findHistoricoPorUsuarioApos(eq(1L), any(), any(), any(), any(Limit.class)))
+                .thenReturn(historico(2));
+
+        // Act
+        var stream = agendamentoService.exportarAgendamentosPorUsuario(1L);
+
+        // Assert - nada é lido antes do consumo além do primeiro lote
+        verify(agendamentoRepository, never()).findHistoricoPorUsuarioApos(any(), any(), any(), any(), any());
+        assertThat(stream.count()).isEqualTo(502);
+        verify(agendamentoRepository, times(1)).findHistoricoPorUsuarioApos(any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test creating an appointment when the slot is already taken.
+     * Expects the duplicate-key violation to become a HorarioIndisponivelException.
+     */
     @Test
     void shouldThrowExceptionWhenHorarioIndisponivel() {
         // Arrange
@@ -188,19 +297,180 @@ class AgendamentoServiceTest {
         );
 
         // Set up mocks
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(true)));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mockPrestador(UserApi.Status.ativo, UserApi.Perfil.PROVEDOR)));
-        when(configuracaoHorarioRepository.findByDiaSemanaAndAtivoTrue(any())).thenReturn(Optional.of(mockConfiguracaoHorario()));
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+
+        // O conflito é detectado pela unique key no insert, sem consulta prévia
+        when(agendamentoRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new RuntimeException("Duplicate entry for key 'agendamentos.uk_prestador_data_hora'")));
 
-        when(agendamentoRepository.findByPrestadorIdAndDataAndHoraInicio(3L, request.data(), request.horaInicio()))
-                .thenReturn(Optional.of(mockAgendamento()));
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class)
+                .hasMessageContaining("Horário indisponível para o prestador");
+    }
+
+    /**
+     * Test rejecting an appointment straight from the occupancy index.
+     * The conflict lookup in the database must not be issued.
+     */
+    @Test
+    void shouldRejectFromIndiceOcupacaoWithoutQueryingConflict() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getNextBusinessDayInBrazil();
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(indiceOcupacao.isHabilitado()).thenReturn(true);
+        when(indiceOcupacao.temSobreposicao(3L, request.data(), request.horaInicio(), LocalTime.of(11, 0))).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Test that a provider with capacity books through the slot inventory.
+     * The conditional update replaces the locked overlap read, and the occupancy index is not consulted.
+     */
+    @Test
+    void shouldBookThroughInventoryForProvidersWithCapacity() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getNextBusinessDayInBrazil();
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(indiceOcupacao.isHabilitado()).thenReturn(true);
+        when(indiceOcupacao.temSobreposicao(any(), any(), any(), any())).thenReturn(true);
+        when(inventarioSlotsService.usaInventario(3L)).thenReturn(true);
+        when(inventarioSlotsService.reservar(3L, tomorrowInBrazil, LocalTime.of(10, 0), LocalTime.of(11, 0))).thenReturn(true);
+        when(agendamentoRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        agendamentoService.criarAgendamento(request);
+
+        // Assert
+        verify(agendamentoRepository).saveAndFlush(argThat(a -> a.isInventario() && a.getSlotAtivo() == null));
+        verify(agendamentoRepository, never()).findIdsSobrepostos(any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test that a full inventory hour is reported as unavailable before anything is inserted.
+     */
+    @Test
+    void shouldRejectWhenInventoryIsFull() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getNextBusinessDayInBrazil();
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(inventarioSlotsService.usaInventario(3L)).thenReturn(true);
+        when(inventarioSlotsService.reservar(any(), any(), any(), any())).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
                 .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class)
                 .hasMessageContaining("Horário indisponível para o prestador");
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Test that the appointment end time follows the service duration.
+     */
+    @Test
+    void shouldUseServiceDurationForHoraFim() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getNextBusinessDayInBrazil();
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(1L, UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR, 180));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(agendamentoRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        AgendamentoApi.AgendamentoResponse response = agendamentoService.criarAgendamento(request);
+
+        // Assert
+        assertThat(response.horaFim()).isEqualTo(LocalTime.of(13, 0));
+        verify(agendamentoRepository).findIdsSobrepostos(3L, tomorrowInBrazil, LocalTime.of(10, 0), LocalTime.of(13, 0), null);
+    }
+
+    /**
+     * Test creating an appointment whose service would end after closing time.
+     * Expects a HorarioForaComercialException to be thrown.
+     */
+    @Test
+    void shouldThrowExceptionWhenServicoTerminaAposFechamento() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getNextBusinessDayInBrazil();
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(16, 0) // 16:00 + 3h > 18:00
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(1L, UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR, 180));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioForaComercialException.class)
+                .hasMessageContaining("após o fechamento (18:00)");
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Test that an overlap found by the locked range check after the insert is reported as a conflict.
+     * Expects a HorarioIndisponivelException and the index entry to be invalidated.
+     */
+    @Test
+    void shouldRejectWhenRangeCheckFindsOverlap() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getNextBusinessDayInBrazil();
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(agendamentoRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(agendamentoRepository.findIdsSobrepostos(any(), any(), any(), any(), any())).thenReturn(java.util.List.of(99L));
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+        verify(indiceOcupacao).invalidar(3L, tomorrowInBrazil);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Test cancelling an appointment.
+     * Expects the status to change and a status-change event to be published.
+     */
+    @Test
+    void shouldCancelAgendamento() {
+        // Arrange
+        Agendamento agendamento = mockAgendamento();
+        agendamento.setStatus(AgendamentoApi.Status.AGENDADO);
+        when(agendamentoRepository.findById(1L)).thenReturn(Optional.of(agendamento));
+
+        // Act
+        var response = agendamentoService.cancelarAgendamento(1L);
+
+        // Assert
+        assertThat(response.status()).isEqualTo(AgendamentoApi.Status.CANCELADO);
+        verify(eventPublisher).publishEvent(any(AgendamentoApi.AgendamentoStatusAlteradoEvent.class));
     }
 
     /**
@@ -215,8 +485,7 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.inativo)));
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.inativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -236,9 +505,7 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(false)));
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, false, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -258,12 +525,8 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(20, 0) // Horário fora do comercial
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(true)));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mockPrestador(UserApi.Status.ativo, UserApi.Perfil.PROVEDOR)));
-        when(configuracaoHorarioRepository.findByDiaSemanaAndAtivoTrue(any()))
-                .thenReturn(Optional.of(mockConfiguracaoHorario())); // Mock horário comercial: 08:00 - 18:00
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial()); // Mock horário comercial: 08:00 - 18:00
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -271,6 +534,31 @@ class AgendamentoServiceTest {
                 .hasMessageContaining("Horário fora do horário comercial (08:00 - 18:00)");
     }
 
+    /**
+     * Test creating an appointment on a weekday disabled in the business hours snapshot.
+     * Expects a DiaIndisponivelException to be thrown.
+     */
+    @Test
+    void shouldThrowExceptionWhenDiaDesativadoNoHorarioComercial() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getDateInBrazil(1);
+        if (tomorrowInBrazil.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            tomorrowInBrazil = tomorrowInBrazil.plusDays(1);
+        }
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(HorarioComercial.of(1L, List.of())); // Nenhum dia ativo
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.DiaIndisponivelException.class)
+                .hasMessageContaining("não configurado para funcionamento");
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
     /**
      * Test creating an appointment when the user is not a service provider.
      * Expects a PrestadorNaoEncontradoException to be thrown.
@@ -283,10 +571,7 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(true)));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mockPrestador(UserApi.Status.ativo, UserApi.Perfil.CLIENTE))); // Perfil não é PROVEDOR
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.CLIENTE)); // Perfil não é PROVEDOR
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -306,10 +591,7 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(true)));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mockPrestador(UserApi.Status.inativo, UserApi.Perfil.PROVEDOR))); // Prestador inativo
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.inativo, UserApi.Perfil.PROVEDOR)); // Prestador inativo
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -329,10 +611,7 @@ class AgendamentoServiceTest {
                 1L, 2L, 3L, yesterdayInBrazil, LocalTime.of(10, 0) // Data no passado
         );
 
-        when(petRepository.findById(1L)).thenReturn(Optional.of(mockPet()));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser(UserApi.Status.ativo)));
-        when(servicoRepository.findById(2L)).thenReturn(Optional.of(mockServico(true)));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(mockPrestador(UserApi.Status.ativo, UserApi.Perfil.PROVEDOR)));
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
 
         // Act & Assert
         assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
@@ -368,6 +647,106 @@ class AgendamentoServiceTest {
                 .isEqualTo(-3 * 3600); // GMT-3 in seconds
     }
 
+    /**
+     * Test confirming a slot hold: the booking is saved from the hold without
+     * re-reading pet, service and provider, and the hold is released.
+     */
+    @Test
+    void shouldConfirmHoldWithoutRevalidating() {
+        // Arrange
+        ReservasTemporarias.Reserva reserva = new ReservasTemporarias.Reserva("r1", 1L, 2L, 3L, 4L,
+                getDateInBrazil(1), LocalTime.of(10, 0), LocalTime.of(11, 0), Instant.now().plusSeconds(300));
+        when(reservasTemporarias.buscar(eq("r1"), any())).thenReturn(reserva);
+        when(agendamentoRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        AgendamentoApi.AgendamentoResponse response = agendamentoService.confirmarReserva("r1");
+
+        // Assert
+        assertThat(response.horaFim()).isEqualTo(LocalTime.of(11, 0));
+        verify(agendamentoRepository, never()).findValidacao(any(), any(), any());
+        verify(configuracaoHorarioService, never()).snapshot();
+        verify(agendamentoRepository).saveAndFlush(argThat(a -> Long.valueOf(4L).equals(a.getTutorId())));
+        verify(reservasTemporarias).converter(reserva);
+    }
+
+    /**
+     * Test rejecting a booking for a slot held by another customer.
+     */
+    @Test
+    void shouldRejectSlotHeldByAnotherCustomer() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getDateInBrazil(1);
+        if (tomorrowInBrazil.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            tomorrowInBrazil = tomorrowInBrazil.plusDays(1);
+        }
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(reservasTemporarias.temSobreposicao(eq(3L), any(), any(), any(), isNull(), any())).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldRejectClosedDate() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getDateInBrazil(1);
+        if (tomorrowInBrazil.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            tomorrowInBrazil = tomorrowInBrazil.plusDays(1);
+        }
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(10, 0)
+        );
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR));
+        when(configuracaoHorarioService.snapshot()).thenReturn(mockHorarioComercial());
+        when(calendarioFechamentoService.fechado(3L, tomorrowInBrazil)).thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.DiaIndisponivelException.class)
+                .hasMessageContaining("fechada");
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
+    /**
+     * Test that a service running into the provider's own lunch break is rejected,
+     * even though the global business hours would allow it.
+     */
+    @Test
+    void shouldRejectBookingDuringProviderLunchBreak() {
+        // Arrange
+        LocalDate tomorrowInBrazil = getDateInBrazil(1);
+        if (tomorrowInBrazil.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            tomorrowInBrazil = tomorrowInBrazil.plusDays(1);
+        }
+        HorarioPrestador jornada = new HorarioPrestador();
+        jornada.setPrestadorId(3L);
+        jornada.setDiaSemana(tomorrowInBrazil.getDayOfWeek());
+        jornada.setHoraAbertura(LocalTime.of(8, 0));
+        jornada.setHoraFechamento(LocalTime.of(18, 0));
+        jornada.setIntervaloInicio(LocalTime.of(12, 0));
+        jornada.setIntervaloFim(LocalTime.of(13, 0));
+        jornada.setAtivo(true);
+        AgendamentoApi.CreateAgendamentoRequest request = new AgendamentoApi.CreateAgendamentoRequest(
+                1L, 2L, 3L, tomorrowInBrazil, LocalTime.of(11, 0) // 11:00 + 90min invade o almoço
+        );
+        when(agendamentoRepository.findValidacao(1L, 2L, 3L)).thenReturn(mockValidacao(1L, UserApi.Status.ativo, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR, 90));
+        when(configuracaoHorarioService.snapshot()).thenReturn(
+                HorarioComercial.of(1L, mockHorarioComercialConfigs(), List.of(jornada)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioForaComercialException.class)
+                .hasMessageContaining("intervalo do prestador");
+        verify(agendamentoRepository, never()).saveAndFlush(any());
+    }
+
     // Mock helpers
     private Agendamento mockAgendamento() {
         Agendamento agendamento = new Agendamento();
@@ -378,38 +757,61 @@ class AgendamentoServiceTest {
         return agendamento;
     }
 
-    private java.util.List<Agendamento> mockAgendamentos() {
-        return java.util.List.of(mockAgendamento());
+    private java.util.List<AgendamentoApi.AgendamentoResponse> historico(int quantidade) {
+        java.util.List<AgendamentoApi.AgendamentoResponse> agendamentos = new ArrayList<>(quantidade);
+        LocalDate data = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < quantidade; i++) {
+            agendamentos.add(new AgendamentoApi.AgendamentoResponse((long) (quantidade - i), 1L, 2L, 3L,
+                    data.minusDays(i), LocalTime.of(10, 0), LocalTime.of(11, 0), AgendamentoApi.Status.AGENDADO, null));
+        }
+        return agendamentos;
+    }
+
+    private ValidacaoAgendamento mockValidacao(UserApi.Status statusTutor, Boolean servicoAtivo,
+                                               UserApi.Status statusPrestador, UserApi.Perfil perfilPrestador) {
+        return mockValidacao(1L, statusTutor, servicoAtivo, statusPrestador, perfilPrestador);
     }
 
-    private User mockUser(UserApi.Status status) {
-        User user = new User();
-        user.setStatus(status);
-        return user;
+    private ValidacaoAgendamento mockValidacaoSemPet() {
+        return mockValidacao(null, null, true, UserApi.Status.ativo, UserApi.Perfil.PROVEDOR);
     }
 
-    private User mockPrestador(UserApi.Status status, UserApi.Perfil perfil) {
-        User user = mockUser(status);
-        user.setPerfil(perfil);
-        return user;
+    private ValidacaoAgendamento mockValidacao(Long tutorId, UserApi.Status statusTutor, Boolean servicoAtivo,
+                                               UserApi.Status statusPrestador, UserApi.Perfil perfilPrestador) {
+        return mockValidacao(tutorId, statusTutor, servicoAtivo, statusPrestador, perfilPrestador, 60);
     }
 
-    private OfferedService mockServico(boolean ativo) {
-        OfferedService servico = new OfferedService();
-        servico.setAtivo(ativo);
-        return servico;
+    private ValidacaoAgendamento mockValidacao(Long tutorId, UserApi.Status statusTutor, Boolean servicoAtivo,
+                                               UserApi.Status statusPrestador, UserApi.Perfil perfilPrestador,
+                                               Integer duracaoServico) {
+        // Implementação direta (sem Mockito) para poder ser criada dentro de um thenReturn(...)
+        return new ValidacaoAgendamento() {
+            @Override public Long getTutorId() { return tutorId; }
+            @Override public UserApi.Status getStatusTutor() { return statusTutor; }
+            @Override public Boolean getServicoAtivo() { return servicoAtivo; }
+            @Override public UserApi.Status getStatusPrestador() { return statusPrestador; }
+            @Override public UserApi.Perfil getPerfilPrestador() { return perfilPrestador; }
+            @Override public Integer getDuracaoServico() { return duracaoServico; }
+        };
     }
 
-    private ConfiguracaoHorario mockConfiguracaoHorario() {
-        ConfiguracaoHorario config = new ConfiguracaoHorario();
-        config.setHoraAbertura(LocalTime.of(8, 0));
-        config.setHoraFechamento(LocalTime.of(18, 0));
-        return config;
+    private HorarioComercial mockHorarioComercial() {
+        return HorarioComercial.of(1L, mockHorarioComercialConfigs());
     }
 
-    private Pet mockPet() {
-        Pet pet = new Pet();
-        pet.setUsuarioId(1L);
-        return pet;
+    private List<ConfiguracaoHorario> mockHorarioComercialConfigs() {
+        List<ConfiguracaoHorario> configs = new ArrayList<>();
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if (dia == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            ConfiguracaoHorario config = new ConfiguracaoHorario();
+            config.setDiaSemana(dia);
+            config.setHoraAbertura(LocalTime.of(8, 0));
+            config.setHoraFechamento(LocalTime.of(18, 0));
+            config.setAtivo(true);
+            configs.add(config);
+        }
+        return configs;
     }
 }
\ No newline at end of file
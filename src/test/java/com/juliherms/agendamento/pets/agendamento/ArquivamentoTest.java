@@ -0,0 +1,140 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoArquivoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ArquivamentoService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the appointment archiver and the opt-in archive union on history reads.
+ * A small batch size forces the archiver through several transactions.
+ */
+@SpringBootTest(properties = {
+        "agendamento.arquivo.tamanho-lote=3",
+        "agendamento.arquivo.pausa-ms=0"
+})
+class ArquivamentoTest {
+
+    @Autowired
+    private ArquivamentoService arquivamentoService;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private AgendamentoArquivoRepository arquivoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long tutorId;
+    private Long petId;
+    private Long prestadorId;
+    private Long servicoId;
+    private LocalDate dataLimite;
+    private final Map<Long, LocalDate> datas = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        petId = AgendamentoFixtures.pet(petRepository, tutorId).getId();
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        dataLimite = LocalDate.now(ZoneId.of("America/Recife")).minusDays(365);
+    }
+
+    @Test
+    void shouldMoveOnlyOldClosedAppointmentsAndKeepThemInHistoryOnRequest() {
+        List<Long> antigosEncerrados = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            antigosEncerrados.add(criar(dataLimite.minusDays(30 + i), AgendamentoApi.Status.CONCLUIDO));
+        }
+        antigosEncerrados.add(criar(dataLimite.minusDays(40), AgendamentoApi.Status.CANCELADO));
+        antigosEncerrados.add(criar(dataLimite.minusDays(40), AgendamentoApi.Status.CANCELADO));
+        Long antigoAberto = criar(dataLimite.minusDays(50), AgendamentoApi.Status.AGENDADO);
+        Long recente = criar(dataLimite.plusDays(200), AgendamentoApi.Status.CONCLUIDO);
+
+        int movidos = arquivamentoService.executar(dataLimite);
+
+        assertThat(movidos).isGreaterThanOrEqualTo(antigosEncerrados.size());
+        assertThat(agendamentoRepository.findAllById(antigosEncerrados)).isEmpty();
+        assertThat(arquivoRepository.findAllById(antigosEncerrados)).hasSameSizeAs(antigosEncerrados);
+        assertThat(agendamentoRepository.findAllById(List.of(antigoAberto, recente))).hasSize(2);
+
+        // Sem o arquivo, o histórico mostra apenas o que ficou na tabela quente
+        assertThat(agendamentoService.buscarAgendamentosPorPet(petId, null, 20).itens())
+                .extracting(AgendamentoApi.AgendamentoResponse::id)
+                .containsExactly(recente, antigoAberto);
+
+        // Com o arquivo, as páginas percorrem as duas tabelas na ordem do histórico
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            var pagina = agendamentoService.buscarAgendamentosPorUsuario(tutorId, cursor, 2, true);
+            pagina.itens().forEach(item -> lidos.add(item.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        List<Long> todos = new ArrayList<>(antigosEncerrados);
+        todos.add(antigoAberto);
+        todos.add(recente);
+        assertThat(lidos).containsExactlyElementsOf(ordemHistorico(todos));
+        assertThat(agendamentoService.exportarAgendamentosPorPet(petId, true)
+                .map(AgendamentoApi.AgendamentoResponse::id)
+                .toList()).containsExactlyElementsOf(lidos);
+    }
+
+    private Long criar(LocalDate data, AgendamentoApi.Status status) {
+        Agendamento agendamento = new Agendamento();
+        agendamento.setPetId(petId);
+        agendamento.setServicoId(servicoId);
+        agendamento.setPrestadorId(prestadorId);
+        agendamento.setTutorId(tutorId);
+        agendamento.setData(data);
+        agendamento.setHoraInicio(LocalTime.of(10, 0));
+        agendamento.setHoraFim(LocalTime.of(11, 0));
+        agendamento.setStatus(status);
+        Long id = agendamentoRepository.save(agendamento).getId();
+        datas.put(id, data);
+        return id;
+    }
+
+    private List<Long> ordemHistorico(List<Long> ids) {
+        // Todos no mesmo horário: ordem por data e id decrescentes
+        return ids.stream()
+                .sorted(Comparator.comparing((Long id) -> datas.get(id))
+                        .thenComparing(Comparator.naturalOrder())
+                        .reversed())
+                .toList();
+    }
+}
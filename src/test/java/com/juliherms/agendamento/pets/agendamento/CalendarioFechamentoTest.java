@@ -0,0 +1,64 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CalendarioFechamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.DataFechada;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CalendarioFechamento.
+ * Verifies global and per-provider lookups, copy-on-write changes and content comparison.
+ */
+class CalendarioFechamentoTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+    private static final LocalDate NATAL = LocalDate.of(2030, 12, 25);
+    private static final LocalDate FOLGA = LocalDate.of(2030, 3, 4);
+
+    @Test
+    void shouldCloseGlobalDatesForEveryProvider() {
+        var calendario = CalendarioFechamento.of(1L, BASE, List.of(dataFechada(null, NATAL), dataFechada(7L, FOLGA)));
+
+        assertThat(calendario.fechado(NATAL)).isTrue();
+        assertThat(calendario.fechado(7L, NATAL)).isTrue();
+        assertThat(calendario.fechado(8L, NATAL)).isTrue();
+        assertThat(calendario.fechado(FOLGA)).isFalse();
+        assertThat(calendario.fechado(7L, FOLGA)).isTrue();
+        assertThat(calendario.fechado(8L, FOLGA)).isFalse();
+        assertThat(calendario.fechado(7L, FOLGA.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void shouldTreatDatesBeforeTheBaseAsOpen() {
+        var calendario = CalendarioFechamento.of(1L, BASE, List.of(dataFechada(null, BASE.minusDays(1))));
+
+        assertThat(calendario.fechado(BASE.minusDays(1))).isFalse();
+        assertThat(calendario.alterar(null, BASE.minusDays(3), true, 2L)).isSameAs(calendario);
+    }
+
+    @Test
+    void shouldCopyOnWriteWithoutTouchingThePreviousSnapshot() {
+        var original = CalendarioFechamento.of(1L, BASE, List.of());
+
+        var fechado = original.alterar(7L, FOLGA, true, 2L);
+        var reaberto = fechado.alterar(7L, FOLGA, false, 3L);
+
+        assertThat(original.fechado(7L, FOLGA)).isFalse();
+        assertThat(fechado.fechado(7L, FOLGA)).isTrue();
+        assertThat(fechado.versao()).isEqualTo(2L);
+        assertThat(reaberto.fechado(7L, FOLGA)).isFalse();
+        assertThat(reaberto.mesmoConteudo(original)).isTrue();
+        assertThat(fechado.mesmoConteudo(original)).isFalse();
+    }
+
+    private DataFechada dataFechada(Long prestadorId, LocalDate data) {
+        DataFechada dataFechada = new DataFechada();
+        dataFechada.setPrestadorId(prestadorId);
+        dataFechada.setData(data);
+        return dataFechada;
+    }
+}
@@ -0,0 +1,193 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.ConfiguracaoHorario;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioPrestador;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ConfiguracaoHorarioRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.HorarioPrestadorRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ConfiguracaoHorarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConfiguracaoHorarioService.
+ * Verifies the in-memory business hours snapshot and its version-based refresh.
+ */
+class ConfiguracaoHorarioServiceTest {
+
+    @Mock
+    private ConfiguracaoHorarioRepository configuracaoHorarioRepository;
+
+    @Mock
+    private HorarioPrestadorRepository horarioPrestadorRepository;
+
+    @InjectMocks
+    private ConfiguracaoHorarioService configuracaoHorarioService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(configuracaoHorarioRepository.versaoAgregada()).thenReturn(6L);
+        when(configuracaoHorarioRepository.findByAtivoTrueOrderByDiaSemana())
+                .thenReturn(List.of(config(DayOfWeek.MONDAY, 9, 18)));
+    }
+
+    /**
+     * The snapshot is loaded once and then served from memory.
+     */
+    @Test
+    void shouldServeSnapshotFromMemory() {
+        // Act
+        HorarioComercial primeiro = configuracaoHorarioService.snapshot();
+        HorarioComercial segundo = configuracaoHorarioService.snapshot();
+
+        // Assert
+        assertThat(segundo).isSameAs(primeiro);
+        assertThat(primeiro.versao()).isEqualTo(6L);
+        assertThat(primeiro.funciona(DayOfWeek.MONDAY)).isTrue();
+        assertThat(primeiro.funciona(DayOfWeek.TUESDAY)).isFalse();
+        assertThat(primeiro.mascara(DayOfWeek.MONDAY)).isEqualTo(0b111111111 << 9);
+        verify(configuracaoHorarioRepository, times(1)).findByAtivoTrueOrderByDiaSemana();
+    }
+
+    /**
+     * Synchronization reloads only when the aggregated version changed.
+     */
+    @Test
+    void shouldReloadOnlyWhenVersionChanges() {
+        // Arrange
+        HorarioComercial inicial = configuracaoHorarioService.snapshot();
+
+        // Act - mesma versão
+        configuracaoHorarioService.sincronizar();
+
+        // Assert
+        assertThat(configuracaoHorarioService.snapshot()).isSameAs(inicial);
+
+        // Act - outro nó alterou a tabela
+        when(configuracaoHorarioRepository.versaoAgregada()).thenReturn(7L);
+        when(configuracaoHorarioRepository.findByAtivoTrueOrderByDiaSemana())
+                .thenReturn(List.of(config(DayOfWeek.MONDAY, 10, 16)));
+        configuracaoHorarioService.sincronizar();
+
+        // Assert
+        HorarioComercial atualizado = configuracaoHorarioService.snapshot();
+        assertThat(atualizado.versao()).isEqualTo(7L);
+        assertThat(atualizado.abertura(DayOfWeek.MONDAY)).isEqualTo(LocalTime.of(10, 0));
+    }
+
+    /**
+     * Updating a day persists it and publishes a fresh snapshot immediately.
+     */
+    @Test
+    void shouldPublishNewSnapshotAfterUpdate() {
+        // Arrange
+        when(configuracaoHorarioRepository.findByDiaSemana(DayOfWeek.SATURDAY)).thenReturn(Optional.empty());
+        when(configuracaoHorarioRepository.versaoAgregada()).thenReturn(8L);
+
+        // Act
+        HorarioComercial atualizado = configuracaoHorarioService.atualizarHorario(
+                DayOfWeek.SATURDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true);
+
+        // Assert
+        verify(configuracaoHorarioRepository).save(any(ConfiguracaoHorario.class));
+        assertThat(atualizado.versao()).isEqualTo(8L);
+        assertThat(configuracaoHorarioService.snapshot()).isSameAs(atualizado);
+    }
+
+    /**
+     * Opening time must precede closing time.
+     */
+    @Test
+    void shouldRejectInvertedBusinessHours() {
+        // Act & Assert
+        assertThatThrownBy(() -> configuracaoHorarioService.atualizarHorario(
+                DayOfWeek.MONDAY, LocalTime.of(18, 0), LocalTime.of(9, 0), true))
+                .isInstanceOf(AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException.class);
+        verify(configuracaoHorarioRepository, never()).save(any());
+    }
+
+    /**
+     * Business hours are stored as half-hour masks, so off-grid times (e.g. closing at 18:15)
+     * are rejected instead of being rounded.
+     */
+    @Test
+    void shouldRejectBusinessHoursOffTheHalfHourGrid() {
+        // Act & Assert
+        assertThatThrownBy(() -> configuracaoHorarioService.atualizarHorario(
+                DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(18, 15), true))
+                .isInstanceOf(AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException.class);
+        assertThatThrownBy(() -> configuracaoHorarioService.atualizarHorario(
+                DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(23, 45), true))
+                .isInstanceOf(AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException.class);
+        verify(configuracaoHorarioRepository, never()).save(any());
+    }
+
+    /**
+     * Provider templates are encoded as half-hour masks with the lunch break removed;
+     * providers without a template keep the global hours.
+     */
+    @Test
+    void shouldEncodeProviderTemplateAsHalfHourMask() {
+        // Arrange
+        HorarioPrestador segunda = new HorarioPrestador();
+        segunda.setPrestadorId(7L);
+        segunda.setDiaSemana(DayOfWeek.MONDAY);
+        segunda.setHoraAbertura(LocalTime.of(8, 30));
+        segunda.setHoraFechamento(LocalTime.of(14, 0));
+        segunda.setIntervaloInicio(LocalTime.of(12, 0));
+        segunda.setIntervaloFim(LocalTime.of(13, 0));
+        when(horarioPrestadorRepository.findAll()).thenReturn(List.of(segunda));
+
+        // Act
+        HorarioComercial snapshot = configuracaoHorarioService.snapshot();
+
+        // Assert - 08:30-12:00 = bits 17..23; 13:00-14:00 = bits 26..27
+        long esperado = (0b1111111L << 17) | (0b11L << 26);
+        assertThat(snapshot.meiasHoras(7L, DayOfWeek.MONDAY)).isEqualTo(esperado);
+        assertThat(snapshot.meiasHoras(7L, DayOfWeek.TUESDAY)).isZero();
+        assertThat(snapshot.meiasHoras(8L, DayOfWeek.MONDAY)).isEqualTo(0x3FFFFL << 18);
+        assertThat(snapshot.temJornada(7L)).isTrue();
+        assertThat(snapshot.temJornada(8L)).isFalse();
+    }
+
+    /**
+     * Template times must fall on half hours and the break must sit inside the working hours.
+     */
+    @Test
+    void shouldRejectInvalidProviderTemplate() {
+        // Act & Assert
+        assertThatThrownBy(() -> configuracaoHorarioService.atualizarJornada(7L, List.of(
+                new AgendamentoApi.JornadaDiaRequest(DayOfWeek.MONDAY, LocalTime.of(9, 15), LocalTime.of(14, 0), null, null))))
+                .isInstanceOf(AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException.class);
+        assertThatThrownBy(() -> configuracaoHorarioService.atualizarJornada(7L, List.of(
+                new AgendamentoApi.JornadaDiaRequest(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(14, 0),
+                        LocalTime.of(13, 0), LocalTime.of(15, 0)))))
+                .isInstanceOf(AgendamentoExceptionHandler.ConfiguracaoHorarioInvalidaException.class);
+        verify(horarioPrestadorRepository, never()).save(any());
+    }
+
+    private ConfiguracaoHorario config(DayOfWeek dia, int abertura, int fechamento) {
+        ConfiguracaoHorario config = new ConfiguracaoHorario();
+        config.setDiaSemana(dia);
+        config.setHoraAbertura(LocalTime.of(abertura, 0));
+        config.setHoraFechamento(LocalTime.of(fechamento, 0));
+        config.setAtivo(true);
+        return config;
+    }
+}
@@ -0,0 +1,116 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.DisponibilidadeService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for the multi-provider free-slot search: 14 days across 200 providers.
+ * Disabled by default; run with {@code ./mvnw test -Dtest=DisponibilidadeBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DisponibilidadeBenchmarkTest {
+
+    private static final int PRESTADORES = 200;
+    private static final int DIAS = 14;
+    private static final double OCUPACAO = 0.4;
+    private static final int AQUECIMENTO = 20;
+    private static final int MEDICOES = 100;
+
+    @Autowired
+    private DisponibilidadeService disponibilidadeService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    @Test
+    void shouldAnswerFourteenDaySearchAcrossTwoHundredProvidersUnder100ms() {
+        agendamentoRepository.deleteAllInBatch();
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        var pet = AgendamentoFixtures.pet(petRepository, tutor.getId());
+        List<Long> prestadores = AgendamentoFixtures.prestadores(userRepository, PRESTADORES);
+        var servico = AgendamentoFixtures.servico(servicoRepository, prestadores.get(0));
+
+        LocalDate inicio = LocalDate.now().plusDays(1);
+        LocalDate fim = inicio.plusDays(DIAS - 1);
+        popularOcupacao(pet.getId(), servico.getId(), prestadores, inicio);
+
+        var filtro = new HashSet<>(prestadores);
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            disponibilidadeService.buscarHorariosLivres(servico.getId(), inicio, fim, filtro);
+        }
+
+        long[] tempos = new long[MEDICOES];
+        int resultados = 0;
+        for (int i = 0; i < MEDICOES; i++) {
+            long t0 = System.nanoTime();
+            resultados = disponibilidadeService.buscarHorariosLivres(servico.getId(), inicio, fim, filtro).size();
+            tempos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(tempos);
+        long p50 = TimeUnit.NANOSECONDS.toMillis(tempos[MEDICOES / 2]);
+        long p99 = TimeUnit.NANOSECONDS.toMillis(tempos[(int) (MEDICOES * 0.99) - 1]);
+
+        System.out.printf("[BENCHMARK] disponibilidade %d prestadores x %d dias: p50=%d ms, p99=%d ms, %d resultados%n",
+                PRESTADORES, DIAS, p50, p99, resultados);
+
+        assertThat(resultados).isPositive();
+        assertThat(p50).isLessThan(100);
+    }
+
+    private void popularOcupacao(Long petId, Long servicoId, List<Long> prestadores, LocalDate inicio) {
+        Random random = new Random(42);
+        List<Agendamento> lote = new ArrayList<>();
+        for (Long prestadorId : prestadores) {
+            for (int d = 0; d < DIAS; d++) {
+                for (int hora = 9; hora < 18; hora++) {
+                    if (random.nextDouble() >= OCUPACAO) {
+                        continue;
+                    }
+                    Agendamento agendamento = new Agendamento();
+                    agendamento.setPetId(petId);
+                    agendamento.setServicoId(servicoId);
+                    agendamento.setPrestadorId(prestadorId);
+                    agendamento.setData(inicio.plusDays(d));
+                    agendamento.setHoraInicio(LocalTime.of(hora, 0));
+                    agendamento.setHoraFim(LocalTime.of(hora + 1, 0));
+                    lote.add(agendamento);
+                }
+            }
+            if (lote.size() >= 1000) {
+                agendamentoRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        agendamentoRepository.saveAll(lote);
+    }
+}
@@ -0,0 +1,267 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.CalendarioFechamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.ConfiguracaoHorario;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.DataFechada;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioComercial;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.HorarioPrestador;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.HoraLotada;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado;
+import com.juliherms.agendamento.pets.agendamento.internal.service.CalendarioFechamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ConfiguracaoHorarioService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.DisponibilidadeService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceSeries;
+import com.juliherms.agendamento.pets.agendamento.internal.service.InventarioSlotsService;
+import com.juliherms.agendamento.pets.services.internal.domain.OfferedService;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DisponibilidadeService.
+ * Verifies that free slots are computed in memory from a single occupancy query.
+ */
+class DisponibilidadeServiceTest {
+
+    private static final LocalDate SEGUNDA = LocalDate.now().plusWeeks(2).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+    @Mock
+    private AgendamentoRepository agendamentoRepository;
+
+    @Mock
+    private ConfiguracaoHorarioService configuracaoHorarioService;
+
+    @Mock
+    private CalendarioFechamentoService calendarioFechamentoService;
+
+    @Mock
+    private OfferedServiceRepository servicoRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IndiceSeries indiceSeries;
+
+    @Mock
+    private InventarioSlotsService inventarioSlotsService;
+
+    private DisponibilidadeService disponibilidadeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        disponibilidadeService = new DisponibilidadeService(agendamentoRepository, configuracaoHorarioService,
+                calendarioFechamentoService, servicoRepository, userRepository, indiceSeries, inventarioSlotsService,
+                60, 7);
+        OfferedService servico = new OfferedService();
+        servico.setAtivo(true);
+        when(servicoRepository.findById(2L)).thenReturn(Optional.of(servico));
+        when(configuracaoHorarioService.snapshot()).thenReturn(expediente());
+        when(calendarioFechamentoService.snapshot()).thenReturn(CalendarioFechamento.VAZIO);
+        when(userRepository.findIdsByPerfilAndStatus(UserApi.Perfil.PROVEDOR, UserApi.Status.ativo))
+                .thenReturn(List.of(3L, 4L));
+    }
+
+    @Test
+    void shouldSubtractOccupiedSlotsFromBusinessHours() {
+        when(agendamentoRepository.findSlotsOcupados(SEGUNDA, SEGUNDA))
+                .thenReturn(List.of(new SlotOcupado(3L, SEGUNDA, LocalTime.of(10, 0), LocalTime.of(11, 0))));
+
+        var livres = disponibilidadeService.buscarHorariosLivres(2L, SEGUNDA, SEGUNDA, null);
+
+        assertThat(livres).hasSize(2);
+        AgendamentoApi.HorariosLivresResponse prestador3 = livres.get(0);
+        assertThat(prestador3.prestadorId()).isEqualTo(3L);
+        assertThat(prestador3.horarios()).hasSize(8).doesNotContain(LocalTime.of(10, 0));
+        assertThat(prestador3.horarios()).first().isEqualTo(LocalTime.of(9, 0));
+        assertThat(prestador3.horarios()).last().isEqualTo(LocalTime.of(17, 0));
+        assertThat(livres.get(1).horarios()).hasSize(9);
+    }
+
+    @Test
+    void shouldOnlyOfferStartsWhereTheWholeServiceFits() {
+        OfferedService tosaCompleta = new OfferedService();
+        tosaCompleta.setAtivo(true);
+        tosaCompleta.setDuracaoMinutos(180);
+        when(servicoRepository.findById(5L)).thenReturn(Optional.of(tosaCompleta));
+        when(agendamentoRepository.findSlotsOcupados(SEGUNDA, SEGUNDA))
+                .thenReturn(List.of(new SlotOcupado(3L, SEGUNDA, LocalTime.of(10, 0), LocalTime.of(11, 0))));
+
+        var livres = disponibilidadeService.buscarHorariosLivres(5L, SEGUNDA, SEGUNDA, null);
+
+        // 3h até o fechamento (18:00): último início 15:00; 09:00 e 10:00 sobrepõem 10:00-11:00
+        assertThat(livres.get(0).horarios()).containsExactly(
+                LocalTime.of(11, 0), LocalTime.of(12, 0), LocalTime.of(13, 0), LocalTime.of(14, 0), LocalTime.of(15, 0));
+        assertThat(livres.get(1).horarios()).hasSize(7).last().isEqualTo(LocalTime.of(15, 0));
+    }
+
+    @Test
+    void shouldIssueSingleOccupancyQueryForFilteredProviders() {
+        LocalDate fim = SEGUNDA.plusDays(13);
+        when(agendamentoRepository.findSlotsOcupadosPorPrestadores(List.of(4L), SEGUNDA, fim)).thenReturn(List.of());
+
+        var livres = disponibilidadeService.buscarHorariosLivres(2L, SEGUNDA, fim, Set.of(4L));
+
+        // 14 dias corridos = 12 dias de funcionamento (dois domingos fechados)
+        assertThat(livres).hasSize(12).allMatch(r -> r.prestadorId().equals(4L));
+        verify(agendamentoRepository, times(1)).findSlotsOcupadosPorPrestadores(any(), any(), any());
+        verify(agendamentoRepository, never()).findSlotsOcupados(any(), any());
+    }
+
+    @Test
+    void shouldSkipClosedDates() {
+        LocalDate fim = SEGUNDA.plusDays(2);
+        when(agendamentoRepository.findSlotsOcupados(SEGUNDA, fim)).thenReturn(List.of());
+        when(calendarioFechamentoService.snapshot()).thenReturn(CalendarioFechamento.of(2L, SEGUNDA, List.of(
+                dataFechada(null, SEGUNDA.plusDays(1)),
+                dataFechada(3L, fim))));
+
+        var livres = disponibilidadeService.buscarHorariosLivres(2L, SEGUNDA, fim, null);
+
+        // Terça fechada para todos; quarta só para o prestador 3
+        assertThat(livres).extracting(AgendamentoApi.HorariosLivresResponse::data)
+                .containsExactly(SEGUNDA, SEGUNDA, fim);
+        assertThat(livres.get(2).prestadorId()).isEqualTo(4L);
+    }
+
+    @Test
+    void shouldOnlyBlockFullInventoryHoursForProvidersWithCapacity() {
+        LocalDate fim = SEGUNDA.plusDays(1);
+        when(agendamentoRepository.findSlotsOcupados(SEGUNDA, fim))
+                .thenReturn(List.of(new SlotOcupado(3L, SEGUNDA, LocalTime.of(10, 0), LocalTime.of(11, 0))));
+        when(inventarioSlotsService.usaInventario(3L)).thenReturn(true);
+        when(inventarioSlotsService.inventarioAte(3L)).thenReturn(SEGUNDA);
+        when(inventarioSlotsService.lotadas(List.of(3L), SEGUNDA, fim))
+                .thenReturn(List.of(new HoraLotada(3L, SEGUNDA, LocalTime.of(14, 0))));
+
+        var livres = disponibilidadeService.buscarHorariosLivres(2L, SEGUNDA, fim, null);
+
+        // 10:00 ainda tem vaga; 14:00 lotou; terça está além do inventário gerado
+        assertThat(livres).extracting(AgendamentoApi.HorariosLivresResponse::prestadorId)
+                .containsExactly(3L, 4L, 4L);
+        assertThat(livres.get(0).horarios()).hasSize(8)
+                .contains(LocalTime.of(10, 0))
+                .doesNotContain(LocalTime.of(14, 0));
+        verify(inventarioSlotsService, times(1)).lotadas(any(), any(), any());
+    }
+
+    @Test
+    void shouldUseProviderTemplateAndFallBackToBusinessHours() {
+        LocalDate fim = SEGUNDA.plusDays(1);
+        when(agendamentoRepository.findSlotsOcupados(SEGUNDA, fim)).thenReturn(List.of());
+        HorarioPrestador segunda = new HorarioPrestador();
+        segunda.setPrestadorId(3L);
+        segunda.setDiaSemana(DayOfWeek.MONDAY);
+        segunda.setHoraAbertura(LocalTime.of(9, 0));
+        segunda.setHoraFechamento(LocalTime.of(14, 0));
+        segunda.setIntervaloInicio(LocalTime.of(12, 0));
+        segunda.setIntervaloFim(LocalTime.of(13, 0));
+        segunda.setAtivo(true);
+        when(configuracaoHorarioService.snapshot()).thenReturn(
+                HorarioComercial.of(2L, configuracoes(), List.of(segunda)));
+
+        var livres = disponibilidadeService.buscarHorariosLivres(2L, SEGUNDA, fim, null);
+
+        // Prestador 3: só a segunda da jornada própria, sem o almoço; prestador 4 segue o horário global
+        assertThat(livres).extracting(AgendamentoApi.HorariosLivresResponse::prestadorId)
+                .containsExactly(3L, 4L, 4L);
+        assertThat(livres.get(0).horarios()).containsExactly(
+                LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(11, 0), LocalTime.of(13, 0));
+        assertThat(livres.get(1).horarios()).hasSize(9);
+    }
+
+    @Test
+    void shouldRejectInvertedPeriod() {
+        assertThatThrownBy(() -> disponibilidadeService.buscarHorariosLivres(2L, SEGUNDA, SEGUNDA.minusDays(1), null))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+    }
+
+    @Test
+    void shouldMergeEarliestSlotsAcrossProvidersFromOneWindowQuery() {
+        when(agendamentoRepository.findSlotsOcupados(SEGUNDA, SEGUNDA.plusDays(6)))
+                .thenReturn(List.of(new SlotOcupado(3L, SEGUNDA, LocalTime.of(9, 0), LocalTime.of(10, 0))));
+
+        var proximos = disponibilidadeService.buscarProximosHorarios(2L, SEGUNDA, 3, null, null);
+
+        assertThat(proximos).containsExactly(
+                new AgendamentoApi.ProximoHorarioResponse(4L, SEGUNDA, LocalTime.of(9, 0)),
+                new AgendamentoApi.ProximoHorarioResponse(3L, SEGUNDA, LocalTime.of(10, 0)),
+                new AgendamentoApi.ProximoHorarioResponse(4L, SEGUNDA, LocalTime.of(10, 0)));
+        verify(agendamentoRepository, times(1)).findSlotsOcupados(any(), any());
+    }
+
+    @Test
+    void shouldWidenWindowWhenFirstDaysHaveNoFreeSlots() {
+        List<DataFechada> fechadas = new ArrayList<>();
+        for (int d = 0; d < 7; d++) {
+            fechadas.add(dataFechada(null, SEGUNDA.plusDays(d)));
+        }
+        when(calendarioFechamentoService.snapshot()).thenReturn(CalendarioFechamento.of(2L, SEGUNDA, fechadas));
+
+        var proximos = disponibilidadeService.buscarProximosHorarios(2L, SEGUNDA, 1, null, Set.of(3L));
+
+        // Primeira janela (7 dias) toda fechada; a segunda dobra para 14 dias
+        assertThat(proximos).containsExactly(
+                new AgendamentoApi.ProximoHorarioResponse(3L, SEGUNDA.plusDays(7), LocalTime.of(9, 0)));
+        verify(agendamentoRepository).findSlotsOcupadosPorPrestadores(List.of(3L), SEGUNDA, SEGUNDA.plusDays(6));
+        verify(agendamentoRepository).findSlotsOcupadosPorPrestadores(List.of(3L), SEGUNDA.plusDays(7), SEGUNDA.plusDays(20));
+        verify(agendamentoRepository, times(2)).findSlotsOcupadosPorPrestadores(any(), any(), any());
+    }
+
+    @Test
+    void shouldRejectQuantityOrHorizonOutOfRange() {
+        assertThatThrownBy(() -> disponibilidadeService.buscarProximosHorarios(2L, SEGUNDA, 0, null, null))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+        assertThatThrownBy(() -> disponibilidadeService.buscarProximosHorarios(2L, SEGUNDA, 5, 61, null))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+    }
+
+    private DataFechada dataFechada(Long prestadorId, LocalDate data) {
+        DataFechada dataFechada = new DataFechada();
+        dataFechada.setPrestadorId(prestadorId);
+        dataFechada.setData(data);
+        return dataFechada;
+    }
+
+    private HorarioComercial expediente() {
+        return HorarioComercial.of(1L, configuracoes());
+    }
+
+    private List<ConfiguracaoHorario> configuracoes() {
+        List<ConfiguracaoHorario> configs = new ArrayList<>();
+        for (DayOfWeek dia : DayOfWeek.values()) {
+            if (dia == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            ConfiguracaoHorario config = new ConfiguracaoHorario();
+            config.setDiaSemana(dia);
+            config.setHoraAbertura(LocalTime.of(9, 0));
+            config.setHoraFechamento(LocalTime.of(18, 0));
+            config.setAtivo(true);
+            configs.add(config);
+        }
+        return configs;
+    }
+}
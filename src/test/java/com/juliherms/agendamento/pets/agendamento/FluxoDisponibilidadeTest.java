@@ -0,0 +1,80 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.service.FluxoDisponibilidade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for FluxoDisponibilidade.
+ * Verifies subscriber limits, request validation and that publishing never blocks the caller.
+ */
+class FluxoDisponibilidadeTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+    private static final int MAX_ASSINANTES = 10_000;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FluxoDisponibilidade fluxo;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fluxo = new FluxoDisponibilidade(new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                MAX_ASSINANTES, 4, 60_000);
+    }
+
+    @Test
+    void shouldHoldTenThousandSubscribersAndRejectBeyondLimit() {
+        for (int i = 0; i < MAX_ASSINANTES; i++) {
+            fluxo.assinar(Set.of(i % 100 + 1L), DATA, DATA.plusDays(6));
+        }
+
+        assertThat(fluxo.assinantes()).isEqualTo(MAX_ASSINANTES);
+        assertThat(meterRegistry.get("agendamento.disponibilidade.stream.assinantes").gauge().value())
+                .isEqualTo(MAX_ASSINANTES);
+        assertThatThrownBy(() -> fluxo.assinar(Set.of(1L), DATA, DATA))
+                .isInstanceOf(AgendamentoExceptionHandler.AssinaturasEsgotadasException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidSubscriptions() {
+        assertThatThrownBy(() -> fluxo.assinar(Set.of(), DATA, DATA))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+        assertThatThrownBy(() -> fluxo.assinar(Set.of(1L), DATA, DATA.minusDays(1)))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+        assertThatThrownBy(() -> fluxo.assinar(Set.of(1L), DATA, DATA.plusDays(31)))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+        assertThat(fluxo.assinantes()).isZero();
+    }
+
+    @Test
+    void shouldPublishWithoutBlockingAndOnlyDropSlowSubscribers() {
+        for (int i = 0; i < 1_000; i++) {
+            fluxo.assinar(Set.of(1L, 2L), DATA, DATA.plusDays(6));
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            fluxo.publicar(1L, DATA, LocalTime.of(9 + i % 9, 0), LocalTime.of(10 + i % 9, 0), i % 2 == 0);
+            // Fora do período ou de prestador sem assinantes: não chega a ninguém
+            fluxo.publicar(1L, DATA.plusDays(30), LocalTime.of(9, 0), LocalTime.of(10, 0), false);
+            fluxo.publicar(3L, DATA, LocalTime.of(9, 0), LocalTime.of(10, 0), false);
+        }
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Buffer de 4 mensagens: quem não acompanhou foi descartado, sem travar quem publica
+        double descartados = meterRegistry.get("agendamento.disponibilidade.stream.descartados").counter().count();
+        assertThat(fluxo.assinantes() + (int) descartados).isEqualTo(1_000);
+        assertThat(duracaoMs).isLessThan(10_000);
+    }
+}
@@ -0,0 +1,141 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.TutorBackfillService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the keyset-paginated appointment history.
+ * Uses ties on (data, horaInicio) across providers to exercise the id tiebreaker.
+ */
+@SpringBootTest
+class HistoricoPaginacaoTest {
+
+    private static final int TAMANHO_PAGINA = 7;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private TutorBackfillService tutorBackfillService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long tutorId;
+    private Long petId;
+    private Long servicoId;
+    private List<Long> esperados;
+
+    @BeforeEach
+    void setUp() {
+        tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        petId = AgendamentoFixtures.pet(petRepository, tutorId).getId();
+        List<Long> prestadores = AgendamentoFixtures.prestadores(userRepository, 3);
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadores.get(0)).getId();
+
+        List<Agendamento> criados = new ArrayList<>();
+        for (LocalDate data : AgendamentoFixtures.diasUteis(5)) {
+            for (int hora = 9; hora < 12; hora++) {
+                for (Long prestadorId : prestadores) {
+                    Agendamento agendamento = new Agendamento();
+                    agendamento.setPetId(petId);
+                    agendamento.setServicoId(servicoId);
+                    agendamento.setPrestadorId(prestadorId);
+                    agendamento.setTutorId(tutorId);
+                    agendamento.setData(data);
+                    agendamento.setHoraInicio(LocalTime.of(hora, 0));
+                    agendamento.setHoraFim(LocalTime.of(hora + 1, 0));
+                    criados.add(agendamentoRepository.save(agendamento));
+                }
+            }
+        }
+        esperados = criados.stream()
+                .sorted(Comparator.comparing(Agendamento::getData)
+                        .thenComparing(Agendamento::getHoraInicio)
+                        .thenComparing(Agendamento::getId)
+                        .reversed())
+                .map(Agendamento::getId)
+                .toList();
+    }
+
+    @Test
+    void petHistoryPagesShouldCoverEveryRowOnceInOrder() {
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            AgendamentoApi.PaginaAgendamentosResponse pagina =
+                    agendamentoService.buscarAgendamentosPorPet(petId, cursor, TAMANHO_PAGINA);
+            assertThat(pagina.itens()).hasSizeLessThanOrEqualTo(TAMANHO_PAGINA);
+            pagina.itens().forEach(item -> lidos.add(item.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        assertThat(lidos).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    void userHistoryPagesShouldMatchExport() {
+        List<Long> lidos = new ArrayList<>();
+        String cursor = null;
+        do {
+            var pagina = agendamentoService.buscarAgendamentosPorUsuario(tutorId, cursor, TAMANHO_PAGINA);
+            pagina.itens().forEach(item -> lidos.add(item.id()));
+            cursor = pagina.proximoCursor();
+        } while (cursor != null);
+
+        List<Long> exportados = agendamentoService.exportarAgendamentosPorUsuario(tutorId)
+                .map(AgendamentoApi.AgendamentoResponse::id)
+                .toList();
+
+        assertThat(lidos).containsExactlyElementsOf(esperados);
+        assertThat(exportados).containsExactlyElementsOf(esperados);
+    }
+
+    @Test
+    void backfilledRowsShouldAppearInUserHistory() {
+        // Linha criada antes da desnormalização: sem tutor_id
+        Agendamento legado = new Agendamento();
+        legado.setPetId(petId);
+        legado.setServicoId(servicoId);
+        legado.setPrestadorId(AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId());
+        legado.setData(LocalDate.of(2020, 1, 6));
+        legado.setHoraInicio(LocalTime.of(9, 0));
+        legado.setHoraFim(LocalTime.of(10, 0));
+        Long legadoId = agendamentoRepository.save(legado).getId();
+
+        tutorBackfillService.executar();
+
+        assertThat(agendamentoRepository.findById(legadoId).orElseThrow().getTutorId()).isEqualTo(tutorId);
+        assertThat(agendamentoService.exportarAgendamentosPorUsuario(tutorId)
+                .map(AgendamentoApi.AgendamentoResponse::id)
+                .toList()).endsWith(legadoId);
+    }
+}
@@ -0,0 +1,138 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for history reads of 10k rows: managed entities mapped to responses (the previous read path)
+ * versus the constructor-expression projection in a read-only transaction.
+ * Reports latency and bytes allocated by the reading thread.
+ * Disabled by default; run with {@code ./mvnw test -Dtest=HistoricoProjecaoBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HistoricoProjecaoBenchmarkTest {
+
+    private static final int LINHAS = 10_000;
+    private static final int AQUECIMENTO = 10;
+    private static final int MEDICOES = 30;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    @Test
+    void shouldReadTenThousandRowsWithLessAllocationThanEntities() {
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        var pet = AgendamentoFixtures.pet(petRepository, tutor.getId());
+        var prestador = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR);
+        var servico = AgendamentoFixtures.servico(servicoRepository, prestador.getId());
+        popularHistorico(tutor.getId(), pet.getId(), prestador.getId(), servico.getId());
+
+        Supplier<List<AgendamentoApi.AgendamentoResponse>> entidades = () -> transactionTemplate.execute(tx ->
+                entityManager.createQuery("SELECT a FROM Agendamento a WHERE a.tutorId = :usuarioId " +
+                                "ORDER BY a.data DESC, a.horaInicio DESC, a.id DESC", Agendamento.class)
+                        .setParameter("usuarioId", tutor.getId())
+                        .setMaxResults(LINHAS)
+                        .getResultList().stream()
+                        .map(a -> new AgendamentoApi.AgendamentoResponse(a.getId(), a.getPetId(), a.getServicoId(),
+                                a.getPrestadorId(), a.getData(), a.getHoraInicio(), a.getHoraFim(),
+                                a.getStatus(), a.getCreatedAt()))
+                        .toList());
+        Supplier<List<AgendamentoApi.AgendamentoResponse>> projecao = () ->
+                agendamentoRepository.findHistoricoPorUsuario(tutor.getId(), Limit.of(LINHAS));
+
+        Medicao antes = medir(entidades);
+        Medicao depois = medir(projecao);
+
+        System.out.printf("[BENCHMARK] histórico %d linhas, entidades: p50=%d ms, %d KB/leitura%n",
+                LINHAS, antes.p50Ms(), antes.bytes() / 1024);
+        System.out.printf("[BENCHMARK] histórico %d linhas, projeção:  p50=%d ms, %d KB/leitura%n",
+                LINHAS, depois.p50Ms(), depois.bytes() / 1024);
+
+        assertThat(projecao.get()).hasSize(LINHAS).isEqualTo(entidades.get());
+        assertThat(depois.bytes()).isLessThan(antes.bytes());
+        assertThat(depois.p50Ms()).isLessThanOrEqualTo(antes.p50Ms());
+    }
+
+    private Medicao medir(Supplier<List<AgendamentoApi.AgendamentoResponse>> leitura) {
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            leitura.get();
+        }
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long[] tempos = new long[MEDICOES];
+        long bytes = 0;
+        for (int i = 0; i < MEDICOES; i++) {
+            long b0 = threads.getThreadAllocatedBytes(thread);
+            long t0 = System.nanoTime();
+            assertThat(leitura.get()).hasSize(LINHAS);
+            tempos[i] = System.nanoTime() - t0;
+            bytes += threads.getThreadAllocatedBytes(thread) - b0;
+        }
+        Arrays.sort(tempos);
+        return new Medicao(TimeUnit.NANOSECONDS.toMillis(tempos[MEDICOES / 2]), bytes / MEDICOES);
+    }
+
+    private void popularHistorico(Long tutorId, Long petId, Long prestadorId, Long servicoId) {
+        LocalDate inicio = LocalDate.of(2020, 1, 1);
+        List<Agendamento> lote = new ArrayList<>();
+        for (int i = 0; i < LINHAS; i++) {
+            Agendamento agendamento = new Agendamento();
+            agendamento.setPetId(petId);
+            agendamento.setServicoId(servicoId);
+            agendamento.setPrestadorId(prestadorId);
+            agendamento.setTutorId(tutorId);
+            agendamento.setData(inicio.plusDays(i / 9));
+            agendamento.setHoraInicio(LocalTime.of(9 + i % 9, 0));
+            agendamento.setHoraFim(LocalTime.of(10 + i % 9, 0));
+            agendamento.setStatus(AgendamentoApi.Status.CONCLUIDO);
+            lote.add(agendamento);
+            if (lote.size() >= 1000) {
+                agendamentoRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        agendamentoRepository.saveAll(lote);
+    }
+
+    private record Medicao(long p50Ms, long bytes) {}
+}
@@ -0,0 +1,149 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.ChaveIdempotenciaRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IdempotenciaService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for idempotent appointment creation (Idempotency-Key).
+ * A small purge batch forces the cleanup through several transactions.
+ */
+@SpringBootTest(properties = "agendamento.idempotencia.tamanho-lote=2")
+class IdempotenciaTest {
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long petId;
+    private Long servicoId;
+    private Long prestadorId;
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        petId = AgendamentoFixtures.pet(petRepository, tutor.getId()).getId();
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        data = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @Test
+    void shouldReturnOriginalResultOnRetry() {
+        String chave = UUID.randomUUID().toString();
+
+        var primeira = idempotenciaService.criar(chave, request(10));
+        var repeticao = idempotenciaService.criar(chave, request(10));
+
+        assertThat(repeticao).isEqualTo(primeira);
+        assertThat(agendamentoRepository.findSlotsOcupadosPorPrestador(prestadorId, data)).hasSize(1);
+        assertThat(chaveIdempotenciaRepository.findById(chave)).isPresent();
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentRequest() {
+        String chave = UUID.randomUUID().toString();
+        idempotenciaService.criar(chave, request(10));
+
+        assertThatThrownBy(() -> idempotenciaService.criar(chave, request(11)))
+                .isInstanceOf(AgendamentoExceptionHandler.ChaveIdempotenciaInvalidaException.class);
+        assertThatThrownBy(() -> idempotenciaService.criar("x".repeat(101), request(11)))
+                .isInstanceOf(AgendamentoExceptionHandler.ChaveIdempotenciaInvalidaException.class);
+        assertThat(agendamentoRepository.findSlotsOcupadosPorPrestador(prestadorId, data)).hasSize(1);
+    }
+
+    @Test
+    void shouldResolveConcurrentRetriesToOneAppointment() throws Exception {
+        String chave = UUID.randomUUID().toString();
+        int threads = 8;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    ids.add(idempotenciaService.criar(chave, request(14)).id());
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                try {
+                    tarefa.get();
+                } catch (ExecutionException e) {
+                    // Além da resposta da vencedora, o único desfecho aceitável é o conflito de horário
+                    assertThat(e.getCause()).isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(1);
+        assertThat(agendamentoRepository.findSlotsOcupadosPorPrestador(prestadorId, data)).hasSize(1);
+    }
+
+    @Test
+    void shouldPurgeExpiredKeysInBatches() {
+        List<String> chaves = new ArrayList<>();
+        for (int hora = 9; hora < 14; hora++) {
+            String chave = UUID.randomUUID().toString();
+            idempotenciaService.criar(chave, request(hora));
+            chaves.add(chave);
+        }
+
+        int removidas = idempotenciaService.limpar(ZonedDateTime.now(ZoneId.of("America/Recife")).plusHours(25));
+
+        assertThat(removidas).isGreaterThanOrEqualTo(chaves.size());
+        assertThat(chaveIdempotenciaRepository.findAllById(chaves)).isEmpty();
+    }
+
+    private AgendamentoApi.CreateAgendamentoRequest request(int hora) {
+        return new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, LocalTime.of(hora, 0));
+    }
+}
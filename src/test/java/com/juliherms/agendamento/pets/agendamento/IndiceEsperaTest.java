@@ -0,0 +1,77 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceEspera;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IndiceEspera.
+ * Verifies first-come matching per start hour and removal across all accepted hours.
+ */
+class IndiceEsperaTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+
+    private IndiceEspera indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceEspera();
+    }
+
+    @Test
+    void shouldReturnOldestEntryAcceptingTheFreedHour() {
+        indice.adicionar(1L, DATA, entrada(30, 9, 10, 11));
+        indice.adicionar(1L, DATA, entrada(10, 14, 15));
+        indice.adicionar(1L, DATA, entrada(20, 10));
+        indice.adicionar(2L, DATA, entrada(5, 10));
+
+        assertThat(indice.retirarPrimeiro(1L, DATA, 10).id()).isEqualTo(20);
+        assertThat(indice.retirarPrimeiro(1L, DATA, 10).id()).isEqualTo(30);
+        assertThat(indice.retirarPrimeiro(1L, DATA, 10)).isNull();
+        assertThat(indice.retirarPrimeiro(1L, DATA.plusDays(1), 14)).isNull();
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRemoveEntryFromEveryAcceptedHour() {
+        indice.adicionar(1L, DATA, entrada(1, 9, 10, 11));
+
+        assertThat(indice.retirarPrimeiro(1L, DATA, 9).id()).isEqualTo(1);
+        assertThat(indice.retirarPrimeiro(1L, DATA, 11)).isNull();
+
+        indice.adicionar(1L, DATA, entrada(2, 9, 10));
+        assertThat(indice.remover(1L, DATA, 2)).isTrue();
+        assertThat(indice.remover(1L, DATA, 2)).isFalse();
+        assertThat(indice.retirarPrimeiro(1L, DATA, 10)).isNull();
+        assertThat(indice.tamanho()).isZero();
+    }
+
+    @Test
+    void shouldReplaceReaddedEntryAndDiscardPastDays() {
+        indice.adicionar(1L, DATA, entrada(1, 9));
+        indice.adicionar(1L, DATA, entrada(1, 15));
+        indice.adicionar(1L, DATA.plusDays(1), entrada(2, 9));
+
+        assertThat(indice.tamanho()).isEqualTo(2);
+        assertThat(indice.retirarPrimeiro(1L, DATA, 9)).isNull();
+
+        indice.descartarAntesDe(DATA.plusDays(1));
+
+        assertThat(indice.tamanho()).isEqualTo(1);
+        assertThat(indice.retirarPrimeiro(1L, DATA, 15)).isNull();
+        assertThat(indice.retirarPrimeiro(1L, DATA.plusDays(1), 9).id()).isEqualTo(2);
+    }
+
+    private static IndiceEspera.Entrada entrada(long id, int... horas) {
+        int mascara = 0;
+        for (int hora : horas) {
+            mascara |= 1 << hora;
+        }
+        return new IndiceEspera.Entrada(id, 100 + id, 7L, mascara, true);
+    }
+}
@@ -0,0 +1,147 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark comparing booking throughput with and without the occupancy index.
+ * Disabled by default; run with {@code ./mvnw test -Dtest=IndiceOcupacaoBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IndiceOcupacaoBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceOcupacaoBenchmarkTest.class);
+
+    private static final int PRESTADORES = 20;
+    private static final int DIAS = 5;
+    private static final int THREADS = 8;
+    private static final int TENTATIVAS = 4000;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private IndiceOcupacao indiceOcupacao;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    @Test
+    void compareBookingThroughputWithAndWithoutIndex() throws Exception {
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        var pet = AgendamentoFixtures.pet(petRepository, tutor.getId());
+        List<Long> prestadores = AgendamentoFixtures.prestadores(userRepository, PRESTADORES);
+        var servico = AgendamentoFixtures.servico(servicoRepository, prestadores.get(0));
+        List<LocalDate> dias = AgendamentoFixtures.diasUteis(DIAS);
+
+        // Aquecimento (JIT, pool de conexões) antes das medições
+        executar(false, pet.getId(), servico.getId(), prestadores, dias);
+        executar(true, pet.getId(), servico.getId(), prestadores, dias);
+
+        Resultado semIndice = executar(false, pet.getId(), servico.getId(), prestadores, dias);
+        Resultado comIndice = executar(true, pet.getId(), servico.getId(), prestadores, dias);
+
+        log.info("[BENCHMARK] sem índice: {}", semIndice);
+        log.info("[BENCHMARK] com índice: {}", comIndice);
+
+        assertThat(comIndice.reservas()).isLessThanOrEqualTo(PRESTADORES * DIAS * 9);
+        assertThat(comIndice.reservas() + comIndice.conflitos()).isEqualTo(TENTATIVAS);
+    }
+
+    private Resultado executar(boolean indiceHabilitado, Long petId, Long servicoId,
+                               List<Long> prestadores, List<LocalDate> dias) throws Exception {
+        agendamentoRepository.deleteAllInBatch();
+        indiceOcupacao.setHabilitado(indiceHabilitado);
+        indiceOcupacao.limpar();
+
+        AtomicInteger reservas = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            tarefas.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                largada.await();
+                for (int i = 0; i < TENTATIVAS / THREADS; i++) {
+                    var request = new AgendamentoApi.CreateAgendamentoRequest(
+                            petId,
+                            servicoId,
+                            prestadores.get(random.nextInt(prestadores.size())),
+                            dias.get(random.nextInt(dias.size())),
+                            LocalTime.of(9 + random.nextInt(9), 0)
+                    );
+                    try {
+                        agendamentoService.criarAgendamento(request);
+                        reservas.incrementAndGet();
+                    } catch (AgendamentoExceptionHandler.HorarioIndisponivelException e) {
+                        conflitos.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        return new Resultado(reservas.get(), conflitos.get(), duracao);
+    }
+
+    private record Resultado(int reservas, int conflitos, long nanos) {
+        double tentativasPorSegundo() {
+            return (reservas + conflitos) * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d reservas, %d conflitos em %d ms (%.0f tentativas/s)",
+                    reservas, conflitos, TimeUnit.NANOSECONDS.toMillis(nanos), tentativasPorSegundo());
+        }
+    }
+}
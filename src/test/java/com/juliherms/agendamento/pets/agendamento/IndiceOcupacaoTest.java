@@ -0,0 +1,139 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotOcupado;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IndiceOcupacao.
+ * Verifies lazy loading, event-driven updates and hit/miss metrics.
+ */
+class IndiceOcupacaoTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 5);
+
+    private AgendamentoRepository agendamentoRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private IndiceOcupacao indice;
+
+    @BeforeEach
+    void setUp() {
+        agendamentoRepository = mock(AgendamentoRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        indice = new IndiceOcupacao(agendamentoRepository, meterRegistry, true, 1000, 60_000);
+    }
+
+    @Test
+    void shouldLoadOnceAndAnswerFromMemoryAfterwards() {
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA)).thenReturn(List.of(slot(10, 11)));
+
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isTrue();
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(11, 0))).isFalse();
+
+        verify(agendamentoRepository, times(1)).findSlotsOcupadosPorPrestador(3L, DATA);
+        assertThat(contador("miss")).isEqualTo(1.0);
+        assertThat(contador("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReloadEntriesOlderThanTtl() {
+        indice = new IndiceOcupacao(agendamentoRepository, meterRegistry, true, 1000, 0);
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA))
+                .thenReturn(List.of(slot(10, 11)))
+                .thenReturn(List.of());
+
+        // Cancelado em outro nó: o evento não chega aqui, só a recarga corrige
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isTrue();
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isFalse();
+
+        verify(agendamentoRepository, times(2)).findSlotsOcupadosPorPrestador(3L, DATA);
+    }
+
+    @Test
+    void shouldNotKeepLoadThatRacedWithRelease() {
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA))
+                .thenAnswer(invocation -> {
+                    // Cancelamento comita depois da leitura e antes de a carga entrar no índice
+                    indice.liberar(3L, DATA, LocalTime.of(10, 0));
+                    return List.of(slot(10, 11));
+                })
+                .thenReturn(List.of());
+
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isTrue();
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isFalse();
+    }
+
+    @Test
+    void shouldApplyOccupyAndReleaseToLoadedEntries() {
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA)).thenReturn(List.of());
+        indice.estaOcupado(3L, DATA, LocalTime.of(9, 0));
+
+        indice.ocupar(3L, DATA, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(9, 0))).isTrue();
+
+        indice.liberar(3L, DATA, LocalTime.of(9, 0));
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(9, 0))).isFalse();
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA))
+                .thenReturn(List.of())
+                .thenReturn(List.of(slot(14, 15)));
+
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(14, 0))).isFalse();
+        indice.invalidar(3L, DATA);
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(14, 0))).isTrue();
+
+        verify(agendamentoRepository, times(2)).findSlotsOcupadosPorPrestador(3L, DATA);
+    }
+
+    @Test
+    void shouldKeepProvidersAndDatesIsolated() {
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA)).thenReturn(List.of(slot(10, 11)));
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(4L, DATA)).thenReturn(List.of());
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA.plusDays(1))).thenReturn(List.of());
+
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isTrue();
+        assertThat(indice.estaOcupado(4L, DATA, LocalTime.of(10, 0))).isFalse();
+        assertThat(indice.estaOcupado(3L, DATA.plusDays(1), LocalTime.of(10, 0))).isFalse();
+    }
+
+    @Test
+    void shouldDetectOverlapWithVariableDurations() {
+        // 09:00-12:00 (tosa completa) e 14:00-14:30 (banho)
+        when(agendamentoRepository.findSlotsOcupadosPorPrestador(3L, DATA))
+                .thenReturn(List.of(slot(9, 0, 12, 0), slot(14, 0, 14, 30)));
+
+        assertThat(indice.temSobreposicao(3L, DATA, LocalTime.of(11, 0), LocalTime.of(12, 0))).isTrue();
+        assertThat(indice.temSobreposicao(3L, DATA, LocalTime.of(8, 0), LocalTime.of(9, 30))).isTrue();
+        assertThat(indice.temSobreposicao(3L, DATA, LocalTime.of(12, 0), LocalTime.of(14, 0))).isFalse();
+        assertThat(indice.temSobreposicao(3L, DATA, LocalTime.of(13, 0), LocalTime.of(14, 15))).isTrue();
+        assertThat(indice.temSobreposicao(3L, DATA, LocalTime.of(14, 30), LocalTime.of(15, 30))).isFalse();
+        assertThat(indice.temSobreposicao(3L, DATA, LocalTime.of(8, 0), LocalTime.of(18, 0))).isTrue();
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(10, 0))).isTrue();
+        assertThat(indice.estaOcupado(3L, DATA, LocalTime.of(12, 0))).isFalse();
+    }
+
+    private SlotOcupado slot(int horaInicio, int horaFim) {
+        return slot(horaInicio, 0, horaFim, 0);
+    }
+
+    private SlotOcupado slot(int horaInicio, int minutoInicio, int horaFim, int minutoFim) {
+        return new SlotOcupado(3L, DATA, LocalTime.of(horaInicio, minutoInicio), LocalTime.of(horaFim, minutoFim));
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("agendamento.ocupacao.indice").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,146 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.SlotInventarioRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.InventarioSlotsService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for multi-capacity providers: the slot inventory lets several bookings share
+ * an hour up to the configured capacity, concurrent bookings never overbook, and cancellations
+ * give the seat back.
+ */
+@SpringBootTest
+class InventarioSlotsTest {
+
+    private static final int CAPACIDADE = 3;
+    private static final LocalTime HORA = LocalTime.of(10, 0);
+
+    @Autowired
+    private InventarioSlotsService inventarioSlotsService;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private SlotInventarioRepository slotInventarioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long prestadorId;
+    private Long servicoId;
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        data = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @Test
+    void shouldAcceptBookingsUpToCapacityAndReleaseOnCancel() {
+        var config = inventarioSlotsService.configurar(prestadorId, CAPACIDADE);
+        assertThat(config.inventarioAte()).isAfter(data);
+
+        List<AgendamentoApi.AgendamentoResponse> reservas = new ArrayList<>();
+        for (int i = 0; i < CAPACIDADE; i++) {
+            reservas.add(agendamentoService.criarAgendamento(request()));
+        }
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request()))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+
+        agendamentoService.cancelarAgendamento(reservas.get(0).id());
+        assertThat(agendamentoService.criarAgendamento(request()).id()).isNotNull();
+        assertThat(reservado(HORA)).isEqualTo(CAPACIDADE);
+    }
+
+    @Test
+    void shouldCountExistingBookingsWhenCapacityIsConfigured() {
+        agendamentoService.criarAgendamento(request());
+
+        inventarioSlotsService.configurar(prestadorId, 2);
+
+        assertThat(reservado(HORA)).isEqualTo(1);
+        agendamentoService.criarAgendamento(request());
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(request()))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+    }
+
+    @Test
+    void shouldNeverOverbookUnderConcurrency() throws Exception {
+        inventarioSlotsService.configurar(prestadorId, CAPACIDADE);
+        int threads = 16;
+        AtomicInteger reservas = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            var request = request();
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    agendamentoService.criarAgendamento(request);
+                    reservas.incrementAndGet();
+                } catch (AgendamentoExceptionHandler.HorarioIndisponivelException e) {
+                    conflitos.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertThat(reservas.get()).isEqualTo(CAPACIDADE);
+        assertThat(conflitos.get()).isEqualTo(threads - CAPACIDADE);
+        assertThat(reservado(HORA)).isEqualTo(CAPACIDADE);
+    }
+
+    private AgendamentoApi.CreateAgendamentoRequest request() {
+        Long tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        Long petId = AgendamentoFixtures.pet(petRepository, tutorId).getId();
+        return new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, HORA);
+    }
+
+    private int reservado(LocalTime hora) {
+        return slotInventarioRepository.findByPrestadorIdAndDataOrderByHora(prestadorId, data).stream()
+                .filter(slot -> slot.getHora().equals(hora))
+                .findFirst()
+                .orElseThrow()
+                .getReservados();
+    }
+}
@@ -0,0 +1,151 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.StatusEspera;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.InteresseEspera;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.InteresseEsperaRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.ListaEsperaService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for the cancellation-driven waitlist.
+ * Cancellations go through the real event flow, so the asynchronous listener is awaited.
+ */
+@SpringBootTest
+class ListaEsperaTest {
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private InteresseEsperaRepository interesseEsperaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long servicoId;
+    private Long prestadorId;
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        data = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @Test
+    void shouldAutoBookOldestMatchThenNotifyNext() throws Exception {
+        var ocupado = agendamentoService.criarAgendamento(request(novoPet(), 10));
+        Long petReserva = novoPet();
+        Long petAviso = novoPet();
+        var foraDaJanela = listaEsperaService.registrar(interesse(novoPet(), 14, 16, true));
+        var reserva = listaEsperaService.registrar(interesse(petReserva, 9, 12, true));
+        var aviso = listaEsperaService.registrar(interesse(petAviso, 10, 11, false));
+
+        agendamentoService.cancelarAgendamento(ocupado.id());
+
+        InteresseEspera atendido = aguardarStatus(reserva.id(), StatusEspera.ATENDIDO);
+        assertThat(agendamentoRepository.findById(atendido.getAgendamentoId()))
+                .hasValueSatisfying(a -> {
+                    assertThat(a.getPetId()).isEqualTo(petReserva);
+                    assertThat(a.getHoraInicio()).isEqualTo(LocalTime.of(10, 0));
+                });
+        assertThat(status(aviso.id())).isEqualTo(StatusEspera.AGUARDANDO);
+
+        agendamentoService.cancelarAgendamento(atendido.getAgendamentoId());
+
+        aguardarStatus(aviso.id(), StatusEspera.NOTIFICADO);
+        assertThat(status(foraDaJanela.id())).isEqualTo(StatusEspera.AGUARDANDO);
+    }
+
+    @Test
+    void shouldRejectWindowThatDoesNotFitTheService() {
+        Long petId = novoPet();
+
+        assertThatThrownBy(() -> listaEsperaService.registrar(interesse(petId, 10, 10, true)))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+        assertThatThrownBy(() -> listaEsperaService.registrar(new AgendamentoApi.CreateInteresseEsperaRequest(
+                petId, servicoId, prestadorId, data, LocalTime.of(10, 30), LocalTime.of(11, 30), true)))
+                .isInstanceOf(AgendamentoExceptionHandler.PeriodoInvalidoException.class);
+    }
+
+    @Test
+    void shouldNotMatchCancelledEntries() {
+        var interesse = listaEsperaService.registrar(interesse(novoPet(), 9, 12, true));
+
+        assertThat(listaEsperaService.cancelar(interesse.id()).status()).isEqualTo(StatusEspera.CANCELADO);
+        assertThat(listaEsperaService.aoLiberar(prestadorId, data, LocalTime.of(10, 0), LocalTime.of(11, 0))).isEmpty();
+    }
+
+    @Test
+    void shouldServeEveryHourFreedByALongAppointment() throws Exception {
+        Long servicoLongo = AgendamentoFixtures.servico(servicoRepository, prestadorId, 120).getId();
+        var ocupado = agendamentoService.criarAgendamento(new AgendamentoApi.CreateAgendamentoRequest(
+                novoPet(), servicoLongo, prestadorId, data, LocalTime.of(10, 0)));
+        Long petSegundaHora = novoPet();
+        var segundaHora = listaEsperaService.registrar(interesse(petSegundaHora, 11, 12, true));
+
+        agendamentoService.cancelarAgendamento(ocupado.id());
+
+        InteresseEspera atendido = aguardarStatus(segundaHora.id(), StatusEspera.ATENDIDO);
+        assertThat(agendamentoRepository.findById(atendido.getAgendamentoId()))
+                .hasValueSatisfying(a -> assertThat(a.getHoraInicio()).isEqualTo(LocalTime.of(11, 0)));
+    }
+
+    private InteresseEspera aguardarStatus(Long id, StatusEspera esperado) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (status(id) != esperado && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        InteresseEspera interesse = interesseEsperaRepository.findById(id).orElseThrow();
+        assertThat(interesse.getStatus()).isEqualTo(esperado);
+        return interesse;
+    }
+
+    private StatusEspera status(Long id) {
+        return interesseEsperaRepository.findById(id).orElseThrow().getStatus();
+    }
+
+    private Long novoPet() {
+        Long tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        return AgendamentoFixtures.pet(petRepository, tutorId).getId();
+    }
+
+    private AgendamentoApi.CreateAgendamentoRequest request(Long petId, int hora) {
+        return new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, LocalTime.of(hora, 0));
+    }
+
+    private AgendamentoApi.CreateInteresseEsperaRequest interesse(Long petId, int inicio, int fim, boolean automatica) {
+        return new AgendamentoApi.CreateInteresseEsperaRequest(petId, servicoId, prestadorId, data,
+                LocalTime.of(inicio, 0), LocalTime.of(fim, 0), automatica);
+    }
+}
@@ -0,0 +1,103 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.MapaCalorService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the in-memory availability heatmap: the grouped rebuild,
+ * the incremental updates from booking and cancellation, and the content-based ETag.
+ */
+@SpringBootTest
+class MapaCalorTest {
+
+    @Autowired
+    private MapaCalorService mapaCalorService;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long prestadorId;
+    private Long servicoId;
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId, 90).getId();
+        data = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @Test
+    void shouldTrackBookingsAndCancellationsIncrementally() {
+        agendamentoService.criarAgendamento(request(9));
+        mapaCalorService.reconstruir();
+        var base = mapaCalorService.buscar(prestadorId);
+        int livresBase = livres(base);
+
+        var agendamento = agendamentoService.criarAgendamento(request(14));
+        var aposReserva = mapaCalorService.buscar(prestadorId);
+
+        // 14:00–15:30 ocupa as horas de início 14 e 15
+        assertThat(livres(aposReserva)).isEqualTo(livresBase - 2);
+        assertThat(aposReserva.etag()).isNotEqualTo(base.etag());
+        assertThat(mapaCalorService.buscar(prestadorId).etag()).isEqualTo(aposReserva.etag());
+
+        agendamentoService.cancelarAgendamento(agendamento.id());
+        var aposCancelamento = mapaCalorService.buscar(prestadorId);
+
+        assertThat(livres(aposCancelamento)).isEqualTo(livresBase);
+        assertThat(aposCancelamento.etag()).isEqualTo(base.etag());
+
+        // A reconstrução a partir do banco chega ao mesmo conteúdo
+        mapaCalorService.reconstruir();
+        assertThat(mapaCalorService.buscar(prestadorId).etag()).isEqualTo(base.etag());
+    }
+
+    @Test
+    void shouldServeFullCapacityForProvidersWithoutBookings() {
+        Long semAgenda = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+
+        var mapa = mapaCalorService.buscar(semAgenda).response();
+
+        assertThat(mapa.livres()).hasSize(MapaCalorService.DIAS);
+        assertThat(mapa.livres()[dia(mapa)]).isGreaterThan((byte) 0);
+    }
+
+    private int livres(MapaCalorService.MapaCalor mapa) {
+        return mapa.response().livres()[dia(mapa.response())];
+    }
+
+    private int dia(AgendamentoApi.MapaCalorResponse mapa) {
+        return (int) ChronoUnit.DAYS.between(mapa.dataInicio(), data);
+    }
+
+    private AgendamentoApi.CreateAgendamentoRequest request(int hora) {
+        Long tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        Long petId = AgendamentoFixtures.pet(petRepository, tutorId).getId();
+        return new AgendamentoApi.CreateAgendamentoRequest(petId, servicoId, prestadorId, data, LocalTime.of(hora, 0));
+    }
+}
@@ -0,0 +1,147 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.OcupacaoDiaria;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.OcupacaoDiariaService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the per-provider daily occupancy rollup.
+ * The flush window is pushed out so each test controls when deltas are written.
+ */
+@SpringBootTest(properties = "agendamento.ocupacao.diaria.janela-ms=3600000")
+class OcupacaoDiariaTest {
+
+    @Autowired
+    private OcupacaoDiariaService ocupacaoDiariaService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long petId;
+    private Long servicoId;
+    private List<Long> prestadores;
+    private LocalDate dia;
+
+    @BeforeEach
+    void setUp() {
+        Long tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        petId = AgendamentoFixtures.pet(petRepository, tutorId).getId();
+        prestadores = AgendamentoFixtures.prestadores(userRepository, 2);
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadores.get(0)).getId();
+        dia = LocalDate.now(ZoneId.of("America/Recife")).plusDays(10);
+    }
+
+    @Test
+    void shouldCoalesceABurstIntoOneRowPerProviderDay() {
+        for (int i = 0; i < 1000; i++) {
+            ocupacaoDiariaService.registrar(prestadores.get(i % 2), dia, null, Status.AGENDADO, 1, null);
+        }
+        for (int i = 0; i < 100; i++) {
+            ocupacaoDiariaService.registrar(prestadores.get(0), dia, Status.AGENDADO, Status.CANCELADO, 1, null);
+        }
+        ocupacaoDiariaService.registrar(prestadores.get(1), dia, Status.CONFIRMADO, Status.CONCLUIDO, 50, null);
+        ocupacaoDiariaService.registrar(prestadores.get(1), dia, Status.AGENDADO, Status.EM_ANDAMENTO, 10, null);
+
+        int gravadas = ocupacaoDiariaService.descarregar();
+
+        assertThat(gravadas).isGreaterThanOrEqualTo(2);
+        assertThat(ocupacaoDiariaService.pendentes()).isZero();
+        assertContagens(prestadores.get(0), 400, 100, 0);
+        assertContagens(prestadores.get(1), 450, 0, 50);
+
+        // Nova janela soma sobre a linha existente
+        ocupacaoDiariaService.registrar(prestadores.get(0), dia, null, Status.AGENDADO, 1, null);
+        ocupacaoDiariaService.descarregar();
+        assertContagens(prestadores.get(0), 401, 100, 0);
+    }
+
+    @Test
+    void shouldRebuildFromAppointmentsAndApplyBatchTransitions() {
+        Long prestadorId = prestadores.get(0);
+        Long primeiro = criar(prestadorId, 9, Status.AGENDADO);
+        Long segundo = criar(prestadorId, 10, Status.CONFIRMADO);
+        criar(prestadorId, 11, Status.AGENDADO);
+        criar(prestadorId, 12, Status.CANCELADO);
+        criar(prestadorId, 13, Status.CANCELADO);
+        criar(prestadorId, 14, Status.CONCLUIDO);
+
+        int linhas = ocupacaoDiariaService.reconstruir();
+
+        assertThat(linhas).isPositive();
+        assertContagens(prestadorId, 3, 2, 1);
+
+        ocupacaoDiariaService.registrarLote(List.of(primeiro, segundo), Status.CONCLUIDO, agora());
+        ocupacaoDiariaService.registrarLote(List.of(primeiro), Status.EM_ANDAMENTO, agora());
+        ocupacaoDiariaService.descarregar();
+
+        assertContagens(prestadorId, 1, 2, 3);
+    }
+
+    @Test
+    void shouldDropDeltasAlreadyReadByTheRebuild() {
+        Long prestadorId = prestadores.get(0);
+        Long id = criar(prestadorId, 9, Status.AGENDADO);
+        ZonedDateTime gravadoEm = agendamentoRepository.findById(id).orElseThrow().getUpdatedAt();
+
+        ocupacaoDiariaService.reconstruir();
+
+        // Evento da criação entregue depois da reconstrução: já está no consolidado
+        ocupacaoDiariaService.registrar(prestadorId, dia, null, Status.AGENDADO, 1, gravadoEm);
+        // Alteração posterior à leitura continua valendo
+        ocupacaoDiariaService.registrar(prestadorId, dia, Status.AGENDADO, Status.CANCELADO, 1, agora().plusSeconds(1));
+        ocupacaoDiariaService.descarregar();
+
+        assertContagens(prestadorId, 0, 1, 0);
+    }
+
+    private void assertContagens(Long prestadorId, long agendados, long cancelados, long concluidos) {
+        List<OcupacaoDiaria> dias = ocupacaoDiariaService.buscar(prestadorId, dia, dia);
+        assertThat(dias).hasSize(1);
+        assertThat(dias.get(0).getAgendados()).isEqualTo(agendados);
+        assertThat(dias.get(0).getCancelados()).isEqualTo(cancelados);
+        assertThat(dias.get(0).getConcluidos()).isEqualTo(concluidos);
+    }
+
+    private static ZonedDateTime agora() {
+        return ZonedDateTime.now(ZoneId.of("America/Recife"));
+    }
+
+    private Long criar(Long prestadorId, int hora, Status status) {
+        Agendamento agendamento = new Agendamento();
+        agendamento.setPetId(petId);
+        agendamento.setServicoId(servicoId);
+        agendamento.setPrestadorId(prestadorId);
+        agendamento.setData(dia);
+        agendamento.setHoraInicio(LocalTime.of(hora, 0));
+        agendamento.setHoraFim(LocalTime.of(hora + 1, 0));
+        agendamento.setStatus(status);
+        return agendamentoRepository.save(agendamento).getId();
+    }
+}
@@ -0,0 +1,152 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import com.juliherms.agendamento.pets.agendamento.internal.service.RaiasReserva;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of booking under a hot-provider burst, with and without per-provider lanes.
+ * Every thread targets the same provider; reports throughput and p99 latency per attempt.
+ * Disabled by default; run with {@code ./mvnw test -Dtest=RaiasReservaBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RaiasReservaBenchmarkTest {
+
+    private static final int DIAS = 5;
+    private static final int THREADS = 64;
+    private static final int TENTATIVAS = 6400;
+
+    @Autowired
+    private RaiasReserva raiasReserva;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private IndiceOcupacao indiceOcupacao;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    @Test
+    void compareHotProviderBurstWithAndWithoutLanes() throws Exception {
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        var pet = AgendamentoFixtures.pet(petRepository, tutor.getId());
+        Long prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        var servico = AgendamentoFixtures.servico(servicoRepository, prestadorId);
+        List<LocalDate> dias = AgendamentoFixtures.diasUteis(DIAS);
+
+        // Aquecimento (JIT, pool de conexões) antes das medições
+        executar(false, pet.getId(), servico.getId(), prestadorId, dias);
+        executar(true, pet.getId(), servico.getId(), prestadorId, dias);
+
+        Resultado direto = executar(false, pet.getId(), servico.getId(), prestadorId, dias);
+        Resultado comRaias = executar(true, pet.getId(), servico.getId(), prestadorId, dias);
+
+        System.out.printf("[BENCHMARK] direto:    %s%n", direto);
+        System.out.printf("[BENCHMARK] com raias: %s%n", comRaias);
+
+        raiasReserva.setHabilitado(false);
+        assertThat(comRaias.reservas()).isEqualTo(DIAS * 9);
+        assertThat(comRaias.reservas() + comRaias.conflitos()).isEqualTo(TENTATIVAS);
+    }
+
+    private Resultado executar(boolean raias, Long petId, Long servicoId,
+                               Long prestadorId, List<LocalDate> dias) throws Exception {
+        agendamentoRepository.deleteAllInBatch();
+        indiceOcupacao.limpar();
+        raiasReserva.setHabilitado(raias);
+
+        AtomicInteger reservas = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        long[] latencias = new long[TENTATIVAS];
+        AtomicInteger proxima = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            tarefas.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                largada.await();
+                for (int i = 0; i < TENTATIVAS / THREADS; i++) {
+                    var request = new AgendamentoApi.CreateAgendamentoRequest(
+                            petId,
+                            servicoId,
+                            prestadorId,
+                            dias.get(random.nextInt(dias.size())),
+                            LocalTime.of(9 + random.nextInt(9), 0)
+                    );
+                    long inicio = System.nanoTime();
+                    try {
+                        raiasReserva.reservar(request);
+                        reservas.incrementAndGet();
+                    } catch (AgendamentoExceptionHandler.HorarioIndisponivelException e) {
+                        conflitos.incrementAndGet();
+                    }
+                    latencias[proxima.getAndIncrement()] = System.nanoTime() - inicio;
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        long duracao = System.nanoTime() - inicio;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencias);
+        long p99 = latencias[(int) Math.ceil(TENTATIVAS * 0.99) - 1];
+        return new Resultado(reservas.get(), conflitos.get(), duracao, p99);
+    }
+
+    private record Resultado(int reservas, int conflitos, long nanos, long p99Nanos) {
+        double tentativasPorSegundo() {
+            return (reservas + conflitos) * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d reservas, %d conflitos em %d ms (%.0f tentativas/s, p99 %.2f ms)",
+                    reservas, conflitos, TimeUnit.NANOSECONDS.toMillis(nanos), tentativasPorSegundo(),
+                    p99Nanos / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.IndiceOcupacao;
+import com.juliherms.agendamento.pets.agendamento.internal.service.InventarioSlotsService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.RaiasReserva;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RaiasReserva.
+ * Verifies single-writer processing per provider and in-memory rejection of losers.
+ */
+class RaiasReservaTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+
+    private AgendamentoService agendamentoService;
+    private SimpleMeterRegistry meterRegistry;
+    private RaiasReserva raias;
+
+    @BeforeEach
+    void setUp() {
+        agendamentoService = mock(AgendamentoService.class);
+        IndiceOcupacao indiceOcupacao = mock(IndiceOcupacao.class);
+        meterRegistry = new SimpleMeterRegistry();
+        raias = new RaiasReserva(agendamentoService, indiceOcupacao, mock(InventarioSlotsService.class),
+                meterRegistry, true, 1000, 5000);
+        when(agendamentoService.criarAgendamento(any())).thenAnswer(invocation -> resposta(invocation.getArgument(0)));
+    }
+
+    @Test
+    void shouldLetOnlyOneRequestPerSlotReachTheService() throws Exception {
+        int threads = 32;
+        AtomicInteger reservas = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    raias.reservar(request(3L, 10));
+                    reservas.incrementAndGet();
+                } catch (AgendamentoExceptionHandler.HorarioIndisponivelException e) {
+                    conflitos.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertThat(reservas.get()).isEqualTo(1);
+        assertThat(conflitos.get()).isEqualTo(threads - 1);
+        verify(agendamentoService, times(1)).criarAgendamento(any());
+        assertThat(meterRegistry.get("agendamento.raia.espera").timer().count()).isEqualTo(threads);
+    }
+
+    @Test
+    void shouldPropagateServiceErrorsToTheCaller() {
+        doThrow(new AgendamentoExceptionHandler.PetNaoEncontradoException("Pet não encontrado com ID: 1"))
+                .when(agendamentoService).criarAgendamento(any());
+
+        assertThatThrownBy(() -> raias.reservar(request(3L, 11)))
+                .isInstanceOf(AgendamentoExceptionHandler.PetNaoEncontradoException.class);
+    }
+
+    @Test
+    void shouldNotRememberSlotsRejectedByTheService() throws Exception {
+        CountDownLatch segurar = new CountDownLatch(1);
+        AtomicInteger chamadas = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (chamadas.getAndIncrement() == 0) {
+                segurar.await();
+                throw new AgendamentoExceptionHandler.HorarioIndisponivelException("Reserva temporária no horário");
+            }
+            return resposta(invocation.getArgument(0));
+        }).when(agendamentoService).criarAgendamento(any());
+
+        var resultados = emSequenciaNaMesmaDrenagem(segurar, chamadas, () -> {});
+
+        // O conflito veio de fora da raia (reserva temporária); o slot segue livre para a próxima tentativa
+        assertThatThrownBy(resultados.get(0)::get)
+                .hasCauseInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+        assertThat(resultados.get(1).get().id()).isEqualTo(1L);
+        verify(agendamentoService, times(2)).criarAgendamento(any());
+    }
+
+    @Test
+    void shouldForgetReservedSlotWhenAppointmentChangesStatus() throws Exception {
+        CountDownLatch segurar = new CountDownLatch(1);
+        AtomicInteger chamadas = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (chamadas.getAndIncrement() == 0) {
+                segurar.await();
+            }
+            return resposta(invocation.getArgument(0));
+        }).when(agendamentoService).criarAgendamento(any());
+
+        // Cancelamento chega enquanto a drenagem continua ativa
+        var resultados = emSequenciaNaMesmaDrenagem(segurar, chamadas,
+                () -> raias.liberar(3L, DATA, LocalTime.of(10, 0)));
+
+        assertThat(resultados.get(0).get().id()).isEqualTo(1L);
+        assertThat(resultados.get(1).get().id()).isEqualTo(1L);
+        verify(agendamentoService, times(2)).criarAgendamento(any());
+    }
+
+    @Test
+    void shouldCallServiceDirectlyWhenDisabled() {
+        raias.setHabilitado(false);
+
+        raias.reservar(request(3L, 9));
+        raias.reservar(request(3L, 9));
+
+        verify(agendamentoService, times(2)).criarAgendamento(any());
+        assertThat(meterRegistry.get("agendamento.raia.espera").timer().count()).isZero();
+    }
+
+    /**
+     * Two requests for the same slot processed by one drain thread: the first blocks in the
+     * service until the second is queued and {@code enquantoSegura} has run.
+     */
+    private List<Future<AgendamentoApi.AgendamentoResponse>> emSequenciaNaMesmaDrenagem(
+            CountDownLatch segurar, AtomicInteger chamadas, Runnable enquantoSegura) {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            var primeiro = executor.submit(() -> raias.reservar(request(3L, 10)));
+            while (chamadas.get() == 0) {
+                Thread.onSpinWait();
+            }
+            var segundo = executor.submit(() -> raias.reservar(request(3L, 10)));
+            while (meterRegistry.get("agendamento.raia.profundidade").summary().count() < 2) {
+                Thread.onSpinWait();
+            }
+            enquantoSegura.run();
+            segurar.countDown();
+            return List.of(primeiro, segundo);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static AgendamentoApi.AgendamentoResponse resposta(AgendamentoApi.CreateAgendamentoRequest request) {
+        return new AgendamentoApi.AgendamentoResponse(1L, request.petId(), request.servicoId(),
+                request.prestadorId(), request.data(), request.horaInicio(),
+                request.horaInicio().plusHours(1), AgendamentoApi.Status.AGENDADO, null);
+    }
+
+    private AgendamentoApi.CreateAgendamentoRequest request(Long prestadorId, int hora) {
+        return new AgendamentoApi.CreateAgendamentoRequest(1L, 2L, prestadorId, DATA, LocalTime.of(hora, 0));
+    }
+}
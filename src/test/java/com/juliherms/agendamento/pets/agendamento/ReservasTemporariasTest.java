@@ -0,0 +1,88 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.internal.service.ReservasTemporarias;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ReservasTemporarias.
+ * Verifies per-hour conflicts, expiry from the queue head and release of converted holds.
+ */
+class ReservasTemporariasTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+    private static final Instant AGORA = Instant.parse("2030-01-06T12:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReservasTemporarias reservas;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservas = new ReservasTemporarias(meterRegistry, 300);
+    }
+
+    @Test
+    void shouldBlockEveryHourCoveredByTheHold() {
+        var reserva = reservar(10L, LocalTime.of(9, 0), LocalTime.of(10, 30), AGORA);
+
+        assertThat(reserva).isNotNull();
+        assertThat(reservar(11L, LocalTime.of(10, 0), LocalTime.of(11, 0), AGORA)).isNull();
+        assertThat(reservar(11L, LocalTime.of(11, 0), LocalTime.of(12, 0), AGORA)).isNotNull();
+        assertThat(reservas.temSobreposicao(1L, DATA, LocalTime.of(10, 0), LocalTime.of(11, 0), null, AGORA)).isTrue();
+        assertThat(reservas.temSobreposicao(1L, DATA, LocalTime.of(10, 0), LocalTime.of(11, 0), reserva.id(), AGORA)).isFalse();
+        assertThat(reservas.temSobreposicao(2L, DATA, LocalTime.of(10, 0), LocalTime.of(11, 0), null, AGORA)).isFalse();
+        assertThat(contador("conflito")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldExpireFromQueueHeadAndFreeTheSlots() {
+        var primeira = reservar(10L, LocalTime.of(9, 0), LocalTime.of(10, 0), AGORA);
+        var segunda = reservar(11L, LocalTime.of(14, 0), LocalTime.of(15, 0), AGORA.plusSeconds(60));
+        Instant vencimento = AGORA.plusSeconds(300);
+
+        // Vencida mas ainda na fila: já não bloqueia nem é encontrada
+        assertThat(reservas.buscar(primeira.id(), vencimento)).isNull();
+        assertThat(reservas.temSobreposicao(1L, DATA, LocalTime.of(9, 0), LocalTime.of(10, 0), null, vencimento)).isFalse();
+
+        assertThat(reservas.expirar(vencimento)).isEqualTo(1);
+        assertThat(reservas.tamanho()).isEqualTo(1);
+        assertThat(reservas.buscar(segunda.id(), vencimento)).isEqualTo(segunda);
+        assertThat(reservas.expirar(vencimento.plusSeconds(60))).isEqualTo(1);
+        assertThat(reservas.tamanho()).isZero();
+        assertThat(contador("expirada")).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldTakeOverExpiredHoldAndIgnoreConvertedOnes() {
+        var antiga = reservar(10L, LocalTime.of(9, 0), LocalTime.of(10, 0), AGORA);
+        var convertida = reservar(11L, LocalTime.of(11, 0), LocalTime.of(12, 0), AGORA);
+        reservas.converter(convertida);
+
+        // A nova reserva expira a antiga antes de disputar a hora
+        var nova = reservar(12L, LocalTime.of(9, 0), LocalTime.of(10, 0), AGORA.plusSeconds(301));
+
+        assertThat(nova).isNotNull();
+        assertThat(reservas.buscar(antiga.id(), AGORA)).isNull();
+        assertThat(reservas.liberar(convertida)).isFalse();
+        assertThat(reservas.tamanho()).isEqualTo(1);
+        assertThat(contador("expirada")).isEqualTo(1.0);
+        assertThat(contador("convertida")).isEqualTo(1.0);
+    }
+
+    private ReservasTemporarias.Reserva reservar(Long petId, LocalTime inicio, LocalTime fim, Instant agora) {
+        return reservas.reservar(petId, 2L, 1L, 3L, DATA, inicio, fim, agora);
+    }
+
+    private double contador(String resultado) {
+        var counter = meterRegistry.find("agendamento.reservas-temporarias").tag("resultado", resultado).counter();
+        return counter == null ? 0.0 : counter.count();
+    }
+}
@@ -0,0 +1,151 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.internal.exception.AgendamentoExceptionHandler;
+import com.juliherms.agendamento.pets.agendamento.internal.service.AgendamentoService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.DisponibilidadeService;
+import com.juliherms.agendamento.pets.agendamento.internal.service.SerieRecorrenteService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for recurring series: only the horizon is materialized, later occurrences
+ * still block the provider, conflicts are rejected or skipped, and the daily job and
+ * cancellation keep the materialized rows in step with the rule.
+ */
+@SpringBootTest
+class SerieRecorrenteTest {
+
+    private static final LocalTime HORA = LocalTime.of(10, 0);
+
+    @Autowired
+    private SerieRecorrenteService serieRecorrenteService;
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private DisponibilidadeService disponibilidadeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    private Long prestadorId;
+    private Long servicoId;
+    private Long petId;
+    private LocalDate inicio;
+
+    @BeforeEach
+    void setUp() {
+        prestadorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.PROVEDOR).getId();
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadorId).getId();
+        petId = novoPet();
+        inicio = AgendamentoFixtures.diasUteis(1).get(0);
+    }
+
+    @Test
+    void shouldMaterializeOnlyTheHorizon() {
+        var serie = serieRecorrenteService.criar(request(petId, 52, false));
+
+        assertThat(serie.dataFim()).isEqualTo(inicio.plusWeeks(51));
+        assertThat(serie.materializadaAte()).isBefore(inicio.plusWeeks(6));
+
+        var ocorrencias = serieRecorrenteService.buscarOcorrenciasPorPet(petId, inicio, inicio.plusWeeks(51));
+        assertThat(ocorrencias).hasSize(52);
+        long materializadas = ocorrencias.stream().filter(o -> o.agendamentoId() != null).count();
+        assertThat(materializadas).isBetween(1L, 6L);
+        assertThat(ocorrencias.get(51).agendamentoId()).isNull();
+    }
+
+    @Test
+    void shouldBlockOccurrencesBeyondTheHorizon() {
+        serieRecorrenteService.criar(request(petId, 20, false));
+        LocalDate distante = inicio.plusWeeks(15);
+
+        assertThatThrownBy(() -> agendamentoService.criarAgendamento(
+                new AgendamentoApi.CreateAgendamentoRequest(novoPet(), servicoId, prestadorId, distante, HORA)))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+
+        var livres = disponibilidadeService.buscarHorariosLivres(servicoId, distante, distante, Set.of(prestadorId));
+        assertThat(livres).singleElement()
+                .satisfies(dia -> assertThat(dia.horarios()).isNotEmpty().doesNotContain(HORA));
+    }
+
+    @Test
+    void shouldRejectConflictsUnlessSkipping() {
+        LocalDate ocupada = inicio.plusWeeks(2);
+        agendamentoService.criarAgendamento(
+                new AgendamentoApi.CreateAgendamentoRequest(novoPet(), servicoId, prestadorId, ocupada, HORA));
+
+        assertThatThrownBy(() -> serieRecorrenteService.criar(request(petId, 4, false)))
+                .isInstanceOf(AgendamentoExceptionHandler.HorarioIndisponivelException.class);
+
+        var serie = serieRecorrenteService.criar(request(petId, 4, true));
+        assertThat(serie.datasPuladas()).containsExactly(ocupada);
+        assertThat(serieRecorrenteService.buscarOcorrenciasPorPet(petId, inicio, inicio.plusWeeks(3)))
+                .extracting(AgendamentoApi.OcorrenciaSerieResponse::data)
+                .containsExactly(inicio, inicio.plusWeeks(1), inicio.plusWeeks(3));
+    }
+
+    @Test
+    void shouldMaterializeMoreAsTheHorizonAdvances() {
+        var serie = serieRecorrenteService.criar(request(petId, 26, false));
+        LocalDate hoje = LocalDate.now(ZoneId.of("America/Recife"));
+
+        assertThat(serieRecorrenteService.materializar(hoje.plusWeeks(10))).isPositive();
+
+        var atualizada = serieRecorrenteService.buscar(serie.id());
+        assertThat(atualizada.materializadaAte()).isAfter(serie.materializadaAte());
+        List<AgendamentoApi.OcorrenciaSerieResponse> ocorrencias =
+                serieRecorrenteService.buscarOcorrenciasPorPet(petId, inicio, atualizada.materializadaAte());
+        assertThat(ocorrencias).allSatisfy(o -> assertThat(o.agendamentoId()).isNotNull());
+    }
+
+    @Test
+    void shouldCancelTheSeriesAndItsFutureBookings() {
+        var serie = serieRecorrenteService.criar(request(petId, 12, false));
+
+        var cancelada = serieRecorrenteService.cancelar(serie.id());
+
+        assertThat(cancelada.status()).isEqualTo(AgendamentoApi.StatusSerie.CANCELADA);
+        assertThat(serieRecorrenteService.buscarOcorrenciasPorPet(petId, inicio, inicio.plusWeeks(11)))
+                .isNotEmpty()
+                .allSatisfy(o -> assertThat(o.status()).isEqualTo(AgendamentoApi.Status.CANCELADO));
+
+        // O horário volta a ficar livre para outros clientes
+        var agendamento = agendamentoService.criarAgendamento(
+                new AgendamentoApi.CreateAgendamentoRequest(novoPet(), servicoId, prestadorId, inicio.plusWeeks(10), HORA));
+        assertThat(agendamento.id()).isNotNull();
+    }
+
+    private AgendamentoApi.CreateSerieRecorrenteRequest request(Long petId, int ocorrencias, boolean pularConflitos) {
+        return new AgendamentoApi.CreateSerieRecorrenteRequest(
+                petId, servicoId, prestadorId, inicio, HORA, 1, ocorrencias, pularConflitos);
+    }
+
+    private Long novoPet() {
+        Long tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        return AgendamentoFixtures.pet(petRepository, tutorId).getId();
+    }
+}
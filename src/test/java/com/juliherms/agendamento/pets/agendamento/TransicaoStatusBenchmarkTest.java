@@ -0,0 +1,91 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.TransicaoStatusService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for the status-transition engine: one day's worth of 50k past appointments.
+ * Disabled by default; run with {@code ./mvnw test -Dtest=TransicaoStatusBenchmarkTest -Dbenchmark=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransicaoStatusBenchmarkTest {
+
+    private static final int PRESTADORES = 5_000;
+    private static final int HORAS = 10;
+
+    @Autowired
+    private TransicaoStatusService transicaoStatusService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    @Test
+    void shouldTransitionFiftyThousandAppointmentsInSeconds() {
+        var tutor = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE);
+        var pet = AgendamentoFixtures.pet(petRepository, tutor.getId());
+        List<Long> prestadores = AgendamentoFixtures.prestadores(userRepository, PRESTADORES);
+        var servico = AgendamentoFixtures.servico(servicoRepository, prestadores.get(0));
+        LocalDate dia = LocalDate.of(2031, 3, 4);
+
+        agendamentoRepository.deleteAllInBatch();
+        List<Agendamento> lote = new ArrayList<>();
+        for (Long prestadorId : prestadores) {
+            for (int hora = 8; hora < 8 + HORAS; hora++) {
+                Agendamento agendamento = new Agendamento();
+                agendamento.setPetId(pet.getId());
+                agendamento.setServicoId(servico.getId());
+                agendamento.setPrestadorId(prestadorId);
+                agendamento.setData(dia);
+                agendamento.setHoraInicio(LocalTime.of(hora, 0));
+                agendamento.setHoraFim(LocalTime.of(hora + 1, 0));
+                lote.add(agendamento);
+            }
+            if (lote.size() >= 5_000) {
+                agendamentoRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        agendamentoRepository.saveAll(lote);
+
+        long inicio = System.nanoTime();
+        int alterados = transicaoStatusService.executar(
+                ZonedDateTime.of(dia.plusDays(1).atTime(6, 0), ZoneId.of("America/Recife")));
+        long duracao = System.nanoTime() - inicio;
+
+        System.out.printf("[BENCHMARK] transição de status: %d agendamentos em %d ms%n",
+                alterados, TimeUnit.NANOSECONDS.toMillis(duracao));
+
+        assertThat(alterados).isEqualTo(PRESTADORES * HORAS);
+        assertThat(agendamentoRepository.findAll()).allMatch(a -> a.getStatus() == Status.CONCLUIDO);
+    }
+}
@@ -0,0 +1,127 @@
+package com.juliherms.agendamento.pets.agendamento;
+
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi;
+import com.juliherms.agendamento.pets.agendamento.api.AgendamentoApi.Status;
+import com.juliherms.agendamento.pets.agendamento.internal.domain.Agendamento;
+import com.juliherms.agendamento.pets.agendamento.internal.repo.AgendamentoRepository;
+import com.juliherms.agendamento.pets.agendamento.internal.service.TransicaoStatusService;
+import com.juliherms.agendamento.pets.pets.internal.repo.PetRepository;
+import com.juliherms.agendamento.pets.services.internal.repo.OfferedServiceRepository;
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the batched status-transition engine.
+ * A small chunk size forces several set-based UPDATEs and one event per chunk.
+ */
+@SpringBootTest(properties = "agendamento.transicao.tamanho-lote=10")
+@RecordApplicationEvents
+class TransicaoStatusTest {
+
+    // Quarta-feira, 11:30: 09:00-10:00 e 10:00-11:00 já terminaram, 11:00-12:00 está em curso
+    private static final ZonedDateTime AGORA =
+            ZonedDateTime.of(2030, 6, 12, 11, 30, 0, 0, ZoneId.of("America/Recife"));
+
+    @Autowired
+    private TransicaoStatusService transicaoStatusService;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private OfferedServiceRepository servicoRepository;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    private Long petId;
+    private Long servicoId;
+    private List<Long> prestadores;
+
+    @BeforeEach
+    void setUp() {
+        Long tutorId = AgendamentoFixtures.usuario(userRepository, UserApi.Perfil.CLIENTE).getId();
+        petId = AgendamentoFixtures.pet(petRepository, tutorId).getId();
+        prestadores = AgendamentoFixtures.prestadores(userRepository, 3);
+        servicoId = AgendamentoFixtures.servico(servicoRepository, prestadores.get(0)).getId();
+    }
+
+    @Test
+    void shouldAdvancePastAppointmentsInChunksWithOneEventPerChunk() {
+        LocalDate hoje = AGORA.toLocalDate();
+        List<Long> ontem = new ArrayList<>();
+        for (Long prestadorId : prestadores) {
+            for (int hora = 9; hora < 18; hora++) {
+                ontem.add(criar(prestadorId, hoje.minusDays(1), hora, Status.AGENDADO));
+            }
+        }
+        Long prestadorId = prestadores.get(0);
+        Long terminado = criar(prestadorId, hoje, 9, Status.AGENDADO);
+        Long confirmadoTerminado = criar(prestadorId, hoje, 10, Status.CONFIRMADO);
+        Long emCurso = criar(prestadorId, hoje, 11, Status.AGENDADO);
+        Long futuro = criar(prestadorId, hoje, 14, Status.AGENDADO);
+        Long cancelado = criar(prestadorId, hoje, 8, Status.CANCELADO);
+
+        int alterados = transicaoStatusService.executar(AGORA);
+
+        assertThat(alterados).isGreaterThanOrEqualTo(ontem.size() + 3);
+        assertThat(agendamentoRepository.findIdsPorStatus(ontem, Status.CONCLUIDO)).hasSameSizeAs(ontem);
+        assertThat(status(terminado)).isEqualTo(Status.CONCLUIDO);
+        assertThat(status(confirmadoTerminado)).isEqualTo(Status.CONCLUIDO);
+        assertThat(status(emCurso)).isEqualTo(Status.EM_ANDAMENTO);
+        assertThat(status(futuro)).isEqualTo(Status.AGENDADO);
+        assertThat(status(cancelado)).isEqualTo(Status.CANCELADO);
+
+        List<AgendamentoApi.AgendamentosStatusAlteradosEvent> lotes =
+                eventos.stream(AgendamentoApi.AgendamentosStatusAlteradosEvent.class).toList();
+        assertThat(lotes).allSatisfy(lote -> assertThat(lote.agendamentoIds()).isNotEmpty().hasSizeLessThanOrEqualTo(10));
+        assertThat(lotes.stream()
+                .filter(lote -> lote.novoStatus() == Status.CONCLUIDO)
+                .flatMap(lote -> lote.agendamentoIds().stream())
+                .toList())
+                .containsAll(ontem)
+                .contains(terminado, confirmadoTerminado)
+                .doesNotContain(emCurso, futuro, cancelado);
+
+        // Segunda execução no mesmo instante não encontra nada a fazer para estes agendamentos
+        transicaoStatusService.executar(AGORA);
+        assertThat(status(emCurso)).isEqualTo(Status.EM_ANDAMENTO);
+    }
+
+    private Long criar(Long prestadorId, LocalDate data, int hora, Status status) {
+        Agendamento agendamento = new Agendamento();
+        agendamento.setPetId(petId);
+        agendamento.setServicoId(servicoId);
+        agendamento.setPrestadorId(prestadorId);
+        agendamento.setData(data);
+        agendamento.setHoraInicio(LocalTime.of(hora, 0));
+        agendamento.setHoraFim(LocalTime.of(hora + 1, 0));
+        agendamento.setStatus(status);
+        return agendamentoRepository.save(agendamento).getId();
+    }
+
+    private Status status(Long id) {
+        return agendamentoRepository.findById(id).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,104 @@
+package com.juliherms.agendamento.pets.config;
+
+import com.juliherms.agendamento.pets.users.api.UserApi;
+import com.juliherms.agendamento.pets.users.internal.domain.User;
+import com.juliherms.agendamento.pets.users.internal.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the second-level cache of reference entities.
+ * Repeated point reads must be served from the cache, and changes to status-like
+ * fields must evict the cached copy.
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        usuarioId = userRepository.save(usuario()).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedPointReadsFromCache() {
+        userRepository.findById(usuarioId).orElseThrow();
+        long consultas = statistics.getPrepareStatementCount();
+        double acertos = acertosNoCache();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(userRepository.findById(usuarioId)).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(consultas);
+        assertThat(statistics.getCacheRegionStatistics("usuarios").getHitCount()).isEqualTo(5);
+        assertThat(acertosNoCache() - acertos).isEqualTo(5);
+    }
+
+    @Test
+    void shouldEvictOnlyWhenStatusLikeFieldsChange() {
+        userRepository.findById(usuarioId).orElseThrow();
+        assertThat(entityManagerFactory.getCache().contains(User.class, usuarioId)).isTrue();
+
+        atualizar(user -> user.setNome("Outro nome"));
+        assertThat(entityManagerFactory.getCache().contains(User.class, usuarioId)).isTrue();
+
+        atualizar(user -> user.setStatus(UserApi.Status.inativo));
+        assertThat(entityManagerFactory.getCache().contains(User.class, usuarioId)).isFalse();
+        assertThat(userRepository.findById(usuarioId).orElseThrow().getStatus()).isEqualTo(UserApi.Status.inativo);
+    }
+
+    private double acertosNoCache() {
+        return meterRegistry.get("cache.gets")
+                .tag("regiao", "usuarios").tag("result", "hit").functionCounter().count();
+    }
+
+    private void atualizar(java.util.function.Consumer<User> alteracao) {
+        transactionTemplate.executeWithoutResult(tx ->
+                alteracao.accept(userRepository.findById(usuarioId).orElseThrow()));
+    }
+
+    private static User usuario() {
+        User user = new User();
+        user.setNome("Cache");
+        user.setEmail(UUID.randomUUID() + "@cache.dev");
+        user.setTelefone("+5581999999999");
+        user.setEndereco("Rua dos Testes, 1");
+        user.setSenhaHash("hash");
+        user.setPerfil(UserApi.Perfil.CLIENTE);
+        user.setStatus(UserApi.Status.ativo);
+        user.setEmailVerificado(true);
+        user.setTelefoneVerificado(false);
+        return user;
+    }
+}
@@ -0,0 +1,116 @@
+package com.juliherms.agendamento.pets.notifications.internal.service;
+
+import com.juliherms.agendamento.pets.agendamento.api.LembretesApi;
+import com.juliherms.agendamento.pets.verificador.api.EnvioMensagensApi;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LembreteService.
+ * Uses Mockito for the reminder reads and the delivery API.
+ */
+class LembreteServiceTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Recife");
+
+    private LembretesApi lembretesApi;
+    private EnvioMensagensApi envioMensagensApi;
+    private LembreteService lembreteService;
+
+    @BeforeEach
+    void setUp() {
+        lembretesApi = mock(LembretesApi.class);
+        envioMensagensApi = mock(EnvioMensagensApi.class);
+        lembreteService = new LembreteService(lembretesApi, envioMensagensApi,
+                new SimpleMeterRegistry(), true, 48, 200);
+    }
+
+    /**
+     * Test that the startup scan only schedules reminders whose fire time falls in the window.
+     */
+    @Test
+    void shouldLoadOnlyRemindersInsideTheWindow() {
+        // Arrange
+        ZonedDateTime agora = ZonedDateTime.now(ZONA);
+        ZonedDateTime em30h = agora.plusHours(30);
+        ZonedDateTime em3dias = agora.plusDays(3);
+        doAnswer(invocation -> {
+            LembretesApi.Visitante visitante = invocation.getArgument(2);
+            visitante.visitar(1L, em30h.toLocalDate(), em30h.toLocalTime());     // 24h e 1h antes na janela
+            visitante.visitar(2L, em3dias.toLocalDate(), em3dias.toLocalTime()); // fora da janela
+            return null;
+        }).when(lembretesApi).paraCadaAtivo(any(), any(), any());
+
+        // Act
+        int carregados = lembreteService.carregar(agora, agora.plusHours(48));
+
+        // Assert
+        assertThat(carregados).isEqualTo(2);
+        assertThat(lembreteService.pendentes()).isEqualTo(2);
+    }
+
+    /**
+     * Test that cancelling an appointment removes its pending reminders.
+     */
+    @Test
+    void shouldCancelPendingReminders() {
+        // Arrange
+        ZonedDateTime inicio = ZonedDateTime.now(ZONA).plusHours(30);
+        lembreteService.carregar(ZonedDateTime.now(ZONA), ZonedDateTime.now(ZONA).plusHours(48));
+        lembreteService.agendar(5L, inicio.toLocalDate(), inicio.toLocalTime());
+        assertThat(lembreteService.pendentes()).isEqualTo(2);
+
+        // Act
+        lembreteService.cancelar(5L);
+
+        // Assert
+        assertThat(lembreteService.pendentes()).isZero();
+    }
+
+    /**
+     * Test that due reminders are sent in one batch, by e-mail unless only the phone is verified,
+     * and that appointments no longer active are skipped.
+     */
+    @Test
+    void shouldSendDueRemindersInBatches() {
+        // Arrange: lembretes de 1h vencendo nos próximos minutos
+        ZonedDateTime agora = ZonedDateTime.now(ZONA);
+        ZonedDateTime inicio = agora.plusHours(1).plusMinutes(1);
+        lembreteService.carregar(agora, agora.plusHours(48));
+        for (long id = 1; id <= 3; id++) {
+            lembreteService.agendar(id, inicio.toLocalDate(), inicio.toLocalTime());
+        }
+        when(lembretesApi.findDestinos(anyCollection())).thenReturn(List.of(
+                destino(1L, true, false),
+                destino(2L, false, true)));   // 3 foi cancelado no banco
+
+        // Act
+        lembreteService.processar(agora.plusMinutes(3));
+
+        // Assert
+        verify(lembretesApi, times(1)).findDestinos(anyCollection());
+        verify(envioMensagensApi).enviarEmail(eq("1@pets.dev"), anyString(), anyString());
+        verify(envioMensagensApi).enviarSMS(eq("+5581000000002"), anyString());
+        verifyNoMoreInteractions(envioMensagensApi);
+        assertThat(lembreteService.pendentes()).isZero();
+    }
+
+    private LembretesApi.LembreteDestino destino(Long id, boolean emailVerificado, boolean telefoneVerificado) {
+        return new LembretesApi.LembreteDestino(id, LocalDate.now(ZONA), LocalTime.of(10, 0), "Rex",
+                id + "@pets.dev", "+558100000000" + id, emailVerificado, telefoneVerificado);
+    }
+}
@@ -0,0 +1,106 @@
+package com.juliherms.agendamento.pets.notifications.internal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the hashed timing wheel used by the reminder scheduler.
+ */
+class RodaTemporizacaoTest {
+
+    @Test
+    void shouldFireEntriesOnlyWhenTheirTickIsReached() {
+        RodaTemporizacao roda = new RodaTemporizacao(8, 4, 0);
+        roda.agendar(10, 3);
+        roda.agendar(20, 3 + 8);   // mesmo balde, uma volta depois
+        roda.agendar(30, 5);
+
+        assertThat(roda.avancar(2)).isEmpty();
+        assertThat(roda.avancar(3)).containsExactly(10);
+        assertThat(roda.avancar(10)).containsExactly(30);
+        assertThat(roda.avancar(11)).containsExactly(20);
+        assertThat(roda.tamanho()).isZero();
+    }
+
+    @Test
+    void shouldCancelAndRescheduleInPlace() {
+        RodaTemporizacao roda = new RodaTemporizacao(16, 4, 0);
+        roda.agendar(1, 5);
+        roda.agendar(2, 5);
+        roda.agendar(3, 5);
+
+        assertThat(roda.cancelar(2)).isTrue();
+        assertThat(roda.cancelar(2)).isFalse();
+        roda.agendar(3, 9);
+
+        assertThat(roda.avancar(5)).containsExactly(1);
+        assertThat(roda.contem(3)).isTrue();
+        assertThat(roda.avancar(9)).containsExactly(3);
+    }
+
+    @Test
+    void shouldFirePastDueEntriesOnNextAdvance() {
+        RodaTemporizacao roda = new RodaTemporizacao(16, 4, 100);
+        roda.agendar(7, 50);
+
+        assertThat(roda.avancar(101)).containsExactly(7);
+    }
+
+    @Test
+    void shouldVisitEachBucketOnceWhenJumpingMoreThanOneTurn() {
+        RodaTemporizacao roda = new RodaTemporizacao(8, 4, 0);
+        for (long chave = 0; chave < 20; chave++) {
+            roda.agendar(chave, chave + 1);
+        }
+
+        long[] vencidas = roda.avancar(100);
+
+        assertThat(vencidas).hasSize(20);
+        assertThat(Arrays.stream(vencidas).distinct().count()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldMatchReferenceModelUnderRandomOperations() {
+        RodaTemporizacao roda = new RodaTemporizacao(64, 4, 0);
+        Map<Long, Long> modelo = new HashMap<>();
+        Random random = new Random(42);
+        long tick = 0;
+
+        for (int passo = 0; passo < 20_000; passo++) {
+            long chave = random.nextInt(2_000);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    long prazo = tick + 1 + random.nextInt(300);
+                    roda.agendar(chave, prazo);
+                    modelo.put(chave, prazo);
+                }
+                case 2 -> assertThat(roda.cancelar(chave)).isEqualTo(modelo.remove(chave) != null);
+                default -> {
+                    tick += random.nextInt(5);
+                    long ate = tick;
+                    long[] vencidas = roda.avancar(ate);
+                    long[] esperadas = modelo.entrySet().stream()
+                            .filter(e -> e.getValue() <= ate)
+                            .mapToLong(Map.Entry::getKey)
+                            .toArray();
+                    assertThat(vencidas).containsExactlyInAnyOrder(esperadas);
+                    modelo.values().removeIf(prazo -> prazo <= ate);
+                }
+            }
+            assertThat(roda.tamanho()).isEqualTo(modelo.size());
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidConfiguration() {
+        assertThatThrownBy(() -> new RodaTemporizacao(10, 4, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RodaTemporizacao(8, 4, 0).agendar(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}